@@ -12,6 +12,7 @@ package dartproductions.mcleodmassacre;
 import dartproductions.mcleodmassacre.engine.GameEngine;
 import dartproductions.mcleodmassacre.graphics.GraphicsManager;
 import dartproductions.mcleodmassacre.input.InputManager;
+import dartproductions.mcleodmassacre.profiling.ProfilingManager;
 import dartproductions.mcleodmassacre.resources.ResourceManager;
 import dartproductions.mcleodmassacre.resources.plugin.PluginManager;
 import org.apache.logging.log4j.Level;
@@ -22,10 +23,12 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.JOptionPane;
+import java.awt.GraphicsEnvironment;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.lang.management.ManagementFactory;
 import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -73,6 +76,12 @@ public class Main {
 	 * @since 0.1.0
 	 */
 	private static volatile @NotNull GameState GAME_STATE = GameState.LOADING;
+	/**
+	 * True if the game runs without a window, audio or input devices. Defaults to false.
+	 *
+	 * @since 0.1.0
+	 */
+	private static boolean HEADLESS;
 	/**
 	 * The next state of the game; not specified for every state
 	 *
@@ -130,6 +139,16 @@ public class Main {
 		return DEBUG;
 	}
 	
+	/**
+	 * Checks if the app is in headless mode. In headless mode the engine runs at full simulation speed, without a window, audio or input devices; used for match servers and benchmarks.
+	 *
+	 * @return True if headless mode is on
+	 * @since 0.1.0
+	 */
+	public static boolean isHeadless() {
+		return HEADLESS;
+	}
+	
 	/**
 	 * Checks if the game is running
 	 *
@@ -152,7 +171,10 @@ public class Main {
 		if(!isRunning()) {
 			EXECUTORS.shutdown();
 			ResourceManager.saveSettings();
+			ResourceManager.saveHitboxCache();
+			InputManager.stopRecording();//saves the replay of a panic
 			LOGGER.info("Shutting down the global executors");
+			ProfilingManager.stop();//also covers panics
 		}
 	}
 	
@@ -167,6 +189,7 @@ public class Main {
 		loadAppData();
 		ResourceManager.onStateChange(GameState.LOADING, GameState.MAIN_MENU);//synchronous resource loading initially
 		ResourceManager.waitForLoading();
+		ResourceManager.waitForPreprocessing();
 		startGameLoops();
 		setGameState(GameState.LOADING, GameState.MAIN_MENU);
 	}
@@ -178,6 +201,9 @@ public class Main {
 		printSystemDebugInfo();
 		printThreadDump();
 		setRunning(false);
+		if(isHeadless() || GraphicsEnvironment.isHeadless()) {
+			System.exit(1);
+		}
 		JOptionPane.showMessageDialog(null, "Error: " + reason + (reason.endsWith(".") ? "" : ".") + "\nPlease check the logs for more details.", "Error", JOptionPane.ERROR_MESSAGE);
 		System.exit(0);
 	}
@@ -278,6 +304,7 @@ public class Main {
 			if(newGameState.isLoadingState()) {
 				getExecutors().execute(() -> {
 					ResourceManager.onStateChange(newGameState, newNextState);
+					ResourceManager.waitForPreprocessing();//the next state's hitboxes are ready before it is activated
 					GameEngine.scheduleTask(1, () -> setGameState(newNextState, null));
 				});
 			} else {
@@ -359,6 +386,7 @@ public class Main {
 		PluginManager.loadPlugins();
 		ResourceManager.getOptions();
 		ResourceManager.waitForLoading();
+		ResourceManager.registerStatistics();
 	}
 	
 	/**
@@ -372,7 +400,35 @@ public class Main {
 			switch(arg) {
 				case "--debug" -> {
 				}
-				default -> LOGGER.warn("Unrecognised command line argument \"{}\"", arg);
+				case "--profile" -> ProfilingManager.start(ProfilingManager.getDefaultDestination());
+				case "--headless" -> {
+					HEADLESS = true;
+					System.setProperty("java.awt.headless", "true");
+					LOGGER.info("Running in headless mode");
+				}
+				default -> {
+					if(arg.startsWith("--profile=")) {
+						ProfilingManager.start(Path.of(arg.substring("--profile=".length())));
+					} else if(arg.startsWith("--record=")) {
+						InputManager.startRecording(Path.of(arg.substring("--record=".length())));
+					} else if(arg.startsWith("--replay=")) {
+						InputManager.startReplay(Path.of(arg.substring("--replay=".length())));
+					} else if(arg.startsWith("--tick-rate=")) {
+						try {
+							GameEngine.setTickRate(Integer.parseInt(arg.substring("--tick-rate=".length())));
+						} catch(IllegalArgumentException e) {
+							LOGGER.warn("Invalid tick rate \"{}\"", arg);
+						}
+					} else if(arg.startsWith("--frames=")) {
+						try {
+							GameEngine.setFrameLimit(Long.parseLong(arg.substring("--frames=".length())));
+						} catch(NumberFormatException e) {
+							LOGGER.warn("Invalid frame limit \"{}\"", arg);
+						}
+					} else {
+						LOGGER.warn("Unrecognised command line argument \"{}\"", arg);
+					}
+				}
 			}
 		}
 	}
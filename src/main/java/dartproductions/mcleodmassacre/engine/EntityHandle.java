@@ -0,0 +1,89 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.engine;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+
+/**
+ * Handle of an entity registered in an {@link EntityRegistry}. A handle consists of the slot of the entity and the generation of that slot; when the entity is removed, the generation of its slot is increased, so handles of removed entities can be detected as stale even after the slot is reused by another entity.
+ * <p>
+ * Handles are immutable and can be shared between threads.
+ *
+ * @since 0.1.0
+ */
+public final class EntityHandle {
+	/**
+	 * The generation of the slot when the entity was registered
+	 *
+	 * @since 0.1.0
+	 */
+	private final int generation;
+	/**
+	 * The slot of the entity
+	 *
+	 * @since 0.1.0
+	 */
+	private final int index;
+	
+	/**
+	 * Creates a new handle.
+	 *
+	 * @param index      The slot of the entity
+	 * @param generation The generation of the slot
+	 * @since 0.1.0
+	 */
+	EntityHandle(int index, int generation) {
+		this.index = index;
+		this.generation = generation;
+	}
+	
+	/**
+	 * Gets the generation of the handle's slot at the time the {@link Entity} was registered.
+	 *
+	 * @return The generation
+	 * @since 0.1.0
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+	
+	/**
+	 * Gets the slot of the handle's entity.
+	 *
+	 * @return The slot
+	 * @since 0.1.0
+	 */
+	public int getIndex() {
+		return index;
+	}
+	
+	@Override
+	public int hashCode() {
+		return 31 * index + generation;
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) {
+			return true;
+		}
+		if(o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		EntityHandle that = (EntityHandle) o;
+		return index == that.index && generation == that.generation;
+	}
+	
+	@Override
+	public String toString() {
+		return "EntityHandle{index=" + index + ", generation=" + generation + "}";
+	}
+}
@@ -0,0 +1,600 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.engine;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+import dartproductions.mcleodmassacre.entity.PlayerEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Generational slot map of the entities registered in the engine. Every entity gets a slot and an {@link EntityHandle}; removed slots are reused, and their generation is increased so that handles of removed entities are detected as stale.
+ * <p>
+ * The entities are also kept in dense arrays for each category (all, collidable, movable and player entities). Adding or removing an entity is a constant time operation: removal moves the last entity of each affected category into the freed position, so the iteration order of the categories is not stable. The categories of an entity are determined when it is added.
+ * <p>
+ * The registry is not thread-safe; worlds only modify it while holding their entity lock. Its complete state, including the iteration orders, can be {@link #save(State) saved} and {@link #restore(State) restored} for rolling back a simulation.
+ *
+ * @since 0.1.0
+ */
+public class EntityRegistry {
+	/**
+	 * All registered entities
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull DenseList<Entity> all = new DenseList<>();
+	/**
+	 * The registered entities that can collide
+	 *
+	 * @see Entity#hasCollision()
+	 * @since 0.1.0
+	 */
+	protected final @NotNull DenseList<Entity> collidable = new DenseList<>();
+	/**
+	 * The handles of the registered entities
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull IdentityHashMap<Entity, EntityHandle> handles = new IdentityHashMap<>();
+	/**
+	 * The registered entities that can move
+	 *
+	 * @see Entity#isMovable()
+	 * @since 0.1.0
+	 */
+	protected final @NotNull DenseList<Entity> movable = new DenseList<>();
+	/**
+	 * The registered player entities
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull DenseList<PlayerEntity> players = new DenseList<>();
+	/**
+	 * The first free slot, or -1 if there are no free slots below {@link #slotCount}
+	 *
+	 * @since 0.1.0
+	 */
+	protected int freeSlot = -1;
+	/**
+	 * The current generation of each slot
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] generations;
+	/**
+	 * The next free slot after each free slot, forming a linked list starting at {@link #freeSlot}
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] nextFreeSlots;
+	/**
+	 * The amount of slots that were ever used
+	 *
+	 * @since 0.1.0
+	 */
+	protected int slotCount = 0;
+	/**
+	 * The entity in each slot
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull Entity[] slots;
+	
+	/**
+	 * Creates a new registry with a default initial capacity.
+	 *
+	 * @since 0.1.0
+	 */
+	public EntityRegistry() {
+		this(64);
+	}
+	
+	/**
+	 * Creates a new registry.
+	 *
+	 * @param capacity The initial capacity of the registry; the registry grows automatically when needed
+	 * @since 0.1.0
+	 */
+	public EntityRegistry(int capacity) {
+		capacity = Math.max(1, capacity);
+		slots = new Entity[capacity];
+		generations = new int[capacity];
+		nextFreeSlots = new int[capacity];
+	}
+	
+	/**
+	 * Registers an entity.
+	 *
+	 * @param entity The entity to register
+	 * @return The handle of the entity, or null if the entity is already registered
+	 * @since 0.1.0
+	 */
+	public @Nullable EntityHandle add(@NotNull Entity entity) {
+		if(handles.containsKey(entity)) {
+			return null;
+		}
+		int slot;
+		if(freeSlot >= 0) {//reuse a freed slot
+			slot = freeSlot;
+			freeSlot = nextFreeSlots[slot];
+		} else {
+			if(slotCount == slots.length) {
+				grow();
+			}
+			slot = slotCount++;
+		}
+		slots[slot] = entity;
+		EntityHandle handle = new EntityHandle(slot, generations[slot]);
+		handles.put(entity, handle);
+		all.insert(slot, entity);
+		if(entity.hasCollision()) {
+			collidable.insert(slot, entity);
+		}
+		if(entity.isMovable()) {
+			movable.insert(slot, entity);
+		}
+		if(entity instanceof PlayerEntity player) {
+			players.insert(slot, player);
+		}
+		return handle;
+	}
+	
+	/**
+	 * Checks if the entity is registered.
+	 *
+	 * @param entity The entity
+	 * @return True if registered
+	 * @since 0.1.0
+	 */
+	public boolean contains(@NotNull Entity entity) {
+		return handles.containsKey(entity);
+	}
+	
+	/**
+	 * Gets the entity of the handle.
+	 *
+	 * @param handle The handle
+	 * @return The entity, or null if the handle is stale
+	 * @since 0.1.0
+	 */
+	public @Nullable Entity get(@NotNull EntityHandle handle) {
+		return isValid(handle) ? slots[handle.getIndex()] : null;
+	}
+	
+	/**
+	 * Gets all registered entities. The returned list is an unmodifiable view, and is updated when entities are added or removed.
+	 *
+	 * @return The entities
+	 * @since 0.1.0
+	 */
+	public @NotNull List<Entity> getAll() {
+		return all;
+	}
+	
+	/**
+	 * Gets the registered entities that can collide. The returned list is an unmodifiable view, and is updated when entities are added or removed.
+	 *
+	 * @return The collidable entities
+	 * @since 0.1.0
+	 */
+	public @NotNull List<Entity> getCollidable() {
+		return collidable;
+	}
+	
+	/**
+	 * Gets the handle of a registered entity.
+	 *
+	 * @param entity The entity
+	 * @return The handle of the entity, or null if it is not registered
+	 * @since 0.1.0
+	 */
+	public @Nullable EntityHandle getHandle(@NotNull Entity entity) {
+		return handles.get(entity);
+	}
+	
+	/**
+	 * Gets the registered entities that can move. The returned list is an unmodifiable view, and is updated when entities are added or removed.
+	 *
+	 * @return The movable entities
+	 * @since 0.1.0
+	 */
+	public @NotNull List<Entity> getMovable() {
+		return movable;
+	}
+	
+	/**
+	 * Gets the registered player entities. The returned list is an unmodifiable view, and is updated when entities are added or removed.
+	 *
+	 * @return The players
+	 * @since 0.1.0
+	 */
+	public @NotNull List<PlayerEntity> getPlayers() {
+		return players;
+	}
+	
+	/**
+	 * Checks if the handle still refers to a registered entity.
+	 *
+	 * @param handle The handle
+	 * @return False if the handle is stale
+	 * @since 0.1.0
+	 */
+	public boolean isValid(@NotNull EntityHandle handle) {
+		int slot = handle.getIndex();
+		return slot >= 0 && slot < slotCount && slots[slot] != null && generations[slot] == handle.getGeneration();
+	}
+	
+	/**
+	 * Removes the entity of the handle. Fails silently if the handle is stale.
+	 *
+	 * @param handle The handle of the entity
+	 * @return True if the entity was removed
+	 * @since 0.1.0
+	 */
+	public boolean remove(@NotNull EntityHandle handle) {
+		if(!isValid(handle)) {
+			return false;
+		}
+		removeSlot(handle.getIndex());
+		return true;
+	}
+	
+	/**
+	 * Removes a registered entity. Fails silently if the entity is not registered.
+	 *
+	 * @param entity The entity
+	 * @return True if the entity was removed
+	 * @since 0.1.0
+	 */
+	public boolean remove(@NotNull Entity entity) {
+		EntityHandle handle = handles.get(entity);
+		return handle != null && remove(handle);
+	}
+	
+	/**
+	 * Restores the state saved by {@link #save(State)}: the registered entities, their handles and the iteration order of every category. Entities registered since then are removed, and entities removed since then are registered again with their saved handles.
+	 *
+	 * @param state The saved state
+	 * @since 0.1.0
+	 */
+	public void restore(@NotNull State state) {
+		while(slots.length < state.slotCount) {
+			grow();
+		}
+		System.arraycopy(state.slots, 0, slots, 0, state.slotCount);
+		System.arraycopy(state.generations, 0, generations, 0, state.slotCount);
+		System.arraycopy(state.nextFreeSlots, 0, nextFreeSlots, 0, state.slotCount);
+		for(int slot = state.slotCount; slot < slotCount; slot++) {//slots first used after the save
+			slots[slot] = null;
+			generations[slot]++;
+		}
+		slotCount = state.slotCount;
+		freeSlot = state.freeSlot;
+		handles.clear();
+		for(int slot = 0; slot < slotCount; slot++) {
+			if(slots[slot] != null) {
+				handles.put(slots[slot], new EntityHandle(slot, generations[slot]));
+			}
+		}
+		all.restore(state.all);
+		collidable.restore(state.collidable);
+		movable.restore(state.movable);
+		players.restore(state.players);
+	}
+	
+	/**
+	 * Saves the state of the registry, so it can be {@link #restore(State) restored} later. The entities themselves are not copied.
+	 *
+	 * @param state The state to overwrite; its arrays are reused
+	 * @since 0.1.0
+	 */
+	public void save(@NotNull State state) {
+		if(state.slots.length < slotCount) {
+			state.slots = new Entity[slots.length];
+			state.generations = new int[slots.length];
+			state.nextFreeSlots = new int[slots.length];
+		} else if(slotCount < state.slotCount) {//don't keep removed entities alive
+			Arrays.fill(state.slots, slotCount, state.slotCount, null);
+		}
+		System.arraycopy(slots, 0, state.slots, 0, slotCount);
+		System.arraycopy(generations, 0, state.generations, 0, slotCount);
+		System.arraycopy(nextFreeSlots, 0, state.nextFreeSlots, 0, slotCount);
+		state.slotCount = slotCount;
+		state.freeSlot = freeSlot;
+		all.save(state.all);
+		collidable.save(state.collidable);
+		movable.save(state.movable);
+		players.save(state.players);
+	}
+	
+	/**
+	 * Gets the amount of registered entities.
+	 *
+	 * @return The amount of entities
+	 * @since 0.1.0
+	 */
+	public int size() {
+		return all.size();
+	}
+	
+	/**
+	 * Grows the slot arrays of the registry.
+	 *
+	 * @since 0.1.0
+	 */
+	protected void grow() {
+		int capacity = slots.length * 2;
+		slots = Arrays.copyOf(slots, capacity);
+		generations = Arrays.copyOf(generations, capacity);
+		nextFreeSlots = Arrays.copyOf(nextFreeSlots, capacity);
+	}
+	
+	/**
+	 * Removes the entity in the slot from every category and frees the slot.
+	 *
+	 * @param slot The slot
+	 * @since 0.1.0
+	 */
+	protected void removeSlot(int slot) {
+		handles.remove(slots[slot]);
+		all.erase(slot);
+		collidable.erase(slot);
+		movable.erase(slot);
+		players.erase(slot);
+		slots[slot] = null;
+		generations[slot]++;//invalidates existing handles
+		nextFreeSlots[slot] = freeSlot;
+		freeSlot = slot;
+	}
+	
+	/**
+	 * Dense, unmodifiable list of the entities of a category. Keeps track of the position of each slot's entity, so entities can be removed in constant time by moving the last entity into their place.
+	 *
+	 * @param <T> The type of the entities
+	 * @since 0.1.0
+	 */
+	protected static class DenseList<T extends Entity> extends AbstractList<T> implements RandomAccess {
+		/**
+		 * The entities of the category
+		 *
+		 * @since 0.1.0
+		 */
+		protected @NotNull Object[] elements = new Object[16];
+		/**
+		 * The position of each slot's entity in {@link #elements}, or -1 if the entity is not in this category
+		 *
+		 * @since 0.1.0
+		 */
+		protected @NotNull int[] positions = new int[0];
+		/**
+		 * The amount of entities in the category
+		 *
+		 * @since 0.1.0
+		 */
+		protected int size = 0;
+		/**
+		 * The slot of each entity in {@link #elements}
+		 *
+		 * @since 0.1.0
+		 */
+		protected @NotNull int[] slotsOfElements = new int[16];
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		public @NotNull T get(int index) {
+			Objects.checkIndex(index, size);
+			return (T) elements[index];
+		}
+		
+		@Override
+		public int size() {
+			return size;
+		}
+		
+		/**
+		 * Removes the entity of the slot from the category. Fails silently if the entity is not in the category.
+		 *
+		 * @param slot The slot of the entity
+		 * @since 0.1.0
+		 */
+		protected void erase(int slot) {
+			if(slot >= positions.length || positions[slot] < 0) {
+				return;
+			}
+			int position = positions[slot];
+			int last = --size;
+			if(position != last) {//move the last entity into the free position
+				elements[position] = elements[last];
+				slotsOfElements[position] = slotsOfElements[last];
+				positions[slotsOfElements[position]] = position;
+			}
+			elements[last] = null;
+			positions[slot] = -1;
+			modCount++;
+		}
+		
+		/**
+		 * Restores the order saved by {@link #save(Category)}.
+		 *
+		 * @param category The saved category
+		 * @since 0.1.0
+		 */
+		protected void restore(@NotNull Category category) {
+			if(elements.length < category.size) {
+				elements = new Object[category.elements.length];
+				slotsOfElements = new int[category.elements.length];
+			} else if(category.size < size) {
+				Arrays.fill(elements, category.size, size, null);
+			}
+			System.arraycopy(category.elements, 0, elements, 0, category.size);
+			System.arraycopy(category.slotsOfElements, 0, slotsOfElements, 0, category.size);
+			size = category.size;
+			Arrays.fill(positions, -1);
+			for(int i = 0; i < size; i++) {
+				if(slotsOfElements[i] >= positions.length) {
+					int length = positions.length;
+					positions = Arrays.copyOf(positions, Math.max(slotsOfElements[i] + 1, length * 2));
+					Arrays.fill(positions, length, positions.length, -1);
+				}
+				positions[slotsOfElements[i]] = i;
+			}
+			modCount++;
+		}
+		
+		/**
+		 * Saves the entities of the category in their current order.
+		 *
+		 * @param category The saved category to overwrite; its arrays are reused
+		 * @since 0.1.0
+		 */
+		protected void save(@NotNull Category category) {
+			if(category.elements.length < size) {
+				category.elements = new Object[elements.length];
+				category.slotsOfElements = new int[elements.length];
+			} else if(size < category.size) {
+				Arrays.fill(category.elements, size, category.size, null);
+			}
+			System.arraycopy(elements, 0, category.elements, 0, size);
+			System.arraycopy(slotsOfElements, 0, category.slotsOfElements, 0, size);
+			category.size = size;
+		}
+		
+		/**
+		 * Adds the entity of the slot to the category.
+		 *
+		 * @param slot   The slot of the entity
+		 * @param entity The entity
+		 * @since 0.1.0
+		 */
+		protected void insert(int slot, @NotNull T entity) {
+			if(slot >= positions.length) {
+				int length = positions.length;
+				positions = Arrays.copyOf(positions, Math.max(slot + 1, length * 2));
+				Arrays.fill(positions, length, positions.length, -1);
+			}
+			if(size == elements.length) {
+				elements = Arrays.copyOf(elements, size * 2);
+				slotsOfElements = Arrays.copyOf(slotsOfElements, size * 2);
+			}
+			elements[size] = entity;
+			slotsOfElements[size] = slot;
+			positions[slot] = size++;
+			modCount++;
+		}
+	}
+	
+	/**
+	 * The saved state of a {@link DenseList category}.
+	 *
+	 * @since 0.1.0
+	 */
+	protected static class Category {
+		/**
+		 * The entities of the category, in iteration order
+		 *
+		 * @since 0.1.0
+		 */
+		protected @NotNull Object[] elements = new Object[16];
+		/**
+		 * The amount of entities in the category
+		 *
+		 * @since 0.1.0
+		 */
+		protected int size;
+		/**
+		 * The slot of each entity in {@link #elements}
+		 *
+		 * @since 0.1.0
+		 */
+		protected @NotNull int[] slotsOfElements = new int[16];
+	}
+	
+	/**
+	 * The saved state of a registry, reused between saves.
+	 *
+	 * @see #save(State)
+	 * @see #restore(State)
+	 * @since 0.1.0
+	 */
+	public static class State {
+		/**
+		 * The order of all entities
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull Category all = new Category();
+		/**
+		 * The order of the collidable entities
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull Category collidable = new Category();
+		/**
+		 * The order of the movable entities
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull Category movable = new Category();
+		/**
+		 * The order of the players
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull Category players = new Category();
+		/**
+		 * The first free slot, or -1 if there are none
+		 *
+		 * @since 0.1.0
+		 */
+		protected int freeSlot = -1;
+		/**
+		 * The generation of each slot
+		 *
+		 * @since 0.1.0
+		 */
+		protected @NotNull int[] generations = new int[16];
+		/**
+		 * The next free slot after each free slot
+		 *
+		 * @since 0.1.0
+		 */
+		protected @NotNull int[] nextFreeSlots = new int[16];
+		/**
+		 * The amount of used slots
+		 *
+		 * @since 0.1.0
+		 */
+		protected int slotCount;
+		/**
+		 * The entity of each slot
+		 *
+		 * @since 0.1.0
+		 */
+		protected @NotNull Entity[] slots = new Entity[16];
+		
+		/**
+		 * Gets the amount of saved entities.
+		 *
+		 * @return The amount of entities
+		 * @since 0.1.0
+		 */
+		public int size() {
+			return all.size;
+		}
+	}
+}
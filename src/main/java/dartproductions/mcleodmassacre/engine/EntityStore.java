@@ -0,0 +1,461 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+import dartproductions.mcleodmassacre.entity.StoredEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays storage for the physics state of {@link StoredEntity stored entities}. The position, velocity, gravity, deceleration and speed limits of every entity are kept in primitive arrays indexed by the entity's slot, and {@link #integrate()} moves all stored entities in a single loop, without calling any of the entities' methods.
+ * <p>
+ * The arrays are the only copy of the state while an entity is stored: the getters and setters of the entity read and write its slot, and the state is copied back into the entity when it is removed. The slots are dense: removing an entity moves the last entity into its slot.
+ * <p>
+ * The store is not thread-safe; it is only used from the engine thread.
+ *
+ * @since 0.1.0
+ */
+public class EntityStore {
+	/**
+	 * The stored entities
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull StoredEntity[] entities;
+	/**
+	 * The x coordinates of the entities
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] x;
+	/**
+	 * The y coordinates of the entities
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] y;
+	/**
+	 * The horizontal velocities of the entities
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] velocityX;
+	/**
+	 * The vertical velocities of the entities
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] velocityY;
+	/**
+	 * The gravity of the entities
+	 *
+	 * @see Entity#getGravity()
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] gravity;
+	/**
+	 * The horizontal deceleration of the entities
+	 *
+	 * @see Entity#getDecelerationX()
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] decelerationX;
+	/**
+	 * The vertical deceleration of the entities
+	 *
+	 * @see Entity#getDecelerationY()
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] decelerationY;
+	/**
+	 * The horizontal speed limits of the entities
+	 *
+	 * @see Entity#getMaxSpeedX()
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] maxSpeedX;
+	/**
+	 * The vertical speed limits of the entities
+	 *
+	 * @see Entity#getMaxSpeedY()
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] maxSpeedY;
+	/**
+	 * The amount of stored entities
+	 *
+	 * @since 0.1.0
+	 */
+	protected int size = 0;
+	
+	/**
+	 * Creates a new store with a default initial capacity.
+	 *
+	 * @since 0.1.0
+	 */
+	public EntityStore() {
+		this(64);
+	}
+	
+	/**
+	 * Creates a new store.
+	 *
+	 * @param capacity The initial capacity of the store; the store grows automatically when needed
+	 * @since 0.1.0
+	 */
+	public EntityStore(int capacity) {
+		capacity = Math.max(1, capacity);
+		entities = new StoredEntity[capacity];
+		x = new int[capacity];
+		y = new int[capacity];
+		velocityX = new int[capacity];
+		velocityY = new int[capacity];
+		gravity = new int[capacity];
+		decelerationX = new int[capacity];
+		decelerationY = new int[capacity];
+		maxSpeedX = new int[capacity];
+		maxSpeedY = new int[capacity];
+	}
+	
+	/**
+	 * Adds an entity to the store, copying its physics state into the arrays. Fails silently if the entity is already stored somewhere.
+	 *
+	 * @param entity The entity to add
+	 * @since 0.1.0
+	 */
+	public void add(@NotNull StoredEntity entity) {
+		if(entity.getStore() != null) {
+			return;
+		}
+		if(size == entities.length) {
+			grow();
+		}
+		int slot = size++;
+		entities[slot] = entity;
+		x[slot] = entity.getLocation().x;
+		y[slot] = entity.getLocation().y;
+		velocityX[slot] = entity.getVelocity().width;
+		velocityY[slot] = entity.getVelocity().height;
+		gravity[slot] = entity.getGravity();
+		decelerationX[slot] = entity.getDecelerationX();
+		decelerationY[slot] = entity.getDecelerationY();
+		maxSpeedX[slot] = entity.getMaxSpeedX();
+		maxSpeedY[slot] = entity.getMaxSpeedY();
+		entity.setStore(this, slot);
+	}
+	
+	/**
+	 * Gets the horizontal deceleration of the entity in the specified slot.
+	 *
+	 * @param slot The slot
+	 * @return The deceleration
+	 * @since 0.1.0
+	 */
+	public int getDecelerationX(int slot) {
+		return decelerationX[slot];
+	}
+	
+	/**
+	 * Gets the vertical deceleration of the entity in the specified slot.
+	 *
+	 * @param slot The slot
+	 * @return The deceleration
+	 * @since 0.1.0
+	 */
+	public int getDecelerationY(int slot) {
+		return decelerationY[slot];
+	}
+	
+	/**
+	 * Gets the entity in the specified slot.
+	 *
+	 * @param slot The slot
+	 * @return The entity or null if the slot is empty
+	 * @since 0.1.0
+	 */
+	public @Nullable StoredEntity getEntity(int slot) {
+		return slot < size ? entities[slot] : null;
+	}
+	
+	/**
+	 * Gets the gravity of the entity in the specified slot.
+	 *
+	 * @param slot The slot
+	 * @return The gravity
+	 * @since 0.1.0
+	 */
+	public int getGravity(int slot) {
+		return gravity[slot];
+	}
+	
+	/**
+	 * Gets the horizontal speed limit of the entity in the specified slot.
+	 *
+	 * @param slot The slot
+	 * @return The speed limit
+	 * @since 0.1.0
+	 */
+	public int getMaxSpeedX(int slot) {
+		return maxSpeedX[slot];
+	}
+	
+	/**
+	 * Gets the vertical speed limit of the entity in the specified slot.
+	 *
+	 * @param slot The slot
+	 * @return The speed limit
+	 * @since 0.1.0
+	 */
+	public int getMaxSpeedY(int slot) {
+		return maxSpeedY[slot];
+	}
+	
+	/**
+	 * Gets the horizontal velocity of the entity in the specified slot.
+	 *
+	 * @param slot The slot
+	 * @return The velocity
+	 * @since 0.1.0
+	 */
+	public int getVelocityX(int slot) {
+		return velocityX[slot];
+	}
+	
+	/**
+	 * Gets the vertical velocity of the entity in the specified slot.
+	 *
+	 * @param slot The slot
+	 * @return The velocity
+	 * @since 0.1.0
+	 */
+	public int getVelocityY(int slot) {
+		return velocityY[slot];
+	}
+	
+	/**
+	 * Gets the x coordinate of the entity in the specified slot.
+	 *
+	 * @param slot The slot
+	 * @return The x coordinate
+	 * @since 0.1.0
+	 */
+	public int getX(int slot) {
+		return x[slot];
+	}
+	
+	/**
+	 * Gets the y coordinate of the entity in the specified slot.
+	 *
+	 * @param slot The slot
+	 * @return The y coordinate
+	 * @since 0.1.0
+	 */
+	public int getY(int slot) {
+		return y[slot];
+	}
+	
+	/**
+	 * Moves all stored entities by one frame. This is the equivalent of calling {@link Entity#move()} on each of them, but works directly on the stored arrays.
+	 *
+	 * @since 0.1.0
+	 */
+	public void integrate() {
+		integrate(0, size);
+	}
+	
+	/**
+	 * Moves the entities in the specified slots by one frame. Distinct slot ranges can be integrated concurrently, as long as no entities are added or removed in the meantime.
+	 *
+	 * @param from The first slot (inclusive)
+	 * @param to   The last slot (exclusive)
+	 * @see #integrate()
+	 * @since 0.1.0
+	 */
+	public void integrate(int from, int to) {
+		step(from, Math.min(to, size));
+	}
+	
+	/**
+	 * Removes an entity from the store, copying its physics state back into the entity. Fails silently if the entity is not in this store.
+	 *
+	 * @param entity The entity to remove
+	 * @since 0.1.0
+	 */
+	public void remove(@NotNull StoredEntity entity) {
+		if(entity.getStore() != this) {
+			return;
+		}
+		int slot = entity.getSlot();
+		int last = --size;
+		entity.setStore(null, -1);//copies the state of the slot before it is overwritten
+		if(slot != last) {//move the last entity into the free slot
+			entities[slot] = entities[last];
+			x[slot] = x[last];
+			y[slot] = y[last];
+			velocityX[slot] = velocityX[last];
+			velocityY[slot] = velocityY[last];
+			gravity[slot] = gravity[last];
+			decelerationX[slot] = decelerationX[last];
+			decelerationY[slot] = decelerationY[last];
+			maxSpeedX[slot] = maxSpeedX[last];
+			maxSpeedY[slot] = maxSpeedY[last];
+			entities[slot].setStore(this, slot);
+		}
+		entities[last] = null;
+	}
+	
+	/**
+	 * Sets the horizontal deceleration of the entity in the specified slot.
+	 *
+	 * @param slot          The slot
+	 * @param decelerationX The new deceleration
+	 * @since 0.1.0
+	 */
+	public void setDecelerationX(int slot, int decelerationX) {
+		this.decelerationX[slot] = decelerationX;
+	}
+	
+	/**
+	 * Sets the vertical deceleration of the entity in the specified slot.
+	 *
+	 * @param slot          The slot
+	 * @param decelerationY The new deceleration
+	 * @since 0.1.0
+	 */
+	public void setDecelerationY(int slot, int decelerationY) {
+		this.decelerationY[slot] = decelerationY;
+	}
+	
+	/**
+	 * Sets the gravity of the entity in the specified slot.
+	 *
+	 * @param slot    The slot
+	 * @param gravity The new gravity
+	 * @since 0.1.0
+	 */
+	public void setGravity(int slot, int gravity) {
+		this.gravity[slot] = gravity;
+	}
+	
+	/**
+	 * Sets the location of the entity in the specified slot.
+	 *
+	 * @param slot The slot
+	 * @param x    The new x coordinate
+	 * @param y    The new y coordinate
+	 * @since 0.1.0
+	 */
+	public void setLocation(int slot, int x, int y) {
+		this.x[slot] = x;
+		this.y[slot] = y;
+	}
+	
+	/**
+	 * Sets the horizontal speed limit of the entity in the specified slot.
+	 *
+	 * @param slot      The slot
+	 * @param maxSpeedX The new speed limit
+	 * @since 0.1.0
+	 */
+	public void setMaxSpeedX(int slot, int maxSpeedX) {
+		this.maxSpeedX[slot] = maxSpeedX;
+	}
+	
+	/**
+	 * Sets the vertical speed limit of the entity in the specified slot.
+	 *
+	 * @param slot      The slot
+	 * @param maxSpeedY The new speed limit
+	 * @since 0.1.0
+	 */
+	public void setMaxSpeedY(int slot, int maxSpeedY) {
+		this.maxSpeedY[slot] = maxSpeedY;
+	}
+	
+	/**
+	 * Sets the velocity of the entity in the specified slot.
+	 *
+	 * @param slot      The slot
+	 * @param velocityX The new horizontal velocity
+	 * @param velocityY The new vertical velocity
+	 * @since 0.1.0
+	 */
+	public void setVelocity(int slot, int velocityX, int velocityY) {
+		this.velocityX[slot] = velocityX;
+		this.velocityY[slot] = velocityY;
+	}
+	
+	/**
+	 * Gets the amount of stored entities.
+	 *
+	 * @return The amount of entities
+	 * @since 0.1.0
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Grows the arrays of the store.
+	 *
+	 * @since 0.1.0
+	 */
+	protected void grow() {
+		int capacity = entities.length * 2;
+		entities = Arrays.copyOf(entities, capacity);
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		velocityX = Arrays.copyOf(velocityX, capacity);
+		velocityY = Arrays.copyOf(velocityY, capacity);
+		gravity = Arrays.copyOf(gravity, capacity);
+		decelerationX = Arrays.copyOf(decelerationX, capacity);
+		decelerationY = Arrays.copyOf(decelerationY, capacity);
+		maxSpeedX = Arrays.copyOf(maxSpeedX, capacity);
+		maxSpeedY = Arrays.copyOf(maxSpeedY, capacity);
+	}
+	
+	/**
+	 * Moves the entities in the specified slots by one frame. Follows the same rules as {@link Entity#move()}.
+	 *
+	 * @param from The first slot (inclusive)
+	 * @param to   The last slot (exclusive)
+	 * @since 0.1.0
+	 */
+	protected void step(int from, int to) {
+		int[] x = this.x, y = this.y, velocityX = this.velocityX, velocityY = this.velocityY;
+		for(int i = from; i < to; i++) {
+			int vx = velocityX[i];
+			int vy = velocityY[i] + gravity[i];//gravity
+			if(vx > 0) {//deceleration
+				vx = Math.max(0, vx - decelerationX[i]);
+			} else if(vx < 0) {
+				vx = Math.min(0, vx + decelerationX[i]);
+			}
+			if(vy > 0) {
+				vy = Math.max(0, vy - decelerationY[i]);
+			} else if(vy < 0) {
+				vy = Math.min(0, vy + decelerationY[i]);
+			}
+			if(maxSpeedX[i] > Math.abs(vx)) {//speed limit, same as Entity#move()
+				vx = (vx < 0 ? -1 : 1) * maxSpeedX[i];
+			}
+			if(maxSpeedY[i] > Math.abs(vy)) {
+				vy = (vy < 0 ? -1 : 1) * maxSpeedY[i];
+			}
+			velocityX[i] = vx;
+			velocityY[i] = vy;
+			x[i] += vx;
+			y[i] += vy;
+		}
+	}
+}
@@ -11,6 +11,11 @@ package dartproductions.mcleodmassacre.engine;
 
 import dartproductions.mcleodmassacre.GameState;
 import dartproductions.mcleodmassacre.Main;
+import dartproductions.mcleodmassacre.engine.collision.BroadPhase;
+import dartproductions.mcleodmassacre.engine.profiling.FrameProfiler;
+import dartproductions.mcleodmassacre.engine.task.ScheduledTask;
+import dartproductions.mcleodmassacre.engine.timing.FrameScheduler;
+import dartproductions.mcleodmassacre.engine.timing.FrameStatistics;
 import dartproductions.mcleodmassacre.entity.Entity;
 import dartproductions.mcleodmassacre.entity.PlayerEntity;
 import dartproductions.mcleodmassacre.graphics.GraphicsManager;
@@ -18,24 +23,26 @@ import dartproductions.mcleodmassacre.graphics.RenderingLayer;
 import dartproductions.mcleodmassacre.input.InputManager;
 import dartproductions.mcleodmassacre.input.InputManager.ActionType;
 import dartproductions.mcleodmassacre.input.InputManager.InputAction;
+import dartproductions.mcleodmassacre.options.CollisionDetectionOption;
+import dartproductions.mcleodmassacre.options.FrameSchedulerOption;
+import dartproductions.mcleodmassacre.options.Option;
+import dartproductions.mcleodmassacre.options.Options.StandardOptions;
+import dartproductions.mcleodmassacre.profiling.FrameEvent;
 import dartproductions.mcleodmassacre.resources.ResourceManager;
 import dartproductions.mcleodmassacre.sound.SoundManager;
-import dartproductions.mcleodmassacre.util.Pair.ImmutablePair.ImmutableNullsafePair;
 import net.java.games.input.Event;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.awt.Dimension;
 import java.awt.Point;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
 import java.util.ArrayList;
-import java.util.Iterator;
 
 /**
- * Class handling most of the stuff related to game mechanics and physics. Also responsible for scheduling user input and graphics updates.
+ * Class handling most of the stuff related to game mechanics and physics. Also responsible for scheduling user input and graphics updates. The simulation itself is done by the {@link #getMainWorld() main world}; the static entity and task methods operate on the {@link #getWorld() current world}, so entities work the same in every {@link World}.
  *
  * @since 0.1.0
  */
@@ -46,12 +53,6 @@ public class GameEngine {
 	 * @since 0.1.0
 	 */
 	protected static final Logger LOGGER = LogManager.getLogger(GameEngine.class);
-	/**
-	 * Lock object for the engine's scheduled tasks.
-	 *
-	 * @since 0.1.0
-	 */
-	public static final @NotNull Object ENGINE_TASK_LOCK = new Object();
 	/**
 	 * Lock object for suspending the engine. Used in timing frames and pausing.
 	 *
@@ -65,107 +66,320 @@ public class GameEngine {
 	 */
 	public static final @NotNull Object ENTITY_LOCK = new Object();
 	/**
-	 * The delay between two frames (in milliseconds).
+	 * The default delay between two frames (in nanoseconds), used unless a different {@link #setTickRate(int) tick rate} is configured. Equal to 30 milliseconds. This is also the length of a physics step: velocities, gravity, deceleration and speed limits are measured per default frame, whatever the tick rate is.
+	 *
+	 * @since 0.1.0
+	 */
+	public static final long DEFAULT_FRAME_LENGTH_NANO = 30L * 1000 * 1000;
+	/**
+	 * Frame pacing statistics of the engine thread
+	 *
+	 * @since 0.1.0
+	 */
+	protected static final @NotNull FrameStatistics FRAME_STATISTICS = new FrameStatistics();
+	/**
+	 * The main world of the game, simulated by the engine thread
+	 *
+	 * @since 0.1.0
+	 */
+	protected static final @NotNull World WORLD = new World("main", ENTITY_LOCK, ENGINE_WAIT_LOCK);
+	/**
+	 * The main engine thread
+	 *
+	 * @since 0.1.0
+	 */
+	public static @Nullable Thread ENGINE_THREAD;
+	/**
+	 * Time since the previous frame
+	 *
+	 * @since 0.1.0
+	 */
+	private static long delta = 0;
+	/**
+	 * The amount of frames to run before shutting down in headless mode, or 0 for no limit
 	 *
 	 * @since 0.1.0
 	 */
-	public static final int FRAME_LENGTH = 30;
+	private static volatile long frameLimit = 0;
+	/**
+	 * The scheduler used for waiting between frames
+	 *
+	 * @since 0.1.0
+	 */
+	private static volatile @NotNull FrameScheduler frameScheduler = FrameScheduler.create(FrameSchedulerOption.PARK_AND_SPIN);
 	/**
 	 * The delay between two frames (in nanoseconds)
 	 *
+	 * @see #setTickRate(int)
 	 * @since 0.1.0
 	 */
-	public static final int FRAME_LENGTH_NANO = FRAME_LENGTH * 1000 * 1000;
+	protected static volatile long frameLength = DEFAULT_FRAME_LENGTH_NANO;
 	/**
-	 * List of all entities that can collide.
+	 * The time when the previous frame started
 	 *
 	 * @since 0.1.0
 	 */
-	protected static final @NotNull ArrayList<Entity> COLLIDABLE_ENTITIES = new ArrayList<>();
+	private static long previous = 0;
+	
 	/**
-	 * List of delayed engine tasks
+	 * Configures the collision detection strategy of the engine based on the game's settings. Uses {@link CollisionDetectionOption#SPATIAL_HASH} if the setting is missing.
 	 *
 	 * @since 0.1.0
 	 */
-	protected static final @NotNull ArrayList<ImmutableNullsafePair<Long, Runnable>> DELAYED_TASKS = new ArrayList<>();
+	public static void configureCollisionDetection() {
+		CollisionDetectionOption strategy = getEnumSetting(StandardOptions.COLLISION_DETECTION, CollisionDetectionOption.SPATIAL_HASH);
+		setBroadPhase(BroadPhase.create(strategy));
+		LOGGER.info("Using collision detection strategy " + strategy);
+	}
+	
 	/**
-	 * List of all existing entities
+	 * Configures the entity update phase of the engine based on the game's settings. The update is sequential if the setting is missing or is less than 2.
 	 *
 	 * @since 0.1.0
 	 */
-	protected static final @NotNull ArrayList<Entity> ENTITIES = new ArrayList<>();
+	public static void configureEntityUpdates() {
+		int threads = getIntSetting(StandardOptions.ENTITY_UPDATE_THREADS, 1);
+		setUpdater(new ParallelUpdater(threads));
+		LOGGER.info("Using " + Math.max(1, threads) + " thread(s) for entity updates");
+	}
+	
 	/**
-	 * List of entities to be added in the next frame
+	 * Configures the frame scheduler of the engine based on the game's settings. Uses {@link FrameSchedulerOption#PARK_AND_SPIN} if the setting is missing.
 	 *
 	 * @since 0.1.0
 	 */
-	protected static final @NotNull ArrayList<Entity> ENTITIES_TO_ADD = new ArrayList<>();
+	public static void configureFrameScheduler() {
+		FrameSchedulerOption strategy = getEnumSetting(StandardOptions.FRAME_SCHEDULER, FrameSchedulerOption.PARK_AND_SPIN);
+		setFrameScheduler(FrameScheduler.create(strategy));
+		LOGGER.info("Using frame scheduler " + strategy);
+	}
+	
 	/**
-	 * List of entities to be removed in the next frame
+	 * Gets the broad phase used in collision detection by the main world.
 	 *
+	 * @return The broad phase
 	 * @since 0.1.0
 	 */
-	protected static final @NotNull ArrayList<Entity> ENTITIES_TO_REMOVE = new ArrayList<>();
+	public static @NotNull BroadPhase getBroadPhase() {
+		return WORLD.getBroadPhase();
+	}
+	
 	/**
-	 * List of all entities that can move. Being part of the list does not mean the entity can be moved by collisions, or that it will move at any time.
+	 * Gets the entity referred to by the handle in the {@link #getWorld() current world}. Can be called from any thread.
 	 *
+	 * @param handle The handle of the entity
+	 * @return The entity, or null if it has been removed from the engine
 	 * @since 0.1.0
 	 */
-	protected static final @NotNull ArrayList<Entity> MOVABLE_ENTITIES = new ArrayList<>();
+	public static @Nullable Entity getEntity(@NotNull EntityHandle handle) {
+		return getWorld().getEntity(handle);
+	}
+	
 	/**
-	 * List of player entities
+	 * Gets the delay between two frames (in milliseconds).
 	 *
+	 * @return The length of a frame
+	 * @see #setTickRate(int)
 	 * @since 0.1.0
 	 */
-	protected static final @NotNull ArrayList<PlayerEntity> PLAYERS = new ArrayList<>();
+	public static double getFrameLength() {
+		return frameLength / 1e6;
+	}
+	
 	/**
-	 * The main engine thread
+	 * Gets the delay between two frames (in nanoseconds).
 	 *
+	 * @return The length of a frame
+	 * @see #setTickRate(int)
 	 * @since 0.1.0
 	 */
-	public static @Nullable Thread ENGINE_THREAD;
+	public static long getFrameLengthNano() {
+		return frameLength;
+	}
+	
 	/**
-	 * Time since the previous frame
+	 * Gets the frame pacing statistics of the engine thread.
 	 *
+	 * @return The statistics
 	 * @since 0.1.0
 	 */
-	private static long delta = 0;
+	public static @NotNull FrameStatistics getFrameStatistics() {
+		return FRAME_STATISTICS;
+	}
+	
 	/**
-	 * The current 'frame' of the engine. The {@link #processFrame()} method is called exactly once in every frame.
+	 * Gets the handle of an entity in the {@link #getWorld() current world}. Entities only get a handle when they are actually added to the engine, at the start of the frame after their registration. Can be called from any thread.
 	 *
+	 * @param e The entity
+	 * @return The handle of the entity, or null if it is not in the engine
 	 * @since 0.1.0
 	 */
-	private static volatile long frame = 0;
+	public static @Nullable EntityHandle getHandle(@NotNull Entity e) {
+		return getWorld().getHandle(e);
+	}
+	
 	/**
-	 * The time when the previous frame started
+	 * Gets the main world of the game, which is simulated by the engine thread.
 	 *
+	 * @return The main world
 	 * @since 0.1.0
 	 */
-	private static long previous = 0;
+	public static @NotNull World getMainWorld() {
+		return WORLD;
+	}
+	
+	/**
+	 * Gets the amount of physics steps to run in a frame. The physics of the entities always advance in steps of the {@link #DEFAULT_FRAME_LENGTH_NANO default frame length}, so at a higher tick rate some frames have no step, and at a lower one some frames have several. The steps only depend on the frame number, so every world running the same frames runs the same steps.
+	 *
+	 * @param frame The frame
+	 * @return The amount of steps to run in the frame
+	 * @see #setTickRate(int)
+	 * @since 0.1.0
+	 */
+	public static int getPhysicsSteps(long frame) {
+		final long frameLength = GameEngine.frameLength;
+		return (int) (frame * frameLength / DEFAULT_FRAME_LENGTH_NANO - (frame - 1) * frameLength / DEFAULT_FRAME_LENGTH_NANO);
+	}
+	
+	/**
+	 * Gets the profiler of the main world's frames. The profiler is published over JMX when the engine starts.
+	 *
+	 * @return The profiler
+	 * @since 0.1.0
+	 */
+	public static @NotNull FrameProfiler getProfiler() {
+		return WORLD.getProfiler();
+	}
+	
+	/**
+	 * Gets the amount of frames simulated per second.
+	 *
+	 * @return The tick rate (in hertz)
+	 * @see #setTickRate(int)
+	 * @since 0.1.0
+	 */
+	public static double getTickRate() {
+		return 1e9 / frameLength;
+	}
+	
+	/**
+	 * Gets the updater running the entity update phase of the main world's frames.
+	 *
+	 * @return The updater
+	 * @since 0.1.0
+	 */
+	public static @NotNull ParallelUpdater getUpdater() {
+		return WORLD.getUpdater();
+	}
 	
 	/**
-	 * Registers an entity in the engine. The entity does NOT get registered in the rendering engine.
+	 * Gets the world the static entity and task methods of the engine operate on: the world being ticked on the calling thread, or the main world if no world is ticking on this thread.
+	 *
+	 * @return The current world
+	 * @see World#getCurrent()
+	 * @since 0.1.0
+	 */
+	public static @NotNull World getWorld() {
+		World world = World.getCurrent();
+		return world == null ? WORLD : world;
+	}
+	
+	/**
+	 * Registers an entity in the {@link #getWorld() current world}. The entity does NOT get registered in the rendering engine.
 	 *
 	 * @param e The entity to register
 	 * @since 0.1.0
 	 */
 	public static void registerEntity(@NotNull Entity e) {
-		synchronized(ENTITY_LOCK) {
-			ENTITIES_TO_ADD.add(e);
+		getWorld().registerEntity(e);
+	}
+	
+	/**
+	 * Schedules a repeating task for execution in the {@link #getWorld() current world}. Can be called from any thread. The delay and the period are measured in default frames and {@link #toTicks(int) converted} to the frames of the current tick rate, so the task runs at the same speed at every tick rate.
+	 *
+	 * @param delay  The amount of default frames to wait before the first execution
+	 * @param period The amount of default frames between two executions
+	 * @param task   The task to execute
+	 * @return The handle of the task, which can be used for cancelling it
+	 * @throws IllegalArgumentException If the period is not positive
+	 * @since 0.1.0
+	 */
+	public static @NotNull ScheduledTask scheduleRepeatingTask(int delay, int period, @NotNull Runnable task) throws IllegalArgumentException {
+		if(period <= 0) {
+			throw new IllegalArgumentException("Period must be positive: " + period);
 		}
+		return getWorld().scheduleRepeatingTask(toTicks(delay), Math.max(1, toTicks(period)), task);
 	}
 	
 	/**
-	 * Schedules a task for execution on the main engine thread.
+	 * Schedules a task for execution in the {@link #getWorld() current world}. Can be called from any thread. The delay is measured in default frames and {@link #toTicks(int) converted} to the frames of the current tick rate, so the task runs after the same time at every tick rate.
 	 *
-	 * @param delay The amount of frames to wait before execution
+	 * @param delay The amount of default frames to wait before execution
 	 * @param task  The task to execute
+	 * @return The handle of the task, which can be used for cancelling it
 	 * @since 0.1.0
 	 */
-	public static void scheduleTask(int delay, @NotNull Runnable task) {
-		synchronized(ENGINE_TASK_LOCK) {
-			DELAYED_TASKS.add(new ImmutableNullsafePair<>(delay + frame, task));
+	public static @NotNull ScheduledTask scheduleTask(int delay, @NotNull Runnable task) {
+		return getWorld().scheduleTask(toTicks(delay), task);
+	}
+	
+	/**
+	 * Sets the broad phase used in collision detection by the main world. The new broad phase is used from the next frame.
+	 *
+	 * @param broadPhase The new broad phase
+	 * @since 0.1.0
+	 */
+	public static void setBroadPhase(@NotNull BroadPhase broadPhase) {
+		WORLD.setBroadPhase(broadPhase);
+	}
+	
+	/**
+	 * Sets the amount of frames to run before shutting down the game in {@link Main#isHeadless() headless mode}. Used for benchmarks.
+	 *
+	 * @param frameLimit The amount of frames, or 0 for no limit
+	 * @since 0.1.0
+	 */
+	public static void setFrameLimit(long frameLimit) {
+		GameEngine.frameLimit = Math.max(0, frameLimit);
+	}
+	
+	/**
+	 * Sets the frame scheduler used for waiting between frames. The new scheduler is used from the next frame.
+	 *
+	 * @param frameScheduler The new scheduler
+	 * @since 0.1.0
+	 */
+	public static void setFrameScheduler(@NotNull FrameScheduler frameScheduler) {
+		GameEngine.frameScheduler = frameScheduler;
+	}
+	
+	/**
+	 * Sets the amount of frames simulated per second. Must be called before the assets are registered, as the frames of animated images are {@link dartproductions.mcleodmassacre.resources.FrameResampler resampled} to the tick rate on registration. The tick rate doesn't change the speed of the game: the input is handled and the tasks run every frame, but the physics of the entities advance in {@link #getPhysicsSteps(long) fixed steps} of the default frame length, and the delays of {@link #scheduleTask(int, Runnable) scheduled tasks} are converted to the current frame length.
+	 *
+	 * @param ticksPerSecond The new tick rate (in hertz)
+	 * @throws IllegalArgumentException If the tick rate is not positive
+	 * @throws IllegalStateException    If the engine is already running
+	 * @since 0.1.0
+	 */
+	public static void setTickRate(int ticksPerSecond) throws IllegalArgumentException, IllegalStateException {
+		if(ticksPerSecond <= 0) {
+			throw new IllegalArgumentException("Tick rate must be positive: " + ticksPerSecond);
 		}
+		if(ENGINE_THREAD != null && ENGINE_THREAD.isAlive()) {
+			throw new IllegalStateException("Cannot change the tick rate while the engine is running");
+		}
+		frameLength = Math.round(1e9 / ticksPerSecond);
+		LOGGER.info("Using a tick rate of " + ticksPerSecond + " Hz (" + getFrameLength() + " ms frames)");
+	}
+	
+	/**
+	 * Sets the updater running the entity update phase of the main world's frames. The new updater is used from the next frame, and the previous one is shut down.
+	 *
+	 * @param updater The new updater
+	 * @since 0.1.0
+	 */
+	public static void setUpdater(@NotNull ParallelUpdater updater) {
+		WORLD.setUpdater(updater);
 	}
 	
 	/**
@@ -178,62 +392,28 @@ public class GameEngine {
 			LOGGER.error("Attempted to start engine thread while the thread was still running");
 			return;
 		}
+		configureCollisionDetection();
+		configureEntityUpdates();
+		configureFrameScheduler();
+		WORLD.getProfiler().register();
 		ENGINE_THREAD = new Thread(() -> {//create engine thread
 			Thread.currentThread().setPriority(Thread.MAX_PRIORITY - 3);
 			LOGGER.info("Started game engine thread");
-			previous = System.nanoTime();
-			while(Main.isRunning()) {
-				if(delta > FRAME_LENGTH_NANO * 30) {
-					LOGGER.warn("Massive lag spike: " + delta + " ns (" + Math.round(delta / (double) FRAME_LENGTH_NANO * 100) / 100.0 + " frames)");
-				}
-				while(delta >= FRAME_LENGTH_NANO) {
-					delta -= FRAME_LENGTH_NANO;
-					frame++;
-					processFrame();
-					if(frame % 100 == 0) {
-						ResourceManager.unloadAll(0.9);
-					}
-				}
-				synchronized(GraphicsManager.WAIT_LOCK) {
-					GraphicsManager.WAIT_LOCK.notifyAll();
-				}
-				synchronized(SoundManager.AUDIO_LOCK) {
-					SoundManager.AUDIO_LOCK.notifyAll();
-				}
-				while(Main.isRunning()) {
-					//Thread.onSpinWait();
-					if(!shouldRunFrame()) {
-						SoundManager.pause();
-						ResourceManager.unloadAll(0);
-						while(!shouldRunFrame()) {
-							try {
-								Thread.sleep(100);
-							} catch(InterruptedException e) {
-								LOGGER.warn("Interrupted wait for window focus in engine", e);
-							}
-							previous = System.nanoTime();
-							delta = 0;
-						}
-						SoundManager.resume();
-					}
-					long l = System.nanoTime();
-					if(l - previous + delta > FRAME_LENGTH_NANO) {
-						delta += l - previous;
-						previous = l;
-						break;
-					}
-					try {//trying to decrease busy-wait, but can't do much - same issue with any other timer
-						Thread.sleep(5);
-					} catch(InterruptedException e) {
-						LOGGER.warn("Interrupted sleep in engine", e);
-					}
-				}
+			if(Main.isHeadless()) {
+				runHeadless();
+			} else {
+				runRealtime();
 			}
 			synchronized(GraphicsManager.WAIT_LOCK) {
 				GraphicsManager.WAIT_LOCK.notifyAll();
 			}
 			SoundManager.stopAll();
 			SoundManager.clear();
+			InputManager.stopRecording();
+			InputManager.stopReplay();
+			WORLD.shutdown();
+			LOGGER.info("Frame pacing: " + FRAME_STATISTICS);
+			LOGGER.info("Frame timings: " + WORLD.getProfiler());
 			LOGGER.info("Engine thread shut down normally");
 			
 		}, "Engine");
@@ -253,7 +433,7 @@ public class GameEngine {
 			}
 			while(ENGINE_THREAD.isAlive()) {
 				if(shouldRunFrame()) {
-					if(GameEngine.frame == lastFrame) {
+					if(WORLD.getFrame() == lastFrame) {
 						if(previous) {
 							LOGGER.error("Engine thread is supposedly deadlocked");
 							Main.panic("Deadlock in engine thread");
@@ -262,7 +442,7 @@ public class GameEngine {
 							previous = true;
 						}
 					} else {
-						lastFrame = GameEngine.frame;
+						lastFrame = WORLD.getFrame();
 						previous = false;
 					}
 				} else {
@@ -284,50 +464,137 @@ public class GameEngine {
 	}
 	
 	/**
-	 * Unregisters all registered entities from the engine. Doesn't remove them from the rendering engine.
+	 * Converts an amount of default frames to the closest amount of frames at the current {@link #setTickRate(int) tick rate}.
+	 *
+	 * @param frames The amount of frames at the default tick rate
+	 * @return The amount of frames at the current tick rate
+	 * @since 0.1.0
+	 */
+	public static int toTicks(int frames) {
+		return (int) Math.round(frames * (double) DEFAULT_FRAME_LENGTH_NANO / frameLength);
+	}
+	
+	/**
+	 * Unregisters all registered entities from the {@link #getWorld() current world}. Doesn't remove them from the rendering engine.
 	 *
 	 * @since 0.1.0
 	 */
 	public static void unregisterAllEntities() {
-		synchronized(ENTITY_LOCK) {
-			ENTITIES_TO_REMOVE.addAll(ENTITIES);
-		}
+		getWorld().unregisterAllEntities();
 	}
 	
 	/**
-	 * Removes an entity from the engine. The entity does NOT get removed from the rendering engine.
+	 * Removes an entity from the {@link #getWorld() current world}. The entity does NOT get removed from the rendering engine.
 	 *
 	 * @param e The entity to remove
 	 * @since 0.1.0
 	 */
 	public static void unregisterEntity(@NotNull Entity e) {
-		synchronized(ENTITY_LOCK) {
-			ENTITIES_TO_REMOVE.add(e);
+		getWorld().unregisterEntity(e);
+	}
+	
+	/**
+	 * Removes the entity of the handle from the {@link #getWorld() current world}. The entity does NOT get removed from the rendering engine. Fails silently if the handle is stale.
+	 *
+	 * @param handle The handle of the entity to remove
+	 * @since 0.1.0
+	 */
+	public static void unregisterEntity(@NotNull EntityHandle handle) {
+		getWorld().unregisterEntity(handle);
+	}
+	
+	/**
+	 * Runs frames as fast as possible, without waiting between them. Used in {@link Main#isHeadless() headless mode}, where there is no rendering loop; the animations are advanced after every frame instead.
+	 *
+	 * @since 0.1.0
+	 */
+	private static void runHeadless() {
+		long start = System.nanoTime();
+		while(Main.isRunning()) {
+			processFrame();
+			long frame = WORLD.getFrame();
+			GraphicsManager.advanceAnimations();
+			if(frame % 100 == 0) {
+				ResourceManager.unloadAll(0.9);
+			}
+			if(frame % 1000 == 0) {
+				LOGGER.debug("Simulated " + frame + " frames (" + Math.round(frame * 1e9 / (System.nanoTime() - start)) + " frames/s)");
+			}
+			if(frameLimit > 0 && frame >= frameLimit) {
+				LOGGER.info("Reached the frame limit after " + (System.nanoTime() - start) / 1000000 + " ms");
+				Main.setRunning(false);
+			}
 		}
 	}
 	
 	/**
-	 * Checks if the game's state is valid for running the next frame.
+	 * Runs frames in real time, waiting between them with the {@link #frameScheduler}. After the frames, the animations are advanced, and if a frame ran a {@link #getPhysicsSteps(long) physics step}, the locations of the entities are captured for the rendering loop, which draws at its own rate.
 	 *
-	 * @return True if the frame can be processed
 	 * @since 0.1.0
 	 */
-	private static boolean shouldRunFrame() {
-		return GraphicsManager.WINDOW == null || GraphicsManager.WINDOW.isActive() || !Main.isRunning();
+	private static void runRealtime() {
+		final long frameLength = GameEngine.frameLength;
+		previous = System.nanoTime();
+		while(Main.isRunning()) {
+			if(delta > frameLength * 30) {
+				LOGGER.warn("Massive lag spike: " + delta + " ns (" + Math.round(delta / (double) frameLength * 100) / 100.0 + " frames)");
+			}
+			boolean simulated = false;
+			while(delta >= frameLength) {
+				delta -= frameLength;
+				processFrame();
+				GraphicsManager.advanceAnimations();
+				long frame = WORLD.getFrame();
+				simulated |= getPhysicsSteps(frame) > 0;
+				if(frame % 100 == 0) {
+					ResourceManager.unloadAll(0.9);
+				}
+				if(frame % 1000 == 0) {
+					LOGGER.debug("Frame pacing: " + FRAME_STATISTICS);
+					LOGGER.debug("Frame timings: " + WORLD.getProfiler());
+				}
+			}
+			if(simulated) {
+				GraphicsManager.captureLocations(previous - delta);//the time the last frame was due
+			}
+			synchronized(SoundManager.AUDIO_LOCK) {
+				SoundManager.AUDIO_LOCK.notifyAll();
+			}
+			if(!shouldRunFrame()) {
+				SoundManager.pause();
+				ResourceManager.unloadAll(0);
+				while(!shouldRunFrame()) {
+					try {
+						Thread.sleep(100);
+					} catch(InterruptedException e) {
+						LOGGER.warn("Interrupted wait for window focus in engine", e);
+					}
+					previous = System.nanoTime();
+					delta = 0;
+				}
+				SoundManager.resume();
+			}
+			long deadline = previous + frameLength - delta;
+			try {
+				frameScheduler.waitUntil(deadline);
+			} catch(InterruptedException e) {
+				LOGGER.warn("Interrupted wait for the next frame in engine", e);
+			}
+			long l = System.nanoTime();
+			FRAME_STATISTICS.record(l - deadline);
+			delta += l - previous;
+			previous = l;
+		}
 	}
 	
 	/**
-	 * Checks if two entities are intersecting with each other.
+	 * Checks if the game's state is valid for running the next frame.
 	 *
-	 * @param first  The first entity
-	 * @param second The second entity
-	 * @return True if they are intersecting
+	 * @return True if the frame can be processed
 	 * @since 0.1.0
 	 */
-	private static boolean areIntersecting(@NotNull Entity first, @NotNull Entity second) {
-		Area a = second.getCurrentAnimation().getCurrentHitbox().createTransformedArea(AffineTransform.getTranslateInstance(first.getLocation().x + first.getCurrentAnimation().getOffset().width, first.getLocation().y + first.getCurrentAnimation().getOffset().height));
-		a.intersect((first.getCurrentAnimation().getCurrentHitbox().createTransformedArea(AffineTransform.getTranslateInstance(second.getLocation().x + second.getCurrentAnimation().getOffset().width, second.getLocation().y + second.getCurrentAnimation().getOffset().height))));
-		return !a.isEmpty();
+	private static boolean shouldRunFrame() {
+		return GraphicsManager.WINDOW == null || GraphicsManager.WINDOW.isActive() || !Main.isRunning();
 	}
 	
 	/**
@@ -339,75 +606,46 @@ public class GameEngine {
 	 * @since 0.1.0
 	 */
 	private static Area getIntersection(@NotNull Entity first, @NotNull Entity second) {
-		Area a = second.getCurrentAnimation().getCurrentHitbox().createTransformedArea(AffineTransform.getTranslateInstance(first.getLocation().x + first.getCurrentAnimation().getOffset().width, first.getLocation().y + first.getCurrentAnimation().getOffset().height));
-		a.intersect((first.getCurrentAnimation().getCurrentHitbox().createTransformedArea(AffineTransform.getTranslateInstance(second.getLocation().x + second.getCurrentAnimation().getOffset().width, second.getLocation().y + second.getCurrentAnimation().getOffset().height))));
+		Area a = first.getCurrentAnimation().getCurrentHitbox().createTransformedArea(AffineTransform.getTranslateInstance(first.getLocation().x + first.getCurrentAnimation().getOffset().width, first.getLocation().y + first.getCurrentAnimation().getOffset().height));
+		a.intersect((second.getCurrentAnimation().getCurrentHitbox().createTransformedArea(AffineTransform.getTranslateInstance(second.getLocation().x + second.getCurrentAnimation().getOffset().width, second.getLocation().y + second.getCurrentAnimation().getOffset().height))));
 		return a;
 	}
 	
 	/**
-	 * Gets the specified player from the players.
+	 * Gets the value of an enum setting. Settings files from older versions might not contain the setting, in which case the default value is used.
 	 *
-	 * @param id The id of the player
-	 * @return The player or null
+	 * @param name         The name of the setting
+	 * @param defaultValue The value to use if the setting is missing
+	 * @param <T>          The type of the setting
+	 * @return The value of the setting
 	 * @since 0.1.0
 	 */
-	private static @Nullable PlayerEntity getPlayer(int id) {
-		synchronized(ENTITY_LOCK) {
-			if(id < 0 || PLAYERS.size() <= id) {
-				return null;
-			}
-			return PLAYERS.get(id);
+	@SuppressWarnings("unchecked")
+	private static <T extends Enum<T>> @NotNull T getEnumSetting(@NotNull String name, @NotNull T defaultValue) {
+		Option<?> option = ResourceManager.getOptions().getSetting(name);
+		Object value = option == null ? null : option.getValue();
+		if(defaultValue.getDeclaringClass().isInstance(value)) {
+			return (T) value;
 		}
+		LOGGER.debug("Setting " + name + " is not set, using " + defaultValue);
+		return defaultValue;
 	}
 	
 	/**
-	 * Handles all entity removals and additions to the engine.
+	 * Gets the value of an integer setting. Settings files from older versions might not contain the setting, in which case the default value is used.
 	 *
+	 * @param name         The name of the setting
+	 * @param defaultValue The value to use if the setting is missing
+	 * @return The value of the setting
 	 * @since 0.1.0
 	 */
-	private static void handleEntities() {
-		if(Main.getGameState().isPausingState()) {
-			return;
-		}
-		synchronized(ENTITY_LOCK) {
-			for(Entity e : ENTITIES_TO_REMOVE) {//removing entities
-				ENTITIES.remove(e);
-				if(e.hasCollision()) {
-					COLLIDABLE_ENTITIES.remove(e);
-				}
-				if(e.isMovable()) {
-					MOVABLE_ENTITIES.remove(e);
-				}
-				if(e instanceof PlayerEntity en) {
-					PLAYERS.add(en);
-				}
-			}
-			ENTITIES_TO_REMOVE.clear();
-			for(Entity e : ENTITIES_TO_ADD) {//adding entities
-				ENTITIES.add(e);
-				if(e.hasCollision()) {
-					COLLIDABLE_ENTITIES.add(e);
-				}
-				if(e.isMovable()) {
-					MOVABLE_ENTITIES.add(e);
-				}
-				if(e instanceof PlayerEntity && PLAYERS.contains(e)) {
-					PLAYERS.set(PLAYERS.indexOf(e), null);
-					//auto-clear the player list when no players remain
-					boolean has = false;
-					for(PlayerEntity p : PLAYERS) {
-						if(p != null) {
-							has = true;
-							break;
-						}
-					}
-					if(!has) {
-						PLAYERS.clear();
-					}
-				}
-			}
-			ENTITIES_TO_ADD.clear();
+	private static int getIntSetting(@NotNull String name, int defaultValue) {
+		Option<?> option = ResourceManager.getOptions().getSetting(name);
+		if(option != null && option.getValue() instanceof Integer value) {
+			return value;
 		}
+		LOGGER.debug("Setting " + name + " is not set, using " + defaultValue);
+		return defaultValue;
 	}
 	
 	/**
@@ -416,7 +654,7 @@ public class GameEngine {
 	 * @since 0.1.0
 	 */
 	private static void handleInput() {
-		ArrayList<InputAction<Event>> actions = InputManager.getActions();//get events
+		ArrayList<InputAction<Event>> actions = InputManager.getActions(WORLD.getFrame());//get events (from the devices or the replay), recording them if needed
 		actionLoop:
 		for(InputAction<Event> action : actions) {
 			if(action.getActionType() == ActionType.PAUSE) {//pause
@@ -453,104 +691,33 @@ public class GameEngine {
 				}
 			}
 			if(Main.getGameState() == GameState.IN_GAME) {
-				PlayerEntity player = getPlayer(action.getPlayerId());//player-related events
+				PlayerEntity player = WORLD.getPlayer(action.getPlayerId());//player-related events
 				if(player == null) {
 					continue actionLoop;
 				}
-				switch(action.getActionType()) {
-					case GRAB -> player.grab();
-					case WALK -> player.walk();
-					case TAUNT -> player.taunt();
-					case ATTACK -> player.attack();
-					case SHIELD -> player.shield();
-					case MOVE_UP -> player.moveUp();
-					case MOVE_DOWN -> player.moveDown();
-					case MOVE_LEFT -> player.moveLeft();
-					case MOVE_RIGHT -> player.moveRight();
-					case SPECIAL -> player.special();
-					case JUMP_LEFT -> {
-						player.moveUp();
-						player.moveLeft();
-					}
-					case JUMP_RIGHT -> {
-						player.moveUp();
-						player.moveRight();
-					}
-				}
+				player.perform(action.getActionType());
 			}
 		}
 		InputManager.pollAsync();//start the next input query (async, runs on InputManager's own thread)
 	}
 	
-	/**
-	 * Runs all tasks scheduled for this frame. Makes sure all tasks have their delays adjusted if necessary.
-	 *
-	 * @since 0.1.0
-	 */
-	private static void handleTasks() {
-		synchronized(ENGINE_TASK_LOCK) {
-			for(Iterator<ImmutableNullsafePair<Long, Runnable>> iterator = DELAYED_TASKS.iterator(); iterator.hasNext(); ) {
-				ImmutableNullsafePair<Long, Runnable> delayedTask = iterator.next();
-				if(delayedTask.first() <= frame) {
-					delayedTask.second().run();
-				}
-				iterator.remove();
-			}
-		}
-	}
-	
 	/**
 	 * Method for doing all calculations in a frame.
 	 *
 	 * @since 0.1.0
 	 */
 	private static void processFrame() {
-		handleTasks();
-		handleEntities();
-		handleInput();
-		if(Main.getGameState().isPausingState()) {
-			return;
-		}
-		synchronized(ENGINE_WAIT_LOCK) {
-			for(Entity entity : ENTITIES) {//self-processing (movement etc)
-				entity.process();
-			}
-			handleEntities();//allows removing both BEFORE and AFTER processing, without staying in the engine for a frame
-			for(Entity first : COLLIDABLE_ENTITIES) {//collision
-				for(Entity second : COLLIDABLE_ENTITIES) {
-					if(second != first && (second.isCollisionMovable() ^ first.isCollisionMovable()) && areIntersecting(first, second)) {
-						Entity moving, staying;
-						if(first.isCollisionMovable()) {
-							moving = first;
-							staying = second;
-						} else {
-							moving = second;
-							staying = first;
-						}
-						{
-							Dimension vel = moving.getVelocity();
-							moving.move(-vel.width, -vel.height);
-							if(areIntersecting(moving, staying)) {//ignore collisions from previous frames
-								moving.move(vel.width, vel.height);
-								continue;
-							}
-							moving.move(vel.width, vel.height);
-						}
-						if(moving.onCollision(staying) && staying.onCollision(moving)) {
-							Dimension d = moving.getVelocity();
-							double delta = Math.sqrt(d.height * d.height + d.width * d.width);
-							double dx = d.width / delta;
-							double dy = d.height / delta;
-							int x = moving.getLocation().x;
-							int y = moving.getLocation().y;
-							for(int i = 1; areIntersecting(moving, staying); i++) {
-								moving.getLocation().x = x + (int) (dx * i);
-								moving.getLocation().y = y + (int) (dy * i);
-							}
-						}
-					}
-				}
-			}
+		FrameEvent event = new FrameEvent();
+		event.begin();
+		WORLD.tick(() -> Main.getGameState().isPausingState(), GameEngine::handleInput);
+		if(event.shouldCommit()) {
+			FrameProfiler profiler = WORLD.getProfiler();
+			event.frame = WORLD.getFrame();
+			event.gameState = Main.getGameState().toString();
+			event.entities = profiler.getEntityCount();
+			event.collidableEntities = profiler.getCollidableEntityCount();
+			event.collisionPairs = profiler.getCollisionPairsTested();
+			event.commit();
 		}
 	}
 }
@@ -0,0 +1,275 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.engine;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the update phase of a frame: the bulk movement of the {@link EntityStore} followed by {@link Entity#process()} for every entity. The phase runs either on the calling thread, or split across a {@link ForkJoinPool}.
+ * <p>
+ * In parallel mode the entities are split into chunks of consecutive entities, and each chunk is processed by a single worker. Processing an entity must only change the entity itself; side effects touching shared state, like {@link Entity#unregister()} or {@link GameEngine#scheduleTask(int, Runnable)}, are {@link #defer(Runnable) deferred} into the buffer of the chunk. After all chunks are done, the buffers are run on the calling thread in chunk order, which is the same order these effects would happen in a sequential run. Because of this, the parallel and the sequential update produce exactly the same results.
+ *
+ * @since 0.1.0
+ */
+public class ParallelUpdater {
+	/**
+	 * Logger for the updater
+	 *
+	 * @since 0.1.0
+	 */
+	protected static final Logger LOGGER = LogManager.getLogger(ParallelUpdater.class);
+	/**
+	 * The effect buffer of the chunk processed by the current thread, or null if the thread is not processing a chunk
+	 *
+	 * @since 0.1.0
+	 */
+	private static final @NotNull ThreadLocal<List<Runnable>> CURRENT_BUFFER = new ThreadLocal<>();
+	/**
+	 * The effect buffers of the chunks, reused between frames
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ArrayList<ArrayList<Runnable>> buffers = new ArrayList<>();
+	/**
+	 * The amount of entities in a chunk
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int chunkSize;
+	/**
+	 * The pool running the chunks, or null if the update is sequential
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @Nullable ForkJoinPool pool;
+	
+	/**
+	 * Creates a new updater with a default chunk size.
+	 *
+	 * @param parallelism The amount of worker threads; 1 or less means the update runs on the calling thread
+	 * @since 0.1.0
+	 */
+	public ParallelUpdater(int parallelism) {
+		this(parallelism, 64);
+	}
+	
+	/**
+	 * Creates a new updater.
+	 *
+	 * @param parallelism The amount of worker threads; 1 or less means the update runs on the calling thread
+	 * @param chunkSize   The amount of entities processed by a worker at once
+	 * @since 0.1.0
+	 */
+	public ParallelUpdater(int parallelism, int chunkSize) {
+		this.chunkSize = Math.max(1, chunkSize);
+		if(parallelism > 1) {
+			pool = new ForkJoinPool(parallelism, p -> {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+				thread.setName("Entity updater " + thread.getPoolIndex());
+				thread.setDaemon(true);
+				return thread;
+			}, (t, e) -> LOGGER.error("Uncaught exception in entity updater thread (" + t.getName() + ")", e), false);
+		} else {
+			pool = null;
+		}
+	}
+	
+	/**
+	 * Defers an effect until the end of the update phase, if the current thread is processing a chunk. Methods with side effects on shared state should call this before doing anything else, and return if the effect was deferred.
+	 *
+	 * @param effect The effect to run later
+	 * @return True if the effect was deferred, false if it should run immediately
+	 * @since 0.1.0
+	 */
+	public static boolean defer(@NotNull Runnable effect) {
+		List<Runnable> buffer = CURRENT_BUFFER.get();
+		if(buffer == null) {
+			return false;
+		}
+		buffer.add(effect);
+		return true;
+	}
+	
+	/**
+	 * Checks if effects are deferred on the current thread.
+	 *
+	 * @return True if the current thread is processing a chunk
+	 * @see #defer(Runnable)
+	 * @since 0.1.0
+	 */
+	public static boolean isDeferring() {
+		return CURRENT_BUFFER.get() != null;
+	}
+	
+	/**
+	 * Gets the amount of worker threads.
+	 *
+	 * @return The amount of workers, or 1 if the update is sequential
+	 * @since 0.1.0
+	 */
+	public int getParallelism() {
+		return pool == null ? 1 : pool.getParallelism();
+	}
+	
+	/**
+	 * Checks if this updater splits the work across multiple threads.
+	 *
+	 * @return True if parallel
+	 * @since 0.1.0
+	 */
+	public boolean isParallel() {
+		return pool != null;
+	}
+	
+	/**
+	 * Stops the worker threads. The updater runs sequentially afterwards.
+	 *
+	 * @since 0.1.0
+	 */
+	public void shutdown() {
+		if(pool != null) {
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Runs the update phase: moves the stored entities, then processes every entity. Entities must not be added to or removed from the store or the list during the update.
+	 *
+	 * @param store    The physics storage of the entities
+	 * @param entities The entities to process
+	 * @since 0.1.0
+	 */
+	public void update(@NotNull EntityStore store, @NotNull List<? extends Entity> entities) {
+		int size = entities.size();
+		int chunks = (size + chunkSize - 1) / chunkSize;
+		if(pool == null || pool.isShutdown() || chunks < 2) {//not worth the overhead
+			store.integrate();
+			for(int i = 0; i < size; i++) {
+				entities.get(i).process();
+			}
+			return;
+		}
+		int storeChunks = (store.size() + chunkSize - 1) / chunkSize;
+		if(storeChunks > 0) {
+			pool.invoke(new ChunkAction(0, storeChunks, chunk -> store.integrate(chunk * chunkSize, (chunk + 1) * chunkSize)));
+		}
+		while(buffers.size() < chunks) {
+			buffers.add(new ArrayList<>());
+		}
+		World world = World.getCurrent();
+		pool.invoke(new ChunkAction(0, chunks, chunk -> processChunk(entities, chunk, world)));
+		for(int i = 0; i < chunks; i++) {//merge the effects in a fixed order
+			ArrayList<Runnable> buffer = buffers.get(i);
+			for(int j = 0; j < buffer.size(); j++) {
+				buffer.get(j).run();
+			}
+			buffer.clear();
+		}
+	}
+	
+	/**
+	 * Processes the entities of a chunk, deferring their side effects into the chunk's buffer.
+	 *
+	 * @param entities The entities
+	 * @param chunk    The index of the chunk
+	 * @param world    The world being updated, made the {@link World#getCurrent() current world} of the worker thread
+	 * @since 0.1.0
+	 */
+	protected void processChunk(@NotNull List<? extends Entity> entities, int chunk, @Nullable World world) {
+		CURRENT_BUFFER.set(buffers.get(chunk));
+		World previous = World.setCurrent(world);
+		try {
+			int to = Math.min(entities.size(), (chunk + 1) * chunkSize);
+			for(int i = chunk * chunkSize; i < to; i++) {
+				entities.get(i).process();
+			}
+		} finally {
+			CURRENT_BUFFER.remove();
+			World.setCurrent(previous);
+		}
+	}
+	
+	/**
+	 * Action for running a range of chunks, splitting the range in half until a single chunk remains.
+	 *
+	 * @since 0.1.0
+	 */
+	protected static class ChunkAction extends RecursiveAction {
+		/**
+		 * The first chunk (inclusive)
+		 *
+		 * @since 0.1.0
+		 */
+		protected final int from;
+		/**
+		 * The code running a single chunk
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull ChunkTask task;
+		/**
+		 * The last chunk (exclusive)
+		 *
+		 * @since 0.1.0
+		 */
+		protected final int to;
+		
+		/**
+		 * Creates a new action.
+		 *
+		 * @param from The first chunk (inclusive)
+		 * @param to   The last chunk (exclusive)
+		 * @param task The code running a single chunk
+		 * @since 0.1.0
+		 */
+		protected ChunkAction(int from, int to, @NotNull ChunkTask task) {
+			this.from = from;
+			this.to = to;
+			this.task = task;
+		}
+		
+		@Override
+		protected void compute() {
+			if(to - from == 1) {
+				task.run(from);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new ChunkAction(from, middle, task), new ChunkAction(middle, to, task));
+		}
+	}
+	
+	/**
+	 * The work done for a single chunk
+	 *
+	 * @since 0.1.0
+	 */
+	@FunctionalInterface
+	protected interface ChunkTask {
+		/**
+		 * Runs the work of the chunk.
+		 *
+		 * @param chunk The index of the chunk
+		 * @since 0.1.0
+		 */
+		void run(int chunk);
+	}
+}
@@ -0,0 +1,751 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine;
+
+import dartproductions.mcleodmassacre.engine.collision.BroadPhase;
+import dartproductions.mcleodmassacre.engine.collision.CollisionResolver;
+import dartproductions.mcleodmassacre.engine.collision.Contact;
+import dartproductions.mcleodmassacre.engine.profiling.FrameProfiler;
+import dartproductions.mcleodmassacre.engine.profiling.FrameProfiler.Phase;
+import dartproductions.mcleodmassacre.engine.task.ScheduledTask;
+import dartproductions.mcleodmassacre.engine.task.TaskScheduler;
+import dartproductions.mcleodmassacre.entity.Entity;
+import dartproductions.mcleodmassacre.entity.PlayerEntity;
+import dartproductions.mcleodmassacre.entity.StoredEntity;
+import dartproductions.mcleodmassacre.input.InputManager.ActionType;
+import dartproductions.mcleodmassacre.network.Simulation;
+import dartproductions.mcleodmassacre.network.SnapshotBuffer;
+import dartproductions.mcleodmassacre.options.CollisionDetectionOption;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A single simulated match: the entities, the delayed tasks and the frame counter of the simulation, along with the strategies used for updating them.
+ * <p>
+ * The {@link GameEngine} runs the main world of the game on its own thread. Further worlds, for example the matches of a server, can be created freely and ticked by a {@link WorldScheduler}. A world must only be ticked by one thread at a time, but worlds are independent of each other, so different worlds can be ticked in parallel.
+ * <p>
+ * While a world is ticking, it is the {@link #getCurrent() current world} of the thread, and the static registration and scheduling methods of {@link GameEngine} (used by entities, for example in {@link Entity#register()}) operate on it. Entities of a world other than the main world should be added with {@link #registerEntity(Entity)}, as {@link Entity#register()} also adds them to the rendering layers of the game.
+ * <p>
+ * A world can be driven by a {@link dartproductions.mcleodmassacre.network.RollbackSession rollback session} as a {@link Simulation}. The input of a player is a bit mask of the {@link ActionType actions} performed in the frame, with the bit of each action at its ordinal. The saved states contain the registered entities in their iteration order, the pending registrations and removals, the players, the tasks, and the location and velocity of the entities; other state of the entities must not influence the simulation.
+ *
+ * @since 0.1.0
+ */
+public class World implements Simulation {
+	/**
+	 * The default amount of frames kept for rollbacks, enough for rolling back 15 frames
+	 *
+	 * @see #setSnapshots(SnapshotBuffer)
+	 * @since 0.1.0
+	 */
+	public static final int DEFAULT_SNAPSHOT_CAPACITY = 16;
+	private static final Logger LOGGER = LogManager.getLogger(World.class);
+	/**
+	 * All actions, indexed by the bits of the inputs
+	 *
+	 * @since 0.1.0
+	 */
+	private static final @NotNull ActionType[] ACTIONS = ActionType.values();
+	/**
+	 * The world being ticked on the current thread
+	 *
+	 * @since 0.1.0
+	 */
+	private static final @NotNull ThreadLocal<World> CURRENT = new ThreadLocal<>();
+	/**
+	 * Reusable contact details for collision resolution
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Contact contact = new Contact();
+	/**
+	 * Registry of all existing entities, also keeping track of the collidable, movable and player entities
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull EntityRegistry entities = new EntityRegistry();
+	/**
+	 * List of entities to be added in the next frame
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ArrayList<Entity> entitiesToAdd = new ArrayList<>();
+	/**
+	 * List of entities to be removed in the next frame
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ArrayList<Entity> entitiesToRemove = new ArrayList<>();
+	/**
+	 * Lock object for the entity lists; registrations can come from any thread
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Object entityLock;
+	/**
+	 * The name of the world, used in logs
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull String name;
+	/**
+	 * List of player entities, indexed by player id. Removed players leave a null in their place, so the ids of the remaining players don't change.
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ArrayList<PlayerEntity> players = new ArrayList<>();
+	/**
+	 * Profiler of the world's frames
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull FrameProfiler profiler = new FrameProfiler();
+	/**
+	 * Storage of the physics state of {@link StoredEntity stored entities}
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull EntityStore store = new EntityStore();
+	/**
+	 * The scheduler of delayed tasks
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull TaskScheduler tasks = new TaskScheduler();
+	/**
+	 * Lock object held while the entities are updated and collided
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Object updateLock;
+	/**
+	 * The broad phase used for finding the entities that might collide
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile @NotNull BroadPhase broadPhase = BroadPhase.create(CollisionDetectionOption.SPATIAL_HASH);
+	/**
+	 * The current frame of the world; the amount of finished or running ticks
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile long frame = 0;
+	/**
+	 * The snapshots of the rollback frames, or null until the first state is saved
+	 *
+	 * @since 0.1.0
+	 */
+	protected @Nullable SnapshotBuffer snapshots;
+	/**
+	 * The updater running the entity update phase of the frames
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile @NotNull ParallelUpdater updater = new ParallelUpdater(1);
+	
+	/**
+	 * Creates a new, empty world with sequential entity updates and spatial hash collision detection.
+	 *
+	 * @param name The name of the world
+	 * @since 0.1.0
+	 */
+	public World(@NotNull String name) {
+		this(name, new Object(), new Object());
+	}
+	
+	/**
+	 * Creates a new, empty world using the specified locks.
+	 *
+	 * @param name       The name of the world
+	 * @param entityLock The lock of the entity lists
+	 * @param updateLock The lock held while the entities are updated
+	 * @since 0.1.0
+	 */
+	World(@NotNull String name, @NotNull Object entityLock, @NotNull Object updateLock) {
+		this.name = name;
+		this.entityLock = entityLock;
+		this.updateLock = updateLock;
+	}
+	
+	/**
+	 * Gets the world being ticked on the current thread.
+	 *
+	 * @return The current world, or null if no world is ticking on this thread
+	 * @since 0.1.0
+	 */
+	public static @Nullable World getCurrent() {
+		return CURRENT.get();
+	}
+	
+	/**
+	 * Sets the world being ticked on the current thread.
+	 *
+	 * @param world The new current world, or null
+	 * @return The previous current world
+	 * @since 0.1.0
+	 */
+	static @Nullable World setCurrent(@Nullable World world) {
+		World previous = CURRENT.get();
+		if(world == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(world);
+		}
+		return previous;
+	}
+	
+	/**
+	 * Replaces the contents of a list with the elements of another list, without allocating once the list has grown.
+	 *
+	 * @param from The elements
+	 * @param to   The list to overwrite
+	 * @param <T>  The type of the elements
+	 * @since 0.1.0
+	 */
+	private static <T> void copy(@NotNull List<? extends T> from, @NotNull ArrayList<T> to) {
+		to.clear();
+		for(int i = 0; i < from.size(); i++) {
+			to.add(from.get(i));
+		}
+	}
+	
+	/**
+	 * Simulates a frame with the inputs of the players. The input of each player is performed on the player with the same id, after the entity registrations are applied; see the {@link World class documentation} for the format of the inputs.
+	 *
+	 * @param frame  The frame to simulate; the world is at this frame before, and at the next one after the call
+	 * @param inputs The input of every player in this frame, indexed by player id
+	 * @since 0.1.0
+	 */
+	@Override
+	public void advance(long frame, @NotNull long[] inputs) {
+		this.frame = frame;
+		tick(() -> false, () -> {
+			for(int id = 0; id < inputs.length; id++) {
+				PlayerEntity player = getPlayer(id);
+				if(player == null) {
+					continue;
+				}
+				for(ActionType action : ACTIONS) {
+					if((inputs[id] & 1L << action.ordinal()) != 0) {
+						player.perform(action);
+					}
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Gets the broad phase used in collision detection.
+	 *
+	 * @return The broad phase
+	 * @since 0.1.0
+	 */
+	public @NotNull BroadPhase getBroadPhase() {
+		return broadPhase;
+	}
+	
+	/**
+	 * Gets a snapshot of the entities of the world. Can be called from any thread.
+	 *
+	 * @return The entities
+	 * @since 0.1.0
+	 */
+	public @NotNull List<Entity> getEntities() {
+		synchronized(entityLock) {
+			return new ArrayList<>(entities.getAll());
+		}
+	}
+	
+	/**
+	 * Gets the entity referred to by the handle. Can be called from any thread.
+	 *
+	 * @param handle The handle of the entity
+	 * @return The entity, or null if it has been removed from the world
+	 * @since 0.1.0
+	 */
+	public @Nullable Entity getEntity(@NotNull EntityHandle handle) {
+		synchronized(entityLock) {
+			return entities.get(handle);
+		}
+	}
+	
+	/**
+	 * Gets the amount of entities in the world.
+	 *
+	 * @return The amount of entities
+	 * @since 0.1.0
+	 */
+	public int getEntityCount() {
+		synchronized(entityLock) {
+			return entities.size();
+		}
+	}
+	
+	/**
+	 * Gets the current frame of the world, which is the amount of ticks started so far.
+	 *
+	 * @return The current frame
+	 * @since 0.1.0
+	 */
+	public long getFrame() {
+		return frame;
+	}
+	
+	/**
+	 * Gets the handle of an entity. Entities only get a handle when they are actually added to the world, at the start of the frame after their registration. Can be called from any thread.
+	 *
+	 * @param e The entity
+	 * @return The handle of the entity, or null if it is not in the world
+	 * @since 0.1.0
+	 */
+	public @Nullable EntityHandle getHandle(@NotNull Entity e) {
+		synchronized(entityLock) {
+			return entities.getHandle(e);
+		}
+	}
+	
+	/**
+	 * Gets the name of the world.
+	 *
+	 * @return The name
+	 * @since 0.1.0
+	 */
+	public @NotNull String getName() {
+		return name;
+	}
+	
+	/**
+	 * Gets the specified player of the world.
+	 *
+	 * @param id The id of the player
+	 * @return The player or null
+	 * @since 0.1.0
+	 */
+	public @Nullable PlayerEntity getPlayer(int id) {
+		synchronized(entityLock) {
+			if(id < 0 || players.size() <= id) {
+				return null;
+			}
+			return players.get(id);
+		}
+	}
+	
+	/**
+	 * Gets the profiler of the world's frames.
+	 *
+	 * @return The profiler
+	 * @since 0.1.0
+	 */
+	public @NotNull FrameProfiler getProfiler() {
+		return profiler;
+	}
+	
+	/**
+	 * Gets the scheduler of the world's delayed tasks.
+	 *
+	 * @return The task scheduler
+	 * @since 0.1.0
+	 */
+	public @NotNull TaskScheduler getTasks() {
+		return tasks;
+	}
+	
+	/**
+	 * Gets the updater running the entity update phase of the frames.
+	 *
+	 * @return The updater
+	 * @since 0.1.0
+	 */
+	public @NotNull ParallelUpdater getUpdater() {
+		return updater;
+	}
+	
+	@Override
+	public void loadState(long frame) {
+		if(snapshots == null) {
+			throw new IllegalArgumentException("Frame " + frame + " is not in the snapshot buffer");
+		}
+		snapshots.restore(frame);
+	}
+	
+	/**
+	 * Registers an entity in the world. The entity is added at the start of the next frame. Can be called from any thread.
+	 *
+	 * @param e The entity to register
+	 * @since 0.1.0
+	 */
+	public void registerEntity(@NotNull Entity e) {
+		if(ParallelUpdater.defer(() -> registerEntity(e))) {
+			return;
+		}
+		synchronized(entityLock) {
+			entitiesToAdd.add(e);
+		}
+	}
+	
+	/**
+	 * Restores the state saved by {@link #save(State)}: the registered entities in their saved order, the pending registrations and removals, the players and the frame counter. The entities themselves, and the tasks, are restored by the {@link SnapshotBuffer}. Must be called on the thread ticking the world.
+	 *
+	 * @param state The saved state
+	 * @since 0.1.0
+	 */
+	public void restore(@NotNull State state) {
+		synchronized(entityLock) {
+			entities.restore(state.registry);
+			for(int slot = store.size() - 1; slot >= 0; slot--) {//leave the store before the removal moves another entity into the slot
+				StoredEntity stored = store.getEntity(slot);
+				if(stored != null && !entities.contains(stored)) {
+					store.remove(stored);
+				}
+			}
+			for(Entity e : entities.getMovable()) {
+				if(e instanceof StoredEntity stored) {
+					store.add(stored);//fails silently if already stored
+				}
+			}
+			copy(state.entitiesToAdd, entitiesToAdd);
+			copy(state.entitiesToRemove, entitiesToRemove);
+			copy(state.players, players);
+			frame = state.frame;
+		}
+	}
+	
+	/**
+	 * Saves the entity registrations and the frame counter of the world, so they can be {@link #restore(State) restored} later. Must be called on the thread ticking the world.
+	 *
+	 * @param state The state to overwrite; its lists are reused
+	 * @since 0.1.0
+	 */
+	public void save(@NotNull State state) {
+		synchronized(entityLock) {
+			entities.save(state.registry);
+			copy(entities.getAll(), state.entities);
+			for(Entity e : entitiesToAdd) {
+				state.entities.add(e);
+			}
+			copy(entitiesToAdd, state.entitiesToAdd);
+			copy(entitiesToRemove, state.entitiesToRemove);
+			copy(players, state.players);
+			state.frame = frame;
+		}
+	}
+	
+	@Override
+	public void saveState(long frame) {
+		if(snapshots == null) {
+			snapshots = new SnapshotBuffer(DEFAULT_SNAPSHOT_CAPACITY);
+		}
+		snapshots.save(frame, this);
+	}
+	
+	/**
+	 * Schedules a repeating task for execution in this world. Can be called from any thread.
+	 *
+	 * @param delay  The amount of frames to wait before the first execution
+	 * @param period The amount of frames between two executions
+	 * @param task   The task to execute
+	 * @return The handle of the task, which can be used for cancelling it
+	 * @throws IllegalArgumentException If the period is not positive
+	 * @since 0.1.0
+	 */
+	public @NotNull ScheduledTask scheduleRepeatingTask(int delay, int period, @NotNull Runnable task) throws IllegalArgumentException {
+		return tasks.scheduleRepeating(delay, period, task);
+	}
+	
+	/**
+	 * Schedules a task for execution in this world. Can be called from any thread.
+	 *
+	 * @param delay The amount of frames to wait before execution
+	 * @param task  The task to execute
+	 * @return The handle of the task, which can be used for cancelling it
+	 * @since 0.1.0
+	 */
+	public @NotNull ScheduledTask scheduleTask(int delay, @NotNull Runnable task) {
+		return tasks.schedule(delay, task);
+	}
+	
+	/**
+	 * Sets the broad phase used in collision detection. The new broad phase is used from the next frame.
+	 *
+	 * @param broadPhase The new broad phase
+	 * @since 0.1.0
+	 */
+	public void setBroadPhase(@NotNull BroadPhase broadPhase) {
+		this.broadPhase = broadPhase;
+	}
+	
+	/**
+	 * Sets the buffer keeping the snapshots of the world for rollbacks. Its capacity must be more than the {@link dartproductions.mcleodmassacre.network.RollbackSession#getMaxRollback() maximum rollback distance}; by default, a buffer of {@link #DEFAULT_SNAPSHOT_CAPACITY} frames is created when the first state is saved.
+	 *
+	 * @param snapshots The new snapshot buffer
+	 * @since 0.1.0
+	 */
+	public void setSnapshots(@NotNull SnapshotBuffer snapshots) {
+		this.snapshots = snapshots;
+	}
+	
+	/**
+	 * Sets the updater running the entity update phase of the frames. The new updater is used from the next frame, and the previous one is shut down.
+	 *
+	 * @param updater The new updater
+	 * @since 0.1.0
+	 */
+	public void setUpdater(@NotNull ParallelUpdater updater) {
+		ParallelUpdater previous = this.updater;
+		this.updater = updater;
+		if(previous != updater) {
+			previous.shutdown();
+		}
+	}
+	
+	/**
+	 * Shuts down the resources of the world. The world should not be ticked afterwards.
+	 *
+	 * @since 0.1.0
+	 */
+	public void shutdown() {
+		updater.shutdown();
+	}
+	
+	/**
+	 * Simulates a single frame of the world.
+	 *
+	 * @since 0.1.0
+	 */
+	public void tick() {
+		tick(() -> false, null);
+	}
+	
+	/**
+	 * Simulates a single frame of the world: runs the due tasks, applies the entity registrations, handles the input, then updates and collides the entities once for every {@link GameEngine#getPhysicsSteps(long) physics step} of the frame. The duration of each phase is recorded by the {@link #getProfiler() profiler}.
+	 *
+	 * @param paused Checked before changing the entities; if it returns true, the entity registrations are kept for later, and the entities are not updated
+	 * @param input  Called after the registrations are applied and before the entities are updated, or null if the world has no input
+	 * @since 0.1.0
+	 */
+	public void tick(@NotNull BooleanSupplier paused, @Nullable Runnable input) {
+		World previousWorld = setCurrent(this);
+		try {
+			long start = System.nanoTime();
+			long time = start;
+			frame++;
+			tasks.runDueTasks(frame);
+			time = profiler.record(Phase.TASKS, time);
+			if(!paused.getAsBoolean()) {
+				handleEntities();
+			}
+			long entityTime = System.nanoTime() - time;
+			time += entityTime;
+			if(input != null) {
+				input.run();
+			}
+			time = profiler.record(Phase.INPUT, time);
+			if(!paused.getAsBoolean()) {
+				synchronized(updateLock) {
+					for(int step = GameEngine.getPhysicsSteps(frame); step > 0; step--) {//fixed steps, so the tick rate doesn't change the speed of the game
+						updater.update(store, entities.getAll());//bulk movement of stored entities, then self-processing (movement etc)
+						time = profiler.record(Phase.PROCESS, time);
+						handleEntities();//allows removing both BEFORE and AFTER processing, without staying in the world for a frame
+						long now = System.nanoTime();
+						entityTime += now - time;
+						time = now;
+						broadPhase.findPairs(entities.getCollidable(), this::handleCollision);//collision
+						time = profiler.record(Phase.COLLISION, time);
+					}
+				}
+			}
+			profiler.getHistogram(Phase.ENTITIES).record(entityTime);
+			profiler.endFrame(entities.size(), entities.getCollidable().size());
+			profiler.record(Phase.FRAME, start);
+		} finally {
+			setCurrent(previousWorld);
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return "World " + name;
+	}
+	
+	/**
+	 * Unregisters all entities from the world at the start of the next frame. Can be called from any thread.
+	 *
+	 * @since 0.1.0
+	 */
+	public void unregisterAllEntities() {
+		if(ParallelUpdater.defer(this::unregisterAllEntities)) {
+			return;
+		}
+		synchronized(entityLock) {
+			entitiesToRemove.addAll(entities.getAll());
+		}
+	}
+	
+	/**
+	 * Removes an entity from the world at the start of the next frame. Can be called from any thread.
+	 *
+	 * @param e The entity to remove
+	 * @since 0.1.0
+	 */
+	public void unregisterEntity(@NotNull Entity e) {
+		if(ParallelUpdater.defer(() -> unregisterEntity(e))) {
+			return;
+		}
+		synchronized(entityLock) {
+			entitiesToRemove.add(e);
+		}
+	}
+	
+	/**
+	 * Removes the entity of the handle from the world at the start of the next frame. Fails silently if the handle is stale. Can be called from any thread.
+	 *
+	 * @param handle The handle of the entity to remove
+	 * @since 0.1.0
+	 */
+	public void unregisterEntity(@NotNull EntityHandle handle) {
+		if(ParallelUpdater.defer(() -> unregisterEntity(handle))) {
+			return;
+		}
+		synchronized(entityLock) {
+			Entity e = entities.get(handle);
+			if(e != null) {
+				entitiesToRemove.add(e);
+			}
+		}
+	}
+	
+	/**
+	 * Checks and handles the collision of two entities. Only entities where exactly one of them can be moved by collisions are checked.
+	 *
+	 * @param first  The first entity
+	 * @param second The second entity
+	 * @since 0.1.0
+	 */
+	protected void handleCollision(@NotNull Entity first, @NotNull Entity second) {
+		profiler.countCollisionPair();
+		if(!(second.isCollisionMovable() ^ first.isCollisionMovable()) || !CollisionResolver.areIntersecting(first, second)) {
+			return;
+		}
+		Entity moving, staying;
+		if(first.isCollisionMovable()) {
+			moving = first;
+			staying = second;
+		} else {
+			moving = second;
+			staying = first;
+		}
+		if(!CollisionResolver.findContact(moving, staying, contact)) {//collision from previous frames
+			return;
+		}
+		if(moving.onCollision(staying, contact) && staying.onCollision(moving, contact)) {
+			CollisionResolver.resolve(contact);
+		}
+	}
+	
+	/**
+	 * Handles all entity removals and additions.
+	 *
+	 * @since 0.1.0
+	 */
+	protected void handleEntities() {
+		synchronized(entityLock) {
+			for(Entity e : entitiesToRemove) {//removing entities
+				if(!entities.remove(e)) {//already removed, or never added
+					continue;
+				}
+				if(e instanceof StoredEntity stored) {
+					store.remove(stored);
+				}
+				if(e instanceof PlayerEntity && players.contains(e)) {
+					players.set(players.indexOf(e), null);
+					//auto-clear the player list when no players remain
+					if(entities.getPlayers().isEmpty()) {
+						players.clear();
+					}
+				}
+			}
+			entitiesToRemove.clear();
+			for(Entity e : entitiesToAdd) {//adding entities
+				if(entities.add(e) == null) {
+					LOGGER.warn("Attempted to register entity " + e + " twice in " + this);
+					continue;
+				}
+				if(e.isMovable() && e instanceof StoredEntity stored) {
+					store.add(stored);
+				}
+				if(e instanceof PlayerEntity player) {
+					players.add(player);
+				}
+			}
+			entitiesToAdd.clear();
+		}
+	}
+	
+	/**
+	 * The saved entity registrations of a world, reused between saves.
+	 *
+	 * @see #save(State)
+	 * @see #restore(State)
+	 * @since 0.1.0
+	 */
+	public static class State {
+		/**
+		 * The registered entities followed by the pending registrations; the entities whose values are saved with the state
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull ArrayList<Entity> entities = new ArrayList<>();
+		/**
+		 * The entities to be added in the next frame
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull ArrayList<Entity> entitiesToAdd = new ArrayList<>();
+		/**
+		 * The entities to be removed in the next frame
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull ArrayList<Entity> entitiesToRemove = new ArrayList<>();
+		/**
+		 * The players, indexed by player id
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull ArrayList<PlayerEntity> players = new ArrayList<>();
+		/**
+		 * The saved entity registry
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull EntityRegistry.State registry = new EntityRegistry.State();
+		/**
+		 * The frame of the world
+		 *
+		 * @since 0.1.0
+		 */
+		protected long frame;
+		
+		/**
+		 * Gets the entities whose values are saved with the state: the registered entities, followed by the ones waiting for registration.
+		 *
+		 * @return The entities
+		 * @since 0.1.0
+		 */
+		public @NotNull List<Entity> getEntities() {
+			return entities;
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine;
+
+import dartproductions.mcleodmassacre.engine.ParallelUpdater.ChunkAction;
+import dartproductions.mcleodmassacre.engine.timing.FrameScheduler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Ticks many {@link World worlds} across a thread pool, for example the matches of a server. Every world is ticked once per {@link #tickAll() round}, each on a single thread; the rounds are timed by {@link #run(BooleanSupplier, FrameScheduler)}, or by the caller for benchmarks and tests.
+ * <p>
+ * Worlds should use sequential entity updates, as the parallelism comes from ticking many worlds at once. A world that throws an exception is removed from the scheduler, without affecting the other worlds.
+ *
+ * @since 0.1.0
+ */
+public class WorldScheduler {
+	/**
+	 * Logger for the world scheduler
+	 *
+	 * @since 0.1.0
+	 */
+	private static final Logger LOGGER = LogManager.getLogger(WorldScheduler.class);
+	/**
+	 * The thread pool ticking the worlds
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ForkJoinPool pool;
+	/**
+	 * The scheduled worlds
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull CopyOnWriteArrayList<World> worlds = new CopyOnWriteArrayList<>();
+	
+	/**
+	 * Creates a new scheduler.
+	 *
+	 * @param threads The amount of threads ticking the worlds
+	 * @since 0.1.0
+	 */
+	public WorldScheduler(int threads) {
+		pool = new ForkJoinPool(Math.max(1, threads), p -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+			thread.setName("World ticker " + thread.getPoolIndex());
+			thread.setDaemon(true);
+			return thread;
+		}, (t, e) -> LOGGER.error("Uncaught exception in world ticker thread (" + t.getName() + ")", e), false);
+	}
+	
+	/**
+	 * Adds a world to the scheduler. The world is ticked from the next round.
+	 *
+	 * @param world The world to add
+	 * @since 0.1.0
+	 */
+	public void add(@NotNull World world) {
+		worlds.addIfAbsent(world);
+	}
+	
+	/**
+	 * Gets the amount of threads ticking the worlds.
+	 *
+	 * @return The amount of threads
+	 * @since 0.1.0
+	 */
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+	
+	/**
+	 * Gets the scheduled worlds.
+	 *
+	 * @return An unmodifiable view of the worlds
+	 * @since 0.1.0
+	 */
+	public @NotNull List<World> getWorlds() {
+		return Collections.unmodifiableList(worlds);
+	}
+	
+	/**
+	 * Removes a world from the scheduler. The world is not shut down.
+	 *
+	 * @param world The world to remove
+	 * @return True if the world was scheduled
+	 * @since 0.1.0
+	 */
+	public boolean remove(@NotNull World world) {
+		return worlds.remove(world);
+	}
+	
+	/**
+	 * Ticks the worlds in real time, once every {@link GameEngine#getFrameLength() frame}, until the condition turns false. Rounds that would start more than a second late are skipped instead of being caught up.
+	 *
+	 * @param running        Checked before every round; the method returns when it returns false
+	 * @param frameScheduler The scheduler used for waiting between rounds
+	 * @throws InterruptedException If the thread is interrupted while waiting
+	 * @since 0.1.0
+	 */
+	public void run(@NotNull BooleanSupplier running, @NotNull FrameScheduler frameScheduler) throws InterruptedException {
+		final long frameLength = GameEngine.getFrameLengthNano();
+		long deadline = System.nanoTime();
+		while(running.getAsBoolean()) {
+			tickAll();
+			deadline += frameLength;
+			long late = System.nanoTime() - deadline;
+			if(late > 1000000000L) {
+				LOGGER.warn("World scheduler is " + late / 1000000 + " ms behind, skipping " + late / frameLength + " rounds");
+				deadline += late / frameLength * frameLength;
+			}
+			frameScheduler.waitUntil(deadline);
+		}
+	}
+	
+	/**
+	 * Shuts down the thread pool of the scheduler. The worlds are not shut down.
+	 *
+	 * @since 0.1.0
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+	
+	/**
+	 * Ticks every world once, in parallel, and waits for all of them to finish.
+	 *
+	 * @since 0.1.0
+	 */
+	public void tickAll() {
+		Object[] snapshot = worlds.toArray();
+		if(snapshot.length > 0) {
+			pool.invoke(new ChunkAction(0, snapshot.length, i -> tick((World) snapshot[i])));
+		}
+	}
+	
+	/**
+	 * Ticks a single world, removing it if it fails.
+	 *
+	 * @param world The world to tick
+	 * @since 0.1.0
+	 */
+	protected void tick(@NotNull World world) {
+		try {
+			world.tick();
+		} catch(RuntimeException e) {
+			LOGGER.error("Uncaught exception in " + world + ", removing it from the scheduler", e);
+			worlds.remove(world);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.collision;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+import dartproductions.mcleodmassacre.graphics.animation.Animation;
+import dartproductions.mcleodmassacre.hitbox.BitmaskHitbox;
+import dartproductions.mcleodmassacre.options.CollisionDetectionOption;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * The broad phase of collision detection. Broad phases find the pairs of entities that might collide, based on the bounding boxes of their hitboxes, so the expensive hitbox intersection only has to be calculated for these pairs.
+ *
+ * @since 0.1.0
+ */
+public interface BroadPhase {
+	/**
+	 * Creates a new broad phase for the specified collision detection strategy.
+	 *
+	 * @param option The strategy
+	 * @return The new broad phase
+	 * @since 0.1.0
+	 */
+	static @NotNull BroadPhase create(@NotNull CollisionDetectionOption option) {
+		return switch(option) {
+			case BRUTE_FORCE -> new BruteForceBroadPhase();
+			case SPATIAL_HASH -> new SpatialHashBroadPhase();
+			case SWEEP_AND_PRUNE -> new SweepAndPruneBroadPhase();
+		};
+	}
+	
+	/**
+	 * Calculates the bounding box of the entity's current hitbox, in world coordinates.
+	 *
+	 * @param entity The entity
+	 * @param bounds The rectangle to store the bounding box in
+	 * @return False if the entity has no hitbox, or its hitbox is empty
+	 * @since 0.1.0
+	 */
+	static boolean getBounds(@NotNull Entity entity, @NotNull Rectangle bounds) {
+		Animation animation = entity.getCurrentAnimation();
+		Point location = entity.getLocation();
+		Dimension offset = animation.getOffset();
+		BitmaskHitbox mask = animation.getCurrentMask();
+		if(mask != null) {//doesn't need the area
+			if(mask.isEmpty()) {
+				return false;
+			}
+			bounds.setBounds(mask.getMinX() + location.x + offset.width, mask.getMinY() + location.y + offset.height, mask.getMaxX() - mask.getMinX() + 1, mask.getMaxY() - mask.getMinY() + 1);
+			return true;
+		}
+		Area hitbox = animation.getCurrentHitbox();
+		if(hitbox == null) {
+			return false;
+		}
+		Rectangle box = hitbox.getBounds();
+		if(box.isEmpty()) {
+			return false;
+		}
+		bounds.setBounds(box.x + location.x + offset.width, box.y + location.y + offset.height, box.width, box.height);
+		return true;
+	}
+	
+	/**
+	 * Finds the pairs of entities that might be colliding. Every pair is passed to the consumer at most once, in no particular order. Entities without a hitbox are never part of a pair.
+	 *
+	 * @param entities The entities to check
+	 * @param consumer The consumer of the pairs
+	 * @since 0.1.0
+	 */
+	void findPairs(@NotNull List<? extends Entity> entities, @NotNull BiConsumer<Entity, Entity> consumer);
+}
@@ -0,0 +1,50 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.collision;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Broad phase that reports every pair of entities, without looking at their bounding boxes. This is how collisions were checked before broad phases were introduced; it is only useful for comparison and debugging.
+ *
+ * @since 0.1.0
+ */
+public class BruteForceBroadPhase implements BroadPhase {
+	/**
+	 * Checks if the entity currently has a hitbox.
+	 *
+	 * @param entity The entity
+	 * @return True if it has a hitbox
+	 * @since 0.1.0
+	 */
+	private static boolean hasHitbox(@NotNull Entity entity) {
+		return entity.getCurrentAnimation().getCurrentMask() != null || entity.getCurrentAnimation().getCurrentHitbox() != null;
+	}
+	
+	@Override
+	public void findPairs(@NotNull List<? extends Entity> entities, @NotNull BiConsumer<Entity, Entity> consumer) {
+		for(int i = 0; i < entities.size(); i++) {
+			Entity first = entities.get(i);
+			if(!hasHitbox(first)) {
+				continue;
+			}
+			for(int j = i + 1; j < entities.size(); j++) {
+				Entity second = entities.get(j);
+				if(hasHitbox(second)) {
+					consumer.accept(first, second);
+				}
+			}
+		}
+	}
+}
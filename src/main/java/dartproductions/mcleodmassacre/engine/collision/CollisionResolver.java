@@ -0,0 +1,174 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.collision;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+import dartproductions.mcleodmassacre.graphics.animation.Animation;
+import dartproductions.mcleodmassacre.hitbox.BitmaskHitbox;
+import dartproductions.mcleodmassacre.hitbox.BitmaskHitbox.Overlap;
+import dartproductions.mcleodmassacre.hitbox.RectangleHitbox;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+
+/**
+ * The narrow phase of collision detection, and the resolution of collisions. The time of impact is found with a binary search along the moving entity's last movement, so resolving a collision takes O(log(speed)) hitbox checks regardless of how deep the entities overlap.
+ *
+ * @since 0.1.0
+ */
+public class CollisionResolver {
+	/**
+	 * Reusable overlap details for resolving overlaps of entities that are not moving. One instance per thread, as worlds can be simulated on different threads.
+	 *
+	 * @since 0.1.0
+	 */
+	private static final @NotNull ThreadLocal<Overlap> OVERLAP = ThreadLocal.withInitial(Overlap::new);
+	
+	/**
+	 * Checks if two entities are intersecting with each other. Uses the {@link Animation#getCurrentRectangles() rectangle hitbox} of an entity if it has one, then the {@link Animation#getCurrentMask() bitmask hitboxes} if both entities have one, and the hitbox areas otherwise.
+	 *
+	 * @param first  The first entity
+	 * @param second The second entity
+	 * @return True if they are intersecting
+	 * @since 0.1.0
+	 */
+	public static boolean areIntersecting(@NotNull Entity first, @NotNull Entity second) {
+		Animation firstAnimation = first.getCurrentAnimation(), secondAnimation = second.getCurrentAnimation();
+		int firstX = first.getLocation().x + firstAnimation.getOffset().width, firstY = first.getLocation().y + firstAnimation.getOffset().height;
+		int secondX = second.getLocation().x + secondAnimation.getOffset().width, secondY = second.getLocation().y + secondAnimation.getOffset().height;
+		RectangleHitbox firstRectangles = firstAnimation.getCurrentRectangles(), secondRectangles = secondAnimation.getCurrentRectangles();
+		BitmaskHitbox firstMask = firstAnimation.getCurrentMask(), secondMask = secondAnimation.getCurrentMask();
+		if(firstRectangles != null && secondRectangles != null) {
+			return firstRectangles.intersects(firstX, firstY, secondRectangles, secondX, secondY);
+		} else if(firstRectangles != null && secondMask != null) {
+			return firstRectangles.intersects(firstX, firstY, secondMask, secondX, secondY);
+		} else if(secondRectangles != null && firstMask != null) {
+			return secondRectangles.intersects(secondX, secondY, firstMask, firstX, firstY);
+		} else if(firstMask != null && secondMask != null) {//pixel-precise check without creating areas
+			return firstMask.intersects(firstX, firstY, secondMask, secondX, secondY, null);
+		}
+		Area a = firstAnimation.getCurrentHitbox().createTransformedArea(AffineTransform.getTranslateInstance(first.getLocation().x + firstAnimation.getOffset().width, first.getLocation().y + firstAnimation.getOffset().height));
+		a.intersect((secondAnimation.getCurrentHitbox().createTransformedArea(AffineTransform.getTranslateInstance(second.getLocation().x + secondAnimation.getOffset().width, second.getLocation().y + secondAnimation.getOffset().height))));
+		return !a.isEmpty();
+	}
+	
+	/**
+	 * Finds the contact between two intersecting entities. The moving entity's location is not changed.
+	 * <p>
+	 * If the moving entity has a velocity, its last movement is searched for the last location where the entities didn't intersect. If they were already intersecting before the movement, the collision is from a previous frame and is ignored.
+	 * <p>
+	 * If the moving entity isn't moving, the overlap is resolved along the axis with the smallest penetration. This requires both entities to have {@link Animation#getCurrentMask() bitmask hitboxes}; otherwise the collision is ignored.
+	 *
+	 * @param moving  The entity that can be moved by the collision
+	 * @param staying The entity that can't be moved by the collision
+	 * @param contact The object to store the contact in
+	 * @return True if the contact was found, false if the collision should be ignored
+	 * @since 0.1.0
+	 */
+	public static boolean findContact(@NotNull Entity moving, @NotNull Entity staying, @NotNull Contact contact) {
+		Dimension velocity = moving.getVelocity();
+		int vx = velocity.width, vy = velocity.height;
+		Point location = moving.getLocation();
+		int x1 = location.x, y1 = location.y;
+		if(vx == 0 && vy == 0) {
+			return findStaticContact(moving, staying, contact);
+		}
+		int x0 = x1 - vx, y0 = y1 - vy;
+		moving.setLocation(x0, y0);
+		if(areIntersecting(moving, staying)) {//ignore collisions from previous frames
+			moving.setLocation(x1, y1);
+			return false;
+		}
+		//binary search for the last step without intersection; 'free' never intersects, 'hit' always does
+		int steps = Math.max(Math.abs(vx), Math.abs(vy));
+		int free = 0, hit = steps;
+		while(hit - free > 1) {
+			int middle = (free + hit) >>> 1;
+			moving.setLocation(x0 + vx * middle / steps, y0 + vy * middle / steps);
+			if(areIntersecting(moving, staying)) {
+				hit = middle;
+			} else {
+				free = middle;
+			}
+		}
+		int freeX = x0 + vx * free / steps, freeY = y0 + vy * free / steps;
+		int hitX = x0 + vx * hit / steps, hitY = y0 + vy * hit / steps;
+		//the normal is along the axis that can't be moved along on its own
+		moving.setLocation(hitX, freeY);
+		boolean blockedX = hitX != freeX && areIntersecting(moving, staying);
+		moving.setLocation(freeX, hitY);
+		boolean blockedY = hitY != freeY && areIntersecting(moving, staying);
+		moving.setLocation(x1, y1);
+		boolean horizontal = blockedX == blockedY ? Math.abs(vx) > Math.abs(vy) : blockedX;
+		if(horizontal) {
+			contact.set(moving, staying, freeX, freeY, -Integer.signum(vx), 0, free / (double) steps);
+		} else {
+			contact.set(moving, staying, freeX, freeY, 0, -Integer.signum(vy), free / (double) steps);
+		}
+		return true;
+	}
+	
+	/**
+	 * Resolves a contact found by {@link #findContact(Entity, Entity, Contact)}. The moving entity is moved to the contact location, then slides along the staying entity as far as its last movement allows. Its velocity towards the staying entity is removed.
+	 *
+	 * @param contact The contact to resolve
+	 * @since 0.1.0
+	 */
+	public static void resolve(@NotNull Contact contact) {
+		Entity moving = contact.getMoving(), staying = contact.getStaying();
+		Point location = moving.getLocation();
+		int x1 = location.x, y1 = location.y;
+		//slide: keep the movement along the surface if it doesn't cause an intersection
+		if(contact.getNormalX() == 0) {
+			moving.setLocation(x1, contact.getY());
+		} else {
+			moving.setLocation(contact.getX(), y1);
+		}
+		if(areIntersecting(moving, staying)) {
+			moving.setLocation(contact.getX(), contact.getY());
+		}
+		Dimension velocity = moving.getVelocity();
+		int vx = velocity.width, vy = velocity.height;
+		if(contact.getNormalX() != 0 && Integer.signum(vx) == -contact.getNormalX()) {
+			vx = 0;
+		}
+		if(contact.getNormalY() != 0 && Integer.signum(vy) == -contact.getNormalY()) {
+			vy = 0;
+		}
+		moving.setVelocity(vx, vy);
+	}
+	
+	/**
+	 * Finds the contact of intersecting entities when the moving entity has no velocity.
+	 *
+	 * @param moving  The entity that can be moved by the collision
+	 * @param staying The entity that can't be moved by the collision
+	 * @param contact The object to store the contact in
+	 * @return True if the contact was found
+	 * @since 0.1.0
+	 */
+	private static boolean findStaticContact(@NotNull Entity moving, @NotNull Entity staying, @NotNull Contact contact) {
+		Animation movingAnimation = moving.getCurrentAnimation(), stayingAnimation = staying.getCurrentAnimation();
+		BitmaskHitbox movingMask = movingAnimation.getCurrentMask(), stayingMask = stayingAnimation.getCurrentMask();
+		if(movingMask == null || stayingMask == null) {
+			return false;
+		}
+		Point location = moving.getLocation();
+		Overlap overlap = OVERLAP.get();
+		if(!movingMask.intersects(location.x + movingAnimation.getOffset().width, location.y + movingAnimation.getOffset().height, stayingMask, staying.getLocation().x + stayingAnimation.getOffset().width, staying.getLocation().y + stayingAnimation.getOffset().height, overlap)) {
+			return false;
+		}
+		contact.set(moving, staying, location.x + overlap.getNormalX() * overlap.getDepth(), location.y + overlap.getNormalY() * overlap.getDepth(), overlap.getNormalX(), overlap.getNormalY(), 0);
+		return true;
+	}
+}
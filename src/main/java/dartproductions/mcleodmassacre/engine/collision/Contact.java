@@ -0,0 +1,156 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.collision;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Describes the contact between a moving and a staying entity, as found by {@link CollisionResolver#findContact(Entity, Entity, Contact)}. Instances are meant to be reused between collisions.
+ *
+ * @since 0.1.0
+ */
+public class Contact {
+	/**
+	 * The entity that is moved by the collision
+	 *
+	 * @since 0.1.0
+	 */
+	protected @Nullable Entity moving;
+	/**
+	 * The entity that is not moved by the collision
+	 *
+	 * @since 0.1.0
+	 */
+	protected @Nullable Entity staying;
+	/**
+	 * The x coordinate of the moving entity's location when it touches the staying entity
+	 *
+	 * @since 0.1.0
+	 */
+	protected int x;
+	/**
+	 * The y coordinate of the moving entity's location when it touches the staying entity
+	 *
+	 * @since 0.1.0
+	 */
+	protected int y;
+	/**
+	 * The x component of the contact normal
+	 *
+	 * @since 0.1.0
+	 */
+	protected int normalX;
+	/**
+	 * The y component of the contact normal
+	 *
+	 * @since 0.1.0
+	 */
+	protected int normalY;
+	/**
+	 * The time of impact
+	 *
+	 * @since 0.1.0
+	 */
+	protected double time;
+	
+	/**
+	 * Gets the entity that is moved by the collision.
+	 *
+	 * @return The moving entity
+	 * @since 0.1.0
+	 */
+	public @Nullable Entity getMoving() {
+		return moving;
+	}
+	
+	/**
+	 * Gets the x component of the contact normal. The normal points in the direction the moving entity is pushed out of the staying entity.
+	 *
+	 * @return -1, 0 or 1
+	 * @since 0.1.0
+	 */
+	public int getNormalX() {
+		return normalX;
+	}
+	
+	/**
+	 * Gets the y component of the contact normal. The normal points in the direction the moving entity is pushed out of the staying entity; a negative value means the moving entity landed on top of the staying entity.
+	 *
+	 * @return -1, 0 or 1
+	 * @since 0.1.0
+	 */
+	public int getNormalY() {
+		return normalY;
+	}
+	
+	/**
+	 * Gets the entity that is not moved by the collision.
+	 *
+	 * @return The staying entity
+	 * @since 0.1.0
+	 */
+	public @Nullable Entity getStaying() {
+		return staying;
+	}
+	
+	/**
+	 * Gets the time of impact: the part of the moving entity's last movement it could make before touching the staying entity.
+	 *
+	 * @return The time between 0 (inclusive) and 1 (exclusive)
+	 * @since 0.1.0
+	 */
+	public double getTime() {
+		return time;
+	}
+	
+	/**
+	 * Gets the x coordinate of the moving entity's location when it touches, but doesn't overlap, the staying entity.
+	 *
+	 * @return The x coordinate
+	 * @since 0.1.0
+	 */
+	public int getX() {
+		return x;
+	}
+	
+	/**
+	 * Gets the y coordinate of the moving entity's location when it touches, but doesn't overlap, the staying entity.
+	 *
+	 * @return The y coordinate
+	 * @since 0.1.0
+	 */
+	public int getY() {
+		return y;
+	}
+	
+	/**
+	 * Sets the details of the contact.
+	 *
+	 * @param moving  The moving entity
+	 * @param staying The staying entity
+	 * @param x       The x coordinate of the contact location
+	 * @param y       The y coordinate of the contact location
+	 * @param normalX The x component of the normal
+	 * @param normalY The y component of the normal
+	 * @param time    The time of impact
+	 * @since 0.1.0
+	 */
+	protected void set(@NotNull Entity moving, @NotNull Entity staying, int x, int y, int normalX, int normalY, double time) {
+		this.moving = moving;
+		this.staying = staying;
+		this.x = x;
+		this.y = y;
+		this.normalX = normalX;
+		this.normalY = normalY;
+		this.time = time;
+	}
+}
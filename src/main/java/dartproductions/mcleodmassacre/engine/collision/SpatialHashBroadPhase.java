@@ -0,0 +1,239 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.collision;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Broad phase based on a uniform grid. Every entity is put into the grid cells its bounding box covers, and only entities sharing a cell are checked against each other. A pair is only reported in the first cell (by coordinates) the two entities share, so pairs are never reported twice.
+ * <p>
+ * The grid is stored in an open-addressing hash table that is reused between frames, so no objects are created once the tables are large enough.
+ *
+ * @since 0.1.0
+ */
+public class SpatialHashBroadPhase implements BroadPhase {
+	/**
+	 * The default size of the grid cells, in pixels
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int DEFAULT_CELL_SIZE = 128;
+	/**
+	 * The size of the grid cells, in pixels
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int cellSize;
+	/**
+	 * The bounding boxes of the entities in the current frame
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull Rectangle[] bounds = new Rectangle[0];
+	/**
+	 * The entities with a hitbox in the current frame
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull Entity[] entities = new Entity[0];
+	/**
+	 * The first (smallest) cell coordinates covered by the entities, stored as x, y pairs
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] minCells = new int[0];
+	/**
+	 * The last (largest) cell coordinates covered by the entities, stored as x, y pairs
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] maxCells = new int[0];
+	/**
+	 * The keys of the hash table; each key is a cell's coordinates
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull long[] keys = new long[0];
+	/**
+	 * The first entry of each cell in the hash table
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] heads = new int[0];
+	/**
+	 * The generation in which each slot of the hash table was last written. Slots from older generations are considered empty.
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] stamps = new int[0];
+	/**
+	 * The entity index of each cell entry
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] entryEntities = new int[0];
+	/**
+	 * The next entry in the same cell, or -1
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull int[] entryNext = new int[0];
+	/**
+	 * The current generation of the hash table
+	 *
+	 * @since 0.1.0
+	 */
+	protected int generation = 0;
+	
+	/**
+	 * Creates a new spatial hash with the {@link #DEFAULT_CELL_SIZE default cell size}.
+	 *
+	 * @since 0.1.0
+	 */
+	public SpatialHashBroadPhase() {
+		this(DEFAULT_CELL_SIZE);
+	}
+	
+	/**
+	 * Creates a new spatial hash with the specified cell size.
+	 *
+	 * @param cellSize The size of the cells in pixels
+	 * @throws IllegalArgumentException If the cell size is not positive
+	 * @since 0.1.0
+	 */
+	public SpatialHashBroadPhase(int cellSize) throws IllegalArgumentException {
+		if(cellSize <= 0) {
+			throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+		}
+		this.cellSize = cellSize;
+	}
+	
+	/**
+	 * Creates the hash table key of a cell.
+	 *
+	 * @param x The x coordinate of the cell
+	 * @param y The y coordinate of the cell
+	 * @return The key
+	 * @since 0.1.0
+	 */
+	private static long key(int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+	
+	@Override
+	public void findPairs(@NotNull List<? extends Entity> entities, @NotNull BiConsumer<Entity, Entity> consumer) {
+		int count = collect(entities);
+		if(count < 2) {
+			Arrays.fill(this.entities, 0, count, null);
+			return;
+		}
+		int cells = 0;
+		for(int i = 0; i < count; i++) {
+			cells += (maxCells[2 * i] - minCells[2 * i] + 1) * (maxCells[2 * i + 1] - minCells[2 * i + 1] + 1);
+		}
+		prepareTable(cells);
+		int entryCount = 0;
+		int mask = keys.length - 1;
+		for(int i = 0; i < count; i++) {
+			Rectangle box = bounds[i];
+			int minX = minCells[2 * i], minY = minCells[2 * i + 1];
+			for(int cx = minX; cx <= maxCells[2 * i]; cx++) {
+				for(int cy = minY; cy <= maxCells[2 * i + 1]; cy++) {
+					long key = key(cx, cy);
+					int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+					while(stamps[slot] == generation && keys[slot] != key) {
+						slot = (slot + 1) & mask;
+					}
+					if(stamps[slot] != generation) {//new cell
+						stamps[slot] = generation;
+						keys[slot] = key;
+						heads[slot] = -1;
+					}
+					for(int entry = heads[slot]; entry != -1; entry = entryNext[entry]) {
+						int other = entryEntities[entry];
+						//only report the pair in the first cell shared by both entities
+						if(Math.max(minX, minCells[2 * other]) == cx && Math.max(minY, minCells[2 * other + 1]) == cy && box.intersects(bounds[other])) {
+							consumer.accept(this.entities[other], this.entities[i]);
+						}
+					}
+					entryEntities[entryCount] = i;
+					entryNext[entryCount] = heads[slot];
+					heads[slot] = entryCount++;
+				}
+			}
+		}
+		Arrays.fill(this.entities, 0, count, null);//don't keep removed entities alive
+	}
+	
+	/**
+	 * Collects the entities with hitboxes and calculates their bounding boxes and cell ranges.
+	 *
+	 * @param list The entities
+	 * @return The amount of entities with a hitbox
+	 * @since 0.1.0
+	 */
+	protected int collect(@NotNull List<? extends Entity> list) {
+		if(entities.length < list.size()) {
+			int size = Math.max(list.size(), entities.length * 2);
+			entities = Arrays.copyOf(entities, size);
+			minCells = Arrays.copyOf(minCells, size * 2);
+			maxCells = Arrays.copyOf(maxCells, size * 2);
+			int old = bounds.length;
+			bounds = Arrays.copyOf(bounds, size);
+			for(int i = old; i < size; i++) {
+				bounds[i] = new Rectangle();
+			}
+		}
+		int count = 0;
+		for(Entity entity : list) {
+			Rectangle box = bounds[count];
+			if(BroadPhase.getBounds(entity, box)) {
+				entities[count] = entity;
+				minCells[2 * count] = Math.floorDiv(box.x, cellSize);
+				minCells[2 * count + 1] = Math.floorDiv(box.y, cellSize);
+				maxCells[2 * count] = Math.floorDiv(box.x + box.width - 1, cellSize);
+				maxCells[2 * count + 1] = Math.floorDiv(box.y + box.height - 1, cellSize);
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Clears the hash table and makes sure it can hold the specified amount of cell entries.
+	 *
+	 * @param cells The amount of cell entries
+	 * @since 0.1.0
+	 */
+	protected void prepareTable(int cells) {
+		if(entryEntities.length < cells) {
+			entryEntities = new int[cells * 2];
+			entryNext = new int[cells * 2];
+		}
+		int capacity = Integer.highestOneBit(Math.max(cells, 8) * 2 - 1) << 1;
+		if(keys.length < capacity) {
+			keys = new long[capacity];
+			heads = new int[capacity];
+			stamps = new int[capacity];
+			generation = 0;
+		}
+		generation++;
+		if(generation == 0) {//overflow, reset all stamps
+			Arrays.fill(stamps, 0);
+			generation = 1;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.collision;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Broad phase based on sweep and prune. The bounding boxes are sorted by their left edge, and each box is only compared with the boxes starting before its right edge. Works best when entities are spread out horizontally, which is typical for platformer maps.
+ *
+ * @since 0.1.0
+ */
+public class SweepAndPruneBroadPhase implements BroadPhase {
+	/**
+	 * The bounding boxes of the entities in the current frame
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull Rectangle[] bounds = new Rectangle[0];
+	/**
+	 * The entities with a hitbox in the current frame
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull Entity[] entities = new Entity[0];
+	/**
+	 * The sort keys of the boxes. The upper 32 bits store the left edge of the box, the lower bits store its index.
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull long[] order = new long[0];
+	
+	@Override
+	public void findPairs(@NotNull List<? extends Entity> list, @NotNull BiConsumer<Entity, Entity> consumer) {
+		if(entities.length < list.size()) {
+			int size = Math.max(list.size(), entities.length * 2);
+			entities = Arrays.copyOf(entities, size);
+			order = Arrays.copyOf(order, size);
+			int old = bounds.length;
+			bounds = Arrays.copyOf(bounds, size);
+			for(int i = old; i < size; i++) {
+				bounds[i] = new Rectangle();
+			}
+		}
+		int count = 0;
+		for(Entity entity : list) {
+			if(BroadPhase.getBounds(entity, bounds[count])) {
+				entities[count] = entity;
+				order[count] = ((long) bounds[count].x << 32) | count;
+				count++;
+			}
+		}
+		Arrays.sort(order, 0, count);
+		for(int i = 0; i < count; i++) {
+			int first = (int) order[i];
+			Rectangle box = bounds[first];
+			int maxX = box.x + box.width;
+			for(int j = i + 1; j < count; j++) {
+				int second = (int) order[j];
+				Rectangle other = bounds[second];
+				if(other.x >= maxX) {//every later box starts even further to the right
+					break;
+				}
+				if(other.y < box.y + box.height && box.y < other.y + other.height) {
+					consumer.accept(entities[first], entities[second]);
+				}
+			}
+		}
+		Arrays.fill(entities, 0, count, null);//don't keep removed entities alive
+	}
+}
@@ -0,0 +1,17 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+/**
+ * This package contains the collision detection used by {@link dartproductions.mcleodmassacre.engine.GameEngine}.
+ * <p>
+ * Collisions are found in two steps: a {@link dartproductions.mcleodmassacre.engine.collision.BroadPhase} lists the pairs of entities whose bounding boxes overlap, and only these pairs are checked against each other's hitboxes.
+ *
+ * @since 0.1.0
+ */
+package dartproductions.mcleodmassacre.engine.collision;
@@ -0,0 +1,354 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.engine.profiling;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+/**
+ * Records the duration of the phases of the engine's frames, and the amount of entities and collision checks. The timings are kept in {@link LatencyHistogram lock-free histograms}, so the phases can be recorded from any thread; the counters are only updated by the engine thread.
+ * <p>
+ * The profiler can be {@link #register() published} as JMX MBeans: the counters are available as {@value #DOMAIN}:type=Engine, and the timings of each phase as {@value #DOMAIN}:type=FrameTiming,name=&lt;phase&gt;.
+ *
+ * @since 0.1.0
+ */
+public class FrameProfiler implements FrameProfilerMXBean {
+	/**
+	 * The JMX domain of the MBeans
+	 *
+	 * @since 0.1.0
+	 */
+	public static final String DOMAIN = "dartproductions.mcleodmassacre";
+	/**
+	 * Logger for the profiler
+	 *
+	 * @since 0.1.0
+	 */
+	protected static final Logger LOGGER = LogManager.getLogger(FrameProfiler.class);
+	/**
+	 * The timings of the phases, indexed by {@link Phase#ordinal()}
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull PhaseTiming[] timings = new PhaseTiming[Phase.values().length];
+	/**
+	 * The names of the registered MBeans
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ArrayList<ObjectName> registered = new ArrayList<>();
+	/**
+	 * The amount of collidable entities as of the last frame
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile int collidableEntityCount;
+	/**
+	 * The amount of collision pairs tested in the current frame
+	 *
+	 * @since 0.1.0
+	 */
+	protected long collisionPairs;
+	/**
+	 * The amount of collision pairs tested in the last frame
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile long collisionPairsTested;
+	/**
+	 * The amount of registered entities as of the last frame
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile int entityCount;
+	/**
+	 * The amount of collision pairs tested since the last reset
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile long totalCollisionPairsTested;
+	
+	/**
+	 * Creates a new profiler.
+	 *
+	 * @since 0.1.0
+	 */
+	public FrameProfiler() {
+		for(Phase phase : Phase.values()) {
+			timings[phase.ordinal()] = new PhaseTiming();
+		}
+	}
+	
+	/**
+	 * Counts a collision pair tested in the current frame.
+	 *
+	 * @since 0.1.0
+	 */
+	public void countCollisionPair() {
+		collisionPairs++;
+	}
+	
+	/**
+	 * Finishes the counters of the current frame.
+	 *
+	 * @param entityCount           The amount of registered entities
+	 * @param collidableEntityCount The amount of collidable entities
+	 * @since 0.1.0
+	 */
+	public void endFrame(int entityCount, int collidableEntityCount) {
+		this.entityCount = entityCount;
+		this.collidableEntityCount = collidableEntityCount;
+		collisionPairsTested = collisionPairs;
+		totalCollisionPairsTested += collisionPairs;
+		collisionPairs = 0;
+	}
+	
+	@Override
+	public int getCollidableEntityCount() {
+		return collidableEntityCount;
+	}
+	
+	@Override
+	public long getCollisionPairsTested() {
+		return collisionPairsTested;
+	}
+	
+	@Override
+	public int getEntityCount() {
+		return entityCount;
+	}
+	
+	@Override
+	public long getFrameCount() {
+		return getHistogram(Phase.FRAME).getCount();
+	}
+	
+	/**
+	 * Gets the histogram of a phase's durations.
+	 *
+	 * @param phase The phase
+	 * @return The histogram
+	 * @since 0.1.0
+	 */
+	public @NotNull LatencyHistogram getHistogram(@NotNull Phase phase) {
+		return timings[phase.ordinal()].histogram;
+	}
+	
+	@Override
+	public long getTotalCollisionPairsTested() {
+		return totalCollisionPairsTested;
+	}
+	
+	/**
+	 * Records the duration of a phase that started at the specified time and ends now.
+	 *
+	 * @param phase The phase
+	 * @param start The start of the phase, as given by {@link System#nanoTime()}
+	 * @return The current time, which can be used as the start of the next phase
+	 * @since 0.1.0
+	 */
+	public long record(@NotNull Phase phase, long start) {
+		long now = System.nanoTime();
+		getHistogram(phase).record(now - start);
+		return now;
+	}
+	
+	/**
+	 * Registers the MBeans of this profiler in the platform MBean server. Replaces the MBeans registered by other profilers under the same names. Fails silently (with a warning) if JMX is not available.
+	 *
+	 * @since 0.1.0
+	 */
+	public synchronized void register() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			register(server, new ObjectName(DOMAIN + ":type=Engine"), this);
+			for(Phase phase : Phase.values()) {
+				register(server, new ObjectName(DOMAIN + ":type=FrameTiming,name=" + phase.getName()), timings[phase.ordinal()]);
+			}
+			LOGGER.info("Registered engine MBeans in domain " + DOMAIN);
+		} catch(JMException | SecurityException e) {
+			LOGGER.warn("Could not register engine MBeans", e);
+		}
+	}
+	
+	@Override
+	public void reset() {
+		for(PhaseTiming timing : timings) {
+			timing.reset();
+		}
+		totalCollisionPairsTested = 0;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for(Phase phase : Phase.values()) {
+			LatencyHistogram histogram = getHistogram(phase);
+			builder.append(builder.isEmpty() ? "" : ", ").append(phase.getName()).append(String.format(" p50 %.3f ms, p99 %.3f ms", histogram.getPercentile(50) / 1e6, histogram.getPercentile(99) / 1e6));
+		}
+		return builder.toString();
+	}
+	
+	/**
+	 * Unregisters the MBeans registered by {@link #register()}.
+	 *
+	 * @since 0.1.0
+	 */
+	public synchronized void unregister() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for(ObjectName name : registered) {
+			try {
+				server.unregisterMBean(name);
+			} catch(JMException e) {
+				LOGGER.debug("Could not unregister MBean " + name, e);
+			}
+		}
+		registered.clear();
+	}
+	
+	/**
+	 * Registers an MBean, replacing any other MBean with the same name.
+	 *
+	 * @param server The MBean server
+	 * @param name   The name of the MBean
+	 * @param bean   The MBean
+	 * @throws JMException If the MBean can't be registered
+	 * @since 0.1.0
+	 */
+	protected void register(@NotNull MBeanServer server, @NotNull ObjectName name, @NotNull Object bean) throws JMException {
+		if(server.isRegistered(name)) {
+			server.unregisterMBean(name);
+		}
+		server.registerMBean(bean, name);
+		registered.add(name);
+	}
+	
+	/**
+	 * The measured phases of a frame
+	 *
+	 * @since 0.1.0
+	 */
+	public enum Phase {
+		/**
+		 * Running the scheduled tasks
+		 *
+		 * @since 0.1.0
+		 */
+		TASKS("Tasks"),
+		/**
+		 * Adding and removing entities
+		 *
+		 * @since 0.1.0
+		 */
+		ENTITIES("Entities"),
+		/**
+		 * Handling the input actions
+		 *
+		 * @since 0.1.0
+		 */
+		INPUT("Input"),
+		/**
+		 * Moving and processing the entities
+		 *
+		 * @since 0.1.0
+		 */
+		PROCESS("Process"),
+		/**
+		 * Finding and resolving collisions
+		 *
+		 * @since 0.1.0
+		 */
+		COLLISION("Collision"),
+		/**
+		 * The whole frame of the engine
+		 *
+		 * @since 0.1.0
+		 */
+		FRAME("Frame"),
+		/**
+		 * Painting the rendering layers; measured on the graphics thread
+		 *
+		 * @since 0.1.0
+		 */
+		PAINT("Paint");
+		/**
+		 * The display name of the phase
+		 *
+		 * @since 0.1.0
+		 */
+		private final @NotNull String name;
+		
+		Phase(@NotNull String name) {
+			this.name = name;
+		}
+		
+		/**
+		 * Gets the display name of the phase.
+		 *
+		 * @return The name
+		 * @since 0.1.0
+		 */
+		public @NotNull String getName() {
+			return name;
+		}
+	}
+	
+	/**
+	 * The timings of a phase, exposed over JMX
+	 *
+	 * @since 0.1.0
+	 */
+	protected static class PhaseTiming implements PhaseTimingMXBean {
+		/**
+		 * The recorded durations
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull LatencyHistogram histogram = new LatencyHistogram();
+		
+		@Override
+		public long getCount() {
+			return histogram.getCount();
+		}
+		
+		@Override
+		public double getMax() {
+			return histogram.getMax() / 1e6;
+		}
+		
+		@Override
+		public double getMean() {
+			return histogram.getMean() / 1e6;
+		}
+		
+		@Override
+		public double getP50() {
+			return histogram.getPercentile(50) / 1e6;
+		}
+		
+		@Override
+		public double getP99() {
+			return histogram.getPercentile(99) / 1e6;
+		}
+		
+		@Override
+		public void reset() {
+			histogram.reset();
+		}
+	}
+}
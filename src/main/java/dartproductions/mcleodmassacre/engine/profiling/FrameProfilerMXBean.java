@@ -0,0 +1,65 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.engine.profiling;
+
+/**
+ * Management interface of a {@link FrameProfiler}, exposing the engine's entity and collision counters over JMX.
+ *
+ * @since 0.1.0
+ */
+public interface FrameProfilerMXBean {
+	/**
+	 * Gets the amount of entities that can collide, as of the last frame.
+	 *
+	 * @return The amount of collidable entities
+	 * @since 0.1.0
+	 */
+	int getCollidableEntityCount();
+	
+	/**
+	 * Gets the amount of entity pairs tested for collision in the last frame.
+	 *
+	 * @return The amount of pairs
+	 * @since 0.1.0
+	 */
+	long getCollisionPairsTested();
+	
+	/**
+	 * Gets the amount of registered entities, as of the last frame.
+	 *
+	 * @return The amount of entities
+	 * @since 0.1.0
+	 */
+	int getEntityCount();
+	
+	/**
+	 * Gets the amount of profiled frames.
+	 *
+	 * @return The amount of frames
+	 * @since 0.1.0
+	 */
+	long getFrameCount();
+	
+	/**
+	 * Gets the amount of entity pairs tested for collision since the last reset.
+	 *
+	 * @return The amount of pairs
+	 * @since 0.1.0
+	 */
+	long getTotalCollisionPairsTested();
+	
+	/**
+	 * Removes all recorded timings and resets the counters.
+	 *
+	 * @since 0.1.0
+	 */
+	void reset();
+}
@@ -0,0 +1,186 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.engine.profiling;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations, using log-linear buckets similar to HdrHistogram. Values below {@value #LINEAR_LIMIT} ns have their own buckets; above that, every power of two is split into {@value #SUB_BUCKETS} equally wide buckets, so the relative error of the reported values is at most 1/{@value #SUB_BUCKETS}.
+ * <p>
+ * Values can be recorded from any thread without locking. Reading the statistics while values are being recorded gives a consistent enough view for monitoring, but not an exact snapshot.
+ *
+ * @since 0.1.0
+ */
+public class LatencyHistogram {
+	/**
+	 * The amount of buckets each power of two is split into
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int SUB_BUCKETS = 16;
+	/**
+	 * The values below this limit are stored in their own buckets
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+	/**
+	 * The amount of buckets; enough for every non-negative long value
+	 *
+	 * @since 0.1.0
+	 */
+	protected static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - Integer.numberOfTrailingZeros(LINEAR_LIMIT)) * SUB_BUCKETS;
+	/**
+	 * The amount of values in each bucket
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	/**
+	 * The amount of recorded values
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull AtomicLong count = new AtomicLong();
+	/**
+	 * The largest recorded value
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull AtomicLong max = new AtomicLong();
+	/**
+	 * The sum of the recorded values
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull AtomicLong sum = new AtomicLong();
+	
+	/**
+	 * Gets the bucket of a value.
+	 *
+	 * @param value The value; must not be negative
+	 * @return The index of the bucket
+	 * @since 0.1.0
+	 */
+	protected static int getBucket(long value) {
+		if(value < LINEAR_LIMIT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);//at least log2(LINEAR_LIMIT)
+		int shift = exponent - Integer.numberOfTrailingZeros(SUB_BUCKETS);
+		int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+		return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + subBucket;
+	}
+	
+	/**
+	 * Gets the largest value stored in a bucket.
+	 *
+	 * @param bucket The index of the bucket
+	 * @return The upper bound of the bucket (inclusive)
+	 * @since 0.1.0
+	 */
+	protected static long getUpperBound(int bucket) {
+		if(bucket < LINEAR_LIMIT) {
+			return bucket;
+		}
+		int shift = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+		long subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+	
+	/**
+	 * Gets the amount of recorded values.
+	 *
+	 * @return The amount of values
+	 * @since 0.1.0
+	 */
+	public long getCount() {
+		return count.get();
+	}
+	
+	/**
+	 * Gets the largest recorded value.
+	 *
+	 * @return The maximum, or 0 if nothing was recorded
+	 * @since 0.1.0
+	 */
+	public long getMax() {
+		return max.get();
+	}
+	
+	/**
+	 * Gets the average of the recorded values.
+	 *
+	 * @return The mean, or 0 if nothing was recorded
+	 * @since 0.1.0
+	 */
+	public double getMean() {
+		long count = getCount();
+		return count == 0 ? 0 : sum.get() / (double) count;
+	}
+	
+	/**
+	 * Gets the specified percentile of the recorded values. The returned value is the upper bound of the bucket containing the percentile, but never more than the {@link #getMax() maximum}.
+	 *
+	 * @param percentile The percentile between 0 and 100
+	 * @return The value, or 0 if nothing was recorded
+	 * @since 0.1.0
+	 */
+	public long getPercentile(double percentile) {
+		long count = getCount();
+		if(count == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+		long seen = 0;
+		for(int i = 0; i < BUCKET_COUNT; i++) {
+			seen += buckets.get(i);
+			if(seen >= target) {
+				return Math.min(getUpperBound(i), getMax());
+			}
+		}
+		return getMax();
+	}
+	
+	/**
+	 * Records a value. Negative values are recorded as 0.
+	 *
+	 * @param value The value (in nanoseconds)
+	 * @since 0.1.0
+	 */
+	public void record(long value) {
+		value = Math.max(0, value);
+		buckets.incrementAndGet(getBucket(value));
+		sum.addAndGet(value);
+		count.incrementAndGet();
+		long previous;
+		while(value > (previous = max.get()) && !max.compareAndSet(previous, value)) {
+			Thread.onSpinWait();
+		}
+	}
+	
+	/**
+	 * Removes all recorded values. Values recorded concurrently with the reset might be partially kept.
+	 *
+	 * @since 0.1.0
+	 */
+	public void reset() {
+		for(int i = 0; i < BUCKET_COUNT; i++) {
+			buckets.set(i, 0);
+		}
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+}
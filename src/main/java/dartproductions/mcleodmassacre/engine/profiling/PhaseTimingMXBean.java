@@ -0,0 +1,65 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.engine.profiling;
+
+/**
+ * Management interface of the timings of a single frame phase, exposed over JMX. All durations are in milliseconds.
+ *
+ * @since 0.1.0
+ */
+public interface PhaseTimingMXBean {
+	/**
+	 * Gets the amount of recorded durations.
+	 *
+	 * @return The amount of durations
+	 * @since 0.1.0
+	 */
+	long getCount();
+	
+	/**
+	 * Gets the longest recorded duration.
+	 *
+	 * @return The maximum
+	 * @since 0.1.0
+	 */
+	double getMax();
+	
+	/**
+	 * Gets the average duration.
+	 *
+	 * @return The mean
+	 * @since 0.1.0
+	 */
+	double getMean();
+	
+	/**
+	 * Gets the median duration.
+	 *
+	 * @return The 50th percentile
+	 * @since 0.1.0
+	 */
+	double getP50();
+	
+	/**
+	 * Gets the 99th percentile of the durations.
+	 *
+	 * @return The 99th percentile
+	 * @since 0.1.0
+	 */
+	double getP99();
+	
+	/**
+	 * Removes all recorded durations.
+	 *
+	 * @since 0.1.0
+	 */
+	void reset();
+}
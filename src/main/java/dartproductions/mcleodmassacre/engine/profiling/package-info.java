@@ -0,0 +1,18 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+/**
+ * This package contains the performance instrumentation of the engine.
+ * <p>
+ * The {@link dartproductions.mcleodmassacre.engine.profiling.FrameProfiler} records the duration of each phase of the frames into {@link dartproductions.mcleodmassacre.engine.profiling.LatencyHistogram latency histograms}, and publishes them as JMX MBeans, so running sessions can be watched with tools like jconsole.
+ *
+ * @since 0.1.0
+ */
+package dartproductions.mcleodmassacre.engine.profiling;
@@ -0,0 +1,120 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.task;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Handle of a task scheduled in a {@link TaskScheduler}. Can be used for cancelling the task from any thread.
+ *
+ * @since 0.1.0
+ */
+public class ScheduledTask {
+	/**
+	 * The task to run
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Runnable task;
+	/**
+	 * The amount of frames between two executions, or 0 if the task only runs once
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int period;
+	/**
+	 * True if the task has been cancelled
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile boolean cancelled = false;
+	/**
+	 * True if the task has run and will not run again
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile boolean done = false;
+	/**
+	 * The frame when the task should run next
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile long dueFrame;
+	/**
+	 * The next task in the same timing wheel bucket. Only used by the scheduler's thread.
+	 *
+	 * @since 0.1.0
+	 */
+	@Nullable ScheduledTask next;
+	
+	/**
+	 * Creates a new task handle.
+	 *
+	 * @param task     The task to run
+	 * @param dueFrame The first frame when the task should run
+	 * @param period   The amount of frames between two executions, or 0 if the task only runs once
+	 * @since 0.1.0
+	 */
+	protected ScheduledTask(@NotNull Runnable task, long dueFrame, int period) {
+		this.task = task;
+		this.dueFrame = dueFrame;
+		this.period = period;
+	}
+	
+	/**
+	 * Cancels this task. A cancelled task will not run again; if the task is running when it is cancelled, the current execution is not interrupted. Cancelling a finished task has no effect.
+	 *
+	 * @since 0.1.0
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+	
+	/**
+	 * Gets the frame when the task should run next.
+	 *
+	 * @return The frame
+	 * @since 0.1.0
+	 */
+	public long getDueFrame() {
+		return dueFrame;
+	}
+	
+	/**
+	 * Gets the amount of frames between two executions of the task.
+	 *
+	 * @return The period, or 0 if the task only runs once
+	 * @since 0.1.0
+	 */
+	public int getPeriod() {
+		return period;
+	}
+	
+	/**
+	 * Checks if this task has been cancelled.
+	 *
+	 * @return True if cancelled
+	 * @since 0.1.0
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+	
+	/**
+	 * Checks if this task has finished running. Repeating tasks are never done unless they are cancelled.
+	 *
+	 * @return True if the task will not run anymore
+	 * @since 0.1.0
+	 */
+	public boolean isDone() {
+		return done || cancelled;
+	}
+}
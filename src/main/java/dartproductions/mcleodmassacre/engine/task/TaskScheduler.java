@@ -0,0 +1,350 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.task;
+
+import dartproductions.mcleodmassacre.engine.ParallelUpdater;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Scheduler for tasks that should run in a specific frame, implemented as a hashed timing wheel.
+ * <p>
+ * The wheel has {@link #WHEEL_SIZE} buckets, and a task is stored in the bucket of its due frame modulo the wheel size. Every frame only the bucket of that frame is visited, so tasks that are not due cost nothing; tasks scheduled more than a full turn ahead simply stay in their bucket until their frame comes. Tasks due in the same frame run in the order they were scheduled.
+ * <p>
+ * Tasks can be scheduled from any thread. New tasks are put into a lock-free inbox, and are moved to the wheel by the scheduler's thread at the start of {@link #runDueTasks(long)}. All tasks run on the thread calling {@link #runDueTasks(long)}.
+ *
+ * @since 0.1.0
+ */
+public class TaskScheduler {
+	/**
+	 * The amount of buckets in the wheel. Must be a power of 2.
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int WHEEL_SIZE = 256;
+	/**
+	 * The buckets of the wheel; each bucket is a linked list of tasks
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ScheduledTask[] wheel = new ScheduledTask[WHEEL_SIZE];
+	/**
+	 * The last task of each bucket, or null if the bucket is empty; new tasks are appended here
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ScheduledTask[] tails = new ScheduledTask[WHEEL_SIZE];
+	/**
+	 * Tasks waiting to be added to the wheel
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ConcurrentLinkedQueue<ScheduledTask> inbox = new ConcurrentLinkedQueue<>();
+	/**
+	 * The last frame processed by {@link #runDueTasks(long)}
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile long currentFrame;
+	
+	/**
+	 * Creates a new scheduler starting at frame 0.
+	 *
+	 * @since 0.1.0
+	 */
+	public TaskScheduler() {
+		this(0);
+	}
+	
+	/**
+	 * Creates a new scheduler starting at the specified frame.
+	 *
+	 * @param currentFrame The current frame; the first call of {@link #runDueTasks(long)} should process the next frame
+	 * @since 0.1.0
+	 */
+	public TaskScheduler(long currentFrame) {
+		this.currentFrame = currentFrame;
+	}
+	
+	/**
+	 * Gets the last frame processed by this scheduler.
+	 *
+	 * @return The frame
+	 * @since 0.1.0
+	 */
+	public long getCurrentFrame() {
+		return currentFrame;
+	}
+	
+	/**
+	 * Restores the pending tasks saved by {@link #save(State)}. Tasks scheduled since then are dropped, and tasks that ran or were cancelled since then are pending again with their saved due frame. Must be called on the scheduler's thread, while no other thread is scheduling tasks.
+	 *
+	 * @param state The saved state
+	 * @since 0.1.0
+	 */
+	public void restore(@NotNull State state) {
+		Arrays.fill(wheel, null);
+		Arrays.fill(tails, null);
+		inbox.clear();
+		currentFrame = state.frame;
+		for(int i = 0; i < state.wheelSize; i++) {
+			ScheduledTask task = state.tasks[i];
+			reset(task, state.dueFrames[i]);
+			append((int) (task.dueFrame & (WHEEL_SIZE - 1)), task);
+		}
+		for(int i = state.wheelSize; i < state.size; i++) {
+			ScheduledTask task = state.tasks[i];
+			reset(task, state.dueFrames[i]);
+			task.next = null;
+			inbox.add(task);
+		}
+	}
+	
+	/**
+	 * Runs all tasks due in the frames since the previous call, up to and including the specified frame. Tasks scheduled while this method is running will not run before the next call.
+	 *
+	 * @param frame The current frame
+	 * @since 0.1.0
+	 */
+	public void runDueTasks(long frame) {
+		long previous = currentFrame;
+		currentFrame = frame;
+		for(ScheduledTask task; (task = inbox.poll()) != null; ) {
+			if(!task.cancelled) {
+				insert(task, previous);
+			}
+		}
+		long first = Math.max(previous + 1, frame - WHEEL_SIZE + 1);//no need to visit a bucket twice
+		for(long f = first; f <= frame; f++) {
+			runBucket((int) (f & (WHEEL_SIZE - 1)), frame);
+		}
+	}
+	
+	/**
+	 * Saves the pending tasks and their due frames, so they can be {@link #restore(State) restored} later. Used for rolling back the simulation; the tasks themselves are not copied. Must be called on the scheduler's thread.
+	 *
+	 * @param state The state to overwrite; its arrays are reused
+	 * @since 0.1.0
+	 */
+	public void save(@NotNull State state) {
+		int previousSize = state.size;
+		state.frame = currentFrame;
+		state.size = 0;
+		for(ScheduledTask bucket : wheel) {
+			for(ScheduledTask task = bucket; task != null; task = task.next) {
+				if(!task.cancelled) {
+					state.add(task);
+				}
+			}
+		}
+		state.wheelSize = state.size;
+		for(ScheduledTask task : inbox) {
+			if(!task.cancelled) {
+				state.add(task);
+			}
+		}
+		if(state.size < previousSize) {//don't keep finished tasks alive
+			Arrays.fill(state.tasks, state.size, previousSize, null);
+		}
+	}
+	
+	/**
+	 * Schedules a task to run once after the specified amount of frames.
+	 *
+	 * @param delay The amount of frames to wait. Tasks with a delay of 0 or less run in the next frame.
+	 * @param task  The task to run
+	 * @return The handle of the task
+	 * @since 0.1.0
+	 */
+	public @NotNull ScheduledTask schedule(int delay, @NotNull Runnable task) {
+		return submit(new ScheduledTask(task, currentFrame + delay, 0));
+	}
+	
+	/**
+	 * Schedules a task to run repeatedly until cancelled.
+	 *
+	 * @param delay  The amount of frames to wait before the first execution
+	 * @param period The amount of frames between two executions
+	 * @param task   The task to run
+	 * @return The handle of the task
+	 * @throws IllegalArgumentException If the period is not positive
+	 * @since 0.1.0
+	 */
+	public @NotNull ScheduledTask scheduleRepeating(int delay, int period, @NotNull Runnable task) throws IllegalArgumentException {
+		if(period <= 0) {
+			throw new IllegalArgumentException("Period must be positive: " + period);
+		}
+		return submit(new ScheduledTask(task, currentFrame + delay, period));
+	}
+	
+	/**
+	 * Appends a task to a bucket of the wheel.
+	 *
+	 * @param bucket The index of the bucket
+	 * @param task   The task
+	 * @since 0.1.0
+	 */
+	protected void append(int bucket, @NotNull ScheduledTask task) {
+		task.next = null;
+		if(tails[bucket] == null) {
+			wheel[bucket] = task;
+		} else {
+			tails[bucket].next = task;
+		}
+		tails[bucket] = task;
+	}
+	
+	/**
+	 * Adds a task to the end of its bucket. Tasks that are already due are put into the bucket of the next frame.
+	 *
+	 * @param task     The task
+	 * @param previous The last frame whose bucket was already visited
+	 * @since 0.1.0
+	 */
+	protected void insert(@NotNull ScheduledTask task, long previous) {
+		long due = Math.max(task.dueFrame, previous + 1);
+		task.dueFrame = due;
+		append((int) (due & (WHEEL_SIZE - 1)), task);
+	}
+	
+	/**
+	 * Resets a task to the pending state.
+	 *
+	 * @param task     The task
+	 * @param dueFrame The frame the task is due in
+	 * @since 0.1.0
+	 */
+	protected void reset(@NotNull ScheduledTask task, long dueFrame) {
+		task.dueFrame = dueFrame;
+		task.cancelled = false;
+		task.done = false;
+	}
+	
+	/**
+	 * Runs the due tasks of a bucket, and removes cancelled and finished tasks from it.
+	 *
+	 * @param bucket The index of the bucket
+	 * @param frame  The current frame
+	 * @since 0.1.0
+	 */
+	protected void runBucket(int bucket, long frame) {
+		ScheduledTask previous = null;
+		ScheduledTask task = wheel[bucket];
+		while(task != null) {
+			ScheduledTask next = task.next;
+			if(task.cancelled || task.dueFrame <= frame) {//unlink before running, so an exception can't corrupt the bucket
+				if(previous == null) {
+					wheel[bucket] = next;
+				} else {
+					previous.next = next;
+				}
+				if(next == null) {
+					tails[bucket] = previous;
+				}
+				task.next = null;
+				if(!task.cancelled) {
+					if(task.period > 0) {
+						task.dueFrame += task.period;
+						inbox.add(task);
+					} else {
+						task.done = true;
+					}
+					task.task.run();
+				}
+			} else {
+				previous = task;
+			}
+			task = next;
+		}
+	}
+	
+	/**
+	 * Submits a new task to the inbox. Tasks scheduled during a parallel entity update are submitted at the end of the update, keeping the order of the tasks deterministic.
+	 *
+	 * @param task The task
+	 * @return The task
+	 * @see ParallelUpdater#defer(Runnable)
+	 * @since 0.1.0
+	 */
+	protected @NotNull ScheduledTask submit(@NotNull ScheduledTask task) {
+		if(!ParallelUpdater.defer(() -> inbox.add(task))) {
+			inbox.add(task);
+		}
+		return task;
+	}
+	
+	/**
+	 * The saved pending tasks of a scheduler. Instances are meant to be reused; the arrays only grow when more tasks are pending than ever before.
+	 *
+	 * @see #save(State)
+	 * @see #restore(State)
+	 * @since 0.1.0
+	 */
+	public static class State {
+		/**
+		 * The due frames of the saved tasks
+		 *
+		 * @since 0.1.0
+		 */
+		protected @NotNull long[] dueFrames = new long[16];
+		/**
+		 * The current frame of the scheduler
+		 *
+		 * @since 0.1.0
+		 */
+		protected long frame;
+		/**
+		 * The amount of saved tasks
+		 *
+		 * @since 0.1.0
+		 */
+		protected int size;
+		/**
+		 * The saved tasks; tasks of the wheel come first, in bucket order, followed by the tasks of the inbox
+		 *
+		 * @since 0.1.0
+		 */
+		protected @NotNull ScheduledTask[] tasks = new ScheduledTask[16];
+		/**
+		 * The amount of saved tasks that were in the wheel
+		 *
+		 * @since 0.1.0
+		 */
+		protected int wheelSize;
+		
+		/**
+		 * Gets the amount of saved tasks.
+		 *
+		 * @return The amount of tasks
+		 * @since 0.1.0
+		 */
+		public int size() {
+			return size;
+		}
+		
+		/**
+		 * Adds a task to the end of the saved tasks.
+		 *
+		 * @param task The task
+		 * @since 0.1.0
+		 */
+		protected void add(@NotNull ScheduledTask task) {
+			if(size == tasks.length) {
+				tasks = Arrays.copyOf(tasks, size * 2);
+				dueFrames = Arrays.copyOf(dueFrames, size * 2);
+			}
+			tasks[size] = task;
+			dueFrames[size] = task.dueFrame;
+			size++;
+		}
+	}
+}
@@ -0,0 +1,17 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+/**
+ * This package contains the scheduling of delayed engine tasks.
+ * <p>
+ * Tasks are scheduled by frame number in a {@link dartproductions.mcleodmassacre.engine.task.TaskScheduler}, and can be cancelled through their {@link dartproductions.mcleodmassacre.engine.task.ScheduledTask} handles.
+ *
+ * @since 0.1.0
+ */
+package dartproductions.mcleodmassacre.engine.task;
@@ -0,0 +1,65 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.timing;
+
+/**
+ * Frame scheduler that sleeps in 1 ms steps while it is safe to do so, then yields until the deadline. The scheduler measures how long {@link Thread#sleep(long) Thread.sleep(1)} actually takes on the current system, and only sleeps if the remaining time is longer than the expected sleep duration plus its standard deviation.
+ *
+ * @since 0.1.0
+ */
+public class AdaptiveSleepFrameScheduler implements FrameScheduler {
+	/**
+	 * The weight of a new measurement in the moving averages
+	 *
+	 * @since 0.1.0
+	 */
+	protected static final double SMOOTHING = 0.05;
+	/**
+	 * The expected duration of a 1 ms sleep (in nanoseconds)
+	 *
+	 * @since 0.1.0
+	 */
+	protected double mean = 2_000_000;
+	/**
+	 * The expected variance of the duration of a 1 ms sleep (in square nanoseconds)
+	 *
+	 * @since 0.1.0
+	 */
+	protected double variance = 1_000_000.0 * 1_000_000.0;
+	
+	/**
+	 * Gets the measured duration of {@code Thread.sleep(1)}.
+	 *
+	 * @return The duration in nanoseconds
+	 * @since 0.1.0
+	 */
+	public double getSleepGranularity() {
+		return mean;
+	}
+	
+	@Override
+	public void waitUntil(long deadline) throws InterruptedException {
+		while(deadline - System.nanoTime() > mean + Math.sqrt(variance)) {
+			long start = System.nanoTime();
+			Thread.sleep(1);
+			long duration = System.nanoTime() - start;
+			//exponentially weighted mean and variance
+			double difference = duration - mean;
+			mean += SMOOTHING * difference;
+			variance = (1 - SMOOTHING) * (variance + SMOOTHING * difference * difference);
+		}
+		while(deadline - System.nanoTime() > 0) {
+			if(Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			Thread.yield();
+		}
+	}
+}
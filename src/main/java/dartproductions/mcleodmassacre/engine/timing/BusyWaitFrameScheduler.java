@@ -0,0 +1,27 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.timing;
+
+/**
+ * Frame scheduler that spins until the deadline without ever giving up the CPU. The most precise scheduler, but it keeps a core busy all the time; only meant for benchmarking.
+ *
+ * @since 0.1.0
+ */
+public class BusyWaitFrameScheduler implements FrameScheduler {
+	@Override
+	public void waitUntil(long deadline) throws InterruptedException {
+		while(deadline - System.nanoTime() > 0) {
+			if(Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			Thread.onSpinWait();
+		}
+	}
+}
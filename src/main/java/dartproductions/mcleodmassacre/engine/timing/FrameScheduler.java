@@ -0,0 +1,44 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.timing;
+
+import dartproductions.mcleodmassacre.options.FrameSchedulerOption;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Waits for the start of the next engine frame. Implementations trade CPU usage for precision.
+ *
+ * @since 0.1.0
+ */
+public interface FrameScheduler {
+	/**
+	 * Creates a new frame scheduler for the specified strategy.
+	 *
+	 * @param option The strategy
+	 * @return The new scheduler
+	 * @since 0.1.0
+	 */
+	static @NotNull FrameScheduler create(@NotNull FrameSchedulerOption option) {
+		return switch(option) {
+			case PARK_AND_SPIN -> new ParkingFrameScheduler();
+			case ADAPTIVE_SLEEP -> new AdaptiveSleepFrameScheduler();
+			case BUSY_WAIT -> new BusyWaitFrameScheduler();
+		};
+	}
+	
+	/**
+	 * Blocks the current thread until the specified time. Returns immediately if the time has already passed.
+	 *
+	 * @param deadline The time to wait for, in the same time base as {@link System#nanoTime()}
+	 * @throws InterruptedException If the thread is interrupted while waiting
+	 * @since 0.1.0
+	 */
+	void waitUntil(long deadline) throws InterruptedException;
+}
@@ -0,0 +1,165 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.timing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Statistics of frame pacing. The jitter of a frame is the difference between the time the frame should have started and the time it actually started; it is never negative for the schedulers in this package.
+ * <p>
+ * Jitter values are collected into a histogram of {@value #BUCKET_WIDTH} ns wide buckets, so percentiles are available without storing every sample. The methods of this class are thread-safe.
+ *
+ * @since 0.1.0
+ */
+public class FrameStatistics {
+	/**
+	 * The width of a histogram bucket (in nanoseconds)
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int BUCKET_WIDTH = 50_000;
+	/**
+	 * The amount of histogram buckets. Jitter values beyond the last bucket are counted in the last bucket.
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int BUCKET_COUNT = 400;
+	/**
+	 * The histogram of jitter values
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull long[] buckets = new long[BUCKET_COUNT];
+	/**
+	 * The amount of recorded frames
+	 *
+	 * @since 0.1.0
+	 */
+	protected long count;
+	/**
+	 * The largest recorded jitter
+	 *
+	 * @since 0.1.0
+	 */
+	protected long max;
+	/**
+	 * The sum of the recorded jitter values
+	 *
+	 * @since 0.1.0
+	 */
+	protected double sum;
+	/**
+	 * The sum of the squares of the recorded jitter values
+	 *
+	 * @since 0.1.0
+	 */
+	protected double sumOfSquares;
+	
+	/**
+	 * Gets the amount of recorded frames.
+	 *
+	 * @return The amount of frames
+	 * @since 0.1.0
+	 */
+	public synchronized long getCount() {
+		return count;
+	}
+	
+	/**
+	 * Gets the largest recorded jitter.
+	 *
+	 * @return The jitter in nanoseconds
+	 * @since 0.1.0
+	 */
+	public synchronized long getMax() {
+		return max;
+	}
+	
+	/**
+	 * Gets the average jitter.
+	 *
+	 * @return The average in nanoseconds, or 0 if no frames were recorded
+	 * @since 0.1.0
+	 */
+	public synchronized double getMean() {
+		return count == 0 ? 0 : sum / count;
+	}
+	
+	/**
+	 * Gets an approximate percentile of the jitter. The returned value is the upper bound of the histogram bucket containing the percentile.
+	 *
+	 * @param percentile The percentile between 0 and 100
+	 * @return The jitter in nanoseconds, or 0 if no frames were recorded
+	 * @since 0.1.0
+	 */
+	public synchronized long getPercentile(double percentile) {
+		if(count == 0) {
+			return 0;
+		}
+		long target = (long) Math.ceil(count * percentile / 100.0);
+		long seen = 0;
+		for(int i = 0; i < BUCKET_COUNT; i++) {
+			seen += buckets[i];
+			if(seen >= target) {
+				return (long) (i + 1) * BUCKET_WIDTH;
+			}
+		}
+		return max;
+	}
+	
+	/**
+	 * Gets the standard deviation of the jitter.
+	 *
+	 * @return The standard deviation in nanoseconds
+	 * @since 0.1.0
+	 */
+	public synchronized double getStandardDeviation() {
+		if(count == 0) {
+			return 0;
+		}
+		double mean = sum / count;
+		return Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean));
+	}
+	
+	/**
+	 * Records the jitter of a frame.
+	 *
+	 * @param jitter The jitter in nanoseconds. Negative values are treated as 0.
+	 * @since 0.1.0
+	 */
+	public synchronized void record(long jitter) {
+		jitter = Math.max(0, jitter);
+		count++;
+		sum += jitter;
+		sumOfSquares += (double) jitter * jitter;
+		max = Math.max(max, jitter);
+		buckets[(int) Math.min(BUCKET_COUNT - 1, jitter / BUCKET_WIDTH)]++;
+	}
+	
+	/**
+	 * Clears all recorded values.
+	 *
+	 * @since 0.1.0
+	 */
+	public synchronized void reset() {
+		Arrays.fill(buckets, 0);
+		count = 0;
+		max = 0;
+		sum = 0;
+		sumOfSquares = 0;
+	}
+	
+	@Override
+	public synchronized @NotNull String toString() {
+		return String.format("%d frames, jitter mean %.3f ms, std dev %.3f ms, p99 %.3f ms, max %.3f ms", count, getMean() / 1e6, getStandardDeviation() / 1e6, getPercentile(99) / 1e6, max / 1e6);
+	}
+}
@@ -0,0 +1,65 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.timing;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Frame scheduler that parks the thread until shortly before the deadline, then spins for the rest of the time. Parking has a much finer granularity than {@link Thread#sleep(long)} on most systems; the spin window absorbs its remaining overshoot.
+ *
+ * @since 0.1.0
+ */
+public class ParkingFrameScheduler implements FrameScheduler {
+	/**
+	 * The default length of the spin window (in nanoseconds)
+	 *
+	 * @since 0.1.0
+	 */
+	public static final long DEFAULT_SPIN_WINDOW = 1_500_000;
+	/**
+	 * The time before the deadline when parking stops and spinning starts (in nanoseconds)
+	 *
+	 * @since 0.1.0
+	 */
+	protected final long spinWindow;
+	
+	/**
+	 * Creates a new scheduler with the {@link #DEFAULT_SPIN_WINDOW default spin window}.
+	 *
+	 * @since 0.1.0
+	 */
+	public ParkingFrameScheduler() {
+		this(DEFAULT_SPIN_WINDOW);
+	}
+	
+	/**
+	 * Creates a new scheduler with the specified spin window.
+	 *
+	 * @param spinWindow The time before the deadline when parking stops and spinning starts (in nanoseconds)
+	 * @since 0.1.0
+	 */
+	public ParkingFrameScheduler(long spinWindow) {
+		this.spinWindow = spinWindow;
+	}
+	
+	@Override
+	public void waitUntil(long deadline) throws InterruptedException {
+		long remaining;
+		while((remaining = deadline - System.nanoTime()) > spinWindow) {
+			LockSupport.parkNanos(remaining - spinWindow);
+			if(Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+		}
+		while(deadline - System.nanoTime() > 0) {
+			Thread.onSpinWait();
+		}
+	}
+}
@@ -0,0 +1,17 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+/**
+ * This package contains the frame pacing of the engine thread.
+ * <p>
+ * A {@link dartproductions.mcleodmassacre.engine.timing.FrameScheduler} waits for the start of the next frame, and {@link dartproductions.mcleodmassacre.engine.timing.FrameStatistics} measures how precisely it does so.
+ *
+ * @since 0.1.0
+ */
+package dartproductions.mcleodmassacre.engine.timing;
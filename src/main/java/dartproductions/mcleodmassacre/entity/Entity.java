@@ -9,7 +9,9 @@
 
 package dartproductions.mcleodmassacre.entity;
 
+import dartproductions.mcleodmassacre.engine.collision.Contact;
 import dartproductions.mcleodmassacre.engine.GameEngine;
+import dartproductions.mcleodmassacre.engine.ParallelUpdater;
 import dartproductions.mcleodmassacre.graphics.RenderingLayer;
 import dartproductions.mcleodmassacre.graphics.animation.Animation;
 import org.jetbrains.annotations.NotNull;
@@ -84,7 +86,7 @@ public interface Entity {
 	}
 	
 	/**
-	 * Gets the location of this entity.
+	 * Gets the location of this entity. The returned point is only guaranteed to reflect changes of the location, not to make them: the location should be changed with {@link #setLocation(int, int)} or {@link #move(int, int)}.
 	 *
 	 * @return The location
 	 * @since 0.1.0
@@ -112,7 +114,7 @@ public interface Entity {
 	}
 	
 	/**
-	 * Gets the velocity of this entity.
+	 * Gets the velocity of this entity. Like the {@link #getLocation() location}, the velocity should be changed with {@link #setVelocity(int, int)} or {@link #accelerate(int, int)}, not through the returned object.
 	 *
 	 * @return The velocity
 	 * @since 0.1.0
@@ -260,6 +262,18 @@ public interface Entity {
 		return true;
 	}
 	
+	/**
+	 * Handles the entity's custom collision behaviour, with the details of the contact available. It is called right before the game engine resolves the collision, and can be used to tell the engine not to process the collision. Calls {@link #onCollision(Entity)} by default.
+	 *
+	 * @param e       The entity this entity is colliding with
+	 * @param contact The details of the contact. Only valid during this call.
+	 * @return True if the engine should process this collision, false otherwise
+	 * @since 0.1.0
+	 */
+	default boolean onCollision(@NotNull Entity e, @NotNull Contact contact) {
+		return onCollision(e);
+	}
+	
 	/**
 	 * Runs whenever this entity is hovered. Doesn't run if the entity was hovered in the previous frame.
 	 *
@@ -328,16 +342,44 @@ public interface Entity {
 	 * @since 0.1.0
 	 */
 	default void register() {
+		if(ParallelUpdater.defer(this::register)) {
+			return;
+		}
 		getDefaultLayer().add(this);
 		GameEngine.registerEntity(this);
 	}
 	
+	/**
+	 * Moves this entity to the specified location.
+	 *
+	 * @param x The new x coordinate
+	 * @param y The new y coordinate
+	 * @since 0.1.0
+	 */
+	default void setLocation(int x, int y) {
+		getLocation().setLocation(x, y);
+	}
+	
+	/**
+	 * Sets the velocity of this entity.
+	 *
+	 * @param velocityX The new horizontal velocity
+	 * @param velocityY The new vertical velocity
+	 * @since 0.1.0
+	 */
+	default void setVelocity(int velocityX, int velocityY) {
+		getVelocity().setSize(velocityX, velocityY);
+	}
+	
 	/**
 	 * Removes this entity from the game engine and from the graphics.
 	 *
 	 * @since 0.1.0
 	 */
 	default void unregister() {
+		if(ParallelUpdater.defer(this::unregister)) {
+			return;
+		}
 		getDefaultLayer().remove(this);
 		GameEngine.unregisterEntity(this);
 	}
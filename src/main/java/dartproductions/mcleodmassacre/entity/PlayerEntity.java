@@ -10,16 +10,18 @@
 package dartproductions.mcleodmassacre.entity;
 
 import dartproductions.mcleodmassacre.engine.GameEngine;
+import dartproductions.mcleodmassacre.engine.collision.Contact;
 import dartproductions.mcleodmassacre.graphics.GraphicsManager;
 import dartproductions.mcleodmassacre.graphics.RenderingLayer;
 import dartproductions.mcleodmassacre.graphics.animation.MirrorableAnimation;
+import dartproductions.mcleodmassacre.input.InputManager.ActionType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 
 /**
- * An entity representing a player-like character (a player or a bot). Isn't interactive, but can move, collide, and can be moved by collisions.
+ * An entity representing a player-like character (a player or a bot). Isn't interactive, but can move, collide, and can be moved by collisions. Implementations should extend {@link StoredEntity}, so the physics state of the player is kept in the {@link dartproductions.mcleodmassacre.engine.EntityStore store} of its world; the default methods only change the movement through {@link #accelerate(int, int)}, which writes through to the store.
  *
  * @since 0.1.0
  */
@@ -72,6 +74,17 @@ public interface PlayerEntity extends Entity {//todo
 		return getVelocity().height <= 0;
 	}
 	
+	@Override
+	default boolean onCollision(@NotNull Entity e, @NotNull Contact contact) {
+		if(contact.getMoving() == this && contact.getNormalY() < 0) {//landed on top of something
+			setState(PlayerState.STANDING, true);
+			setState(PlayerState.FALLING, false);
+			setState(PlayerState.VOID_JUMPED, false);
+			return true;
+		}
+		return onCollision(e);
+	}
+	
 	/**
 	 * Gets the delay before the player can grab again. The player can grab if this value is not positive.
 	 *
@@ -299,6 +312,35 @@ public interface PlayerEntity extends Entity {//todo
 		}
 	}
 	
+	/**
+	 * Performs the action of an input. Actions that don't belong to players, like the menu and mouse actions, are ignored.
+	 *
+	 * @param action The action
+	 * @since 0.1.0
+	 */
+	default void perform(@NotNull ActionType action) {
+		switch(action) {
+			case GRAB -> grab();
+			case WALK -> walk();
+			case TAUNT -> taunt();
+			case ATTACK -> attack();
+			case SHIELD -> shield();
+			case MOVE_UP -> moveUp();
+			case MOVE_DOWN -> moveDown();
+			case MOVE_LEFT -> moveLeft();
+			case MOVE_RIGHT -> moveRight();
+			case SPECIAL -> special();
+			case JUMP_LEFT -> {
+				moveUp();
+				moveLeft();
+			}
+			case JUMP_RIGHT -> {
+				moveUp();
+				moveRight();
+			}
+		}
+	}
+	
 	/**
 	 * Sets whether this entity can be moved by collisions
 	 *
@@ -0,0 +1,293 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.entity;
+
+import dartproductions.mcleodmassacre.engine.EntityStore;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Dimension;
+import java.awt.Point;
+
+/**
+ * Base class for movable entities whose physics state can be kept in an {@link EntityStore}. While the entity is registered in the engine, it is moved by the store in bulk, and {@link #move()} does nothing; otherwise it moves like any other entity.
+ * <p>
+ * While the entity is stored, its slot in the store is the only copy of its physics state: the getters and setters read and write the slot, and the fields of the entity are only updated when it leaves the store. The objects returned by {@link #getLocation()} and {@link #getVelocity()} are refreshed from the slot on every call, so changes made through them are lost; use {@link #setLocation(int, int)}, {@link #move(int, int)}, {@link #setVelocity(int, int)} and {@link #accelerate(int, int)} instead.
+ *
+ * @since 0.1.0
+ */
+public abstract class StoredEntity implements Entity {
+	/**
+	 * The location of the entity while it is not stored, otherwise a copy of the stored location
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Point location;
+	/**
+	 * The velocity of the entity while it is not stored, otherwise a copy of the stored velocity
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Dimension velocity = new Dimension(0, 0);
+	/**
+	 * The horizontal deceleration of the entity
+	 *
+	 * @since 0.1.0
+	 */
+	protected int decelerationX = 0;
+	/**
+	 * The vertical deceleration of the entity
+	 *
+	 * @since 0.1.0
+	 */
+	protected int decelerationY = 0;
+	/**
+	 * The gravity of the entity
+	 *
+	 * @since 0.1.0
+	 */
+	protected int gravity = 0;
+	/**
+	 * The horizontal speed limit of the entity
+	 *
+	 * @since 0.1.0
+	 */
+	protected int maxSpeedX = -1;
+	/**
+	 * The vertical speed limit of the entity
+	 *
+	 * @since 0.1.0
+	 */
+	protected int maxSpeedY = -1;
+	/**
+	 * The slot of the entity in its store
+	 *
+	 * @since 0.1.0
+	 */
+	protected int slot = -1;
+	/**
+	 * The store of the entity, or null if it is not stored
+	 *
+	 * @since 0.1.0
+	 */
+	protected @Nullable EntityStore store;
+	
+	/**
+	 * Creates a new stored entity.
+	 *
+	 * @param location The location of the entity
+	 * @since 0.1.0
+	 */
+	public StoredEntity(@NotNull Point location) {
+		this.location = location;
+	}
+	
+	@Override
+	public void accelerate(int accX, int accY) {
+		if(store == null) {
+			velocity.setSize(velocity.width + accX, velocity.height + accY);
+		} else {
+			store.setVelocity(slot, store.getVelocityX(slot) + accX, store.getVelocityY(slot) + accY);
+		}
+	}
+	
+	@Override
+	public int getDecelerationX() {
+		return store == null ? decelerationX : store.getDecelerationX(slot);
+	}
+	
+	/**
+	 * Sets the horizontal deceleration of the entity.
+	 *
+	 * @param decelerationX The new deceleration
+	 * @since 0.1.0
+	 */
+	public void setDecelerationX(int decelerationX) {
+		if(store == null) {
+			this.decelerationX = decelerationX;
+		} else {
+			store.setDecelerationX(slot, decelerationX);
+		}
+	}
+	
+	@Override
+	public int getDecelerationY() {
+		return store == null ? decelerationY : store.getDecelerationY(slot);
+	}
+	
+	/**
+	 * Sets the vertical deceleration of the entity.
+	 *
+	 * @param decelerationY The new deceleration
+	 * @since 0.1.0
+	 */
+	public void setDecelerationY(int decelerationY) {
+		if(store == null) {
+			this.decelerationY = decelerationY;
+		} else {
+			store.setDecelerationY(slot, decelerationY);
+		}
+	}
+	
+	@Override
+	public int getGravity() {
+		return store == null ? gravity : store.getGravity(slot);
+	}
+	
+	/**
+	 * Sets the gravity of the entity.
+	 *
+	 * @param gravity The new gravity
+	 * @since 0.1.0
+	 */
+	public void setGravity(int gravity) {
+		if(store == null) {
+			this.gravity = gravity;
+		} else {
+			store.setGravity(slot, gravity);
+		}
+	}
+	
+	@Override
+	public @NotNull Point getLocation() {
+		if(store != null) {
+			location.setLocation(store.getX(slot), store.getY(slot));
+		}
+		return location;
+	}
+	
+	@Override
+	public void setLocation(int x, int y) {
+		if(store == null) {
+			location.setLocation(x, y);
+		} else {
+			store.setLocation(slot, x, y);
+		}
+	}
+	
+	@Override
+	public int getMaxSpeedX() {
+		return store == null ? maxSpeedX : store.getMaxSpeedX(slot);
+	}
+	
+	/**
+	 * Sets the horizontal speed limit of the entity.
+	 *
+	 * @param maxSpeedX The new speed limit
+	 * @see Entity#getMaxSpeedX()
+	 * @since 0.1.0
+	 */
+	public void setMaxSpeedX(int maxSpeedX) {
+		if(store == null) {
+			this.maxSpeedX = maxSpeedX;
+		} else {
+			store.setMaxSpeedX(slot, maxSpeedX);
+		}
+	}
+	
+	@Override
+	public int getMaxSpeedY() {
+		return store == null ? maxSpeedY : store.getMaxSpeedY(slot);
+	}
+	
+	/**
+	 * Sets the vertical speed limit of the entity.
+	 *
+	 * @param maxSpeedY The new speed limit
+	 * @see Entity#getMaxSpeedY()
+	 * @since 0.1.0
+	 */
+	public void setMaxSpeedY(int maxSpeedY) {
+		if(store == null) {
+			this.maxSpeedY = maxSpeedY;
+		} else {
+			store.setMaxSpeedY(slot, maxSpeedY);
+		}
+	}
+	
+	/**
+	 * Gets the slot of this entity in its store.
+	 *
+	 * @return The slot or -1 if the entity is not stored
+	 * @since 0.1.0
+	 */
+	public int getSlot() {
+		return slot;
+	}
+	
+	/**
+	 * Gets the store this entity is in.
+	 *
+	 * @return The store or null if the entity is not stored
+	 * @since 0.1.0
+	 */
+	public @Nullable EntityStore getStore() {
+		return store;
+	}
+	
+	/**
+	 * Sets the store and slot of this entity. Only meant to be called by {@link EntityStore}. When the entity leaves its store, the state of its slot is copied into the fields of the entity, so the slot must still hold it.
+	 *
+	 * @param store The new store
+	 * @param slot  The new slot
+	 * @since 0.1.0
+	 */
+	public void setStore(@Nullable EntityStore store, int slot) {
+		if(store == null && this.store != null) {
+			location.setLocation(this.store.getX(this.slot), this.store.getY(this.slot));
+			velocity.setSize(this.store.getVelocityX(this.slot), this.store.getVelocityY(this.slot));
+			decelerationX = this.store.getDecelerationX(this.slot);
+			decelerationY = this.store.getDecelerationY(this.slot);
+			gravity = this.store.getGravity(this.slot);
+			maxSpeedX = this.store.getMaxSpeedX(this.slot);
+			maxSpeedY = this.store.getMaxSpeedY(this.slot);
+		}
+		this.store = store;
+		this.slot = slot;
+	}
+	
+	@Override
+	public @NotNull Dimension getVelocity() {
+		if(store != null) {
+			velocity.setSize(store.getVelocityX(slot), store.getVelocityY(slot));
+		}
+		return velocity;
+	}
+	
+	@Override
+	public void setVelocity(int velocityX, int velocityY) {
+		if(store == null) {
+			velocity.setSize(velocityX, velocityY);
+		} else {
+			store.setVelocity(slot, velocityX, velocityY);
+		}
+	}
+	
+	@Override
+	public boolean isMovable() {
+		return true;
+	}
+	
+	@Override
+	public void move() {
+		if(store == null) {//stored entities are moved by their store
+			Entity.super.move();
+		}
+	}
+	
+	@Override
+	public void move(int moveByX, int moveByY) {
+		if(store == null) {
+			location.translate(moveByX, moveByY);
+		} else {
+			store.setLocation(slot, store.getX(slot) + moveByX, store.getY(slot) + moveByY);
+		}
+	}
+}
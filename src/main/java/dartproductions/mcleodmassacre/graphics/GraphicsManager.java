@@ -10,9 +10,19 @@
 package dartproductions.mcleodmassacre.graphics;
 
 import dartproductions.mcleodmassacre.Main;
+import dartproductions.mcleodmassacre.engine.GameEngine;
+import dartproductions.mcleodmassacre.engine.profiling.FrameProfiler.Phase;
+import dartproductions.mcleodmassacre.engine.timing.FrameScheduler;
+import dartproductions.mcleodmassacre.graphics.InterpolationBuffer.Snapshot;
+import dartproductions.mcleodmassacre.options.FrameRateOption;
+import dartproductions.mcleodmassacre.options.FrameSchedulerOption;
+import dartproductions.mcleodmassacre.options.Option;
 import dartproductions.mcleodmassacre.options.Options;
+import dartproductions.mcleodmassacre.options.Options.StandardOptions;
 import dartproductions.mcleodmassacre.options.QualityOption;
+import dartproductions.mcleodmassacre.profiling.LayerPaintEvent;
 import dartproductions.mcleodmassacre.resources.ResourceManager;
+import dartproductions.mcleodmassacre.resources.cache.Cache;
 import dartproductions.mcleodmassacre.resources.id.Identifier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -23,7 +33,10 @@ import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
+import java.awt.Color;
 import java.awt.Cursor;
+import java.awt.DisplayMode;
+import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
@@ -56,7 +69,7 @@ public class GraphicsManager extends JPanel {
 	 */
 	public static final @NotNull Object GRAPHICS_LOCK = new Object();
 	/**
-	 * Lock to wait and notify the graphics thread
+	 * Lock to wait and notify the graphics thread. The graphics thread waits on it while the game window is inactive.
 	 *
 	 * @since 0.1.0
 	 */
@@ -97,6 +110,19 @@ public class GraphicsManager extends JPanel {
 	 * @since 0.1.0
 	 */
 	public static final int LAYER_TOP = 15;
+	/**
+	 * The locations of the entities in the latest engine frames, used for drawing them between frames
+	 *
+	 * @since 0.1.0
+	 */
+	protected static final @NotNull InterpolationBuffer INTERPOLATION = new InterpolationBuffer();
+	/**
+	 * The font of the debug overlay
+	 *
+	 * @see #paintDebugOverlay(Graphics)
+	 * @since 0.1.0
+	 */
+	protected static final @NotNull Font DEBUG_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
 	/**
 	 * The rendering layers
 	 *
@@ -121,12 +147,41 @@ public class GraphicsManager extends JPanel {
 	 * @since 0.1.0
 	 */
 	public static @NotNull JFrame WINDOW;
+	/**
+	 * The minimum time between two rendered frames in nanoseconds, or 0 for no limit
+	 *
+	 * @since 0.1.0
+	 */
+	private static volatile long renderInterval = 0;
 	
 	static {
 		//creating layers
 		Arrays.setAll(LAYERS, i -> new RenderingLayer());
 	}
 	
+	/**
+	 * Moves the animations of all rendering layers to their next frames, without painting anything. Called by the engine after every frame, so animations play at the rate of the simulation regardless of the rate of the rendering loop.
+	 *
+	 * @since 0.1.0
+	 */
+	public static void advanceAnimations() {
+		synchronized(GRAPHICS_LOCK) {
+			for(RenderingLayer layer : LAYERS) {
+				layer.advance();
+			}
+		}
+	}
+	
+	/**
+	 * Captures the locations of the entities of the rendering layers after an engine frame. The rendering loop draws the entities between the two latest captures. Must be called from the engine thread.
+	 *
+	 * @param time The time of the frame, in the same time base as {@link System#nanoTime()}
+	 * @since 0.1.0
+	 */
+	public static void captureLocations(long time) {
+		INTERPOLATION.capture(LAYERS, time);
+	}
+	
 	/**
 	 * Removes all entities from a rendering layer. This does NOT remove them from the game engine.
 	 *
@@ -138,7 +193,7 @@ public class GraphicsManager extends JPanel {
 	}
 	
 	/**
-	 * Removes all entities from all rendering layers. This does NOT remove them from the game engine.
+	 * Removes all entities from all rendering layers, and discards their captured locations. This does NOT remove them from the game engine.
 	 *
 	 * @since 0.1.0
 	 */
@@ -146,6 +201,28 @@ public class GraphicsManager extends JPanel {
 		for(RenderingLayer layer : LAYERS) {
 			layer.entities.clear();
 		}
+		INTERPOLATION.clear();
+	}
+	
+	/**
+	 * Configures the rate of the rendering loop based on the game's settings. Uses {@link FrameRateOption#VSYNC} if the setting is missing. The refresh rate of the display is assumed to be 60 Hz if it is unknown.
+	 *
+	 * @since 0.1.0
+	 */
+	public static void configureFrameRate() {
+		Option<?> option = ResourceManager.getOptions().getSetting(StandardOptions.FRAME_RATE);
+		FrameRateOption rate = option != null && option.getValue() instanceof FrameRateOption value ? value : FrameRateOption.VSYNC;
+		if(rate == FrameRateOption.UNCAPPED) {
+			renderInterval = 0;
+			LOGGER.info("Rendering frame rate is uncapped");
+		} else {
+			int refreshRate = WINDOW.getGraphicsConfiguration().getDevice().getDisplayMode().getRefreshRate();
+			if(refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN) {
+				refreshRate = 60;
+			}
+			renderInterval = 1_000_000_000L / refreshRate;
+			LOGGER.info("Rendering at " + refreshRate + " frames/s");
+		}
 	}
 	
 	/**
@@ -196,7 +273,7 @@ public class GraphicsManager extends JPanel {
 	}
 	
 	/**
-	 * Initializes the graphics resources.
+	 * Initializes the graphics resources. In {@link Main#isHeadless() headless mode} no window or rendering loop is created; the animations are advanced by the engine instead.
 	 *
 	 * @since 0.1.0
 	 */
@@ -205,6 +282,11 @@ public class GraphicsManager extends JPanel {
 			LOGGER.error("Attempted to start graphics game loop while previous loop was still running");
 			return;
 		}
+		if(Main.isHeadless()) {
+			PANEL = new GraphicsManager();//used for font metrics, never displayed
+			LOGGER.info("Running without a window in headless mode");
+			return;
+		}
 		GRAPHICS_THREAD = new Thread(() -> {//graphics thread
 			LOGGER.info("Started graphics thread");
 			Thread.currentThread().setPriority(Thread.MAX_PRIORITY - 1);
@@ -240,11 +322,13 @@ public class GraphicsManager extends JPanel {
 	}
 	
 	/**
-	 * Rendering loop
+	 * Rendering loop. Runs independently of the engine, at the {@link #configureFrameRate() configured rate}; the entities are drawn between the locations of the two latest engine frames.
 	 *
 	 * @since 0.1.0
 	 */
 	private static void gameLoop() {
+		FrameScheduler scheduler = FrameScheduler.create(FrameSchedulerOption.PARK_AND_SPIN);
+		long next = System.nanoTime();
 		while(Main.isRunning()) {
 			try {//draw on buffer
 				paintGraphics();
@@ -252,14 +336,20 @@ public class GraphicsManager extends JPanel {
 				LOGGER.error("Error during graphics painting", e);
 			}
 			WINDOW.repaint();//draw buffer to screen
-			synchronized(WAIT_LOCK) {//wait for engine
-				try {
-					if(Main.isRunning()) {
-						WAIT_LOCK.wait();
+			try {
+				if(!WINDOW.isActive()) {//the engine doesn't run frames, nothing moves
+					synchronized(WAIT_LOCK) {
+						if(Main.isRunning()) {
+							WAIT_LOCK.wait(100);
+						}
 					}
-				} catch(InterruptedException e) {
-					LOGGER.warn("Interrupted wait in graphics thread", e);
+					next = System.nanoTime();
+				} else if(renderInterval > 0) {//wait for the next refresh of the display
+					next = Math.max(next + renderInterval, System.nanoTime());
+					scheduler.waitUntil(next);
 				}
+			} catch(InterruptedException e) {
+				LOGGER.warn("Interrupted wait in graphics thread", e);
 			}
 		}
 		closeWindow();
@@ -300,6 +390,7 @@ public class GraphicsManager extends JPanel {
 		WINDOW.setResizable(false);
 		//
 		configureQuality();
+		configureFrameRate();
 		//
 		//setting cursor
 		Toolkit toolkit = Toolkit.getDefaultToolkit();
@@ -316,17 +407,51 @@ public class GraphicsManager extends JPanel {
 	}
 	
 	/**
-	 * Paints the graphics of the rendering layers to the buffer.
+	 * Paints the statistics of the {@link ResourceManager#getCaches() caches} over the screen, one cache per line. Only used in {@link Main#isDebug() debug mode}.
+	 *
+	 * @param graphics The graphics of the screen
+	 * @since 0.1.0
+	 */
+	private static void paintDebugOverlay(@NotNull Graphics graphics) {
+		graphics.setFont(DEBUG_FONT);
+		int lineHeight = graphics.getFontMetrics().getHeight(), y = lineHeight;
+		Cache<Cache<?>> caches = ResourceManager.getCaches();
+		for(Identifier id : caches.getRegisteredResources()) {
+			Cache<?> cache = caches.getFromCache(id);
+			if(cache != null) {
+				String line = id + ": " + cache.getStatistics();
+				graphics.setColor(Color.BLACK);//shadow for readability on any background
+				graphics.drawString(line, 6, y + 1);
+				graphics.setColor(Color.WHITE);
+				graphics.drawString(line, 5, y);
+				y += lineHeight;
+			}
+		}
+	}
+	
+	/**
+	 * Paints the graphics of the rendering layers to the buffer, with the entities interpolated between the latest engine frames.
 	 *
 	 * @since 0.1.0
 	 */
 	private static void paintGraphics() {
+		long start = System.nanoTime();
+		Snapshot snapshot = INTERPOLATION.getLatest();
+		double alpha = snapshot == null ? 1 : snapshot.getAlpha(start);
 		synchronized(GRAPHICS_LOCK) {
-			for(RenderingLayer layer : LAYERS) {
-				layer.paint();
+			for(int i = 0; i < LAYERS.length; i++) {
+				LayerPaintEvent event = new LayerPaintEvent();
+				event.begin();
+				LAYERS[i].paint(snapshot, alpha);
+				if(event.shouldCommit()) {
+					event.layer = i;
+					event.entities = LAYERS[i].entities.size();
+					event.commit();
+				}
 			}
 			ResolutionManager.fillVisibleAreas();
 		}
+		GameEngine.getProfiler().record(Phase.PAINT, start);
 	}
 	
 	@Override
@@ -335,6 +460,10 @@ public class GraphicsManager extends JPanel {
 			super.paintComponent(g);
 			g.drawImage(ResolutionManager.bufferToScreenImage(), 0, 0, this);
 		}
+		if(Main.isDebug()) {
+			paintDebugOverlay(g);
+		}
+		Toolkit.getDefaultToolkit().sync();
 	}
 	
 }
@@ -0,0 +1,145 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.graphics;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Point;
+import java.util.IdentityHashMap;
+
+/**
+ * Holds the locations of the rendered entities in the two latest simulated frames, so the rendering loop can run at a different rate than the engine. The engine {@link #capture(RenderingLayer[], long) captures} the locations after its frames; the rendering loop draws the entities at a point between the two captures.
+ * <p>
+ * Entities are drawn one engine frame behind the simulation: at the time an engine frame is captured, the entities are drawn at their locations in the previous capture, and they move towards the new locations until the next capture. Captures are immutable once published, so they can be read without locking.
+ *
+ * @since 0.1.0
+ */
+public class InterpolationBuffer {
+	/**
+	 * The latest capture, or null if nothing has been captured yet
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile @Nullable Snapshot latest;
+	
+	/**
+	 * Captures the locations of the entities of the rendering layers. Must be called from the thread that moves the entities.
+	 *
+	 * @param layers The rendering layers
+	 * @param time   The time of the simulated frame, in the same time base as {@link System#nanoTime()}
+	 * @since 0.1.0
+	 */
+	public void capture(@NotNull RenderingLayer[] layers, long time) {
+		IdentityHashMap<Entity, Point> locations = new IdentityHashMap<>();
+		for(RenderingLayer layer : layers) {
+			layer.entities.forEach(e -> locations.put(e, new Point(e.getLocation())));
+		}
+		Snapshot previous = latest;
+		latest = previous == null ? new Snapshot(time, locations, time, locations) : new Snapshot(time, locations, previous.time, previous.locations);
+	}
+	
+	/**
+	 * Discards the captured locations. Entities are drawn at their actual locations until the next capture.
+	 *
+	 * @since 0.1.0
+	 */
+	public void clear() {
+		latest = null;
+	}
+	
+	/**
+	 * Gets the latest capture, from which the entities can be drawn.
+	 *
+	 * @return The capture, or null if nothing has been captured
+	 * @since 0.1.0
+	 */
+	public @Nullable Snapshot getLatest() {
+		return latest;
+	}
+	
+	/**
+	 * The locations of the entities in two consecutive captures.
+	 *
+	 * @since 0.1.0
+	 */
+	public static final class Snapshot {
+		/**
+		 * The locations of the entities in this capture
+		 *
+		 * @since 0.1.0
+		 */
+		private final @NotNull IdentityHashMap<Entity, Point> locations;
+		/**
+		 * The locations of the entities in the previous capture
+		 *
+		 * @since 0.1.0
+		 */
+		private final @NotNull IdentityHashMap<Entity, Point> previousLocations;
+		/**
+		 * The time of the previous capture
+		 *
+		 * @since 0.1.0
+		 */
+		private final long previousTime;
+		/**
+		 * The time of this capture
+		 *
+		 * @since 0.1.0
+		 */
+		private final long time;
+		
+		private Snapshot(long time, @NotNull IdentityHashMap<Entity, Point> locations, long previousTime, @NotNull IdentityHashMap<Entity, Point> previousLocations) {
+			this.time = time;
+			this.locations = locations;
+			this.previousTime = previousTime;
+			this.previousLocations = previousLocations;
+		}
+		
+		/**
+		 * Gets the point to draw at the specified time, between the previous (0) and this (1) capture. The entities are drawn one capture interval behind: at the time of this capture they are at their previous locations, and they reach their captured locations one interval later.
+		 *
+		 * @param time The time of the rendered frame, in the same time base as {@link System#nanoTime()}
+		 * @return The interpolation factor, between 0 and 1
+		 * @since 0.1.0
+		 */
+		public double getAlpha(long time) {
+			if(this.time <= previousTime) {
+				return 1;
+			}
+			return Math.max(0, Math.min(1, (time - this.time) / (double) (this.time - previousTime)));
+		}
+		
+		/**
+		 * Gets the location to draw an entity at. Entities missing from either capture are drawn at their latest known location.
+		 *
+		 * @param entity The entity
+		 * @param alpha  The interpolation factor between the previous (0) and this (1) capture
+		 * @param out    The point to store the location in
+		 * @return The point containing the location
+		 * @since 0.1.0
+		 */
+		public @NotNull Point getLocation(@NotNull Entity entity, double alpha, @NotNull Point out) {
+			Point current = locations.get(entity);
+			if(current == null) {
+				out.setLocation(entity.getLocation());
+				return out;
+			}
+			Point previous = previousLocations.get(entity);
+			if(previous == null) {
+				out.setLocation(current);
+				return out;
+			}
+			out.setLocation(previous.x + (int) Math.round((current.x - previous.x) * alpha), previous.y + (int) Math.round((current.y - previous.y) * alpha));
+			return out;
+		}
+	}
+}
@@ -10,10 +10,15 @@
 package dartproductions.mcleodmassacre.graphics;
 
 import dartproductions.mcleodmassacre.entity.Entity;
+import dartproductions.mcleodmassacre.graphics.InterpolationBuffer.Snapshot;
+import dartproductions.mcleodmassacre.graphics.animation.Animation;
+import dartproductions.mcleodmassacre.hitbox.BitmaskHitbox;
+import dartproductions.mcleodmassacre.hitbox.RectangleHitbox;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.Point;
+import java.awt.geom.Area;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -45,7 +50,7 @@ public class RenderingLayer {
 	}
 	
 	/**
-	 * Gets an entity whose hitbox contains the specified location. If there are multiple such entities, any one of them is returned.
+	 * Gets an entity whose hitbox contains the specified location. If there are multiple such entities, any one of them is returned. The {@link Animation#getCurrentRectangles() rectangle} and {@link Animation#getCurrentMask() bitmask} hitboxes are preferred over the hitbox areas.
 	 *
 	 * @param location The location to check
 	 * @return The entity or null if not found
@@ -53,13 +58,14 @@ public class RenderingLayer {
 	 */
 	public @Nullable Entity getEntity(@NotNull Point location) {
 		for(Entity entity : entities) {
-			if(entity.hasMouseCollision() && entity.getCurrentAnimation().getCurrentHitbox() != null) {
-				double x = location.x, y = location.y;
-				x -= entity.getLocation().x;
-				y -= entity.getLocation().y;
-				x -= entity.getCurrentAnimation().getOffset().width;
-				y -= entity.getCurrentAnimation().getOffset().height;
-				if(entity.getCurrentAnimation().getCurrentHitbox().contains(x, y)) {
+			if(entity.hasMouseCollision()) {
+				Animation animation = entity.getCurrentAnimation();
+				int x = location.x - entity.getLocation().x - animation.getOffset().width;
+				int y = location.y - entity.getLocation().y - animation.getOffset().height;
+				RectangleHitbox rectangles = animation.getCurrentRectangles();
+				BitmaskHitbox mask = animation.getCurrentMask();
+				Area hitbox = rectangles == null && mask == null ? animation.getCurrentHitbox() : null;
+				if(rectangles != null ? rectangles.contains(x, y) : mask != null ? mask.contains(x, y) : hitbox != null && hitbox.contains(x, y)) {
 					return entity;
 				}
 			}
@@ -68,12 +74,28 @@ public class RenderingLayer {
 	}
 	
 	/**
-	 * Paints the entities of this layer to the buffer.
+	 * Paints the entities of this layer to the buffer. The animations are not advanced; that is done once per engine frame with {@link #advance()}.
 	 *
+	 * @param snapshot The captured locations to draw the entities at, or null to draw them at their actual locations
+	 * @param alpha    The interpolation factor between the previous and latest locations of the snapshot
+	 * @see InterpolationBuffer
 	 * @since 0.1.0
 	 */
-	public void paint() {
-		entities.forEach(e -> e.getCurrentAnimation().paint(ResolutionManager.BUFFER_GRAPHICS, new Point(e.getLocation().x + ResolutionManager.getOriginOnBuffer().x, e.getLocation().y + ResolutionManager.getOriginOnBuffer().y)));
+	public void paint(@Nullable Snapshot snapshot, double alpha) {
+		Point origin = ResolutionManager.getOriginOnBuffer();
+		entities.forEach(e -> {
+			Point location = snapshot == null ? new Point(e.getLocation()) : snapshot.getLocation(e, alpha, new Point());
+			location.translate(origin.x, origin.y);
+			e.getCurrentAnimation().paint(ResolutionManager.BUFFER_GRAPHICS, location);
+		});
+	}
+	
+	/**
+	 * Moves the animations of the entities of this layer to their next frames.
+	 *
+	 * @since 0.1.0
+	 */
+	public void advance() {
 		entities.forEach(e -> e.getCurrentAnimation().next());
 	}
 	
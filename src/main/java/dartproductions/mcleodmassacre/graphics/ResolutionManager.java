@@ -15,6 +15,7 @@ import org.jetbrains.annotations.Nullable;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
 import java.awt.Image;
 import java.awt.Point;
 import java.awt.Rectangle;
@@ -318,12 +319,15 @@ public class ResolutionManager {
 	}
 	
 	/**
-	 * Gets the size of the screen on the machine running the game
+	 * Gets the size of the screen on the machine running the game. Without a display, this is the {@link #getDefaultScreenSize() default screen size}.
 	 *
 	 * @return The screen size
 	 * @since 0.1.0
 	 */
 	public static @NotNull Dimension getLocalScreenSize() {
+		if(GraphicsEnvironment.isHeadless()) {
+			return getDefaultScreenSize();
+		}
 		return Toolkit.getDefaultToolkit().getScreenSize();
 	}
 	
@@ -9,6 +9,9 @@
 
 package dartproductions.mcleodmassacre.graphics.animation;
 
+import dartproductions.mcleodmassacre.hitbox.BitmaskHitbox;
+import dartproductions.mcleodmassacre.hitbox.ImageHitbox;
+import dartproductions.mcleodmassacre.hitbox.RectangleHitbox;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -53,6 +56,27 @@ public interface Animation extends Cloneable {
 	 */
 	@Nullable Area getCurrentHitbox();
 	
+	/**
+	 * Gets the current hitbox of this animation as a bitmask. The bitmask must describe the same pixels as {@link #getCurrentHitbox()}. The engine uses the bitmask for collision checks when it is available, and falls back to the area otherwise.
+	 *
+	 * @return The bitmask or null if this animation has no bitmask hitbox
+	 * @since 0.1.0
+	 */
+	default @Nullable BitmaskHitbox getCurrentMask() {
+		return null;
+	}
+	
+	/**
+	 * Gets the current hitbox of this animation as a set of rectangles, if it is made of only a few rectangles. The rectangles must describe the same pixels as {@link #getCurrentMask()}. The engine prefers the rectangles over the bitmask and the area for collision checks and mouse picking when they are available.
+	 *
+	 * @return The rectangles or null if this animation has no rectangular hitbox
+	 * @see ImageHitbox#isRectangular()
+	 * @since 0.1.0
+	 */
+	default @Nullable RectangleHitbox getCurrentRectangles() {
+		return null;
+	}
+	
 	/**
 	 * Gets the unique id of this animation.
 	 *
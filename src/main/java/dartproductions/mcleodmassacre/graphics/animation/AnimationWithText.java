@@ -11,6 +11,7 @@ package dartproductions.mcleodmassacre.graphics.animation;
 
 import dartproductions.mcleodmassacre.graphics.GraphicsManager;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.awt.Color;
 import java.awt.Dimension;
@@ -84,23 +85,27 @@ public class AnimationWithText extends LoopingAnimation {
 		this.color = color;
 		this.textOffsetX = textOffsetX;
 		this.textOffsetY = textOffsetY;
+		fetchFrames();//the super constructor fetched the frames before the text was set
 	}
 	
 	@Override
-	protected void fetchFrames() {
-		super.fetchFrames();
-		for(int i = 0; i < frames.length; i++) {
-			Image image = frames[i];
-			BufferedImage bimage = new BufferedImage(image.getWidth(null), image.getHeight(null), BufferedImage.TYPE_INT_ARGB);
-			
-			Graphics graphics = bimage.getGraphics();//copy image
-			graphics.drawImage(image, 0, 0, GraphicsManager.WINDOW);
-			graphics.setFont(font);//draw text
-			graphics.setColor(color);
-			graphics.drawString(text, textOffsetX, textOffsetY);
-			graphics.dispose();
-			
-			frames[i] = bimage;//set new image
+	protected void setFrame(int index, @Nullable Image image) {
+		if(text == null) {//called by the super constructor
+			return;
 		}
+		if(image == null) {
+			super.setFrame(index, null);
+			return;
+		}
+		BufferedImage bimage = new BufferedImage(image.getWidth(null), image.getHeight(null), BufferedImage.TYPE_INT_ARGB);
+		
+		Graphics graphics = bimage.getGraphics();//copy image
+		graphics.drawImage(image, 0, 0, GraphicsManager.WINDOW);
+		graphics.setFont(font);//draw text
+		graphics.setColor(color);
+		graphics.drawString(text, textOffsetX, textOffsetY);
+		graphics.dispose();
+		
+		super.setFrame(index, bimage);//set new image
 	}
 }
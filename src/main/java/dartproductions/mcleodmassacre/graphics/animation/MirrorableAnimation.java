@@ -10,6 +10,9 @@
 package dartproductions.mcleodmassacre.graphics.animation;
 
 import dartproductions.mcleodmassacre.graphics.GraphicsManager;
+import dartproductions.mcleodmassacre.hitbox.BitmaskHitbox;
+import dartproductions.mcleodmassacre.hitbox.ImageHitbox;
+import dartproductions.mcleodmassacre.hitbox.RectangleHitbox;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -25,6 +28,8 @@ import java.util.UUID;
 
 /**
  * An animation that can be mirrored along the Y axis.
+ * <p>
+ * The frames are mirrored when all frames of the underlying animation are {@link StandardAnimation#whenLoaded() loaded}; until then, the mirrored animation shows the {@link StandardAnimation#PLACEHOLDER} and has no hitbox.
  *
  * @since 0.1.0
  */
@@ -42,17 +47,23 @@ public class MirrorableAnimation implements Animation {
 	 */
 	protected final @NotNull BufferedImage[] mirroredFrames;
 	/**
-	 * The mirrored hitbox areas
+	 * The mirrored hitboxes
 	 *
 	 * @since 0.1.0
 	 */
-	protected final @NotNull Area[] mirroredHitboxes;
+	protected final @NotNull ImageHitbox[] mirroredHitboxes;
 	/**
 	 * The current frame
 	 *
 	 * @since 0.1.0
 	 */
 	protected int currentFrame = 0;
+	/**
+	 * True if the frames and hitboxes are mirrored
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile boolean ready = false;
 	/**
 	 * True if the animation is mirrored
 	 *
@@ -81,26 +92,10 @@ public class MirrorableAnimation implements Animation {
 		this.animation = animation;
 		this.mirrored = mirrored;
 		mirroredFrames = new BufferedImage[animation.getLength()];
-		mirroredHitboxes = new Area[animation.getLength()];
+		mirroredHitboxes = new ImageHitbox[animation.getLength()];
 		
 		animation.reset();
-		for(int i = 0; i < animation.getLength(); i++) {
-			BufferedImage image = (BufferedImage) animation.getCurrentFrame();
-			AffineTransform tx = AffineTransform.getScaleInstance(-1, 1);
-			tx.translate(-image.getWidth(), 0);
-			AffineTransformOp op = new AffineTransformOp(tx, AffineTransformOp.TYPE_NEAREST_NEIGHBOR);
-			
-			BufferedImage dest = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
-			{
-				Graphics2D g2d = dest.createGraphics();
-				g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.CLEAR));
-				g2d.fillRect(0, 0, 256, 256);
-				g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER));
-				g2d.dispose();
-			}
-			mirroredFrames[i] = op.filter(image, dest);
-			mirroredHitboxes[i] = new Area(tx.createTransformedShape(animation.getCurrentHitbox()));
-		}
+		animation.whenLoaded().thenRun(() -> mirror(animation));
 	}
 	
 	@Override
@@ -121,15 +116,38 @@ public class MirrorableAnimation implements Animation {
 	@Override
 	public void paint(@NotNull Graphics2D graphics, @NotNull Point entityLocation) {
 		if(isMirrored()) {
-			animation.paint(graphics, entityLocation);
+			BufferedImage image = ready ? mirroredFrames[currentFrame] : null;
+			graphics.drawImage(image == null ? StandardAnimation.PLACEHOLDER : image, getOffset().width + entityLocation.x, getOffset().height + entityLocation.y, GraphicsManager.WINDOW);
 		} else {
-			graphics.drawImage(mirroredFrames[currentFrame], getOffset().width + entityLocation.x, getOffset().height + entityLocation.y, GraphicsManager.WINDOW);
+			animation.paint(graphics, entityLocation);
 		}
 	}
 	
 	@Override
 	public @Nullable Area getCurrentHitbox() {
-		return isMirrored() ? mirroredHitboxes[currentFrame] : animation.getCurrentHitbox();
+		if(isMirrored()) {
+			ImageHitbox hitbox = ready ? mirroredHitboxes[currentFrame] : null;
+			return hitbox == null ? null : hitbox.getArea();
+		}
+		return animation.getCurrentHitbox();
+	}
+	
+	@Override
+	public @Nullable BitmaskHitbox getCurrentMask() {
+		if(isMirrored()) {
+			ImageHitbox hitbox = ready ? mirroredHitboxes[currentFrame] : null;
+			return hitbox == null ? null : hitbox.getMask();
+		}
+		return animation.getCurrentMask();
+	}
+	
+	@Override
+	public @Nullable RectangleHitbox getCurrentRectangles() {
+		if(isMirrored()) {
+			ImageHitbox hitbox = ready ? mirroredHitboxes[currentFrame] : null;
+			return hitbox == null || !hitbox.isRectangular() ? null : hitbox.getRectangles();
+		}
+		return animation.getCurrentRectangles();
 	}
 	
 	@Override
@@ -164,6 +182,36 @@ public class MirrorableAnimation implements Animation {
 		animation.reset();
 	}
 	
+	/**
+	 * Mirrors the frames and hitboxes of the underlying animation. Frames that couldn't be loaded are not mirrored.
+	 *
+	 * @param animation The underlying animation
+	 * @since 0.1.0
+	 */
+	protected void mirror(@NotNull StandardAnimation animation) {
+		for(int i = 0; i < animation.getLength(); i++) {
+			BufferedImage image = (BufferedImage) animation.frames[i];
+			if(image != null) {
+				AffineTransform tx = AffineTransform.getScaleInstance(-1, 1);
+				tx.translate(-image.getWidth(), 0);
+				AffineTransformOp op = new AffineTransformOp(tx, AffineTransformOp.TYPE_NEAREST_NEIGHBOR);
+				
+				BufferedImage dest = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+				{
+					Graphics2D g2d = dest.createGraphics();
+					g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.CLEAR));
+					g2d.fillRect(0, 0, 256, 256);
+					g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER));
+					g2d.dispose();
+				}
+				mirroredFrames[i] = op.filter(image, dest);
+			}
+			ImageHitbox hitbox = animation.hitboxes[i];
+			mirroredHitboxes[i] = hitbox == null ? null : new ImageHitbox(hitbox.getMask().mirror(), hitbox.getTolerance());
+		}
+		ready = true;
+	}
+	
 	/**
 	 * Checks if this animation is mirrored.
 	 *
@@ -10,7 +10,9 @@
 package dartproductions.mcleodmassacre.graphics.animation;
 
 import dartproductions.mcleodmassacre.graphics.GraphicsManager;
+import dartproductions.mcleodmassacre.hitbox.BitmaskHitbox;
 import dartproductions.mcleodmassacre.hitbox.ImageHitbox;
+import dartproductions.mcleodmassacre.hitbox.RectangleHitbox;
 import dartproductions.mcleodmassacre.resources.ResourceManager;
 import dartproductions.mcleodmassacre.resources.id.Identifier;
 import org.jetbrains.annotations.NotNull;
@@ -21,27 +23,51 @@ import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Point;
 import java.awt.geom.Area;
+import java.awt.image.BufferedImage;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Animation implementation for simple animations. The images and hitboxes are automatically queried based on the animation's name.
+ * <p>
+ * Frames and hitboxes that aren't loaded yet are {@link ResourceManager#getImageAsync(Identifier) loaded in the background}, so creating or painting an animation never waits for decoding. Until a frame arrives, the animation shows the {@link #PLACEHOLDER} and has no hitbox.
  *
  * @since 0.1.0
  */
 public class StandardAnimation implements Animation {
 	/**
-	 * The images to show
+	 * The transparent image shown instead of frames that are not loaded yet
+	 *
+	 * @since 0.1.0
+	 */
+	public static final @NotNull Image PLACEHOLDER = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+	/**
+	 * Handle for publishing frames loaded on other threads
+	 *
+	 * @since 0.1.0
+	 */
+	private static final @NotNull VarHandle FRAMES = MethodHandles.arrayElementVarHandle(Image[].class);
+	/**
+	 * Handle for publishing hitboxes loaded on other threads
+	 *
+	 * @since 0.1.0
+	 */
+	private static final @NotNull VarHandle HITBOXES = MethodHandles.arrayElementVarHandle(ImageHitbox[].class);
+	/**
+	 * The images to show; null elements are not loaded yet
 	 *
 	 * @see #getCurrentFrame()
 	 * @since 0.1.0
 	 */
 	protected final @NotNull Image[] frames;
 	/**
-	 * The hitboxes as areas
+	 * The hitboxes of the frames; null elements are not loaded yet, or don't exist
 	 *
 	 * @since 0.1.0
 	 */
-	protected final @NotNull Area[] hitboxes;
+	protected final @NotNull ImageHitbox[] hitboxes;
 	/**
 	 * The id of the animation
 	 *
@@ -72,6 +98,13 @@ public class StandardAnimation implements Animation {
 	 * @since 0.1.0
 	 */
 	protected int frame = 0;
+	/**
+	 * The future completed when all frames and hitboxes are loaded
+	 *
+	 * @see #whenLoaded()
+	 * @since 0.1.0
+	 */
+	protected @NotNull CompletableFuture<Void> loaded = CompletableFuture.completedFuture(null);
 	
 	
 	/**
@@ -96,7 +129,7 @@ public class StandardAnimation implements Animation {
 		this.offset = offset;
 		int frameCount = countFrames();
 		frames = new Image[frameCount];
-		hitboxes = new Area[frameCount];
+		hitboxes = new ImageHitbox[frameCount];
 		fetchFrames();
 	}
 	
@@ -121,7 +154,20 @@ public class StandardAnimation implements Animation {
 	
 	@Override
 	public @Nullable Area getCurrentHitbox() {
-		return hitboxes[frame];
+		ImageHitbox hitbox = getCurrentImageHitbox();
+		return hitbox == null ? null : hitbox.getArea();
+	}
+	
+	@Override
+	public @Nullable BitmaskHitbox getCurrentMask() {
+		ImageHitbox hitbox = getCurrentImageHitbox();
+		return hitbox == null ? null : hitbox.getMask();
+	}
+	
+	@Override
+	public @Nullable RectangleHitbox getCurrentRectangles() {
+		ImageHitbox hitbox = getCurrentImageHitbox();
+		return hitbox == null || !hitbox.isRectangular() ? null : hitbox.getRectangles();
 	}
 	
 	@Override
@@ -157,44 +203,73 @@ public class StandardAnimation implements Animation {
 	/**
 	 * Gets the image that this animation is currently showing.
 	 *
-	 * @return The current frame
+	 * @return The current frame, or the {@link #PLACEHOLDER} if it is not loaded yet
 	 * @since 0.1.0
 	 */
 	public @NotNull Image getCurrentFrame() {
-		return frames[frame];
+		Image image = (Image) FRAMES.getAcquire(frames, frame);
+		return image == null ? PLACEHOLDER : image;
+	}
+	
+	/**
+	 * Gets a future completed when all frames and hitboxes of this animation are loaded.
+	 *
+	 * @return The future
+	 * @since 0.1.0
+	 */
+	public @NotNull CompletableFuture<Void> whenLoaded() {
+		return loaded;
 	}
 	
 	/**
-	 * Counts the amount of images that can be found with the animation's name.
+	 * Counts the amount of images that can be found with the animation's name. The images are not loaded.
 	 *
 	 * @return The amount of frames
 	 * @since 0.1.0
 	 */
 	protected int countFrames() {
 		int current = 0;
-		while(ResourceManager.getImage(Identifier.fromString(name + "#" + current)) != null) {
+		while(ResourceManager.hasImage(Identifier.fromString(name + "#" + current))) {
 			current++;
 		}
 		return current == 0 ? 1 : current;
 	}
 	
 	/**
-	 * Sets the values in the {@link #frames} and {@link #hitboxes} arrays.
+	 * Starts setting the values in the {@link #frames} and {@link #hitboxes} arrays. Loaded frames and hitboxes are set immediately, the others when they are loaded.
 	 *
 	 * @since 0.1.0
 	 */
 	protected void fetchFrames() {
-		if(frames.length == 1) {
-			frames[0] = ResourceManager.getImage(Identifier.fromString(name));
-			ImageHitbox hitbox = ResourceManager.getHitbox(Identifier.fromString(name + "/hitbox"));
-			hitboxes[0] = hitbox == null ? null : hitbox.getArea();
-		} else {
-			for(int i = 0; i < frames.length; i++) {
-				frames[i] = ResourceManager.getImage(Identifier.fromString(name + "#" + i));
-				ImageHitbox hitbox = ResourceManager.getHitbox(Identifier.fromString(name + "#" + i + "/hitbox"));
-				hitboxes[i] = hitbox == null ? null : hitbox.getArea();
-			}
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[frames.length * 2];
+		for(int i = 0; i < frames.length; i++) {
+			int index = i;
+			String frameName = frames.length == 1 ? name : name + "#" + i;
+			futures[i * 2] = ResourceManager.getImageAsync(Identifier.fromString(frameName)).thenAccept(image -> setFrame(index, image));
+			futures[i * 2 + 1] = ResourceManager.getHitboxAsync(Identifier.fromString(frameName + "/hitbox")).thenAccept(hitbox -> HITBOXES.setRelease(hitboxes, index, hitbox));
 		}
+		loaded = CompletableFuture.allOf(futures);
+	}
+	
+	/**
+	 * Gets the hitbox of the current frame.
+	 *
+	 * @return The hitbox or null if it is not loaded yet
+	 * @since 0.1.0
+	 */
+	protected @Nullable ImageHitbox getCurrentImageHitbox() {
+		return (ImageHitbox) HITBOXES.getAcquire(hitboxes, frame);
+	}
+	
+	/**
+	 * Sets a frame of the animation when it is loaded. This may be called from any thread.
+	 *
+	 * @param index The index of the frame
+	 * @param image The loaded image, or null if it couldn't be loaded
+	 * @since 0.1.0
+	 */
+	protected void setFrame(int index, @Nullable Image image) {
+		FRAMES.setRelease(frames, index, image);
 	}
 	
 	
@@ -0,0 +1,555 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.hitbox;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.awt.geom.GeneralPath;
+import java.awt.image.BufferedImage;
+import java.util.function.IntPredicate;
+
+/**
+ * A pixel-precise hitbox stored as a packed bitmask. Every row of the hitbox is stored in {@code ceil(width/64)} longs, where the n-th pixel of a row is the (n%64)-th lowest bit of the (n/64)-th long.
+ * <p>
+ * Two bitmasks can be tested for overlap by shifting and ANDing their rows inside the intersection of their bounding boxes, which is much cheaper than intersecting {@link Area areas}. Bitmasks are immutable.
+ *
+ * @since 0.1.0
+ */
+public class BitmaskHitbox {
+	/**
+	 * The width of the hitbox in pixels
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int width;
+	/**
+	 * The height of the hitbox in pixels
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int height;
+	/**
+	 * The amount of longs used for a single row
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int wordsPerRow;
+	/**
+	 * The bits of the hitbox, row by row
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull long[] bits;
+	/**
+	 * The smallest x coordinate of a solid pixel, or {@link #width} if there are no solid pixels
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int minX;
+	/**
+	 * The smallest y coordinate of a solid pixel, or {@link #height} if there are no solid pixels
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int minY;
+	/**
+	 * The largest x coordinate of a solid pixel, or -1 if there are no solid pixels
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int maxX;
+	/**
+	 * The largest y coordinate of a solid pixel, or -1 if there are no solid pixels
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int maxY;
+	
+	/**
+	 * Creates a new bitmask hitbox. The bits array is not copied, and must not be modified afterwards.
+	 *
+	 * @param width  The width of the hitbox
+	 * @param height The height of the hitbox
+	 * @param bits   The bits of the hitbox, as described in the {@link BitmaskHitbox class description}
+	 * @throws IllegalArgumentException If the size of the array doesn't match the dimensions
+	 * @since 0.1.0
+	 */
+	public BitmaskHitbox(int width, int height, @NotNull long[] bits) throws IllegalArgumentException {
+		this.width = width;
+		this.height = height;
+		this.wordsPerRow = (width + 63) >> 6;
+		if(bits.length != wordsPerRow * height) {
+			throw new IllegalArgumentException("Invalid bitmask size: " + bits.length + " for " + width + "x" + height + " hitbox");
+		}
+		this.bits = bits;
+		int minX = width, minY = height, maxX = -1, maxY = -1;
+		for(int y = 0; y < height; y++) {
+			for(int word = 0; word < wordsPerRow; word++) {
+				long value = bits[y * wordsPerRow + word];
+				if(value != 0) {
+					minY = Math.min(minY, y);
+					maxY = y;
+					minX = Math.min(minX, (word << 6) + Long.numberOfTrailingZeros(value));
+					maxX = Math.max(maxX, (word << 6) + 63 - Long.numberOfLeadingZeros(value));
+				}
+			}
+		}
+		this.minX = minX;
+		this.minY = minY;
+		this.maxX = maxX;
+		this.maxY = maxY;
+	}
+	
+	/**
+	 * Creates a bitmask from an image. A pixel is solid if its ARGB color matches the predicate.
+	 *
+	 * @param image The image
+	 * @param solid The predicate for solid pixels
+	 * @return The created bitmask
+	 * @since 0.1.0
+	 */
+	public static @NotNull BitmaskHitbox fromImage(@NotNull BufferedImage image, @NotNull IntPredicate solid) {
+		int width = image.getWidth(), height = image.getHeight();
+		int wordsPerRow = (width + 63) >> 6;
+		long[] bits = new long[wordsPerRow * height];
+		int[] row = new int[width];
+		for(int y = 0; y < height; y++) {
+			image.getRGB(0, y, width, 1, row, 0, width);
+			for(int x = 0; x < width; x++) {
+				if(solid.test(row[x])) {
+					bits[y * wordsPerRow + (x >> 6)] |= 1L << x;
+				}
+			}
+		}
+		return new BitmaskHitbox(width, height, bits);
+	}
+	
+	/**
+	 * Checks if the specified pixel is solid. Pixels outside the hitbox are never solid.
+	 *
+	 * @param x The x coordinate of the pixel
+	 * @param y The y coordinate of the pixel
+	 * @return True if solid
+	 * @since 0.1.0
+	 */
+	public boolean contains(int x, int y) {
+		if(x < 0 || y < 0 || x >= width || y >= height) {
+			return false;
+		}
+		return (bits[y * wordsPerRow + (x >> 6)] & (1L << x)) != 0;
+	}
+	
+	/**
+	 * Gets the smallest rectangle containing all solid pixels of this hitbox. The rectangle is empty if the hitbox has no solid pixels.
+	 *
+	 * @return The bounds
+	 * @since 0.1.0
+	 */
+	public @NotNull Rectangle getBounds() {
+		return isEmpty() ? new Rectangle() : new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
+	}
+	
+	/**
+	 * Gets the height of the hitbox. This is the height of the image it was created from, not the height of its solid pixels.
+	 *
+	 * @return The height
+	 * @since 0.1.0
+	 */
+	public int getHeight() {
+		return height;
+	}
+	
+	/**
+	 * Gets the largest x coordinate of a solid pixel.
+	 *
+	 * @return The coordinate, or -1 if the hitbox is empty
+	 * @since 0.1.0
+	 */
+	public int getMaxX() {
+		return maxX;
+	}
+	
+	/**
+	 * Gets the largest y coordinate of a solid pixel.
+	 *
+	 * @return The coordinate, or -1 if the hitbox is empty
+	 * @since 0.1.0
+	 */
+	public int getMaxY() {
+		return maxY;
+	}
+	
+	/**
+	 * Gets the smallest x coordinate of a solid pixel.
+	 *
+	 * @return The coordinate, or the width of the hitbox if it is empty
+	 * @since 0.1.0
+	 */
+	public int getMinX() {
+		return minX;
+	}
+	
+	/**
+	 * Gets the smallest y coordinate of a solid pixel.
+	 *
+	 * @return The coordinate, or the height of the hitbox if it is empty
+	 * @since 0.1.0
+	 */
+	public int getMinY() {
+		return minY;
+	}
+	
+	/**
+	 * Gets the width of the hitbox. This is the width of the image it was created from, not the width of its solid pixels.
+	 *
+	 * @return The width
+	 * @since 0.1.0
+	 */
+	public int getWidth() {
+		return width;
+	}
+	
+	/**
+	 * Checks if this hitbox overlaps with another hitbox. Both hitboxes are translated by the specified amounts; no new objects are created.
+	 *
+	 * @param x      The x coordinate of this hitbox
+	 * @param y      The y coordinate of this hitbox
+	 * @param other  The other hitbox
+	 * @param otherX The x coordinate of the other hitbox
+	 * @param otherY The y coordinate of the other hitbox
+	 * @param result The object to store the details of the overlap in, or null if only the existence of the overlap is needed. Not modified if there is no overlap.
+	 * @return True if there is at least one pixel that is solid in both hitboxes
+	 * @since 0.1.0
+	 */
+	public boolean intersects(int x, int y, @NotNull BitmaskHitbox other, int otherX, int otherY, @Nullable Overlap result) {
+		if(isEmpty() || other.isEmpty()) {
+			return false;
+		}
+		int x0 = Math.max(x + minX, otherX + other.minX);
+		int x1 = Math.min(x + maxX, otherX + other.maxX);
+		int y0 = Math.max(y + minY, otherY + other.minY);
+		int y1 = Math.min(y + maxY, otherY + other.maxY);
+		if(x0 > x1 || y0 > y1) {
+			return false;
+		}
+		int pixels = 0;
+		int overlapMinX = Integer.MAX_VALUE, overlapMaxX = Integer.MIN_VALUE, overlapMinY = Integer.MAX_VALUE, overlapMaxY = Integer.MIN_VALUE;
+		for(int row = y0; row <= y1; row++) {
+			for(int column = x0; column <= x1; column += 64) {
+				long overlap = getBits(row - y, column - x) & other.getBits(row - otherY, column - otherX);
+				int length = x1 - column + 1;
+				if(length < 64) {
+					overlap &= (1L << length) - 1;
+				}
+				if(overlap != 0) {
+					if(result == null) {
+						return true;
+					}
+					pixels += Long.bitCount(overlap);
+					overlapMinX = Math.min(overlapMinX, column + Long.numberOfTrailingZeros(overlap));
+					overlapMaxX = Math.max(overlapMaxX, column + 63 - Long.numberOfLeadingZeros(overlap));
+					overlapMinY = Math.min(overlapMinY, row);
+					overlapMaxY = row;
+				}
+			}
+		}
+		if(pixels == 0) {
+			return false;
+		}
+		//the direction to push this hitbox in is away from the other hitbox's center, along the axis with the smaller penetration
+		int depthX = overlapMaxX - overlapMinX + 1, depthY = overlapMaxY - overlapMinY + 1;
+		int centerDistanceX = (2 * x + minX + maxX) - (2 * otherX + other.minX + other.maxX);
+		int centerDistanceY = (2 * y + minY + maxY) - (2 * otherY + other.minY + other.maxY);
+		if(depthX < depthY) {
+			result.set(pixels, overlapMinX, overlapMinY, overlapMaxX, overlapMaxY, centerDistanceX < 0 ? -1 : 1, 0, depthX);
+		} else {
+			result.set(pixels, overlapMinX, overlapMinY, overlapMaxX, overlapMaxY, 0, centerDistanceY > 0 ? 1 : -1, depthY);
+		}
+		return true;
+	}
+	
+	/**
+	 * Checks if any solid pixel of this hitbox is inside the specified rectangle. The hitbox is translated by the specified amount; no new objects are created.
+	 *
+	 * @param x      The x coordinate of this hitbox
+	 * @param y      The y coordinate of this hitbox
+	 * @param left   The left edge of the rectangle
+	 * @param top    The top edge of the rectangle
+	 * @param right  The right edge of the rectangle (exclusive)
+	 * @param bottom The bottom edge of the rectangle (exclusive)
+	 * @return True if there is a solid pixel inside the rectangle
+	 * @since 0.1.0
+	 */
+	public boolean intersects(int x, int y, int left, int top, int right, int bottom) {
+		if(isEmpty()) {
+			return false;
+		}
+		int x0 = Math.max(x + minX, left);
+		int x1 = Math.min(x + maxX, right - 1);
+		int y0 = Math.max(y + minY, top);
+		int y1 = Math.min(y + maxY, bottom - 1);
+		for(int row = y0; row <= y1; row++) {
+			for(int column = x0; column <= x1; column += 64) {
+				long solid = getBits(row - y, column - x);
+				int length = x1 - column + 1;
+				if(length < 64) {
+					solid &= (1L << length) - 1;
+				}
+				if(solid != 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Checks if this hitbox has no solid pixels.
+	 *
+	 * @return True if empty
+	 * @since 0.1.0
+	 */
+	public boolean isEmpty() {
+		return maxX < 0;
+	}
+	
+	/**
+	 * Creates a copy of this hitbox that is mirrored along the Y axis. The mirrored hitbox has the same dimensions.
+	 *
+	 * @return The mirrored hitbox
+	 * @since 0.1.0
+	 */
+	public @NotNull BitmaskHitbox mirror() {
+		long[] mirrored = new long[bits.length];
+		for(int y = 0; y < height; y++) {
+			for(int x = 0; x < width; x++) {
+				if(contains(x, y)) {
+					int target = width - 1 - x;
+					mirrored[y * wordsPerRow + (target >> 6)] |= 1L << target;
+				}
+			}
+		}
+		return new BitmaskHitbox(width, height, mirrored);
+	}
+	
+	/**
+	 * Creates an {@link Area} covering the solid pixels of this hitbox. Every horizontal run of solid pixels becomes a rectangle in the area.
+	 *
+	 * @return The area
+	 * @since 0.1.0
+	 */
+	public @NotNull Area toArea() {
+		GeneralPath path = new GeneralPath(GeneralPath.WIND_NON_ZERO);
+		for(int y = minY; y <= maxY; y++) {
+			int start = -1;
+			for(int x = minX; x <= maxX + 1; x++) {
+				boolean solid = contains(x, y);
+				if(solid && start < 0) {
+					start = x;
+				} else if(!solid && start >= 0) {
+					path.moveTo(start, y);
+					path.lineTo(x, y);
+					path.lineTo(x, y + 1);
+					path.lineTo(start, y + 1);
+					path.closePath();
+					start = -1;
+				}
+			}
+		}
+		return new Area(path);
+	}
+	
+	/**
+	 * Gets 64 consecutive pixels of a row, starting at the specified pixel. The starting pixel is the lowest bit of the result. Pixels outside the hitbox are not solid.
+	 *
+	 * @param y The row
+	 * @param x The first pixel
+	 * @return The pixels
+	 * @since 0.1.0
+	 */
+	protected long getBits(int y, int x) {
+		if(y < 0 || y >= height) {
+			return 0;
+		}
+		int word = x >> 6;
+		int shift = x & 63;
+		int row = y * wordsPerRow;
+		long low = word >= 0 && word < wordsPerRow ? bits[row + word] : 0;
+		if(shift == 0) {
+			return low;
+		}
+		long high = word + 1 >= 0 && word + 1 < wordsPerRow ? bits[row + word + 1] : 0;
+		return (low >>> shift) | (high << (64 - shift));
+	}
+	
+	/**
+	 * Stores the details of an overlap between two bitmask hitboxes. Instances are meant to be reused between checks.
+	 *
+	 * @see BitmaskHitbox#intersects(int, int, BitmaskHitbox, int, int, Overlap)
+	 * @since 0.1.0
+	 */
+	public static class Overlap {
+		/**
+		 * The amount of overlapping pixels
+		 *
+		 * @since 0.1.0
+		 */
+		protected int pixels;
+		/**
+		 * The smallest x coordinate of an overlapping pixel
+		 *
+		 * @since 0.1.0
+		 */
+		protected int minX;
+		/**
+		 * The smallest y coordinate of an overlapping pixel
+		 *
+		 * @since 0.1.0
+		 */
+		protected int minY;
+		/**
+		 * The largest x coordinate of an overlapping pixel
+		 *
+		 * @since 0.1.0
+		 */
+		protected int maxX;
+		/**
+		 * The largest y coordinate of an overlapping pixel
+		 *
+		 * @since 0.1.0
+		 */
+		protected int maxY;
+		/**
+		 * The x component of the direction the first hitbox should move in to resolve the overlap
+		 *
+		 * @since 0.1.0
+		 */
+		protected int normalX;
+		/**
+		 * The y component of the direction the first hitbox should move in to resolve the overlap
+		 *
+		 * @since 0.1.0
+		 */
+		protected int normalY;
+		/**
+		 * The penetration depth along the normal
+		 *
+		 * @since 0.1.0
+		 */
+		protected int depth;
+		
+		/**
+		 * Gets the penetration depth: the distance the first hitbox has to move along the normal to (approximately) stop overlapping.
+		 *
+		 * @return The depth in pixels
+		 * @since 0.1.0
+		 */
+		public int getDepth() {
+			return depth;
+		}
+		
+		/**
+		 * Gets the largest x coordinate of an overlapping pixel.
+		 *
+		 * @return The coordinate
+		 * @since 0.1.0
+		 */
+		public int getMaxX() {
+			return maxX;
+		}
+		
+		/**
+		 * Gets the largest y coordinate of an overlapping pixel.
+		 *
+		 * @return The coordinate
+		 * @since 0.1.0
+		 */
+		public int getMaxY() {
+			return maxY;
+		}
+		
+		/**
+		 * Gets the smallest x coordinate of an overlapping pixel.
+		 *
+		 * @return The coordinate
+		 * @since 0.1.0
+		 */
+		public int getMinX() {
+			return minX;
+		}
+		
+		/**
+		 * Gets the smallest y coordinate of an overlapping pixel.
+		 *
+		 * @return The coordinate
+		 * @since 0.1.0
+		 */
+		public int getMinY() {
+			return minY;
+		}
+		
+		/**
+		 * Gets the x component of the direction the first hitbox should be moved in to resolve the overlap.
+		 *
+		 * @return -1, 0 or 1
+		 * @since 0.1.0
+		 */
+		public int getNormalX() {
+			return normalX;
+		}
+		
+		/**
+		 * Gets the y component of the direction the first hitbox should be moved in to resolve the overlap. Negative values point up.
+		 *
+		 * @return -1, 0 or 1
+		 * @since 0.1.0
+		 */
+		public int getNormalY() {
+			return normalY;
+		}
+		
+		/**
+		 * Gets the amount of pixels that are solid in both hitboxes.
+		 *
+		 * @return The amount of pixels
+		 * @since 0.1.0
+		 */
+		public int getPixels() {
+			return pixels;
+		}
+		
+		/**
+		 * Sets the details of the overlap.
+		 *
+		 * @param pixels  The amount of overlapping pixels
+		 * @param minX    The smallest x coordinate of an overlapping pixel
+		 * @param minY    The smallest y coordinate of an overlapping pixel
+		 * @param maxX    The largest x coordinate of an overlapping pixel
+		 * @param maxY    The largest y coordinate of an overlapping pixel
+		 * @param normalX The x component of the normal
+		 * @param normalY The y component of the normal
+		 * @param depth   The penetration depth
+		 * @since 0.1.0
+		 */
+		protected void set(int pixels, int minX, int minY, int maxX, int maxY, int normalX, int normalY, int depth) {
+			this.pixels = pixels;
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			this.normalX = normalX;
+			this.normalY = normalY;
+			this.depth = depth;
+		}
+	}
+}
@@ -0,0 +1,490 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.hitbox;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persistent cache of computed {@link ImageHitbox image hitboxes}, so the hitboxes of unchanged images don't have to be recomputed on every start. Hitboxes are keyed by the SHA-256 hash of the source file's bytes, the frame length the frames of the file were resampled to, and the index of the frame. Along with the bitmask, the {@link ImageHitbox#getOutline() outline} and the {@link ImageHitbox#getRectangles() rectangles} of every hitbox are stored, so cached hitboxes are never traced again.
+ * <p>
+ * The cache file starts with {@link #MAGIC}, {@link #VERSION} and the amount of entries. It is followed by the index, which has a fixed size record for every entry: the hash, the frame length, the frame index, the width and height of the hitbox, the tolerance of the outline, the offset of its data in the file, and the amount of ints in its outline and rectangles. The data of the hitboxes comes after the index, each aligned to 8 bytes: the bits in the row order of {@link BitmaskHitbox}, then the outline as the length of every polygon followed by its coordinates, then the coordinates of the rectangles. The file is memory-mapped when it is opened, and the data of a hitbox is only read when it is requested.
+ * <p>
+ * Hitboxes can be read and added from any thread. When the cache is {@link #save() saved}, only the entries of {@link #retain(byte[]) retained} files are kept, so the hitboxes of changed or removed images are dropped.
+ *
+ * @since 0.1.0
+ */
+public class HitboxCache {
+	/**
+	 * The magic number at the start of every cache file ("MCMH")
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int MAGIC = 0x4D434D48;
+	/**
+	 * The current version of the cache format. Must be increased whenever the format or the way hitboxes are created from images changes.
+	 *
+	 * @since 0.1.0
+	 */
+	public static final short VERSION = 2;
+	/**
+	 * The length of the hashes identifying the source files
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int HASH_LENGTH = 32;
+	/**
+	 * The size of the file header: the magic number, the version and the amount of entries
+	 *
+	 * @since 0.1.0
+	 */
+	protected static final int HEADER_SIZE = 4 + 2 + 4;
+	/**
+	 * The size of a record in the index: the hash, the frame length, the frame, the width, the height, the tolerance, the offset of the data, and the lengths of the outline and the rectangles
+	 *
+	 * @since 0.1.0
+	 */
+	protected static final int ENTRY_SIZE = HASH_LENGTH + 8 + 4 + 4 + 4 + 8 + 8 + 4 + 4;
+	/**
+	 * Logger for the hitbox cache
+	 *
+	 * @since 0.1.0
+	 */
+	private static final @NotNull Logger LOGGER = LogManager.getLogger(HitboxCache.class);
+	/**
+	 * The location of the cache file
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Path file;
+	/**
+	 * The positions of the index records in the {@link #mapped} file
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Map<Key, Integer> stored = new ConcurrentHashMap<>();
+	/**
+	 * The hitboxes added since the cache was opened
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Map<Key, ImageHitbox> computed = new ConcurrentHashMap<>();
+	/**
+	 * The hashes of the source files whose hitboxes are kept when saving
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Set<ByteBuffer> retained = ConcurrentHashMap.newKeySet();
+	/**
+	 * The amount of hitboxes found in the cache
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull AtomicInteger hits = new AtomicInteger();
+	/**
+	 * The amount of hitboxes not found in the cache
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull AtomicInteger misses = new AtomicInteger();
+	/**
+	 * The contents of the cache file, or null if the file is missing, invalid or being replaced
+	 *
+	 * @since 0.1.0
+	 */
+	protected volatile @Nullable MappedByteBuffer mapped;
+	/**
+	 * Whether the cache file has been opened
+	 *
+	 * @see #open()
+	 * @since 0.1.0
+	 */
+	protected volatile boolean opened = false;
+	
+	/**
+	 * Creates a new hitbox cache backed by the specified file. The file is opened when the cache is first used.
+	 *
+	 * @param file The cache file
+	 * @since 0.1.0
+	 */
+	public HitboxCache(@NotNull Path file) {
+		this.file = file;
+	}
+	
+	/**
+	 * Hashes the contents of a source file.
+	 *
+	 * @param data The contents of the file
+	 * @return The SHA-256 hash of the contents
+	 * @since 0.1.0
+	 */
+	public static @NotNull byte[] hash(@NotNull byte[] data) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(data);
+		} catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported", e);
+		}
+	}
+	
+	/**
+	 * Gets a hitbox from the cache.
+	 *
+	 * @param hash        The hash of the source file
+	 * @param frameLength The frame length the frames of the file were resampled to (in nanoseconds), or 0 for still images
+	 * @param frame       The index of the frame
+	 * @return The hitbox, or null if it is not cached
+	 * @since 0.1.0
+	 */
+	public @Nullable ImageHitbox get(@NotNull byte[] hash, long frameLength, int frame) {
+		if(!opened) {
+			open();
+		}
+		Key key = new Key(hash, frameLength, frame);
+		ImageHitbox hitbox = computed.get(key);
+		if(hitbox == null) {
+			MappedByteBuffer buffer = mapped;
+			Integer position = stored.get(key);
+			if(position != null && buffer != null && buffer == mapped) {//the position may belong to a newer file if the cache was saved meanwhile
+				hitbox = read(buffer, position);
+			}
+		}
+		(hitbox == null ? misses : hits).incrementAndGet();
+		return hitbox;
+	}
+	
+	/**
+	 * Gets the hitboxes of every frame of a source file from the cache. The frames don't have to be decoded if all of them are cached.
+	 *
+	 * @param hash        The hash of the source file
+	 * @param frameLength The frame length the frames of the file were resampled to (in nanoseconds), or 0 for still images
+	 * @param frameCount  The amount of frames
+	 * @return The hitboxes of the frames, or null if any of them is not cached
+	 * @since 0.1.0
+	 */
+	public @Nullable ImageHitbox[] getAll(@NotNull byte[] hash, long frameLength, int frameCount) {
+		ImageHitbox[] hitboxes = new ImageHitbox[frameCount];
+		for(int i = 0; i < frameCount; i++) {
+			hitboxes[i] = get(hash, frameLength, i);
+			if(hitboxes[i] == null) {
+				return null;
+			}
+		}
+		return hitboxes;
+	}
+	
+	/**
+	 * Gets the amount of hitboxes found in the cache since it was created.
+	 *
+	 * @return The amount of hits
+	 * @since 0.1.0
+	 */
+	public int getHits() {
+		return hits.get();
+	}
+	
+	/**
+	 * Gets the amount of hitboxes not found in the cache since it was created.
+	 *
+	 * @return The amount of misses
+	 * @since 0.1.0
+	 */
+	public int getMisses() {
+		return misses.get();
+	}
+	
+	/**
+	 * Opens and memory-maps the cache file. Does nothing if the file is already opened. If the file is missing, invalid or from a different {@link #VERSION}, the cache starts out empty.
+	 *
+	 * @since 0.1.0
+	 */
+	public synchronized void open() {
+		if(opened) {
+			return;
+		}
+		opened = true;
+		if(!Files.isRegularFile(file)) {
+			return;
+		}
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			if(buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+				LOGGER.info("Ignoring outdated hitbox cache " + file);
+				return;
+			}
+			int count = buffer.getInt(6);
+			if(count < 0 || HEADER_SIZE + (long) count * ENTRY_SIZE > buffer.limit()) {
+				throw new IOException("Truncated index");
+			}
+			for(int i = 0; i < count; i++) {
+				int position = HEADER_SIZE + i * ENTRY_SIZE;
+				int width = buffer.getInt(position + HASH_LENGTH + 12), height = buffer.getInt(position + HASH_LENGTH + 16);
+				long offset = buffer.getLong(position + HASH_LENGTH + 28);
+				int outlineLength = buffer.getInt(position + HASH_LENGTH + 36), rectangleLength = buffer.getInt(position + HASH_LENGTH + 40);
+				if(width < 0 || height < 0 || offset < 0 || outlineLength < 0 || rectangleLength < 0 || rectangleLength % 4 != 0 || offset + getWordCount(width, height) * 8 + ((long) outlineLength + rectangleLength) * 4 > buffer.limit()) {
+					throw new IOException("Invalid entry " + i);
+				}
+				byte[] hash = new byte[HASH_LENGTH];
+				buffer.get(position, hash);
+				stored.put(new Key(hash, buffer.getLong(position + HASH_LENGTH), buffer.getInt(position + HASH_LENGTH + 8)), position);
+			}
+			mapped = buffer;
+			LOGGER.info("Opened hitbox cache " + file + " with " + count + " hitboxes");
+		} catch(IOException | RuntimeException e) {
+			stored.clear();
+			LOGGER.warn("Could not read hitbox cache " + file + ", recomputing all hitboxes", e);
+		}
+	}
+	
+	/**
+	 * Adds a computed hitbox to the cache. The hitbox is written to the file when the cache is {@link #save() saved}; its outline and rectangles are created then if they don't exist yet.
+	 *
+	 * @param hash        The hash of the source file
+	 * @param frameLength The frame length the frames of the file were resampled to (in nanoseconds), or 0 for still images
+	 * @param frame       The index of the frame
+	 * @param hitbox      The hitbox
+	 * @since 0.1.0
+	 */
+	public void put(@NotNull byte[] hash, long frameLength, int frame, @NotNull ImageHitbox hitbox) {
+		computed.put(new Key(hash, frameLength, frame), hitbox);
+		retain(hash);
+	}
+	
+	/**
+	 * Marks a source file as still in use, so its hitboxes are kept when the cache is {@link #save() saved}.
+	 *
+	 * @param hash The hash of the file
+	 * @since 0.1.0
+	 */
+	public void retain(@NotNull byte[] hash) {
+		retained.add(ByteBuffer.wrap(hash.clone()));
+	}
+	
+	/**
+	 * Writes the hitboxes of the {@link #retain(byte[]) retained} files to the cache file. Does nothing if no hitboxes were added or dropped since the cache was opened. The file is replaced atomically when the file system supports it.
+	 * <p>
+	 * The hitboxes of the old file are copied to the heap and its mapping is released before the file is replaced, as some platforms (like Windows) don't allow replacing a file that is still mapped. The new file is mapped when the cache is used again.
+	 *
+	 * @throws IOException If the file cannot be written
+	 * @since 0.1.0
+	 */
+	public synchronized void save() throws IOException {
+		open();
+		LinkedHashMap<Key, ImageHitbox> entries = new LinkedHashMap<>();
+		MappedByteBuffer buffer = mapped;
+		stored.forEach((key, position) -> {
+			if(buffer != null && !computed.containsKey(key) && retained.contains(ByteBuffer.wrap(key.hash))) {
+				entries.put(key, read(buffer, position));
+			}
+		});
+		if(computed.isEmpty() && entries.size() == stored.size()) {
+			return;
+		}
+		entries.putAll(computed);
+		opened = false;//readers wait for the new file instead of using the old mapping
+		mapped = null;
+		stored.clear();
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeInt(entries.size());
+			long offset = align(HEADER_SIZE + (long) entries.size() * ENTRY_SIZE);
+			for(Map.Entry<Key, ImageHitbox> entry : entries.entrySet()) {
+				Key key = entry.getKey();
+				ImageHitbox hitbox = entry.getValue();
+				BitmaskHitbox mask = hitbox.getMask();
+				int outlineLength = getOutlineLength(hitbox.getOutline()), rectangleLength = hitbox.getRectangles().rectangles.length;
+				out.write(key.hash);
+				out.writeLong(key.frameLength);
+				out.writeInt(key.frame);
+				out.writeInt(mask.width);
+				out.writeInt(mask.height);
+				out.writeDouble(hitbox.getTolerance());
+				out.writeLong(offset);
+				out.writeInt(outlineLength);
+				out.writeInt(rectangleLength);
+				offset = align(offset + mask.bits.length * 8L + (outlineLength + rectangleLength) * 4L);
+			}
+			for(ImageHitbox hitbox : entries.values()) {
+				out.write(new byte[(int) (align(out.size()) - out.size())]);
+				for(long bits : hitbox.getMask().bits) {
+					out.writeLong(bits);
+				}
+				for(int[] polygon : hitbox.getOutline()) {
+					out.writeInt(polygon.length);
+					for(int coordinate : polygon) {
+						out.writeInt(coordinate);
+					}
+				}
+				for(int coordinate : hitbox.getRectangles().rectangles) {
+					out.writeInt(coordinate);
+				}
+			}
+		}
+		try {
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch(AtomicMoveNotSupportedException e) {
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		entries.keySet().forEach(computed::remove);//they are in the new file now
+		LOGGER.info("Saved " + entries.size() + " hitboxes to " + file + " (" + hits.get() + " hits, " + misses.get() + " misses)");
+	}
+	
+	/**
+	 * Rounds up a file offset to a multiple of 8.
+	 *
+	 * @param offset The offset
+	 * @return The aligned offset
+	 * @since 0.1.0
+	 */
+	private static long align(long offset) {
+		return (offset + 7) & ~7L;
+	}
+	
+	/**
+	 * Gets the amount of ints an outline takes in the file.
+	 *
+	 * @param outline The polygons of the outline
+	 * @return The amount of ints
+	 * @since 0.1.0
+	 */
+	private static int getOutlineLength(@NotNull List<int[]> outline) {
+		int length = 0;
+		for(int[] polygon : outline) {
+			length += polygon.length + 1;
+		}
+		return length;
+	}
+	
+	/**
+	 * Gets the amount of longs in the bits of a hitbox.
+	 *
+	 * @param width  The width of the hitbox
+	 * @param height The height of the hitbox
+	 * @return The amount of longs
+	 * @since 0.1.0
+	 */
+	private static long getWordCount(int width, int height) {
+		return ((width + 63L) >> 6) * height;
+	}
+	
+	/**
+	 * Reads a hitbox from the mapped file.
+	 *
+	 * @param buffer   The mapped file
+	 * @param position The position of the hitbox's index record
+	 * @return The hitbox
+	 * @throws IllegalStateException If the outline is corrupted
+	 * @since 0.1.0
+	 */
+	private static @NotNull ImageHitbox read(@NotNull MappedByteBuffer buffer, int position) throws IllegalStateException {
+		int width = buffer.getInt(position + HASH_LENGTH + 12), height = buffer.getInt(position + HASH_LENGTH + 16);
+		double tolerance = buffer.getDouble(position + HASH_LENGTH + 20);
+		int offset = (int) buffer.getLong(position + HASH_LENGTH + 28);
+		int outlineLength = buffer.getInt(position + HASH_LENGTH + 36), rectangleLength = buffer.getInt(position + HASH_LENGTH + 40);
+		long[] bits = new long[(int) getWordCount(width, height)];
+		buffer.slice(offset, bits.length * 8).asLongBuffer().get(bits);
+		IntBuffer ints = buffer.slice(offset + bits.length * 8, (outlineLength + rectangleLength) * 4).asIntBuffer();
+		ArrayList<int[]> outline = new ArrayList<>();
+		while(ints.position() < outlineLength) {
+			int length = ints.get();
+			if(length < 0 || ints.position() + length > outlineLength) {
+				throw new IllegalStateException("Invalid outline at " + offset);
+			}
+			int[] polygon = new int[length];
+			ints.get(polygon);
+			outline.add(polygon);
+		}
+		int[] rectangles = new int[rectangleLength];
+		ints.get(rectangles);
+		return new ImageHitbox(new BitmaskHitbox(width, height, bits), tolerance, outline, new RectangleHitbox(rectangles));
+	}
+	
+	/**
+	 * The key of a hitbox in the cache
+	 *
+	 * @since 0.1.0
+	 */
+	protected static final class Key {
+		/**
+		 * The hash of the source file
+		 *
+		 * @since 0.1.0
+		 */
+		private final @NotNull byte[] hash;
+		/**
+		 * The frame length the frames of the file were resampled to
+		 *
+		 * @since 0.1.0
+		 */
+		private final long frameLength;
+		/**
+		 * The index of the frame
+		 *
+		 * @since 0.1.0
+		 */
+		private final int frame;
+		
+		/**
+		 * Creates a new key.
+		 *
+		 * @param hash        The hash of the source file
+		 * @param frameLength The frame length the frames of the file were resampled to
+		 * @param frame       The index of the frame
+		 * @throws IllegalArgumentException If the hash has the wrong length
+		 * @since 0.1.0
+		 */
+		private Key(@NotNull byte[] hash, long frameLength, int frame) throws IllegalArgumentException {
+			if(hash.length != HASH_LENGTH) {
+				throw new IllegalArgumentException("Invalid hash length: " + hash.length);
+			}
+			this.hash = hash.clone();
+			this.frameLength = frameLength;
+			this.frame = frame;
+		}
+		
+		@Override
+		public int hashCode() {
+			return (Arrays.hashCode(hash) * 31 + Long.hashCode(frameLength)) * 31 + frame;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Key key && key.frameLength == frameLength && key.frame == frame && Arrays.equals(key.hash, hash);
+		}
+	}
+}
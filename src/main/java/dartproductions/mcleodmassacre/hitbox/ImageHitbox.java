@@ -12,44 +12,123 @@ package dartproductions.mcleodmassacre.hitbox;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.awt.Color;
 import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
-import java.awt.geom.GeneralPath;
 import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.util.List;
 
 /**
- * Shape implementation that is created from an image.
+ * Shape implementation that is created from an image. The hitbox is stored as a {@link BitmaskHitbox}; the {@link Area} view of the hitbox is only created when it is first needed, from the {@link OutlineTracer simplified polygon outline} of the bitmask. The {@link RectangleHitbox rectangle} view is also created on demand, and is used for checks against rectangles. Hitboxes read from a {@link HitboxCache} already have their outline and rectangles, so they are never traced again.
  *
  * @since 0.1.0
  */
 public class ImageHitbox implements Shape {
+	/**
+	 * The default tolerance of the outlines (in pixels)
+	 *
+	 * @see #getTolerance()
+	 * @since 0.1.0
+	 */
+	public static final double DEFAULT_TOLERANCE = 1.0;
+	/**
+	 * The largest amount of rectangles for which a hitbox is considered {@link #isRectangular() rectangular}
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int RECTANGLE_LIMIT = 16;
 	private static final @NotNull Logger LOGGER = LogManager.getLogger(ImageHitbox.class);
 	/**
 	 * The actual hitbox
 	 *
 	 * @since 0.1.0
 	 */
-	protected final @NotNull Area hitbox;
+	protected final @NotNull BitmaskHitbox mask;
+	/**
+	 * The tolerance of the outline
+	 *
+	 * @see #getTolerance()
+	 * @since 0.1.0
+	 */
+	protected final double tolerance;
+	/**
+	 * The hitbox as an area; created on demand
+	 *
+	 * @see #getArea()
+	 * @since 0.1.0
+	 */
+	protected volatile @Nullable Area hitbox;
+	/**
+	 * The simplified outline polygons; created on demand
+	 *
+	 * @see #getOutline()
+	 * @since 0.1.0
+	 */
+	protected volatile @Nullable List<int[]> outline;
+	/**
+	 * The hitbox as rectangles; created on demand
+	 *
+	 * @see #getRectangles()
+	 * @since 0.1.0
+	 */
+	protected volatile @Nullable RectangleHitbox rectangles;
 	
 	/**
-	 * Creates a new image hitbox. Uses the current thread for calculations, which might cause serious blocks for high-resolution images.
+	 * Creates a new image hitbox. Uses the current thread for calculations. Black pixels of the image are part of the hitbox.
 	 *
 	 * @param image The image to create the hitbox from
 	 * @since 0.1.0
 	 */
 	public ImageHitbox(final @NotNull BufferedImage image) {
-		hitbox = createOutline(Color.BLACK, image);
+		this(BitmaskHitbox.fromImage(image, rgb -> rgb == Color.BLACK.getRGB()));
+	}
+	
+	/**
+	 * Creates a new image hitbox from a bitmask, with the {@link #DEFAULT_TOLERANCE default outline tolerance}.
+	 *
+	 * @param mask The bitmask of the hitbox
+	 * @since 0.1.0
+	 */
+	public ImageHitbox(final @NotNull BitmaskHitbox mask) {
+		this(mask, DEFAULT_TOLERANCE);
 	}
 	
 	/**
-	 * Creates an {@link Area} from the image based on the locations that match and doesn't match the specified color.
+	 * Creates a new image hitbox from a bitmask.
+	 *
+	 * @param mask      The bitmask of the hitbox
+	 * @param tolerance The tolerance of the outline (in pixels), or 0 for a pixel-precise outline
+	 * @since 0.1.0
+	 */
+	public ImageHitbox(final @NotNull BitmaskHitbox mask, double tolerance) {
+		this.mask = mask;
+		this.tolerance = Math.max(0, tolerance);
+	}
+	
+	/**
+	 * Creates a new image hitbox from a bitmask and its already created views.
+	 *
+	 * @param mask       The bitmask of the hitbox
+	 * @param tolerance  The tolerance the outline was simplified with (in pixels)
+	 * @param outline    The {@link #getOutline() outline polygons} of the bitmask
+	 * @param rectangles The {@link #getRectangles() rectangles} of the bitmask
+	 * @since 0.1.0
+	 */
+	public ImageHitbox(final @NotNull BitmaskHitbox mask, double tolerance, @NotNull List<int[]> outline, @NotNull RectangleHitbox rectangles) {
+		this(mask, tolerance);
+		this.outline = List.copyOf(outline);
+		this.rectangles = rectangles;
+	}
+	
+	/**
+	 * Creates an {@link Area} from the image based on the locations that match and doesn't match the specified color. The area is the {@link OutlineTracer simplified outline} of the matching pixels, using the tolerance of this hitbox.
 	 *
 	 * @param target The target color
 	 * @param bi     The image
@@ -57,92 +136,136 @@ public class ImageHitbox implements Shape {
 	 * @since 0.1.0
 	 */
 	public @NotNull Area createOutline(@NotNull Color target, @NotNull BufferedImage bi) {
-		GeneralPath gp = new GeneralPath();
-		
-		boolean cont = false;
 		int targetRGB = target.getRGB();
-		for(int xx = 0; xx < bi.getWidth(); xx++) {
-			for(int yy = 0; yy < bi.getHeight(); yy++) {
-				if(bi.getRGB(xx, yy) == targetRGB) {
-					if(cont) {
-						gp.lineTo(xx, yy);
-						gp.lineTo(xx, yy + 1);
-						gp.lineTo(xx + 1, yy + 1);
-						gp.lineTo(xx + 1, yy);
-						gp.lineTo(xx, yy);
-					} else {
-						gp.moveTo(xx, yy);
-					}
-					cont = true;
-				} else {
-					cont = false;
-				}
-			}
-			cont = false;
-		}
-		gp.closePath();
-		
-		return new Area(gp);
+		return OutlineTracer.createOutline(BitmaskHitbox.fromImage(bi, rgb -> rgb == targetRGB), tolerance);
 	}
 	
 	/**
-	 * Gets the hitbox area of this hitbox.
+	 * Gets the hitbox area of this hitbox. The area is created from the {@link #getOutline() outline} on the first call.
 	 *
 	 * @return The hitbox area
 	 * @since 0.1.0
 	 */
 	public @NotNull Area getArea() {
-		return hitbox;
+		Area area = hitbox;
+		if(area == null) {
+			area = OutlineTracer.toArea(getOutline());
+			hitbox = area;
+		}
+		return area;
+	}
+	
+	/**
+	 * Gets the bitmask of this hitbox.
+	 *
+	 * @return The bitmask
+	 * @since 0.1.0
+	 */
+	public @NotNull BitmaskHitbox getMask() {
+		return mask;
+	}
+	
+	/**
+	 * Gets the outline polygons of this hitbox. The outline is traced from the bitmask on the first call, and simplified with the {@link #getTolerance() tolerance} of this hitbox. The polygons must not be modified.
+	 *
+	 * @return The polygons, as alternating x and y coordinates
+	 * @since 0.1.0
+	 */
+	public @NotNull List<int[]> getOutline() {
+		List<int[]> result = outline;
+		if(result == null) {
+			result = List.copyOf(OutlineTracer.createPolygons(mask, tolerance));
+			outline = result;
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets the hitbox as a set of rectangles. The rectangles are created from the bitmask on the first call.
+	 *
+	 * @return The rectangles of the hitbox
+	 * @since 0.1.0
+	 */
+	public @NotNull RectangleHitbox getRectangles() {
+		RectangleHitbox result = rectangles;
+		if(result == null) {
+			result = RectangleHitbox.fromMask(mask);
+			rectangles = result;
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets the tolerance of the outline of this hitbox: the largest distance between the {@link #getArea() area} and the edges of the bitmask's pixels. Checks using the bitmask are always pixel-precise.
+	 *
+	 * @return The tolerance in pixels
+	 * @since 0.1.0
+	 */
+	public double getTolerance() {
+		return tolerance;
+	}
+	
+	/**
+	 * Checks if this hitbox is made of at most {@link #RECTANGLE_LIMIT} rectangles. Checks on the {@link #getRectangles() rectangles} of such hitboxes are cheaper than the bitmask checks; platforms and buttons are usually rectangular.
+	 *
+	 * @return True if rectangular
+	 * @since 0.1.0
+	 */
+	public boolean isRectangular() {
+		return getRectangles().getRectangleCount() <= RECTANGLE_LIMIT;
 	}
 	
 	@Override
 	public Rectangle getBounds() {
-		return hitbox.getBounds();
+		return mask.getBounds();
 	}
 	
 	@Override
 	public Rectangle2D getBounds2D() {
-		return hitbox.getBounds2D();
+		return mask.getBounds();
 	}
 	
 	@Override
 	public boolean contains(double x, double y) {
-		return hitbox.contains(x, y);
+		return mask.contains((int) Math.floor(x), (int) Math.floor(y));
 	}
 	
 	@Override
 	public boolean contains(Point2D p) {
-		return hitbox.contains(p);
+		return contains(p.getX(), p.getY());
 	}
 	
 	@Override
 	public boolean intersects(double x, double y, double w, double h) {
-		return hitbox.intersects(x, y, w, h);
+		if(w <= 0 || h <= 0) {
+			return false;
+		}
+		return getRectangles().intersects(0, 0, (int) Math.floor(x), (int) Math.floor(y), (int) Math.ceil(x + w), (int) Math.ceil(y + h));
 	}
 	
 	@Override
 	public boolean intersects(Rectangle2D r) {
-		return hitbox.intersects(r);
+		return intersects(r.getX(), r.getY(), r.getWidth(), r.getHeight());
 	}
 	
 	@Override
 	public boolean contains(double x, double y, double w, double h) {
-		return hitbox.contains(x, y, w, h);
+		return getArea().contains(x, y, w, h);
 	}
 	
 	@Override
 	public boolean contains(Rectangle2D r) {
-		return hitbox.contains(r);
+		return getArea().contains(r);
 	}
 	
 	@Override
 	public PathIterator getPathIterator(AffineTransform at) {
-		return hitbox.getPathIterator(at);
+		return getArea().getPathIterator(at);
 	}
 	
 	@Override
 	public PathIterator getPathIterator(AffineTransform at, double flatness) {
-		return hitbox.getPathIterator(at, flatness);
+		return getArea().getPathIterator(at, flatness);
 	}
 	
 	/**
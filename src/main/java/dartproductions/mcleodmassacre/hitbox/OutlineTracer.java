@@ -0,0 +1,282 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.hitbox;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.geom.Area;
+import java.awt.geom.Path2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Creates polygon outlines from {@link BitmaskHitbox bitmasks}. The contours of the solid pixels are traced with marching squares along the pixel edges, then simplified with the Ramer-Douglas-Peucker algorithm, so a sprite's outline only has a few dozen vertices instead of a rectangle for every run of pixels.
+ * <p>
+ * Contours are stored as arrays of alternating x and y coordinates of the vertices, in pixel corner coordinates: the pixel at (x, y) covers the square from (x, y) to (x+1, y+1). Outer contours run clockwise on the screen and holes run counter-clockwise, so the solid pixels are always on the right-hand side.
+ *
+ * @since 0.1.0
+ */
+public class OutlineTracer {
+	/**
+	 * Direction of moving right (+x)
+	 *
+	 * @since 0.1.0
+	 */
+	private static final int RIGHT = 0;
+	/**
+	 * Direction of moving down (+y)
+	 *
+	 * @since 0.1.0
+	 */
+	private static final int DOWN = 1;
+	/**
+	 * Direction of moving left (-x)
+	 *
+	 * @since 0.1.0
+	 */
+	private static final int LEFT = 2;
+	/**
+	 * The x component of the directions
+	 *
+	 * @since 0.1.0
+	 */
+	private static final int[] DX = {1, 0, -1, 0};
+	/**
+	 * The y component of the directions
+	 *
+	 * @since 0.1.0
+	 */
+	private static final int[] DY = {0, 1, 0, -1};
+	
+	/**
+	 * Creates an area from the simplified contours of a bitmask. Holes in the bitmask are holes in the area as well.
+	 *
+	 * @param mask      The bitmask
+	 * @param tolerance The largest distance (in pixels) between a removed vertex and the simplified outline; 0 keeps the exact pixel outline
+	 * @return The outline of the bitmask
+	 * @see #createPolygons(BitmaskHitbox, double)
+	 * @since 0.1.0
+	 */
+	public static @NotNull Area createOutline(@NotNull BitmaskHitbox mask, double tolerance) {
+		return toArea(createPolygons(mask, tolerance));
+	}
+	
+	/**
+	 * Creates the simplified contours of a bitmask. Contours thinner than the tolerance are kept as they are instead of disappearing.
+	 *
+	 * @param mask      The bitmask
+	 * @param tolerance The largest distance (in pixels) between a removed vertex and the simplified outline; 0 keeps the exact pixel outline
+	 * @return The polygons of the outline, as alternating x and y coordinates
+	 * @since 0.1.0
+	 */
+	public static @NotNull List<int[]> createPolygons(@NotNull BitmaskHitbox mask, double tolerance) {
+		List<int[]> polygons = trace(mask);
+		for(int i = 0; i < polygons.size(); i++) {
+			int[] polygon = simplify(polygons.get(i), tolerance);
+			if(polygon.length >= 6) {
+				polygons.set(i, polygon);
+			}
+		}
+		return polygons;
+	}
+	
+	/**
+	 * Simplifies a closed contour with the Ramer-Douglas-Peucker algorithm. The result is a subset of the contour's vertices, in the same order; every removed vertex is within the tolerance of the simplified outline.
+	 *
+	 * @param contour   The contour, as alternating x and y coordinates
+	 * @param tolerance The largest allowed distance (in pixels) of a removed vertex from the simplified outline
+	 * @return The simplified contour
+	 * @since 0.1.0
+	 */
+	public static @NotNull int[] simplify(@NotNull int[] contour, double tolerance) {
+		int count = contour.length / 2;
+		if(count <= 3 || tolerance <= 0) {
+			return contour;
+		}
+		//a closed contour is split at the vertex farthest from the first vertex, and both halves are simplified as open chains
+		int far = 0;
+		long farDistance = -1;
+		for(int i = 1; i < count; i++) {
+			long dx = contour[2 * i] - contour[0], dy = contour[2 * i + 1] - contour[1];
+			if(dx * dx + dy * dy > farDistance) {
+				farDistance = dx * dx + dy * dy;
+				far = i;
+			}
+		}
+		boolean[] keep = new boolean[count + 1];
+		keep[0] = keep[far] = keep[count] = true;
+		simplify(contour, 0, far, tolerance * tolerance, keep);
+		simplify(contour, far, count, tolerance * tolerance, keep);
+		int kept = 0;
+		for(int i = 0; i < count; i++) {
+			if(keep[i]) {
+				kept++;
+			}
+		}
+		int[] result = new int[kept * 2];
+		for(int i = 0, j = 0; i < count; i++) {
+			if(keep[i]) {
+				result[j++] = contour[2 * i];
+				result[j++] = contour[2 * i + 1];
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Creates an area from outline polygons. Polygons inside other polygons are holes in the area.
+	 *
+	 * @param polygons The polygons, as alternating x and y coordinates
+	 * @return The area of the polygons
+	 * @see #createPolygons(BitmaskHitbox, double)
+	 * @since 0.1.0
+	 */
+	public static @NotNull Area toArea(@NotNull List<int[]> polygons) {
+		Path2D.Float path = new Path2D.Float(Path2D.WIND_EVEN_ODD);
+		for(int[] polygon : polygons) {
+			path.moveTo(polygon[0], polygon[1]);
+			for(int i = 2; i < polygon.length; i += 2) {
+				path.lineTo(polygon[i], polygon[i + 1]);
+			}
+			path.closePath();
+		}
+		return new Area(path);
+	}
+	
+	/**
+	 * Traces the contours of the solid pixels of a bitmask. The contours follow the pixel edges exactly; only the corners are stored as vertices. Diagonally touching pixels are not connected.
+	 *
+	 * @param mask The bitmask
+	 * @return The contours, as alternating x and y coordinates
+	 * @since 0.1.0
+	 */
+	public static @NotNull List<int[]> trace(@NotNull BitmaskHitbox mask) {
+		ArrayList<int[]> contours = new ArrayList<>();
+		if(mask.isEmpty()) {
+			return contours;
+		}
+		int minX = mask.getMinX(), minY = mask.getMinY(), width = mask.getMaxX() - minX + 1, height = mask.getMaxY() - minY + 1;
+		//a contour always has an edge going right (solid pixel below, empty above); those edges are the starting points, and are marked when visited
+		boolean[] visited = new boolean[width * (height + 1)];
+		int[] buffer = new int[64];
+		for(int y = 0; y <= height; y++) {
+			for(int x = 0; x < width; x++) {
+				if(visited[y * width + x] || !mask.contains(minX + x, minY + y) || mask.contains(minX + x, minY + y - 1)) {
+					continue;
+				}
+				int length = 0;
+				int cx = x, cy = y, direction = RIGHT, previous = -1;
+				do {
+					if(direction == RIGHT) {
+						visited[cy * width + cx] = true;
+					}
+					if(direction != previous) {//corner
+						if(length + 2 > buffer.length) {
+							buffer = Arrays.copyOf(buffer, buffer.length * 2);
+						}
+						buffer[length++] = minX + cx;
+						buffer[length++] = minY + cy;
+					}
+					cx += DX[direction];
+					cy += DY[direction];
+					previous = direction;
+					direction = nextDirection(mask, minX + cx, minY + cy, direction);
+				} while(cx != x || cy != y || direction != RIGHT);
+				contours.add(Arrays.copyOf(buffer, length));
+			}
+		}
+		return contours;
+	}
+	
+	/**
+	 * Finds the direction the contour continues in from a pixel corner. The solid pixels are kept on the right-hand side; if both sides of the corner are possible (two diagonally touching pixels), the contour turns right, staying on the same pixel.
+	 *
+	 * @param mask      The bitmask
+	 * @param x         The x coordinate of the corner
+	 * @param y         The y coordinate of the corner
+	 * @param direction The direction the contour arrived from
+	 * @return The next direction
+	 * @since 0.1.0
+	 */
+	private static int nextDirection(@NotNull BitmaskHitbox mask, int x, int y, int direction) {
+		boolean topLeft = mask.contains(x - 1, y - 1), topRight = mask.contains(x, y - 1), bottomLeft = mask.contains(x - 1, y), bottomRight = mask.contains(x, y);
+		boolean right = bottomRight && !topRight, down = bottomLeft && !bottomRight, left = topLeft && !bottomLeft, up = topRight && !topLeft;
+		int turn = (direction + 1) & 3;//right turn
+		if(isPossible(turn, right, down, left, up)) {
+			return turn;
+		}
+		if(isPossible(direction, right, down, left, up)) {
+			return direction;
+		}
+		return (direction + 3) & 3;//left turn; turning back is never possible
+	}
+	
+	/**
+	 * Checks if a direction is one of the possible directions at a corner.
+	 *
+	 * @param direction The direction
+	 * @param right     Whether going right is possible
+	 * @param down      Whether going down is possible
+	 * @param left      Whether going left is possible
+	 * @param up        Whether going up is possible
+	 * @return True if possible
+	 * @since 0.1.0
+	 */
+	private static boolean isPossible(int direction, boolean right, boolean down, boolean left, boolean up) {
+		return switch(direction) {
+			case RIGHT -> right;
+			case DOWN -> down;
+			case LEFT -> left;
+			default -> up;
+		};
+	}
+	
+	/**
+	 * Marks the vertices of an open chain that have to be kept, recursively. The endpoints are always kept.
+	 *
+	 * @param contour   The contour, as alternating x and y coordinates; the vertex after the last one is the first one
+	 * @param from      The index of the first vertex of the chain
+	 * @param to        The index of the last vertex of the chain (exclusive of wrapping, may equal the amount of vertices)
+	 * @param tolerance The square of the tolerance
+	 * @param keep      The flags of the kept vertices
+	 * @since 0.1.0
+	 */
+	private static void simplify(@NotNull int[] contour, int from, int to, double tolerance, @NotNull boolean[] keep) {
+		if(to - from < 2) {
+			return;
+		}
+		int count = contour.length / 2;
+		double x0 = contour[2 * from], y0 = contour[2 * from + 1];
+		double x1 = contour[2 * (to % count)], y1 = contour[2 * (to % count) + 1];
+		double dx = x1 - x0, dy = y1 - y0, length = dx * dx + dy * dy;
+		int farthest = -1;
+		double farDistance = tolerance;
+		for(int i = from + 1; i < to; i++) {
+			double px = contour[2 * i] - x0, py = contour[2 * i + 1] - y0;
+			double distance;
+			if(length == 0) {
+				distance = px * px + py * py;
+			} else {
+				double cross = px * dy - py * dx;
+				distance = cross * cross / length;
+			}
+			if(distance > farDistance) {
+				farDistance = distance;
+				farthest = i;
+			}
+		}
+		if(farthest >= 0) {
+			keep[farthest] = true;
+			simplify(contour, from, farthest, tolerance, keep);
+			simplify(contour, farthest, to, tolerance, keep);
+		}
+	}
+}
@@ -0,0 +1,312 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.hitbox;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.awt.geom.Path2D;
+import java.util.Arrays;
+
+/**
+ * A hitbox stored as a set of non-overlapping axis-aligned rectangles. The rectangles are created from a {@link BitmaskHitbox} by taking the horizontal runs of solid pixels in every row, and merging runs with the same start and end in consecutive rows. Mostly rectangular hitboxes, like platforms and buttons, only need a few rectangles.
+ * <p>
+ * Overlap and point checks only compare integers, without creating any objects. Rectangle hitboxes are immutable.
+ *
+ * @since 0.1.0
+ */
+public class RectangleHitbox {
+	/**
+	 * The rectangles, stored as the left, top, right and bottom coordinates of each rectangle. The right and bottom coordinates are exclusive.
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull int[] rectangles;
+	/**
+	 * The smallest x coordinate of a solid pixel
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int minX;
+	/**
+	 * The smallest y coordinate of a solid pixel
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int minY;
+	/**
+	 * The largest x coordinate of a solid pixel, plus one
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int maxX;
+	/**
+	 * The largest y coordinate of a solid pixel, plus one
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int maxY;
+	
+	/**
+	 * Creates a new rectangle hitbox. The array is not copied, and must not be modified afterwards.
+	 *
+	 * @param rectangles The rectangles, as described at {@link #rectangles}
+	 * @throws IllegalArgumentException If the length of the array is not a multiple of 4
+	 * @since 0.1.0
+	 */
+	protected RectangleHitbox(@NotNull int[] rectangles) throws IllegalArgumentException {
+		if(rectangles.length % 4 != 0) {
+			throw new IllegalArgumentException("Invalid rectangle array length: " + rectangles.length);
+		}
+		this.rectangles = rectangles;
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+		for(int i = 0; i < rectangles.length; i += 4) {
+			minX = Math.min(minX, rectangles[i]);
+			minY = Math.min(minY, rectangles[i + 1]);
+			maxX = Math.max(maxX, rectangles[i + 2]);
+			maxY = Math.max(maxY, rectangles[i + 3]);
+		}
+		this.minX = minX;
+		this.minY = minY;
+		this.maxX = maxX;
+		this.maxY = maxY;
+	}
+	
+	/**
+	 * Decomposes the solid pixels of a bitmask into rectangles.
+	 *
+	 * @param mask The bitmask
+	 * @return The rectangle hitbox covering the same pixels
+	 * @since 0.1.0
+	 */
+	public static @NotNull RectangleHitbox fromMask(@NotNull BitmaskHitbox mask) {
+		int[] result = new int[16];
+		int count = 0;
+		//the rectangles that reach the previous row, as indices in the result; their runs are in increasing order
+		int[] open = new int[8], next = new int[8];
+		int openCount = 0;
+		for(int y = mask.getMinY(); y <= mask.getMaxY() + 1; y++) {
+			int nextCount = 0;
+			int index = 0;
+			int x = mask.getMinX();
+			while(y <= mask.getMaxY() && x <= mask.getMaxX()) {
+				while(x <= mask.getMaxX() && !mask.contains(x, y)) {
+					x++;
+				}
+				if(x > mask.getMaxX()) {
+					break;
+				}
+				int start = x;
+				while(x <= mask.getMaxX() && mask.contains(x, y)) {
+					x++;
+				}
+				while(index < openCount && result[open[index]] < start) {//skip the rectangles ending in the previous row
+					index++;
+				}
+				int rectangle;
+				if(index < openCount && result[open[index]] == start && result[open[index] + 2] == x) {//same run: extend
+					rectangle = open[index++];
+					result[rectangle + 3] = y + 1;
+				} else {
+					if(count + 4 > result.length) {
+						result = Arrays.copyOf(result, result.length * 2);
+					}
+					rectangle = count;
+					result[count++] = start;
+					result[count++] = y;
+					result[count++] = x;
+					result[count++] = y + 1;
+				}
+				if(nextCount == next.length) {
+					next = Arrays.copyOf(next, next.length * 2);
+				}
+				next[nextCount++] = rectangle;
+			}
+			int[] swap = open;
+			open = next;
+			next = swap.length < open.length ? new int[open.length] : swap;
+			openCount = nextCount;
+		}
+		return new RectangleHitbox(Arrays.copyOf(result, count));
+	}
+	
+	/**
+	 * Checks if the specified pixel is solid.
+	 *
+	 * @param x The x coordinate of the pixel
+	 * @param y The y coordinate of the pixel
+	 * @return True if solid
+	 * @since 0.1.0
+	 */
+	public boolean contains(int x, int y) {
+		if(x < minX || y < minY || x >= maxX || y >= maxY) {
+			return false;
+		}
+		for(int i = 0; i < rectangles.length; i += 4) {
+			if(x >= rectangles[i] && y >= rectangles[i + 1] && x < rectangles[i + 2] && y < rectangles[i + 3]) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Gets the smallest rectangle containing all solid pixels of this hitbox. The rectangle is empty if the hitbox has no solid pixels.
+	 *
+	 * @return The bounds
+	 * @since 0.1.0
+	 */
+	public @NotNull Rectangle getBounds() {
+		return isEmpty() ? new Rectangle() : new Rectangle(minX, minY, maxX - minX, maxY - minY);
+	}
+	
+	/**
+	 * Gets the amount of rectangles in this hitbox.
+	 *
+	 * @return The amount of rectangles
+	 * @since 0.1.0
+	 */
+	public int getRectangleCount() {
+		return rectangles.length / 4;
+	}
+	
+	/**
+	 * Gets the rectangles of this hitbox.
+	 *
+	 * @return A copy of the rectangles
+	 * @since 0.1.0
+	 */
+	public @NotNull Rectangle[] getRectangles() {
+		Rectangle[] result = new Rectangle[getRectangleCount()];
+		for(int i = 0; i < result.length; i++) {
+			result[i] = new Rectangle(rectangles[4 * i], rectangles[4 * i + 1], rectangles[4 * i + 2] - rectangles[4 * i], rectangles[4 * i + 3] - rectangles[4 * i + 1]);
+		}
+		return result;
+	}
+	
+	/**
+	 * Checks if any solid pixel of this hitbox is inside the specified rectangle.
+	 *
+	 * @param x      The x coordinate of this hitbox
+	 * @param y      The y coordinate of this hitbox
+	 * @param left   The left edge of the rectangle
+	 * @param top    The top edge of the rectangle
+	 * @param right  The right edge of the rectangle (exclusive)
+	 * @param bottom The bottom edge of the rectangle (exclusive)
+	 * @return True if there is a solid pixel inside the rectangle
+	 * @since 0.1.0
+	 */
+	public boolean intersects(int x, int y, int left, int top, int right, int bottom) {
+		left -= x;
+		right -= x;
+		top -= y;
+		bottom -= y;
+		if(left >= maxX || top >= maxY || right <= minX || bottom <= minY) {
+			return false;
+		}
+		for(int i = 0; i < rectangles.length; i += 4) {
+			if(left < rectangles[i + 2] && top < rectangles[i + 3] && right > rectangles[i] && bottom > rectangles[i + 1]) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Checks if this hitbox overlaps with another rectangle hitbox. Both hitboxes are translated by the specified amounts.
+	 *
+	 * @param x      The x coordinate of this hitbox
+	 * @param y      The y coordinate of this hitbox
+	 * @param other  The other hitbox
+	 * @param otherX The x coordinate of the other hitbox
+	 * @param otherY The y coordinate of the other hitbox
+	 * @return True if there is at least one pixel that is solid in both hitboxes
+	 * @since 0.1.0
+	 */
+	public boolean intersects(int x, int y, @NotNull RectangleHitbox other, int otherX, int otherY) {
+		if(isEmpty() || other.isEmpty() || !intersectsBounds(x, y, other.minX + otherX, other.minY + otherY, other.maxX + otherX, other.maxY + otherY)) {
+			return false;
+		}
+		for(int i = 0; i < other.rectangles.length; i += 4) {
+			if(intersects(x, y, other.rectangles[i] + otherX, other.rectangles[i + 1] + otherY, other.rectangles[i + 2] + otherX, other.rectangles[i + 3] + otherY)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Checks if this hitbox overlaps with a bitmask hitbox. Both hitboxes are translated by the specified amounts.
+	 *
+	 * @param x     The x coordinate of this hitbox
+	 * @param y     The y coordinate of this hitbox
+	 * @param mask  The bitmask hitbox
+	 * @param maskX The x coordinate of the bitmask hitbox
+	 * @param maskY The y coordinate of the bitmask hitbox
+	 * @return True if there is at least one pixel that is solid in both hitboxes
+	 * @since 0.1.0
+	 */
+	public boolean intersects(int x, int y, @NotNull BitmaskHitbox mask, int maskX, int maskY) {
+		if(isEmpty() || mask.isEmpty() || !intersectsBounds(x, y, mask.getMinX() + maskX, mask.getMinY() + maskY, mask.getMaxX() + 1 + maskX, mask.getMaxY() + 1 + maskY)) {
+			return false;
+		}
+		for(int i = 0; i < rectangles.length; i += 4) {
+			if(mask.intersects(maskX, maskY, rectangles[i] + x, rectangles[i + 1] + y, rectangles[i + 2] + x, rectangles[i + 3] + y)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Checks if this hitbox has no solid pixels.
+	 *
+	 * @return True if empty
+	 * @since 0.1.0
+	 */
+	public boolean isEmpty() {
+		return rectangles.length == 0;
+	}
+	
+	/**
+	 * Creates an {@link Area} covering the rectangles of this hitbox.
+	 *
+	 * @return The area
+	 * @since 0.1.0
+	 */
+	public @NotNull Area toArea() {
+		Path2D.Float path = new Path2D.Float(Path2D.WIND_NON_ZERO);
+		for(int i = 0; i < rectangles.length; i += 4) {
+			path.moveTo(rectangles[i], rectangles[i + 1]);
+			path.lineTo(rectangles[i + 2], rectangles[i + 1]);
+			path.lineTo(rectangles[i + 2], rectangles[i + 3]);
+			path.lineTo(rectangles[i], rectangles[i + 3]);
+			path.closePath();
+		}
+		return new Area(path);
+	}
+	
+	/**
+	 * Checks if the bounds of this hitbox overlap with a rectangle.
+	 *
+	 * @param x      The x coordinate of this hitbox
+	 * @param y      The y coordinate of this hitbox
+	 * @param left   The left edge of the rectangle
+	 * @param top    The top edge of the rectangle
+	 * @param right  The right edge of the rectangle (exclusive)
+	 * @param bottom The bottom edge of the rectangle (exclusive)
+	 * @return True if the bounds overlap
+	 * @since 0.1.0
+	 */
+	private boolean intersectsBounds(int x, int y, int left, int top, int right, int bottom) {
+		return left < maxX + x && top < maxY + y && right > minX + x && bottom > minY + y;
+	}
+}
@@ -25,6 +25,8 @@ import org.jetbrains.annotations.Nullable;
 
 import java.awt.MouseInfo;
 import java.awt.Point;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -51,6 +53,18 @@ public class InputManager {
 	 * @since 0.1.0
 	 */
 	private static final @NotNull ArrayList<Controller> PLAYER_DEVICES = new ArrayList<>();
+	/**
+	 * The recorder writing the handled actions to a replay file, if any
+	 *
+	 * @since 0.1.0
+	 */
+	private static volatile @Nullable InputRecorder RECORDER;
+	/**
+	 * The replay used instead of the input devices, if any
+	 *
+	 * @since 0.1.0
+	 */
+	private static volatile @Nullable InputReplay REPLAY;
 	
 	/**
 	 * Gets the list of actions that have been detected since this method was last called.
@@ -66,6 +80,45 @@ public class InputManager {
 		}
 	}
 	
+	/**
+	 * Gets the actions to handle in the specified frame. In replay mode these are read from the replay file, otherwise they are the actions detected since the last call. If a recording is active, the actions are also written to the replay file.
+	 *
+	 * @param frame The current frame of the engine
+	 * @return The actions of the frame
+	 * @since 0.1.0
+	 */
+	public static @NotNull ArrayList<InputAction<Event>> getActions(long frame) {
+		ArrayList<InputAction<Event>> actions;
+		InputReplay replay = REPLAY;
+		if(replay == null) {
+			actions = getActions();
+		} else if(replay.isFinished()) {
+			actions = new ArrayList<>();
+		} else {
+			try {
+				actions = replay.getActions(frame);
+			} catch(IOException e) {
+				LOGGER.warn("Could not read replay, ignoring the rest of it", e);
+				actions = new ArrayList<>();
+				stopReplay();
+			}
+			if(replay.isFinished()) {
+				LOGGER.info("Replay finished at frame " + frame);
+				stopReplay();
+			}
+		}
+		InputRecorder recorder = RECORDER;
+		if(recorder != null && !actions.isEmpty()) {
+			try {
+				recorder.record(frame, actions);
+			} catch(IOException e) {
+				LOGGER.warn("Could not write replay, recording stopped", e);
+				stopRecording();
+			}
+		}
+		return actions;
+	}
+	
 	/**
 	 * Gets the cursor location as it would appear on the (nonexistent) development machine. Useful if you don't want to fuck around with conversions all day.
 	 *
@@ -106,6 +159,14 @@ public class InputManager {
 	 * @since 0.1.0
 	 */
 	public static void initialize() {
+		if(Main.isHeadless()) {
+			LOGGER.info("Input devices are disabled in headless mode");
+			return;
+		}
+		if(isReplaying()) {
+			LOGGER.info("Input devices are disabled in replay mode");
+			return;
+		}
 		//init input devices
 		PLAYER_DEVICES.addAll(Arrays.asList(ControllerEnvironment.getDefaultEnvironment().getControllers()));
 		
@@ -137,12 +198,32 @@ public class InputManager {
 	}
 	
 	/**
-	 * Gathers information from the input devices and parses valid {@link InputAction input actions} from them. Runs asynchronously on {@link Main#getExecutors()}.
+	 * Checks if input actions are being recorded.
+	 *
+	 * @return True if recording
+	 * @since 0.1.0
+	 */
+	public static boolean isRecording() {
+		return RECORDER != null;
+	}
+	
+	/**
+	 * Checks if input actions are read from a replay instead of the input devices. Stays true after the replay is over; no device input is used for the rest of the session.
+	 *
+	 * @return True if in replay mode
+	 * @since 0.1.0
+	 */
+	public static boolean isReplaying() {
+		return REPLAY != null;
+	}
+	
+	/**
+	 * Gathers information from the input devices and parses valid {@link InputAction input actions} from them. Runs asynchronously on {@link Main#getExecutors()}. Does nothing in headless and replay mode.
 	 *
 	 * @since 0.1.0
 	 */
 	public static void pollAsync() {
-		if(Main.isRunning()) {
+		if(Main.isRunning() && !Main.isHeadless() && !isReplaying()) {
 			Main.getExecutors().execute(() -> {
 				synchronized(DEVICE_LOCK) {
 					for(int i = 0; i < PLAYER_DEVICES.size(); i++) {
@@ -169,6 +250,82 @@ public class InputManager {
 		}
 	}
 	
+	/**
+	 * Starts recording the handled input actions to a replay file. Fails silently if a recording is already active.
+	 *
+	 * @param file The replay file to write
+	 * @see InputRecorder
+	 * @since 0.1.0
+	 */
+	public static synchronized void startRecording(@NotNull Path file) {
+		if(RECORDER != null) {
+			LOGGER.warn("Attempted to start recording input while another recording was still running");
+			return;
+		}
+		try {
+			RECORDER = new InputRecorder(file);
+			LOGGER.info("Recording input to " + file.toAbsolutePath());
+		} catch(IOException e) {
+			LOGGER.warn("Could not start recording input", e);
+		}
+	}
+	
+	/**
+	 * Switches to replay mode, reading the input actions from a replay file instead of the input devices. Must be called before {@link #initialize()}. Fails silently if a replay is already active.
+	 *
+	 * @param file The replay file to read
+	 * @see InputReplay
+	 * @since 0.1.0
+	 */
+	public static synchronized void startReplay(@NotNull Path file) {
+		if(REPLAY != null) {
+			LOGGER.warn("Attempted to start a replay while another one was still running");
+			return;
+		}
+		try {
+			REPLAY = new InputReplay(file);
+			LOGGER.info("Replaying input from " + file.toAbsolutePath());
+		} catch(IOException e) {
+			LOGGER.warn("Could not open replay", e);
+		}
+	}
+	
+	/**
+	 * Stops the active recording and closes its file. Fails silently if there is no active recording.
+	 *
+	 * @since 0.1.0
+	 */
+	public static synchronized void stopRecording() {
+		InputRecorder recorder = RECORDER;
+		if(recorder == null) {
+			return;
+		}
+		RECORDER = null;
+		try {
+			recorder.close();
+			LOGGER.info("Stopped recording input");
+		} catch(IOException e) {
+			LOGGER.warn("Could not save input recording", e);
+		}
+	}
+	
+	/**
+	 * Closes the file of the active replay. The game stays in replay mode, so device input remains disabled. Fails silently if there is no active replay.
+	 *
+	 * @since 0.1.0
+	 */
+	public static synchronized void stopReplay() {
+		InputReplay replay = REPLAY;
+		if(replay == null) {
+			return;
+		}
+		try {
+			replay.close();
+		} catch(IOException e) {
+			LOGGER.warn("Could not close replay", e);
+		}
+	}
+	
 	/**
 	 * Enum describing all user actions.
 	 *
@@ -0,0 +1,144 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.input;
+
+import dartproductions.mcleodmassacre.input.InputManager.InputAction;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes the {@link InputAction input actions} of each frame to a compact binary replay file, which can be fed back to the engine with {@link InputReplay}.
+ * <p>
+ * The file starts with {@link #MAGIC} and {@link #VERSION}, followed by one block for every frame that had any actions. A block is the varint-encoded frame delta (from the previous block, or from frame 0), the varint-encoded action count, and then the actions themselves. Each action is stored as the {@link InputManager.ActionType#ordinal() ordinal} of its type (1 byte), the zigzag-varint player id, the raw float value, and the zigzag-varint cursor location. Frames without actions take no space at all.
+ * <p>
+ * Every recorded frame is flushed to the underlying stream, so the recording survives a crash up to the last frame with input.
+ *
+ * @since 0.1.0
+ */
+public class InputRecorder implements Closeable {
+	/**
+	 * The magic number at the start of every replay file ("MCMR")
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int MAGIC = 0x4D434D52;
+	/**
+	 * The current version of the replay format. Must be increased whenever the format or the order of {@link InputManager.ActionType} changes.
+	 *
+	 * @since 0.1.0
+	 */
+	public static final short VERSION = 1;
+	/**
+	 * The last frame written to the file
+	 *
+	 * @since 0.1.0
+	 */
+	private long lastFrame = 0;
+	/**
+	 * The stream of the replay file
+	 *
+	 * @since 0.1.0
+	 */
+	private final @NotNull DataOutputStream out;
+	
+	/**
+	 * Creates a new recorder writing to the specified file. The file is overwritten if it exists.
+	 *
+	 * @param file The replay file
+	 * @throws IOException If the file cannot be created
+	 * @since 0.1.0
+	 */
+	public InputRecorder(@NotNull Path file) throws IOException {
+		this(Files.newOutputStream(file));
+	}
+	
+	/**
+	 * Creates a new recorder writing to the specified stream.
+	 *
+	 * @param out The target stream
+	 * @throws IOException If the header cannot be written
+	 * @since 0.1.0
+	 */
+	public InputRecorder(@NotNull OutputStream out) throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(out));
+		this.out.writeInt(MAGIC);
+		this.out.writeShort(VERSION);
+		this.out.flush();
+	}
+	
+	@Override
+	public synchronized void close() throws IOException {
+		out.close();
+	}
+	
+	/**
+	 * Records the actions of a frame and flushes them to the stream. Frames must be recorded in increasing order; empty frames are skipped.
+	 *
+	 * @param frame   The frame the actions were handled in
+	 * @param actions The actions of the frame
+	 * @throws IOException              If the actions cannot be written
+	 * @throws IllegalArgumentException If the frame precedes the last recorded frame
+	 * @since 0.1.0
+	 */
+	public synchronized void record(long frame, @NotNull List<? extends InputAction<?>> actions) throws IOException {
+		if(actions.isEmpty()) {
+			return;
+		}
+		if(frame < lastFrame) {
+			throw new IllegalArgumentException("Frame " + frame + " was recorded after frame " + lastFrame);
+		}
+		writeVarLong(out, frame - lastFrame);
+		writeVarLong(out, actions.size());
+		for(InputAction<?> action : actions) {
+			out.writeByte(action.getActionType().ordinal());
+			writeVarLong(out, zigzag(action.getPlayerId()));
+			out.writeFloat((float) action.getValue());
+			writeVarLong(out, zigzag(action.getLocation().x));
+			writeVarLong(out, zigzag(action.getLocation().y));
+		}
+		lastFrame = frame;
+		out.flush();
+	}
+	
+	/**
+	 * Writes a non-negative number in the LEB128 variable-length format.
+	 *
+	 * @param out   The target stream
+	 * @param value The value to write
+	 * @throws IOException If the stream cannot be written
+	 * @since 0.1.0
+	 */
+	private static void writeVarLong(@NotNull DataOutputStream out, long value) throws IOException {
+		while((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+	
+	/**
+	 * Maps a signed number to an unsigned one, so small negative values stay small when encoded.
+	 *
+	 * @param value The signed value
+	 * @return The zigzag-encoded value
+	 * @since 0.1.0
+	 */
+	private static long zigzag(int value) {
+		return Integer.toUnsignedLong((value << 1) ^ (value >> 31));
+	}
+}
@@ -0,0 +1,182 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.input;
+
+import dartproductions.mcleodmassacre.input.InputManager.ActionType;
+import dartproductions.mcleodmassacre.input.InputManager.InputAction;
+import net.java.games.input.Event;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Point;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+
+/**
+ * Reads a replay file written by {@link InputRecorder} and hands out its {@link InputAction input actions} frame by frame. The file is streamed, so replays of any length can be played back without loading them into memory.
+ *
+ * @since 0.1.0
+ */
+public class InputReplay implements Closeable {
+	/**
+	 * The stream of the replay file
+	 *
+	 * @since 0.1.0
+	 */
+	private final @NotNull DataInputStream in;
+	/**
+	 * The frame of the next unread block, or -1 if the end of the file has been reached
+	 *
+	 * @since 0.1.0
+	 */
+	private long nextFrame;
+	
+	/**
+	 * Opens a replay file.
+	 *
+	 * @param file The replay file
+	 * @throws IOException If the file cannot be read or is not a valid replay
+	 * @since 0.1.0
+	 */
+	public InputReplay(@NotNull Path file) throws IOException {
+		this(Files.newInputStream(file));
+	}
+	
+	/**
+	 * Reads a replay from the specified stream.
+	 *
+	 * @param in The source stream
+	 * @throws IOException If the stream cannot be read or is not a valid replay
+	 * @since 0.1.0
+	 */
+	public InputReplay(@NotNull InputStream in) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(in));
+		try {
+			if(this.in.readInt() != InputRecorder.MAGIC) {
+				throw new IOException("Not a replay file");
+			}
+			short version = this.in.readShort();
+			if(version != InputRecorder.VERSION) {
+				throw new IOException("Unsupported replay version " + version + ", expected " + InputRecorder.VERSION);
+			}
+		} catch(EOFException e) {
+			throw new IOException("Truncated replay header", e);
+		}
+		nextFrame = readFrameDelta(0);
+	}
+	
+	/**
+	 * Closes the replay file. The replay is {@link #isFinished() finished} afterwards.
+	 *
+	 * @throws IOException If the file cannot be closed
+	 * @since 0.1.0
+	 */
+	@Override
+	public void close() throws IOException {
+		nextFrame = -1;
+		in.close();
+	}
+	
+	/**
+	 * Gets the actions recorded up to and including the specified frame that have not been returned yet. The actions of skipped frames are returned in their original order.
+	 *
+	 * @param frame The current frame
+	 * @return The actions of the frame
+	 * @throws IOException If the replay cannot be read
+	 * @since 0.1.0
+	 */
+	public @NotNull ArrayList<InputAction<Event>> getActions(long frame) throws IOException {
+		ArrayList<InputAction<Event>> actions = new ArrayList<>();
+		while(nextFrame != -1 && nextFrame <= frame) {
+			int count = (int) readVarLong();
+			actions.ensureCapacity(actions.size() + count);
+			for(int i = 0; i < count; i++) {
+				int ordinal = in.readUnsignedByte();
+				if(ordinal >= ActionType.values.length) {
+					throw new IOException("Unknown action type " + ordinal);
+				}
+				int playerId = unzigzag(readVarLong());
+				float value = in.readFloat();
+				Point location = new Point(unzigzag(readVarLong()), unzigzag(readVarLong()));
+				actions.add(new InputAction<>(ActionType.values[ordinal], Instant.now(), location, value, playerId, new Event()));
+			}
+			nextFrame = readFrameDelta(nextFrame);
+		}
+		return actions;
+	}
+	
+	/**
+	 * Checks if all actions of the replay have been returned.
+	 *
+	 * @return True if the replay is over
+	 * @since 0.1.0
+	 */
+	public boolean isFinished() {
+		return nextFrame == -1;
+	}
+	
+	/**
+	 * Reads the header of the next block.
+	 *
+	 * @param previous The frame of the previous block
+	 * @return The frame of the next block, or -1 at the end of the file
+	 * @throws IOException If the stream cannot be read
+	 * @since 0.1.0
+	 */
+	private long readFrameDelta(long previous) throws IOException {
+		int first = in.read();
+		if(first == -1) {
+			return -1;
+		}
+		long delta = first & 0x7F;
+		if((first & 0x80) != 0) {
+			delta |= readVarLong() << 7;
+		}
+		return previous + delta;
+	}
+	
+	/**
+	 * Reads a number in the LEB128 variable-length format.
+	 *
+	 * @return The value read
+	 * @throws IOException If the stream cannot be read or the number is malformed
+	 * @since 0.1.0
+	 */
+	private long readVarLong() throws IOException {
+		long value = 0;
+		for(int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable-length number");
+	}
+	
+	/**
+	 * Reverses the zigzag encoding of a signed number.
+	 *
+	 * @param value The encoded value
+	 * @return The signed value
+	 * @since 0.1.0
+	 */
+	private static int unzigzag(long value) {
+		int v = (int) value;
+		return (v >>> 1) ^ -(v & 1);
+	}
+}
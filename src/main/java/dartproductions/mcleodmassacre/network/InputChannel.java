@@ -0,0 +1,194 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.network;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Non-blocking UDP channel for exchanging player inputs.
+ * <p>
+ * A packet contains {@link #MAGIC}, the id of the sending player, the last frame the sender has all inputs of the receiver for (the acknowledgement), the first frame of the inputs, and up to {@link #MAX_INPUTS} consecutive inputs. Senders repeat every input until it is acknowledged, so lost packets need no retransmission logic.
+ *
+ * @since 0.1.0
+ */
+public class InputChannel implements Closeable {
+	/**
+	 * The magic number at the start of every packet ("MCMN")
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int MAGIC = 0x4D434D4E;
+	/**
+	 * The maximum amount of inputs in a single packet
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int MAX_INPUTS = 64;
+	/**
+	 * The size of the packet header in bytes
+	 *
+	 * @since 0.1.0
+	 */
+	protected static final int HEADER_SIZE = 4 + 1 + 8 + 8 + 1;
+	/**
+	 * The underlying channel
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull DatagramChannel channel;
+	/**
+	 * Buffer for the inputs of received packets
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull long[] inputs = new long[MAX_INPUTS];
+	/**
+	 * Buffer for receiving packets
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ByteBuffer receiveBuffer = ByteBuffer.allocate(HEADER_SIZE + MAX_INPUTS * 8);
+	/**
+	 * Buffer for sending packets
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ByteBuffer sendBuffer = ByteBuffer.allocate(HEADER_SIZE + MAX_INPUTS * 8);
+	
+	/**
+	 * Opens a new channel.
+	 *
+	 * @param address The local address to bind to; port 0 picks a free port
+	 * @throws IOException If the channel cannot be opened
+	 * @since 0.1.0
+	 */
+	public InputChannel(@NotNull InetSocketAddress address) throws IOException {
+		channel = DatagramChannel.open();
+		try {
+			channel.configureBlocking(false);
+			channel.bind(address);
+		} catch(IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+	
+	/**
+	 * Gets the local address of this channel, which the peers should send their inputs to.
+	 *
+	 * @return The local address
+	 * @throws IOException If the channel is closed
+	 * @since 0.1.0
+	 */
+	public @NotNull InetSocketAddress getLocalAddress() throws IOException {
+		return (InetSocketAddress) channel.getLocalAddress();
+	}
+	
+	/**
+	 * Handles all packets received since the last call. Malformed packets are dropped, and so are packets not sent from the address of the player they claim to be from, so a host can't send inputs in the name of another player.
+	 *
+	 * @param peers    The address of each player's peer; packets for players without an address are dropped
+	 * @param listener The listener to call for every packet
+	 * @return The amount of packets handled
+	 * @throws IOException If the channel cannot be read
+	 * @since 0.1.0
+	 */
+	public int receive(@NotNull SocketAddress[] peers, @NotNull InputListener listener) throws IOException {
+		int packets = 0;
+		while(true) {
+			receiveBuffer.clear();
+			SocketAddress sender = channel.receive(receiveBuffer);
+			if(sender == null) {
+				return packets;
+			}
+			receiveBuffer.flip();
+			try {
+				if(receiveBuffer.getInt() != MAGIC) {
+					continue;
+				}
+				int player = receiveBuffer.get() & 0xFF;
+				if(player >= peers.length || !sender.equals(peers[player])) {//spoofed or unknown player
+					continue;
+				}
+				long ack = receiveBuffer.getLong();
+				long firstFrame = receiveBuffer.getLong();
+				int count = receiveBuffer.get() & 0xFF;
+				if(count > MAX_INPUTS) {
+					continue;
+				}
+				for(int i = 0; i < count; i++) {
+					inputs[i] = receiveBuffer.getLong();
+				}
+				packets++;
+				listener.onInputs(player, ack, firstFrame, inputs, count);
+			} catch(BufferUnderflowException e) {//truncated packet
+			}
+		}
+	}
+	
+	/**
+	 * Sends inputs to a peer. Sending never blocks; if the socket buffer is full, the packet is dropped like any other lost packet.
+	 *
+	 * @param peer       The address of the peer
+	 * @param player     The id of the sending player
+	 * @param ack        The last frame the sender has all inputs of the peer for
+	 * @param firstFrame The frame of the first input
+	 * @param inputs     The inputs of consecutive frames
+	 * @param count      The amount of inputs to send, at most {@link #MAX_INPUTS}
+	 * @throws IOException If the packet cannot be sent
+	 * @since 0.1.0
+	 */
+	public void send(@NotNull SocketAddress peer, int player, long ack, long firstFrame, @NotNull long[] inputs, int count) throws IOException {
+		sendBuffer.clear();
+		sendBuffer.putInt(MAGIC);
+		sendBuffer.put((byte) player);
+		sendBuffer.putLong(ack);
+		sendBuffer.putLong(firstFrame);
+		sendBuffer.put((byte) count);
+		for(int i = 0; i < count; i++) {
+			sendBuffer.putLong(inputs[i]);
+		}
+		sendBuffer.flip();
+		channel.send(sendBuffer, peer);
+	}
+	
+	/**
+	 * Listener for received inputs.
+	 *
+	 * @since 0.1.0
+	 */
+	@FunctionalInterface
+	public interface InputListener {
+		/**
+		 * Called for every received packet.
+		 *
+		 * @param player     The id of the sending player
+		 * @param ack        The last frame the sender has all inputs of the receiver for
+		 * @param firstFrame The frame of the first input
+		 * @param inputs     The inputs of consecutive frames; the array is reused for the next packet
+		 * @param count      The amount of valid inputs in the array
+		 * @since 0.1.0
+		 */
+		void onInputs(int player, long ack, long firstFrame, @NotNull long[] inputs, int count);
+	}
+}
@@ -0,0 +1,496 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.network;
+
+import dartproductions.mcleodmassacre.engine.GameEngine;
+import dartproductions.mcleodmassacre.input.InputManager.ActionType;
+import dartproductions.mcleodmassacre.input.InputManager.InputAction;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Drives a {@link Simulation} with rollback netcode.
+ * <p>
+ * The input of the local player is applied {@link #getInputDelay() a few frames} after it was given, which hides most of the network latency. Inputs of remote players that haven't arrived yet are predicted by repeating their last known input, so the simulation never waits for the network. When a remote input arrives and differs from the prediction, the simulation is rolled back to the snapshot of the mispredicted frame, and the frames since then are simulated again within the same tick. The simulation stalls instead of running more than {@link #getMaxRollback()} frames ahead of the last frame with all inputs known, which bounds the cost of a rollback.
+ * <p>
+ * Inputs are 64 bit masks of {@link ActionType action types}, see {@link #encode(List, int)}. Sessions are not thread safe; all methods should be called from the simulation's thread.
+ *
+ * @since 0.1.0
+ */
+public class RollbackSession {
+	/**
+	 * Logger for the rollback sessions
+	 *
+	 * @since 0.1.0
+	 */
+	private static final @NotNull Logger LOGGER = LogManager.getLogger(RollbackSession.class);
+	/**
+	 * Marks the absence of a pending rollback
+	 *
+	 * @since 0.1.0
+	 */
+	protected static final long NO_ROLLBACK = Long.MAX_VALUE;
+	/**
+	 * The channel used for exchanging inputs
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull InputChannel channel;
+	/**
+	 * Flags marking the inputs received from the players (as opposed to predictions), in the same layout as {@link #inputs}
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull boolean[][] confirmed;
+	/**
+	 * The last frame with all inputs known for each player; every earlier input of the player is known as well
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull long[] confirmedFrames;
+	/**
+	 * The inputs of a single frame, passed to the simulation
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull long[] frameInputs;
+	/**
+	 * The delay of the local input in frames
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int inputDelay;
+	/**
+	 * The frames of the inputs in {@link #inputs}, used for detecting stale slots
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull long[][] inputFrames;
+	/**
+	 * Ring buffers of the inputs of each player; the input of a frame is in slot frame modulo the ring size
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull long[][] inputs;
+	/**
+	 * The id of the local player
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int localPlayer;
+	/**
+	 * The maximum amount of frames simulated with predicted inputs
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int maxRollback;
+	/**
+	 * The last frame of local inputs acknowledged by each peer
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull long[] peerAcks;
+	/**
+	 * The address of each player's peer; null for the local player
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @Nullable InetSocketAddress[] peers;
+	/**
+	 * Bit mask for turning frames into ring buffer slots
+	 *
+	 * @since 0.1.0
+	 */
+	protected final int ringMask;
+	/**
+	 * Buffer for the inputs of outgoing packets
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull long[] sendBuffer = new long[InputChannel.MAX_INPUTS];
+	/**
+	 * The simulation driven by this session
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Simulation simulation;
+	/**
+	 * The next frame to simulate
+	 *
+	 * @since 0.1.0
+	 */
+	protected long frame = 0;
+	/**
+	 * The longest rollback so far in nanoseconds
+	 *
+	 * @since 0.1.0
+	 */
+	protected long maxRollbackNanos = 0;
+	/**
+	 * The earliest mispredicted frame, or {@link #NO_ROLLBACK}
+	 *
+	 * @since 0.1.0
+	 */
+	protected long pendingRollback = NO_ROLLBACK;
+	/**
+	 * The amount of frames simulated again because of rollbacks
+	 *
+	 * @since 0.1.0
+	 */
+	protected long resimulatedFrames = 0;
+	/**
+	 * The amount of rollbacks so far
+	 *
+	 * @since 0.1.0
+	 */
+	protected long rollbacks = 0;
+	/**
+	 * The amount of ticks the simulation stalled because it was too far ahead of the confirmed inputs
+	 *
+	 * @since 0.1.0
+	 */
+	protected long stalls = 0;
+	
+	/**
+	 * Creates a new session. The inputs of the first {@code inputDelay} frames are empty for every player.
+	 *
+	 * @param simulation  The simulation to drive
+	 * @param channel     The channel used for exchanging inputs
+	 * @param localPlayer The id of the local player
+	 * @param peers       The address of every player's peer, indexed by player id. The entry of the local player is ignored.
+	 * @param inputDelay  The delay of the local input in frames
+	 * @param maxRollback The maximum amount of frames simulated with predicted inputs
+	 * @throws IllegalArgumentException If the parameters are invalid
+	 * @since 0.1.0
+	 */
+	public RollbackSession(@NotNull Simulation simulation, @NotNull InputChannel channel, int localPlayer, @NotNull InetSocketAddress[] peers, int inputDelay, int maxRollback) throws IllegalArgumentException {
+		if(peers.length < 1 || peers.length > 256) {
+			throw new IllegalArgumentException("Invalid amount of players: " + peers.length);
+		}
+		if(localPlayer < 0 || localPlayer >= peers.length) {
+			throw new IllegalArgumentException("Invalid local player: " + localPlayer);
+		}
+		if(inputDelay < 0 || maxRollback < 0) {
+			throw new IllegalArgumentException("Input delay and rollback distance must not be negative");
+		}
+		for(int i = 0; i < peers.length; i++) {
+			if(i != localPlayer && peers[i] == null) {
+				throw new IllegalArgumentException("Missing address of player " + i);
+			}
+		}
+		this.simulation = simulation;
+		this.channel = channel;
+		this.localPlayer = localPlayer;
+		this.peers = peers.clone();
+		this.peers[localPlayer] = null;
+		this.inputDelay = inputDelay;
+		this.maxRollback = maxRollback;
+		int ringSize = Integer.highestOneBit(4 * (inputDelay + maxRollback) + 4) * 2;//covers the unacknowledged local inputs and the remote inputs ahead of us
+		ringMask = ringSize - 1;
+		int players = peers.length;
+		inputs = new long[players][ringSize];
+		inputFrames = new long[players][ringSize];
+		confirmed = new boolean[players][ringSize];
+		confirmedFrames = new long[players];
+		peerAcks = new long[players];
+		frameInputs = new long[players];
+		for(int player = 0; player < players; player++) {
+			Arrays.fill(inputFrames[player], -1);
+			for(int f = 0; f < inputDelay; f++) {
+				store(player, f, 0, true);
+			}
+			confirmedFrames[player] = inputDelay - 1;
+			peerAcks[player] = inputDelay - 1;
+		}
+	}
+	
+	/**
+	 * Encodes the actions of a player as an input mask, with the bit of each action type's ordinal set if the player did that action.
+	 *
+	 * @param actions  The actions of a frame
+	 * @param playerId The id of the player
+	 * @return The input mask
+	 * @since 0.1.0
+	 */
+	public static long encode(@NotNull List<? extends InputAction<?>> actions, int playerId) {
+		long input = 0;
+		for(InputAction<?> action : actions) {
+			if(action.getPlayerId() == playerId) {
+				input |= 1L << action.getActionType().ordinal();
+			}
+		}
+		return input;
+	}
+	
+	/**
+	 * Checks if an action is part of an input mask.
+	 *
+	 * @param input The input mask
+	 * @param type  The action type
+	 * @return True if the action was done
+	 * @see #encode(List, int)
+	 * @since 0.1.0
+	 */
+	public static boolean hasAction(long input, @NotNull ActionType type) {
+		return (input & (1L << type.ordinal())) != 0;
+	}
+	
+	/**
+	 * Gets the last frame whose inputs are known for all players. Frames up to this one will never be rolled back.
+	 *
+	 * @return The last confirmed frame
+	 * @since 0.1.0
+	 */
+	public long getConfirmedFrame() {
+		long min = Long.MAX_VALUE;
+		for(long f : confirmedFrames) {
+			min = Math.min(min, f);
+		}
+		return min;
+	}
+	
+	/**
+	 * Gets the next frame to simulate. This is also the amount of simulated frames.
+	 *
+	 * @return The next frame
+	 * @since 0.1.0
+	 */
+	public long getFrame() {
+		return frame;
+	}
+	
+	/**
+	 * Gets the delay of the local input.
+	 *
+	 * @return The delay in frames
+	 * @since 0.1.0
+	 */
+	public int getInputDelay() {
+		return inputDelay;
+	}
+	
+	/**
+	 * Gets the maximum amount of frames simulated with predicted inputs, which is also the longest possible rollback.
+	 *
+	 * @return The rollback distance in frames
+	 * @since 0.1.0
+	 */
+	public int getMaxRollback() {
+		return maxRollback;
+	}
+	
+	/**
+	 * Gets the duration of the longest rollback so far.
+	 *
+	 * @return The duration in nanoseconds
+	 * @since 0.1.0
+	 */
+	public long getMaxRollbackNanos() {
+		return maxRollbackNanos;
+	}
+	
+	/**
+	 * Gets the amount of frames simulated again because of rollbacks.
+	 *
+	 * @return The amount of frames
+	 * @since 0.1.0
+	 */
+	public long getResimulatedFrames() {
+		return resimulatedFrames;
+	}
+	
+	/**
+	 * Gets the amount of rollbacks so far.
+	 *
+	 * @return The amount of rollbacks
+	 * @since 0.1.0
+	 */
+	public long getRollbacks() {
+		return rollbacks;
+	}
+	
+	/**
+	 * Gets the amount of ticks that didn't advance the simulation because it was too far ahead.
+	 *
+	 * @return The amount of stalled ticks
+	 * @since 0.1.0
+	 */
+	public long getStalls() {
+		return stalls;
+	}
+	
+	/**
+	 * Exchanges inputs with the peers and rolls back mispredicted frames, without advancing the simulation.
+	 *
+	 * @throws IOException If the channel fails
+	 * @since 0.1.0
+	 */
+	public void synchronize() throws IOException {
+		channel.receive(peers, this::onInputs);
+		sendInputs();
+		rollback();
+	}
+	
+	/**
+	 * Runs a tick of the session: adds the local input, {@link #synchronize() synchronizes}, then simulates the next frame unless the simulation is too far ahead of the confirmed inputs.
+	 *
+	 * @param localInput The input of the local player, applied {@link #getInputDelay()} frames later. Ignored if the previous tick stalled, as that tick's input is still pending.
+	 * @return True if a frame was simulated, false if the simulation stalled
+	 * @throws IOException If the channel fails
+	 * @since 0.1.0
+	 */
+	public boolean tick(long localInput) throws IOException {
+		long inputFrame = frame + inputDelay;
+		if(confirmedFrames[localPlayer] < inputFrame) {
+			store(localPlayer, inputFrame, localInput, true);
+			confirmedFrames[localPlayer] = inputFrame;
+		}
+		synchronize();
+		if(frame - getConfirmedFrame() > maxRollback) {
+			stalls++;
+			return false;
+		}
+		simulation.saveState(frame);
+		advance(frame);
+		frame++;
+		return true;
+	}
+	
+	/**
+	 * Simulates a frame with the known and predicted inputs.
+	 *
+	 * @param f The frame to simulate
+	 * @since 0.1.0
+	 */
+	protected void advance(long f) {
+		for(int player = 0; player < frameInputs.length; player++) {
+			int slot = (int) (f & ringMask);
+			if(inputFrames[player][slot] != f || !confirmed[player][slot]) {//predict by repeating the last known input
+				long last = confirmedFrames[player];
+				long predicted = last < 0 ? 0 : inputs[player][(int) (last & ringMask)];
+				store(player, f, predicted, false);
+			}
+			frameInputs[player] = inputs[player][slot];
+		}
+		simulation.advance(f, frameInputs);
+	}
+	
+	/**
+	 * Handles a received packet.
+	 *
+	 * @param player     The sending player
+	 * @param ack        The last frame of our inputs the sender has
+	 * @param firstFrame The frame of the first input
+	 * @param received   The inputs
+	 * @param count      The amount of inputs
+	 * @see InputChannel.InputListener
+	 * @since 0.1.0
+	 */
+	protected void onInputs(int player, long ack, long firstFrame, @NotNull long[] received, int count) {
+		if(player >= peers.length || player == localPlayer) {
+			return;
+		}
+		peerAcks[player] = Math.max(peerAcks[player], ack);
+		for(int i = 0; i < count; i++) {
+			long f = firstFrame + i;
+			if(f <= confirmedFrames[player] || f - confirmedFrames[player] > ringMask) {//already known, or too far ahead to store
+				continue;
+			}
+			int slot = (int) (f & ringMask);
+			if(inputFrames[player][slot] == f) {
+				if(confirmed[player][slot]) {
+					continue;
+				}
+				if(f < frame && inputs[player][slot] != received[i]) {
+					pendingRollback = Math.min(pendingRollback, f);
+				}
+			}
+			store(player, f, received[i], true);
+		}
+		long next = confirmedFrames[player] + 1;
+		while(inputFrames[player][(int) (next & ringMask)] == next && confirmed[player][(int) (next & ringMask)]) {
+			next++;
+		}
+		confirmedFrames[player] = next - 1;
+	}
+	
+	/**
+	 * Restores the earliest mispredicted frame and simulates the frames since then again, if there was a misprediction.
+	 *
+	 * @since 0.1.0
+	 */
+	protected void rollback() {
+		long from = pendingRollback;
+		pendingRollback = NO_ROLLBACK;
+		if(from >= frame) {
+			return;
+		}
+		long start = System.nanoTime();
+		simulation.loadState(from);
+		for(long f = from; f < frame; f++) {
+			if(f != from) {
+				simulation.saveState(f);
+			}
+			advance(f);
+		}
+		long duration = System.nanoTime() - start;
+		rollbacks++;
+		resimulatedFrames += frame - from;
+		maxRollbackNanos = Math.max(maxRollbackNanos, duration);
+		if(duration > GameEngine.getFrameLengthNano()) {
+			LOGGER.warn("Rollback of " + (frame - from) + " frames took " + duration / 1000000 + " ms, longer than a frame");
+		}
+	}
+	
+	/**
+	 * Sends the unacknowledged local inputs to every peer. Also sent when there are no new inputs, so the acknowledgements keep flowing.
+	 *
+	 * @throws IOException If the channel fails
+	 * @since 0.1.0
+	 */
+	protected void sendInputs() throws IOException {
+		long last = confirmedFrames[localPlayer];
+		for(int player = 0; player < peers.length; player++) {
+			InetSocketAddress peer = peers[player];
+			if(peer == null) {
+				continue;
+			}
+			long first = Math.max(peerAcks[player] + 1, last - ringMask);
+			int count = (int) Math.max(0, Math.min(last - first + 1, InputChannel.MAX_INPUTS));
+			for(int i = 0; i < count; i++) {
+				sendBuffer[i] = inputs[localPlayer][(int) ((first + i) & ringMask)];
+			}
+			channel.send(peer, localPlayer, confirmedFrames[player], first, sendBuffer, count);
+		}
+	}
+	
+	/**
+	 * Stores an input in a player's ring buffer.
+	 *
+	 * @param player    The player
+	 * @param f         The frame of the input
+	 * @param input     The input
+	 * @param confirmed True if the input is known, false if it is a prediction
+	 * @since 0.1.0
+	 */
+	protected void store(int player, long f, long input, boolean confirmed) {
+		int slot = (int) (f & ringMask);
+		inputs[player][slot] = input;
+		inputFrames[player][slot] = f;
+		this.confirmed[player][slot] = confirmed;
+	}
+}
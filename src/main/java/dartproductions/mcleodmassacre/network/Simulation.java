@@ -0,0 +1,46 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.network;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A deterministic simulation driven by a {@link RollbackSession}. Given the same state and the same inputs, {@link #advance(long, long[])} must always produce the same state on every machine; anything not saved by {@link #saveState(long)} must not influence the simulation.
+ * <p>
+ * Implementations usually keep the state in a {@link SnapshotBuffer} with a capacity of at least {@link RollbackSession#getMaxRollback()} + 1 frames.
+ *
+ * @since 0.1.0
+ */
+public interface Simulation {
+	/**
+	 * Simulates a single frame.
+	 *
+	 * @param frame  The frame to simulate
+	 * @param inputs The input of every player in this frame, indexed by player id. The array is reused by the caller, and must not be kept.
+	 * @since 0.1.0
+	 */
+	void advance(long frame, @NotNull long[] inputs);
+	
+	/**
+	 * Restores the state saved for a frame, which is always one of the last {@link RollbackSession#getMaxRollback()} + 1 saved frames.
+	 *
+	 * @param frame The frame to restore
+	 * @since 0.1.0
+	 */
+	void loadState(long frame);
+	
+	/**
+	 * Saves the current state, which is the state at the start of the specified frame.
+	 *
+	 * @param frame The frame the state belongs to
+	 * @since 0.1.0
+	 */
+	void saveState(long frame);
+}
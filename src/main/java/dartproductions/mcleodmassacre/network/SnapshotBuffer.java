@@ -0,0 +1,321 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.network;
+
+import dartproductions.mcleodmassacre.engine.World;
+import dartproductions.mcleodmassacre.engine.task.TaskScheduler;
+import dartproductions.mcleodmassacre.entity.Entity;
+import dartproductions.mcleodmassacre.entity.PlayerEntity;
+import dartproductions.mcleodmassacre.entity.PlayerEntity.PlayerState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ring buffer of simulation snapshots, used for rolling back the simulation to an earlier frame.
+ * <p>
+ * A snapshot contains the location and velocity of every entity, the health, action delays, states and facing of {@link PlayerEntity players}, and the pending tasks of a {@link TaskScheduler}. The state is stored in preallocated arrays that are reused by later snapshots, so saving a frame doesn't allocate once the buffer has warmed up. Entities are stored by reference: restoring a snapshot writes the saved values back into the same objects. Snapshots of a {@link World} also contain its {@link World.State entity registrations}, so restoring them adds and removes entities as well; snapshots of plain entity lists don't.
+ *
+ * @since 0.1.0
+ */
+public class SnapshotBuffer {
+	/**
+	 * The amount of values stored for each entity: location and velocity
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int ENTITY_FIELDS = 4;
+	/**
+	 * The amount of additional values stored for each player: health, the six action delays, states and facing
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int PLAYER_FIELDS = 9;
+	/**
+	 * All player states, cached for restoring the state flags
+	 *
+	 * @since 0.1.0
+	 */
+	private static final @NotNull PlayerState[] PLAYER_STATES = PlayerState.values();
+	/**
+	 * The snapshots; the snapshot of a frame is in slot frame modulo the capacity
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Snapshot[] snapshots;
+	
+	/**
+	 * Creates a new snapshot buffer.
+	 *
+	 * @param capacity The amount of frames to keep; should be at least the maximum rollback distance + 1
+	 * @throws IllegalArgumentException If the capacity is not positive
+	 * @since 0.1.0
+	 */
+	public SnapshotBuffer(int capacity) throws IllegalArgumentException {
+		if(capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		snapshots = new Snapshot[capacity];
+		for(int i = 0; i < capacity; i++) {
+			snapshots[i] = new Snapshot();
+		}
+	}
+	
+	/**
+	 * Checks if the snapshot of a frame is still in the buffer.
+	 *
+	 * @param frame The frame
+	 * @return True if the frame can be restored
+	 * @since 0.1.0
+	 */
+	public boolean contains(long frame) {
+		return frame >= 0 && getSnapshot(frame).frame == frame;
+	}
+	
+	/**
+	 * Gets the amount of frames kept by this buffer.
+	 *
+	 * @return The capacity
+	 * @since 0.1.0
+	 */
+	public int getCapacity() {
+		return snapshots.length;
+	}
+	
+	/**
+	 * Computes a checksum of the entity and player state of a saved frame. Peers can compare the checksums of confirmed frames to detect desyncs.
+	 *
+	 * @param frame The frame
+	 * @return The checksum
+	 * @throws IllegalArgumentException If the frame is not in the buffer
+	 * @since 0.1.0
+	 */
+	public long getChecksum(long frame) throws IllegalArgumentException {
+		Snapshot snapshot = getSavedSnapshot(frame);
+		long hash = 1125899906842597L;
+		for(int i = 0; i < snapshot.dataSize; i++) {
+			hash = 31 * hash + snapshot.data[i];
+		}
+		return hash;
+	}
+	
+	/**
+	 * Restores the state saved for a frame. The snapshot stays in the buffer, so it can be restored again.
+	 *
+	 * @param frame The frame to restore
+	 * @throws IllegalArgumentException If the frame is not in the buffer
+	 * @since 0.1.0
+	 */
+	public void restore(long frame) throws IllegalArgumentException {
+		Snapshot snapshot = getSavedSnapshot(frame);
+		if(snapshot.world != null) {//the entities must be registered again before their values are written
+			snapshot.world.restore(snapshot.worldState);
+		}
+		int[] data = snapshot.data;
+		int index = 0;
+		for(int i = 0; i < snapshot.entityCount; i++) {
+			Entity entity = snapshot.entities[i];
+			entity.setLocation(data[index], data[index + 1]);
+			entity.setVelocity(data[index + 2], data[index + 3]);
+			index += ENTITY_FIELDS;
+			if(entity instanceof PlayerEntity player) {
+				player.setHealth(data[index]);
+				player.setAttackDelay(data[index + 1]);
+				player.setGrabDelay(data[index + 2]);
+				player.setJumpDelay(data[index + 3]);
+				player.setMovementDelay(data[index + 4]);
+				player.setSpecialDelay(data[index + 5]);
+				player.setTauntDelay(data[index + 6]);
+				int states = data[index + 7];
+				for(PlayerState state : PLAYER_STATES) {
+					player.setState(state, (states & (1 << state.ordinal())) != 0);
+				}
+				player.setFacingLeft(data[index + 8] != 0);
+				index += PLAYER_FIELDS;
+			}
+		}
+		if(snapshot.scheduler != null) {
+			snapshot.scheduler.restore(snapshot.tasks);
+		}
+	}
+	
+	/**
+	 * Saves the state of a frame, overwriting the oldest snapshot if the buffer is full.
+	 *
+	 * @param frame     The frame the state belongs to
+	 * @param entities  The entities of the simulation
+	 * @param scheduler The task scheduler of the simulation, or null if tasks should not be saved
+	 * @since 0.1.0
+	 */
+	public void save(long frame, @NotNull List<? extends Entity> entities, @Nullable TaskScheduler scheduler) {
+		Snapshot snapshot = getSnapshot(frame);
+		snapshot.world = null;
+		snapshot.frame = frame;
+		snapshot.prepare(entities.size());
+		int[] data = snapshot.data;
+		int index = 0;
+		for(int i = 0; i < entities.size(); i++) {
+			if(data.length - index < ENTITY_FIELDS + PLAYER_FIELDS) {
+				data = snapshot.data = Arrays.copyOf(data, data.length * 2 + ENTITY_FIELDS + PLAYER_FIELDS);
+			}
+			Entity entity = entities.get(i);
+			snapshot.entities[i] = entity;
+			Point location = entity.getLocation();
+			Dimension velocity = entity.getVelocity();
+			data[index] = location.x;
+			data[index + 1] = location.y;
+			data[index + 2] = velocity.width;
+			data[index + 3] = velocity.height;
+			index += ENTITY_FIELDS;
+			if(entity instanceof PlayerEntity player) {
+				data[index] = player.getHealth();
+				data[index + 1] = player.getAttackDelay();
+				data[index + 2] = player.getGrabDelay();
+				data[index + 3] = player.getJumpDelay();
+				data[index + 4] = player.getMovementDelay();
+				data[index + 5] = player.getSpecialDelay();
+				data[index + 6] = player.getTauntDelay();
+				int states = 0;
+				for(PlayerState state : player.getStates()) {
+					states |= 1 << state.ordinal();
+				}
+				data[index + 7] = states;
+				data[index + 8] = player.isFacingLeft() ? 1 : 0;
+				index += PLAYER_FIELDS;
+			}
+		}
+		snapshot.dataSize = index;
+		snapshot.scheduler = scheduler;
+		if(scheduler != null) {
+			scheduler.save(snapshot.tasks);
+		}
+	}
+	
+	/**
+	 * Saves the state of a world, overwriting the oldest snapshot if the buffer is full. Along with the entities and the tasks of the world, its {@link World#save(World.State) entity registrations} are saved.
+	 *
+	 * @param frame The frame the state belongs to
+	 * @param world The world
+	 * @since 0.1.0
+	 */
+	public void save(long frame, @NotNull World world) {
+		Snapshot snapshot = getSnapshot(frame);
+		world.save(snapshot.worldState);
+		save(frame, snapshot.worldState.getEntities(), world.getTasks());
+		snapshot.world = world;
+	}
+	
+	/**
+	 * Gets the saved snapshot of a frame.
+	 *
+	 * @param frame The frame
+	 * @return The snapshot
+	 * @throws IllegalArgumentException If the frame is not in the buffer
+	 * @since 0.1.0
+	 */
+	protected @NotNull Snapshot getSavedSnapshot(long frame) throws IllegalArgumentException {
+		if(!contains(frame)) {
+			throw new IllegalArgumentException("Frame " + frame + " is not in the snapshot buffer");
+		}
+		return getSnapshot(frame);
+	}
+	
+	/**
+	 * Gets the slot of a frame, regardless of the frame it currently holds.
+	 *
+	 * @param frame The frame
+	 * @return The snapshot in the frame's slot
+	 * @since 0.1.0
+	 */
+	protected @NotNull Snapshot getSnapshot(long frame) {
+		return snapshots[(int) Math.floorMod(frame, (long) snapshots.length)];
+	}
+	
+	/**
+	 * The saved state of a single frame.
+	 *
+	 * @since 0.1.0
+	 */
+	protected static class Snapshot {
+		/**
+		 * The saved entity values: {@link #ENTITY_FIELDS} for every entity, followed by {@link #PLAYER_FIELDS} for players
+		 *
+		 * @since 0.1.0
+		 */
+		protected @NotNull int[] data = new int[64];
+		/**
+		 * The amount of used values in {@link #data}
+		 *
+		 * @since 0.1.0
+		 */
+		protected int dataSize;
+		/**
+		 * The saved entities
+		 *
+		 * @since 0.1.0
+		 */
+		protected @NotNull Entity[] entities = new Entity[16];
+		/**
+		 * The amount of saved entities
+		 *
+		 * @since 0.1.0
+		 */
+		protected int entityCount;
+		/**
+		 * The frame of the snapshot, or -1 if the slot is empty
+		 *
+		 * @since 0.1.0
+		 */
+		protected long frame = -1;
+		/**
+		 * The scheduler whose tasks were saved
+		 *
+		 * @since 0.1.0
+		 */
+		protected @Nullable TaskScheduler scheduler;
+		/**
+		 * The saved tasks
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull TaskScheduler.State tasks = new TaskScheduler.State();
+		/**
+		 * The world whose entity registrations were saved, or null if the snapshot is of an entity list
+		 *
+		 * @since 0.1.0
+		 */
+		protected @Nullable World world;
+		/**
+		 * The saved entity registrations of the world
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull World.State worldState = new World.State();
+		
+		/**
+		 * Makes sure the entity array can hold the specified amount of entities, and clears the references of the previous snapshot.
+		 *
+		 * @param entityCount The amount of entities to save
+		 * @since 0.1.0
+		 */
+		protected void prepare(int entityCount) {
+			if(entities.length < entityCount) {
+				entities = new Entity[Math.max(entityCount, entities.length * 2)];
+			} else if(entityCount < this.entityCount) {
+				Arrays.fill(entities, entityCount, this.entityCount, null);
+			}
+			this.entityCount = entityCount;
+		}
+	}
+}
@@ -0,0 +1,18 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+/**
+ * This package contains the rollback netcode used for versus matches over the local network.
+ * <p>
+ * Players only exchange their inputs, using the {@link dartproductions.mcleodmassacre.network.InputChannel}. The {@link dartproductions.mcleodmassacre.network.RollbackSession} runs the simulation ahead with predicted inputs, and when the real inputs arrive and differ from the predictions, restores an earlier {@link dartproductions.mcleodmassacre.network.SnapshotBuffer snapshot} and simulates the mispredicted frames again.
+ *
+ * @since 0.1.0
+ */
+package dartproductions.mcleodmassacre.network;
@@ -0,0 +1,36 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.options;
+
+/**
+ * The supported strategies for finding colliding entities
+ *
+ * @since 0.1.0
+ */
+public enum CollisionDetectionOption {
+	/**
+	 * Indicates that every pair of entities should be checked
+	 *
+	 * @since 0.1.0
+	 */
+	BRUTE_FORCE,
+	/**
+	 * Indicates that entities should be sorted into a uniform grid, and only entities in the same cells should be checked
+	 *
+	 * @since 0.1.0
+	 */
+	SPATIAL_HASH,
+	/**
+	 * Indicates that entities should be sorted along the x axis, and only entities overlapping on that axis should be checked
+	 *
+	 * @since 0.1.0
+	 */
+	SWEEP_AND_PRUNE
+}
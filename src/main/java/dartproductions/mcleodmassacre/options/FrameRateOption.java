@@ -0,0 +1,30 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.options;
+
+/**
+ * The supported limits for the rate of the rendering loop. The engine always simulates at a fixed rate; the rendering loop draws the entities between the two latest simulated frames.
+ *
+ * @since 0.1.0
+ */
+public enum FrameRateOption {
+	/**
+	 * Indicates that a frame should be drawn once per refresh of the display
+	 *
+	 * @since 0.1.0
+	 */
+	VSYNC,
+	/**
+	 * Indicates that frames should be drawn as fast as possible
+	 *
+	 * @since 0.1.0
+	 */
+	UNCAPPED
+}
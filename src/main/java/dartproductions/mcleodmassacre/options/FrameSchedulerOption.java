@@ -0,0 +1,36 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.options;
+
+/**
+ * The supported strategies for waiting between engine frames
+ *
+ * @since 0.1.0
+ */
+public enum FrameSchedulerOption {
+	/**
+	 * Indicates that the engine should park until shortly before the next frame, then spin. Precise and cheap on most systems.
+	 *
+	 * @since 0.1.0
+	 */
+	PARK_AND_SPIN,
+	/**
+	 * Indicates that the engine should sleep for as long as the measured sleep granularity allows, then yield.
+	 *
+	 * @since 0.1.0
+	 */
+	ADAPTIVE_SLEEP,
+	/**
+	 * Indicates that the engine should spin until the next frame. Keeps a CPU core busy; only meant for benchmarking.
+	 *
+	 * @since 0.1.0
+	 */
+	BUSY_WAIT
+}
@@ -74,12 +74,24 @@ public interface Options extends OptionGroup {
 		 * @since 0.1.0
 		 */
 		public static final String CONTROLS = "Controls";
+		/**
+		 * Group name for the engine options group
+		 *
+		 * @since 0.1.0
+		 */
+		public static final String ENGINE_OPTIONS = "Engine";
 		/**
 		 * Group name for the game quality options group
 		 *
 		 * @since 0.1.0
 		 */
 		public static final String QUALITY = "Quality";
+		/**
+		 * Name of the frame rate limit setting
+		 *
+		 * @since 0.1.0
+		 */
+		public static final String FRAME_RATE = "Frame rate";
 		/**
 		 * Name of the music volume setting
 		 *
@@ -92,6 +104,24 @@ public interface Options extends OptionGroup {
 		 * @since 0.1.0
 		 */
 		public static final String SFX_VOLUME = "Sound FX";
+		/**
+		 * Name of the collision detection strategy setting
+		 *
+		 * @since 0.1.0
+		 */
+		public static final String COLLISION_DETECTION = "Collision detection";
+		/**
+		 * Name of the frame scheduler setting
+		 *
+		 * @since 0.1.0
+		 */
+		public static final String FRAME_SCHEDULER = "Frame scheduler";
+		/**
+		 * Name of the setting for the amount of threads used in entity updates
+		 *
+		 * @since 0.1.0
+		 */
+		public static final String ENTITY_UPDATE_THREADS = "Entity update threads";
 		@JsonAdapter(OptionGroupListAdapter.class)
 		/**
 		 * The option groups
@@ -114,6 +144,7 @@ public interface Options extends OptionGroup {
 			{
 				StandardOptionGroup graphics = new StandardOptionGroup(GRAPHICS_OPTIONS);
 				graphics.setOption(QUALITY, new EnumOption<>(QualityOption.HIGH));
+				graphics.setOption(FRAME_RATE, new EnumOption<>(FrameRateOption.VSYNC));
 				groups.add(graphics);
 			}
 			{
@@ -122,6 +153,13 @@ public interface Options extends OptionGroup {
 				sound.setOption(SFX_VOLUME, new IntOption(50));
 				groups.add(sound);
 			}
+			{
+				StandardOptionGroup engine = new StandardOptionGroup(ENGINE_OPTIONS);
+				engine.setOption(COLLISION_DETECTION, new EnumOption<>(CollisionDetectionOption.SPATIAL_HASH));
+				engine.setOption(FRAME_SCHEDULER, new EnumOption<>(FrameSchedulerOption.PARK_AND_SPIN));
+				engine.setOption(ENTITY_UPDATE_THREADS, new IntOption(1));
+				groups.add(engine);
+			}
 		}
 		
 		@Override
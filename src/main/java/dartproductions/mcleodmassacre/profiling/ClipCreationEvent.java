@@ -0,0 +1,45 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of creating an audio clip for a sound effect
+ *
+ * @since 0.1.0
+ */
+@Name("dartproductions.mcleodmassacre.ClipCreation")
+@Label("Clip Creation")
+@Category({"McLeod Massacre", "Sound"})
+@Description("Creation and opening of a new audio clip for a sound effect")
+public class ClipCreationEvent extends Event {
+	/**
+	 * The size of the audio data
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Size")
+	@DataAmount
+	public long size;
+	/**
+	 * The identifier of the sound effect
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Resource")
+	public String resource;
+}
@@ -0,0 +1,64 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a single engine frame
+ *
+ * @since 0.1.0
+ */
+@Name("dartproductions.mcleodmassacre.Frame")
+@Label("Engine Frame")
+@Category({"McLeod Massacre", "Engine"})
+@Description("Processing of a single engine frame")
+public class FrameEvent extends Event {
+	/**
+	 * The amount of collidable entities
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Collidable Entities")
+	public int collidableEntities;
+	/**
+	 * The amount of entity pairs tested for collision
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Collision Pairs Tested")
+	public long collisionPairs;
+	/**
+	 * The amount of registered entities
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Entities")
+	public int entities;
+	/**
+	 * The index of the frame
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Frame")
+	public long frame;
+	/**
+	 * The state of the game during the frame
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Game State")
+	public String gameState;
+}
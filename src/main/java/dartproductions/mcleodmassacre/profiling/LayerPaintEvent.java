@@ -0,0 +1,43 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of painting a rendering layer
+ *
+ * @since 0.1.0
+ */
+@Name("dartproductions.mcleodmassacre.LayerPaint")
+@Label("Layer Paint")
+@Category({"McLeod Massacre", "Graphics"})
+@Description("Painting of the entities of a rendering layer")
+public class LayerPaintEvent extends Event {
+	/**
+	 * The amount of painted entities
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Entities")
+	public int entities;
+	/**
+	 * The index of the layer
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Layer")
+	public int layer;
+}
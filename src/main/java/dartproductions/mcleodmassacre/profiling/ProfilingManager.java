@@ -0,0 +1,135 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Class managing the Java Flight Recorder recording of the game. The recording uses the JDK's 'profile' settings, and contains the custom events of this package.
+ *
+ * @since 0.1.0
+ */
+public class ProfilingManager {
+	/**
+	 * Logger for the profiling manager
+	 *
+	 * @since 0.1.0
+	 */
+	private static final Logger LOGGER = LogManager.getLogger(ProfilingManager.class);
+	/**
+	 * The file the recording is dumped to
+	 *
+	 * @since 0.1.0
+	 */
+	private static volatile @Nullable Path DESTINATION;
+	/**
+	 * The active recording
+	 *
+	 * @since 0.1.0
+	 */
+	private static volatile @Nullable Recording RECORDING;
+	
+	/**
+	 * Dumps the recorded data to the destination file. The recording continues afterwards. Fails silently if there is no active recording.
+	 *
+	 * @since 0.1.0
+	 */
+	public static synchronized void dump() {
+		Recording recording = RECORDING;
+		if(recording == null || DESTINATION == null) {
+			return;
+		}
+		try {
+			recording.dump(DESTINATION);
+			LOGGER.info("Dumped flight recording to " + DESTINATION.toAbsolutePath());
+		} catch(IOException | IllegalStateException e) {
+			LOGGER.warn("Could not dump flight recording", e);
+		}
+	}
+	
+	/**
+	 * Gets the default destination of recordings: a timestamped file in the working directory.
+	 *
+	 * @return The default destination
+	 * @since 0.1.0
+	 */
+	public static @NotNull Path getDefaultDestination() {
+		return Path.of("profile-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr");
+	}
+	
+	/**
+	 * Checks if a recording is active.
+	 *
+	 * @return True if recording
+	 * @since 0.1.0
+	 */
+	public static boolean isRecording() {
+		return RECORDING != null;
+	}
+	
+	/**
+	 * Starts a new recording. The recording is dumped to the destination when {@link #dump()} or {@link #stop()} is called, or when the JVM exits. Fails silently if a recording is already active.
+	 *
+	 * @param destination The file to dump the recording to
+	 * @since 0.1.0
+	 */
+	public static synchronized void start(@NotNull Path destination) {
+		if(RECORDING != null) {
+			LOGGER.warn("Attempted to start a flight recording while another one was still running");
+			return;
+		}
+		try {
+			Recording recording = new Recording(Configuration.getConfiguration("profile"));
+			recording.setName("McLeod Massacre");
+			recording.setToDisk(true);
+			recording.setDumpOnExit(true);
+			recording.setDestination(destination);
+			recording.start();
+			RECORDING = recording;
+			DESTINATION = destination;
+			LOGGER.info("Started flight recording to " + destination.toAbsolutePath());
+		} catch(IOException | ParseException | IllegalStateException | SecurityException e) {
+			LOGGER.warn("Could not start flight recording", e);
+		}
+	}
+	
+	/**
+	 * Stops the active recording and writes it to the destination. Fails silently if there is no active recording.
+	 *
+	 * @since 0.1.0
+	 */
+	public static synchronized void stop() {
+		Recording recording = RECORDING;
+		if(recording == null) {
+			return;
+		}
+		RECORDING = null;
+		try {
+			recording.stop();//writes the destination file
+			LOGGER.info("Stopped flight recording, saved to " + DESTINATION.toAbsolutePath());
+		} catch(IllegalStateException e) {
+			LOGGER.warn("Could not stop flight recording", e);
+		} finally {
+			recording.close();
+		}
+	}
+}
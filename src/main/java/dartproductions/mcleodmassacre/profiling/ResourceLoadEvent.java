@@ -0,0 +1,50 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of loading a resource into a cache
+ *
+ * @since 0.1.0
+ */
+@Name("dartproductions.mcleodmassacre.ResourceLoad")
+@Label("Resource Load")
+@Category({"McLeod Massacre", "Resources"})
+@Description("Loading of a resource into a cache, including decoding")
+public class ResourceLoadEvent extends Event {
+	/**
+	 * The identifier of the cache
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Cache")
+	public String cache;
+	/**
+	 * The identifier of the loaded resource
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Resource")
+	public String resource;
+	/**
+	 * True if the resource was loaded successfully
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Success")
+	public boolean success;
+}
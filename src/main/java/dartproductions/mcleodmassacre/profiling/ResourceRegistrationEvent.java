@@ -0,0 +1,57 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of registering a resource file
+ *
+ * @since 0.1.0
+ */
+@Name("dartproductions.mcleodmassacre.ResourceRegistration")
+@Label("Resource Registration")
+@Category({"McLeod Massacre", "Resources"})
+@Description("Registration of a resource file, including the decoding of images")
+public class ResourceRegistrationEvent extends Event {
+	/**
+	 * The amount of frames of the resource; 1 for static images, 0 for non-graphical resources
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Frames")
+	public int frames;
+	/**
+	 * The location of the resource file
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Location")
+	public String location;
+	/**
+	 * The identifier of the resource
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Resource")
+	public String resource;
+	/**
+	 * The type of the resource (graphics, audio, tag or map)
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Type")
+	public String type;
+}
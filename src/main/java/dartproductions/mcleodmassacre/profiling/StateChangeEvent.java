@@ -0,0 +1,57 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the resource handling of a game state change
+ *
+ * @since 0.1.0
+ */
+@Name("dartproductions.mcleodmassacre.StateChange")
+@Label("State Change")
+@Category({"McLeod Massacre", "Resources"})
+@Description("Loading and unloading of resources for a new game state")
+public class StateChangeEvent extends Event {
+	/**
+	 * The amount of resources loaded for the state
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Loaded Resources")
+	public int loaded;
+	/**
+	 * The new next game state
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Next State")
+	public String nextState;
+	/**
+	 * The new game state
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("State")
+	public String state;
+	/**
+	 * The amount of resources unloaded for the state
+	 *
+	 * @since 0.1.0
+	 */
+	@Label("Unloaded Resources")
+	public int unloaded;
+}
@@ -0,0 +1,18 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+/**
+ * This package contains the Java Flight Recorder events of the game, and the {@link dartproductions.mcleodmassacre.profiling.ProfilingManager} controlling the recording.
+ * <p>
+ * The events are recorded when the game is launched with the --profile argument, or when a recording is started externally (for example with jcmd). They can be inspected with JDK Mission Control, grouped under the "McLeod Massacre" category.
+ *
+ * @since 0.1.0
+ */
+package dartproductions.mcleodmassacre.profiling;
@@ -0,0 +1,915 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources;
+
+import dartproductions.mcleodmassacre.hitbox.HitboxCache;
+import dartproductions.mcleodmassacre.resources.id.Identifier;
+import dartproductions.mcleodmassacre.resources.plugin.Plugin;
+import de.cerus.jgif.GifImage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Packed archive of the assets of a plugin, so registering the assets doesn't have to walk the plugin's directory, read every .tags file and decode every image. The archive is built from the directory layout of the plugin when it is missing or when any of its sources has changed since it was built.
+ * <p>
+ * The archive file starts with {@link #MAGIC}, {@link #VERSION}, the sizes of the source table and the index, and the amount of entries. The source table records the modification time of every directory of the plugin, and the size and modification time of every .tags file and asset file the archive was built from. Checking whether the archive is up to date only reads the attributes of these, without listing any directory: files added to, removed from or renamed in a directory change the modification time of the directory, and changed files change their own. The index has a record for every asset: its identifier, its tags, the location of its file relative to the plugin's directory, the offset and size of its data, the SHA-256 hash of the data and the delays of its frames (empty for everything but animated images). Strings are stored as their UTF-8 length (a short) followed by their UTF-8 bytes. The data of the assets come after the index, each aligned to 8 bytes.
+ * <p>
+ * The header, the source table and the index are read without mapping the file, and the file is only memory-mapped once it is known to be up to date and valid, so an outdated archive can be replaced right away. The data of an asset is read directly from the mapped file when it is requested.
+ *
+ * @since 0.1.0
+ */
+public class AssetArchive {
+	/**
+	 * The magic number at the start of every archive ("MCMA")
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int MAGIC = 0x4D434D41;
+	/**
+	 * The current version of the archive format. Must be increased whenever the format or the way the archive is built changes.
+	 *
+	 * @since 0.1.0
+	 */
+	public static final short VERSION = 2;
+	/**
+	 * The name of the archive file in the directory of a plugin
+	 *
+	 * @since 0.1.0
+	 */
+	public static final @NotNull String FILE_NAME = "assets.pack";
+	/**
+	 * The size of the file header: the magic number, the version, the size of the source table, the size of the index and the amount of entries
+	 *
+	 * @since 0.1.0
+	 */
+	protected static final int HEADER_SIZE = 4 + 2 + 4 + 4 + 4;
+	private static final @NotNull Logger LOGGER = LogManager.getLogger(AssetArchive.class);
+	/**
+	 * The location of the archive file
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Path file;
+	/**
+	 * The base directory of the plugin
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull File directory;
+	/**
+	 * The entries of the archive, in the order of the index
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull List<Entry> entries;
+	
+	/**
+	 * Creates a new archive from an opened file.
+	 *
+	 * @param file      The archive file
+	 * @param directory The base directory of the plugin
+	 * @param entries   The entries of the archive
+	 * @since 0.1.0
+	 */
+	protected AssetArchive(@NotNull Path file, @NotNull File directory, @NotNull List<Entry> entries) {
+		this.file = file;
+		this.directory = directory;
+		this.entries = Collections.unmodifiableList(entries);
+	}
+	
+	/**
+	 * Opens the archive of a plugin, building it first if it is missing or outdated.
+	 *
+	 * @param plugin The plugin
+	 * @return The archive, or null if it could not be built or read
+	 * @since 0.1.0
+	 */
+	public static @Nullable AssetArchive open(@NotNull Plugin plugin) {
+		Path directory = plugin.getBaseDirectory().toPath();
+		Path file = directory.resolve(FILE_NAME);
+		try {
+			AssetArchive archive = open(file, plugin.getBaseDirectory());
+			if(archive == null) {
+				LOGGER.info("Building asset archive of plugin " + plugin);
+				build(plugin, file);
+				archive = open(file, plugin.getBaseDirectory());
+			}
+			if(archive != null) {
+				LOGGER.info("Opened asset archive " + file + " with " + archive.getEntries().size() + " assets");
+			}
+			return archive;
+		} catch(IOException | RuntimeException e) {
+			LOGGER.warn("Could not open asset archive of plugin " + plugin + ", reading the asset files instead", e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Builds the archive of a plugin from the .tags files in its directory and the asset files they describe. The file is replaced atomically when the file system supports it.
+	 *
+	 * @param plugin The plugin
+	 * @param file   The archive file
+	 * @throws IOException If the directory cannot be read or the file cannot be written
+	 * @since 0.1.0
+	 */
+	public static void build(@NotNull Plugin plugin, @NotNull Path file) throws IOException {
+		Path directory = plugin.getBaseDirectory().toPath().toAbsolutePath();
+		Path archive = file.toAbsolutePath();
+		Files.createDirectories(archive.getParent());//before the modification times are recorded
+		List<Path> paths;
+		try(Stream<Path> stream = Files.walk(directory)) {
+			paths = stream.filter(path -> !isArchive(archive, path)).sorted().collect(Collectors.toList());
+		}
+		ByteArrayOutputStream sourceTable = new ByteArrayOutputStream();
+		DataOutputStream sources = new DataOutputStream(sourceTable);
+		int archiveDirectory = -1;//the position of the modification time of the archive's directory in the source table
+		List<Path> directories = paths.stream().filter(Files::isDirectory).collect(Collectors.toList());
+		sources.writeInt(directories.size());
+		for(Path path : directories) {
+			writeString(sources, getRelativeLocation(directory, path));
+			if(path.equals(archive.getParent())) {
+				archiveDirectory = sources.size();
+			}
+			sources.writeLong(Files.getLastModifiedTime(path).toMillis());
+		}
+		HashMap<String, File> files = new HashMap<>();//the asset files by their location without extension, so finding the file of a .tags file doesn't list its directory again
+		for(Path path : paths) {
+			if(!isTagsFile(path) && Files.isRegularFile(path)) {
+				files.putIfAbsent(getKey(path.toFile()), path.toFile());
+			}
+		}
+		LinkedHashMap<Path, BasicFileAttributes> sourceFiles = new LinkedHashMap<>();
+		ArrayList<Entry> entries = new ArrayList<>();
+		ArrayList<File> locations = new ArrayList<>();
+		long offset = 0;//relative to the end of the index until the size of the index is known
+		for(Path path : paths) {
+			if(isTagsFile(path) && Files.isRegularFile(path)) {
+				sourceFiles.put(path, Files.readAttributes(path, BasicFileAttributes.class));//read before the contents, so later changes are always noticed
+				Source source = readTags(plugin, path, files.get(getKey(path.toFile())));
+				File location = source.location != null && source.location.isFile() ? source.location.getAbsoluteFile() : null;
+				int size = 0;
+				byte[] hash = new byte[HitboxCache.HASH_LENGTH];
+				int[] delays = new int[0];
+				if(location != null) {
+					sourceFiles.putIfAbsent(location.toPath(), Files.readAttributes(location.toPath(), BasicFileAttributes.class));
+					byte[] data = Files.readAllBytes(location.toPath());
+					size = data.length;
+					hash = HitboxCache.hash(data);
+					if(ResourceManager.getFileExtension(location).equalsIgnoreCase("gif")) {
+						delays = ResourceManager.getFrameDelays(new GifImage(location));
+					}
+				}
+				String relative = location == null ? "" : getRelativeLocation(directory, location.toPath());
+				entries.add(new Entry(source.id, source.tags, plugin.getBaseDirectory(), relative, offset, size, hash, delays, null));
+				locations.add(location);
+				offset = align(offset + size);
+			}
+		}
+		sources.writeInt(sourceFiles.size());
+		for(Map.Entry<Path, BasicFileAttributes> source : sourceFiles.entrySet()) {
+			writeString(sources, getRelativeLocation(directory, source.getKey()));
+			sources.writeLong(source.getValue().size());
+			sources.writeLong(source.getValue().lastModifiedTime().toMillis());
+		}
+		long indexSize = 0;
+		for(Entry entry : entries) {
+			indexSize += entry.getRecordSize();
+		}
+		long indexEnd = align(HEADER_SIZE + sources.size() + indexSize);
+		if(indexEnd + offset > Integer.MAX_VALUE) {
+			throw new IOException("The assets of plugin " + plugin + " don't fit in an archive (" + (indexEnd + offset) + " bytes)");
+		}
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeInt(sources.size());
+			out.writeInt((int) indexSize);
+			out.writeInt(entries.size());
+			sourceTable.writeTo(out);
+			for(Entry entry : entries) {
+				entry.write(out, indexEnd);
+			}
+			out.write(new byte[(int) (indexEnd - out.size())]);
+			for(int i = 0; i < entries.size(); i++) {
+				File location = locations.get(i);
+				if(location != null) {
+					long size = Files.copy(location.toPath(), out);
+					if(size != entries.get(i).size) {
+						throw new IOException("File " + location + " changed while building the archive");
+					}
+					out.write(new byte[(int) (align(size) - size)]);
+				}
+			}
+		}
+		try {
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch(AtomicMoveNotSupportedException e) {
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		if(archiveDirectory >= 0) {//writing the archive changed the modification time of its directory; writing into the file doesn't
+			try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				channel.write(ByteBuffer.allocate(8).putLong(0, Files.getLastModifiedTime(archive.getParent()).toMillis()), HEADER_SIZE + archiveDirectory);
+			}
+		}
+		LOGGER.info("Built asset archive " + file + " with " + entries.size() + " assets");
+	}
+	
+	/**
+	 * Opens an archive file. The header, source table and index are read and validated first, and the file is only memory-mapped if the archive is up to date.
+	 *
+	 * @param file      The archive file
+	 * @param directory The base directory of the plugin
+	 * @return The archive, or null if the file is missing, invalid, from a different {@link #VERSION} or any of its sources has changed
+	 * @since 0.1.0
+	 */
+	public static @Nullable AssetArchive open(@NotNull Path file, @NotNull File directory) {
+		if(!Files.isRegularFile(file)) {
+			return null;
+		}
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			if(fileSize > Integer.MAX_VALUE) {
+				throw new IOException("Archive too large");
+			}
+			ByteBuffer header = readFully(channel, 0, (int) Math.min(HEADER_SIZE, fileSize));
+			if(header.limit() < HEADER_SIZE || header.getInt(0) != MAGIC || header.getShort(4) != VERSION) {
+				LOGGER.info("Ignoring outdated asset archive " + file);
+				return null;
+			}
+			int sourceSize = header.getInt(6), indexSize = header.getInt(10), count = header.getInt(14);
+			if(sourceSize < 0 || indexSize < 0 || count < 0 || HEADER_SIZE + (long) sourceSize + indexSize > fileSize) {
+				throw new IOException("Invalid header");
+			}
+			if(!isCurrent(readFully(channel, HEADER_SIZE, sourceSize), directory.toPath())) {
+				LOGGER.info("Ignoring outdated asset archive " + file);
+				return null;
+			}
+			ByteBuffer index = readFully(channel, HEADER_SIZE + sourceSize, indexSize);
+			long dataStart = HEADER_SIZE + (long) sourceSize + indexSize;
+			ArrayList<Entry> entries = new ArrayList<>(Math.min(count, 1 << 16));
+			for(int i = 0; i < count; i++) {
+				Entry entry = Entry.read(index, directory);
+				if(entry.offset < dataStart || entry.offset + entry.size > fileSize) {
+					throw new IOException("Invalid entry " + i);
+				}
+				entries.add(entry);
+			}
+			MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, fileSize);
+			entries.replaceAll(entry -> entry.withBuffer(buffer));
+			return new AssetArchive(file, directory, entries);
+		} catch(IOException | RuntimeException e) {
+			LOGGER.warn("Could not read asset archive " + file + ", rebuilding it", e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Reads the .tags file of an asset. Every line of the file is either a tag of the asset, or an operation in the form of 'operation::value': 'id' changes the identifier of the asset, and 'location' changes the location of its file relative to the plugin's directory. Invalid lines are skipped with a warning.
+	 *
+	 * @param plugin   The plugin of the asset
+	 * @param path     The location of the .tags file
+	 * @param location The default location of the asset's file, or null if not found
+	 * @return The identifier, tags and location of the asset
+	 * @since 0.1.0
+	 */
+	static @NotNull Source readTags(@NotNull Plugin plugin, @NotNull Path path, @Nullable File location) {
+		Identifier resourceId = Identifier.fromString(plugin, ResourceManager.getFileName(path.toFile()));
+		HashSet<Identifier> tags = new HashSet<>();
+		try {
+			for(String line : Files.readAllLines(path)) {
+				line = line.strip().trim();
+				if(line.isEmpty()) {
+					continue;
+				}
+				if(Pattern.matches(".+::.+", line)) {//contains :: -> not just a tag entry
+					String[] parts = line.split("::");
+					switch(parts[0]) {//the operation or something
+						case "id" -> resourceId = Identifier.fromString(parts[1]);//changes the resource's id
+						case "location" -> location = new File(plugin.getBaseDirectory(), line.substring("location::".length()).trim().strip());//changes the resource's location
+						default -> LOGGER.warn("Illegal entry for asset: '" + line + "'");
+					}
+				} else {
+					tags.add(Identifier.fromString(line));
+				}
+			}
+		} catch(IOException | IllegalArgumentException e) {
+			LOGGER.warn("Could not read tags for file " + path + " in plugin " + plugin, e);
+		}
+		return new Source(resourceId, tags, location);
+	}
+	
+	/**
+	 * Rounds up a file offset to a multiple of 8.
+	 *
+	 * @param offset The offset
+	 * @return The aligned offset
+	 * @since 0.1.0
+	 */
+	private static long align(long offset) {
+		return (offset + 7) & ~7L;
+	}
+	
+	/**
+	 * Gets the key of an asset file in the index of the files used when building the archive: its absolute location without the extension, in lower case.
+	 *
+	 * @param file The file
+	 * @return The key
+	 * @since 0.1.0
+	 */
+	private static @NotNull String getKey(@NotNull File file) {
+		return new File(file.getAbsoluteFile().getParentFile(), ResourceManager.getFileName(file)).getPath().toLowerCase(Locale.ROOT);
+	}
+	
+	/**
+	 * Gets the location of a file relative to a plugin's directory, as stored in the archive.
+	 *
+	 * @param directory The base directory of the plugin
+	 * @param path      The file
+	 * @return The relative location, with '/' as the separator
+	 * @since 0.1.0
+	 */
+	private static @NotNull String getRelativeLocation(@NotNull Path directory, @NotNull Path path) {
+		return directory.relativize(path.toAbsolutePath()).toString().replace(File.separatorChar, '/');
+	}
+	
+	/**
+	 * Checks if a file is the archive or its temporary file.
+	 *
+	 * @param archive The absolute location of the archive
+	 * @param path    The file
+	 * @return True if the file belongs to the archive
+	 * @since 0.1.0
+	 */
+	private static boolean isArchive(@NotNull Path archive, @NotNull Path path) {
+		return archive.getParent().equals(path.getParent()) && path.getFileName().toString().startsWith(archive.getFileName().toString());
+	}
+	
+	/**
+	 * Checks if the sources of an archive are unchanged, by comparing the attributes of the directories and files in the source table with the current ones.
+	 *
+	 * @param sources   The source table
+	 * @param directory The base directory of the plugin
+	 * @return True if nothing has changed
+	 * @throws IOException If the attributes cannot be read
+	 * @since 0.1.0
+	 */
+	private static boolean isCurrent(@NotNull ByteBuffer sources, @NotNull Path directory) throws IOException {
+		try {
+			int directories = sources.getInt();
+			for(int i = 0; i < directories; i++) {
+				Path path = directory.resolve(readString(sources));
+				if(Files.getLastModifiedTime(path).toMillis() != sources.getLong()) {
+					return false;
+				}
+			}
+			int files = sources.getInt();
+			for(int i = 0; i < files; i++) {
+				BasicFileAttributes attributes = Files.readAttributes(directory.resolve(readString(sources)), BasicFileAttributes.class);
+				long size = sources.getLong(), modified = sources.getLong();
+				if(attributes.size() != size || attributes.lastModifiedTime().toMillis() != modified) {
+					return false;
+				}
+			}
+			return true;
+		} catch(NoSuchFileException e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Checks if a file is a .tags file.
+	 *
+	 * @param path The file
+	 * @return True if the file has the tags extension
+	 * @since 0.1.0
+	 */
+	private static boolean isTagsFile(@NotNull Path path) {
+		return ResourceManager.getFileExtension(path.toFile()).equalsIgnoreCase("tags");
+	}
+	
+	/**
+	 * Reads a part of a file without mapping it.
+	 *
+	 * @param channel  The file
+	 * @param position The position of the first byte
+	 * @param size     The amount of bytes to read
+	 * @return A buffer with the bytes
+	 * @throws IOException If the file is too short or cannot be read
+	 * @since 0.1.0
+	 */
+	private static @NotNull ByteBuffer readFully(@NotNull FileChannel channel, long position, int size) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		while(buffer.hasRemaining()) {
+			if(channel.read(buffer, position + buffer.position()) < 0) {
+				throw new EOFException("Unexpected end of file at " + (position + buffer.position()));
+			}
+		}
+		return buffer.flip();
+	}
+	
+	/**
+	 * Reads a string from the index or the source table.
+	 *
+	 * @param buffer The buffer, positioned at the string
+	 * @return The string
+	 * @since 0.1.0
+	 */
+	private static @NotNull String readString(@NotNull ByteBuffer buffer) {
+		byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Writes a string to the index or the source table.
+	 *
+	 * @param out    The output
+	 * @param string The string
+	 * @throws IOException If the string is too long or the output cannot be written
+	 * @since 0.1.0
+	 */
+	private static void writeString(@NotNull DataOutputStream out, @NotNull String string) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		if(bytes.length > 0xFFFF) {
+			throw new IOException("String too long: " + string.substring(0, 64) + "...");
+		}
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+	
+	/**
+	 * Gets the size of a string in the index.
+	 *
+	 * @param string The string
+	 * @return The size of the string in bytes
+	 * @since 0.1.0
+	 */
+	private static int getStringSize(@NotNull String string) {
+		return 2 + string.getBytes(StandardCharsets.UTF_8).length;
+	}
+	
+	/**
+	 * Gets the entries of the archive.
+	 *
+	 * @return The entries, in the order of the index
+	 * @since 0.1.0
+	 */
+	public @NotNull List<Entry> getEntries() {
+		return entries;
+	}
+	
+	/**
+	 * Gets the location of the archive file.
+	 *
+	 * @return The archive file
+	 * @since 0.1.0
+	 */
+	public @NotNull Path getFile() {
+		return file;
+	}
+	
+	/**
+	 * An asset in an archive. The data of the asset is read from the memory-mapped archive without copying it, unless a copy is explicitly requested with {@link #getBytes()}.
+	 *
+	 * @since 0.1.0
+	 */
+	public static final class Entry {
+		/**
+		 * The identifier of the asset
+		 *
+		 * @since 0.1.0
+		 */
+		private final @NotNull Identifier id;
+		/**
+		 * The tags of the asset
+		 *
+		 * @since 0.1.0
+		 */
+		private final @NotNull Set<Identifier> tags;
+		/**
+		 * The base directory of the plugin
+		 *
+		 * @since 0.1.0
+		 */
+		private final @NotNull File directory;
+		/**
+		 * The location of the asset's file relative to the plugin's directory, or an empty string if the asset has no file
+		 *
+		 * @since 0.1.0
+		 */
+		private final @NotNull String location;
+		/**
+		 * The offset of the data in the archive
+		 *
+		 * @since 0.1.0
+		 */
+		private final long offset;
+		/**
+		 * The size of the data
+		 *
+		 * @since 0.1.0
+		 */
+		private final int size;
+		/**
+		 * The SHA-256 hash of the data
+		 *
+		 * @since 0.1.0
+		 */
+		private final @NotNull byte[] hash;
+		/**
+		 * The delays of the frames of an animated image (in milliseconds), or an empty array
+		 *
+		 * @since 0.1.0
+		 */
+		private final @NotNull int[] delays;
+		/**
+		 * The mapped archive, or null while the archive is being built or opened
+		 *
+		 * @since 0.1.0
+		 */
+		private final @Nullable ByteBuffer buffer;
+		
+		/**
+		 * Creates a new entry.
+		 *
+		 * @param id        The identifier of the asset
+		 * @param tags      The tags of the asset
+		 * @param directory The base directory of the plugin
+		 * @param location  The location of the asset's file relative to the plugin's directory, or an empty string
+		 * @param offset    The offset of the data in the archive
+		 * @param size      The size of the data
+		 * @param hash      The SHA-256 hash of the data
+		 * @param delays    The delays of the frames of an animated image, or an empty array
+		 * @param buffer    The mapped archive, or null while the archive is being built or opened
+		 * @since 0.1.0
+		 */
+		private Entry(@NotNull Identifier id, @NotNull Set<Identifier> tags, @NotNull File directory, @NotNull String location, long offset, int size, @NotNull byte[] hash, @NotNull int[] delays, @Nullable ByteBuffer buffer) {
+			this.id = id;
+			this.tags = Collections.unmodifiableSet(tags);
+			this.directory = directory;
+			this.location = location;
+			this.offset = offset;
+			this.size = size;
+			this.hash = hash;
+			this.delays = delays;
+			this.buffer = buffer;
+		}
+		
+		/**
+		 * Reads an entry from the index. The entry can't access its data until it gets the {@link #withBuffer(ByteBuffer) mapped archive}.
+		 *
+		 * @param index     The index, positioned at the entry's record
+		 * @param directory The base directory of the plugin
+		 * @return The entry
+		 * @throws IOException If the record is invalid
+		 * @since 0.1.0
+		 */
+		private static @NotNull Entry read(@NotNull ByteBuffer index, @NotNull File directory) throws IOException {
+			Identifier id = Identifier.fromString(readString(index));
+			int tagCount = Short.toUnsignedInt(index.getShort());
+			HashSet<Identifier> tags = new HashSet<>();
+			for(int i = 0; i < tagCount; i++) {
+				tags.add(Identifier.fromString(readString(index)));
+			}
+			String location = readString(index);
+			long offset = index.getLong();
+			int size = index.getInt();
+			byte[] hash = new byte[HitboxCache.HASH_LENGTH];
+			index.get(hash);
+			int delayCount = index.getInt();
+			if(size < 0 || delayCount < 0 || delayCount > index.remaining() / 4) {
+				throw new IOException("Invalid record of asset " + id);
+			}
+			int[] delays = new int[delayCount];
+			index.asIntBuffer().get(delays);
+			index.position(index.position() + delayCount * 4);
+			return new Entry(id, tags, directory, location, offset, size, hash, delays, null);
+		}
+		
+		/**
+		 * Counts the engine frames of the asset if it is an image.
+		 *
+		 * @param frameLength The length of an engine frame (in nanoseconds)
+		 * @return The amount of frames after {@link FrameResampler resampling}, or 1 for still images
+		 * @since 0.1.0
+		 */
+		public int countFrames(long frameLength) {
+			return delays.length == 0 ? 1 : FrameResampler.count(delays, frameLength);
+		}
+		
+		/**
+		 * Gets a copy of the data of the asset.
+		 *
+		 * @return The data
+		 * @throws IllegalStateException If the archive is being built
+		 * @since 0.1.0
+		 */
+		public @NotNull byte[] getBytes() throws IllegalStateException {
+			byte[] bytes = new byte[size];
+			getData().get(bytes);
+			return bytes;
+		}
+		
+		/**
+		 * Gets the data of the asset, without copying it from the mapped archive.
+		 *
+		 * @return A read-only view of the data
+		 * @throws IllegalStateException If the archive is being built
+		 * @since 0.1.0
+		 */
+		public @NotNull ByteBuffer getData() throws IllegalStateException {
+			if(buffer == null) {
+				throw new IllegalStateException("The archive is not opened");
+			}
+			return buffer.slice((int) offset, size).asReadOnlyBuffer();
+		}
+		
+		/**
+		 * Gets the delays of the frames of the asset if it is an animated image.
+		 *
+		 * @return The delay of each frame (in milliseconds), or an empty array if the asset is not animated
+		 * @since 0.1.0
+		 */
+		public @NotNull int[] getFrameDelays() {
+			return delays.clone();
+		}
+		
+		/**
+		 * Gets the hash of the data of the asset.
+		 *
+		 * @return The SHA-256 hash of the data
+		 * @see HitboxCache#hash(byte[])
+		 * @since 0.1.0
+		 */
+		public @NotNull byte[] getHash() {
+			return hash.clone();
+		}
+		
+		/**
+		 * Gets the identifier of the asset.
+		 *
+		 * @return The identifier
+		 * @since 0.1.0
+		 */
+		public @NotNull Identifier getId() {
+			return id;
+		}
+		
+		/**
+		 * Gets the file the asset was archived from.
+		 *
+		 * @return The file, or null if the asset has no file
+		 * @since 0.1.0
+		 */
+		public @Nullable File getLocation() {
+			return location.isEmpty() ? null : new File(directory, location);
+		}
+		
+		/**
+		 * Gets the size of the data of the asset.
+		 *
+		 * @return The size in bytes
+		 * @since 0.1.0
+		 */
+		public int getSize() {
+			return size;
+		}
+		
+		/**
+		 * Gets the tags of the asset.
+		 *
+		 * @return The tags
+		 * @since 0.1.0
+		 */
+		public @NotNull Set<Identifier> getTags() {
+			return tags;
+		}
+		
+		/**
+		 * Opens a stream reading the data of the asset from the mapped archive.
+		 *
+		 * @return The stream
+		 * @throws IllegalStateException If the archive is being built
+		 * @since 0.1.0
+		 */
+		public @NotNull InputStream openStream() throws IllegalStateException {
+			return new BufferInputStream(getData());
+		}
+		
+		/**
+		 * Decodes the asset as a still image.
+		 *
+		 * @return The image, with the type {@link BufferedImage#TYPE_INT_ARGB}
+		 * @throws IOException If the data is not a supported image
+		 * @since 0.1.0
+		 */
+		public @NotNull BufferedImage readImage() throws IOException {
+			BufferedImage image = ImageIO.read(new MemoryCacheImageInputStream(openStream()));//closes the stream
+			if(image == null) {
+				throw new IOException("Unsupported image format of asset " + id);
+			}
+			if(image.getType() != BufferedImage.TYPE_INT_ARGB) {
+				BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+				Graphics2D g = converted.createGraphics();
+				g.drawImage(image, 0, 0, null);
+				g.dispose();
+				image = converted;
+			}
+			return image;
+		}
+		
+		@Override
+		public @NotNull String toString() {
+			return id + " (" + size + " bytes at " + offset + ")";
+		}
+		
+		/**
+		 * Gets the size of the entry's record in the index.
+		 *
+		 * @return The size in bytes
+		 * @since 0.1.0
+		 */
+		private int getRecordSize() {
+			int size = getStringSize(id.toString()) + 2 + getStringSize(location) + 8 + 4 + HitboxCache.HASH_LENGTH + 4 + delays.length * 4;
+			for(Identifier tag : tags) {
+				size += getStringSize(tag.toString());
+			}
+			return size;
+		}
+		
+		/**
+		 * Creates a copy of the entry that reads its data from the mapped archive.
+		 *
+		 * @param buffer The mapped archive
+		 * @return The new entry
+		 * @since 0.1.0
+		 */
+		private @NotNull Entry withBuffer(@NotNull ByteBuffer buffer) {
+			return new Entry(id, tags, directory, location, offset, size, hash, delays, buffer);
+		}
+		
+		/**
+		 * Writes the entry's record to the index.
+		 *
+		 * @param out  The output
+		 * @param base The offset of the data of the first asset in the archive
+		 * @throws IOException If the output cannot be written
+		 * @since 0.1.0
+		 */
+		private void write(@NotNull DataOutputStream out, long base) throws IOException {
+			writeString(out, id.toString());
+			out.writeShort(tags.size());
+			for(Identifier tag : tags) {
+				writeString(out, tag.toString());
+			}
+			writeString(out, location);
+			out.writeLong(base + offset);
+			out.writeInt(size);
+			out.write(hash);
+			out.writeInt(delays.length);
+			for(int delay : delays) {
+				out.writeInt(delay);
+			}
+		}
+	}
+	
+	/**
+	 * The identifier, tags and file of an asset, as described by its .tags file.
+	 *
+	 * @since 0.1.0
+	 */
+	static final class Source {
+		/**
+		 * The identifier of the asset
+		 *
+		 * @since 0.1.0
+		 */
+		final @NotNull Identifier id;
+		/**
+		 * The tags of the asset
+		 *
+		 * @since 0.1.0
+		 */
+		final @NotNull HashSet<Identifier> tags;
+		/**
+		 * The file of the asset, or null if not found
+		 *
+		 * @since 0.1.0
+		 */
+		final @Nullable File location;
+		
+		/**
+		 * Creates a new asset source.
+		 *
+		 * @param id       The identifier of the asset
+		 * @param tags     The tags of the asset
+		 * @param location The file of the asset, or null if not found
+		 * @since 0.1.0
+		 */
+		Source(@NotNull Identifier id, @NotNull HashSet<Identifier> tags, @Nullable File location) {
+			this.id = id;
+			this.tags = tags;
+			this.location = location;
+		}
+	}
+	
+	/**
+	 * Input stream reading a byte buffer.
+	 *
+	 * @since 0.1.0
+	 */
+	private static final class BufferInputStream extends InputStream {
+		/**
+		 * The buffer to read
+		 *
+		 * @since 0.1.0
+		 */
+		private final @NotNull ByteBuffer buffer;
+		
+		/**
+		 * Creates a new stream reading the remaining bytes of a buffer.
+		 *
+		 * @param buffer The buffer
+		 * @since 0.1.0
+		 */
+		private BufferInputStream(@NotNull ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+		
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+		
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+		
+		@Override
+		public int read(@NotNull byte[] b, int off, int len) {
+			if(len == 0) {
+				return 0;
+			}
+			if(!buffer.hasRemaining()) {
+				return -1;
+			}
+			len = Math.min(len, buffer.remaining());
+			buffer.get(b, off, len);
+			return len;
+		}
+		
+		@Override
+		public long skip(long n) {
+			int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+	}
+}
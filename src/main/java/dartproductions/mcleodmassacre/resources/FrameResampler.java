@@ -0,0 +1,77 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources;
+
+import dartproductions.mcleodmassacre.engine.GameEngine;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Converts the frame delays of animated (GIF) images to engine frames. Every engine frame shows the source frame that is visible at its end; a trailing partial frame is kept if it is longer than half of an engine frame.
+ *
+ * @since 0.1.0
+ */
+public class FrameResampler {
+	
+	/**
+	 * Counts the engine frames of an animation. Same as the length of {@link #resample(int[], long)}, without allocating the indices.
+	 *
+	 * @param delays      The delays of the source frames (in milliseconds)
+	 * @param frameLength The length of an engine frame (in nanoseconds)
+	 * @return The amount of engine frames, at least 1
+	 * @since 0.1.0
+	 */
+	public static int count(@NotNull int[] delays, long frameLength) {
+		long sum = 0;
+		for(int delay : delays) {
+			sum += Math.max(0, delay) * 1000000L;
+		}
+		long count = sum / frameLength;
+		if(sum - count * frameLength > frameLength / 2) {
+			count++;
+		}
+		return (int) Math.max(1, count);
+	}
+	
+	/**
+	 * Maps every engine frame of an animation to the source frame shown in it.
+	 *
+	 * @param delays      The delays of the source frames (in milliseconds)
+	 * @param frameLength The length of an engine frame (in nanoseconds)
+	 * @return The index of the source frame for each engine frame; contains at least one frame
+	 * @since 0.1.0
+	 */
+	public static @NotNull int[] resample(@NotNull int[] delays, long frameLength) {
+		int[] frames = new int[count(delays, frameLength)];
+		int index = 0;
+		long sum = 0;
+		for(int i = 0; i < delays.length && index < frames.length; i++) {
+			sum += Math.max(0, delays[i]) * 1000000L;
+			while(sum >= frameLength && index < frames.length) {
+				frames[index++] = i;
+				sum -= frameLength;
+			}
+		}
+		Arrays.fill(frames, index, frames.length, Math.max(0, delays.length - 1));
+		return frames;
+	}
+	
+	/**
+	 * Maps every engine frame of an animation to the source frame shown in it, using the engine's current {@link GameEngine#getFrameLengthNano() frame length}.
+	 *
+	 * @param delays The delays of the source frames (in milliseconds)
+	 * @return The index of the source frame for each engine frame; contains at least one frame
+	 * @since 0.1.0
+	 */
+	public static @NotNull int[] resample(@NotNull int[] delays) {
+		return resample(delays, GameEngine.getFrameLengthNano());
+	}
+}
@@ -18,13 +18,19 @@ import com.google.gson.JsonParser;
 import dartproductions.mcleodmassacre.GameState;
 import dartproductions.mcleodmassacre.Main;
 import dartproductions.mcleodmassacre.engine.GameEngine;
+import dartproductions.mcleodmassacre.engine.profiling.FrameProfiler;
+import dartproductions.mcleodmassacre.hitbox.BitmaskHitbox;
+import dartproductions.mcleodmassacre.hitbox.HitboxCache;
 import dartproductions.mcleodmassacre.hitbox.ImageHitbox;
 import dartproductions.mcleodmassacre.map.Map;
 import dartproductions.mcleodmassacre.options.Options;
 import dartproductions.mcleodmassacre.options.Options.StandardOptions;
+import dartproductions.mcleodmassacre.profiling.ResourceRegistrationEvent;
+import dartproductions.mcleodmassacre.profiling.StateChangeEvent;
 import dartproductions.mcleodmassacre.resources.cache.Cache;
 import dartproductions.mcleodmassacre.resources.cache.Registry;
-import dartproductions.mcleodmassacre.resources.cache.StandardCache;
+import dartproductions.mcleodmassacre.resources.cache.TinyLfuCache;
+import dartproductions.mcleodmassacre.resources.cache.Weigher;
 import dartproductions.mcleodmassacre.resources.id.Identifier;
 import dartproductions.mcleodmassacre.resources.plugin.Plugin;
 import dartproductions.mcleodmassacre.resources.tag.GameStateTag;
@@ -38,8 +44,10 @@ import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import javax.swing.ImageIcon;
-import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
@@ -48,9 +56,14 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.SoftReference;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
@@ -65,8 +78,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -77,11 +95,11 @@ import java.util.stream.Stream;
 public class ResourceManager {
 	protected static final Logger LOGGER = LogManager.getLogger(ResourceManager.class);
 	/**
-	 * The loaded sound effects; the id is the file's name without extension. The group of the id is the name of the plugin the effect is loaded from
+	 * The loaded sound effects; the id is the file's name without extension. The group of the id is the name of the plugin the effect is loaded from. Uses at most 1/16 of the maximum heap size.
 	 *
 	 * @since 0.1.0
 	 */
-	private static final @NotNull Cache<byte[]> AUDIO = new StandardCache<>(Identifier.fromString("resources/sfx"));
+	private static final @NotNull Cache<byte[]> AUDIO = new TinyLfuCache<>(Identifier.fromString("resources/sfx"), Runtime.getRuntime().maxMemory() / 16, Weigher.BYTES);
 	/**
 	 * List of resources that are available for unloading, but at the time of checking their unloading threshold was not reached.
 	 *
@@ -99,13 +117,25 @@ public class ResourceManager {
 	 *
 	 * @since 0.1.0
 	 */
-	private static final @NotNull Cache<ImageHitbox> HITBOXES = new Registry<>(Identifier.fromString("resources/hitboxes"));
+	private static final @NotNull Cache<ImageHitbox> HITBOXES = new Registry<>(Identifier.fromString("resources/hitboxes"), Weigher.HITBOX);
 	/**
-	 * The loaded images; the id is the file's name without extension, with possibly a #number attached to it if it is a frame from a GIF. The group of the image's id is the name of the plugin the image is loaded from
+	 * The persistent cache of the computed hitboxes, keyed by the contents of the source images
 	 *
 	 * @since 0.1.0
 	 */
-	private static final @NotNull Cache<Image> IMAGES = new StandardCache<>(Identifier.fromString("resources/images"));
+	private static final @NotNull HitboxCache HITBOX_CACHE = new HitboxCache(Path.of("cache", "hitboxes.bin"));
+	/**
+	 * The resources the hitboxes are created from; the key is the id of the hitbox, and the value is the id of the image resource
+	 *
+	 * @since 0.1.0
+	 */
+	private static final @NotNull ConcurrentHashMap<Identifier, Identifier> HITBOX_RESOURCES = new ConcurrentHashMap<>();
+	/**
+	 * The loaded images; the id is the file's name without extension, with possibly a #number attached to it if it is a frame from a GIF. The group of the image's id is the name of the plugin the image is loaded from. Uses at most 1/4 of the maximum heap size.
+	 *
+	 * @since 0.1.0
+	 */
+	private static final @NotNull Cache<Image> IMAGES = new TinyLfuCache<>(Identifier.fromString("resources/images"), Runtime.getRuntime().maxMemory() / 4, Weigher.IMAGE);
 	/**
 	 * The amount of loading operations currently running.
 	 *
@@ -138,6 +168,30 @@ public class ResourceManager {
 	 * The list of resources associated with each tag. The id is the tag's id, and the cached values are the id's of resources associated with that tag.
 	 */
 	private static final @NotNull Cache<HashSet<Identifier>> TAG_RESOURCES = new Registry<>(Identifier.fromString("resources/tag_resources"));
+	/**
+	 * The pool preprocessing the frames and hitboxes of image resources
+	 *
+	 * @see #preprocess(Identifier)
+	 * @since 0.1.0
+	 */
+	private static final @NotNull ForkJoinPool PREPROCESSOR = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), p -> {
+		ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+		thread.setName("Asset preprocessor " + thread.getPoolIndex());
+		thread.setDaemon(true);
+		return thread;
+	}, (t, e) -> LOGGER.error("Uncaught exception in asset preprocessor thread (" + t.getName() + ")", e), false);
+	/**
+	 * The preprocessing jobs of the registered image resources with hitboxes; the id is the resource's id
+	 *
+	 * @since 0.1.0
+	 */
+	private static final @NotNull ConcurrentHashMap<Identifier, Runnable> PREPROCESSING_JOBS = new ConcurrentHashMap<>();
+	/**
+	 * The started preprocessing tasks; the id is the resource's id. Tasks are kept after they are done, so resources are only preprocessed once.
+	 *
+	 * @since 0.1.0
+	 */
+	private static final @NotNull ConcurrentHashMap<Identifier, CompletableFuture<Void>> PREPROCESSING = new ConcurrentHashMap<>();
 	/**
 	 * The active game options
 	 *
@@ -258,14 +312,38 @@ public class ResourceManager {
 	}
 	
 	/**
-	 * Gets the hitbox area with the specified id
+	 * Gets the hitbox area with the specified id without blocking the calling thread, so it is safe to call from the engine thread. Hitboxes are created by {@link #preprocess(Identifier) preprocessing} their image resource; if that hasn't finished yet, the preprocessing is started if needed, and null is returned. Use {@link #getHitboxAsync(Identifier)} to be notified when the hitbox is created.
 	 *
 	 * @param id The id of the hitbox area
-	 * @return The hitbox area or null if not found
+	 * @return The hitbox area or null if not found or not created yet
 	 * @since 0.1.0
 	 */
 	public static @Nullable ImageHitbox getHitbox(@NotNull Identifier id) {
-		return HITBOXES.get(id);
+		ImageHitbox hitbox = HITBOXES.getIfPresent(id);
+		if(hitbox == null) {
+			Identifier resource = HITBOX_RESOURCES.get(id);
+			if(resource != null) {
+				preprocess(resource);
+			}
+		}
+		return hitbox;
+	}
+	
+	/**
+	 * Gets the hitbox area with the specified id without blocking the calling thread. If the hitbox is not created yet, the future is completed when the {@link #preprocess(Identifier) preprocessing} of its image resource is done.
+	 *
+	 * @param id The id of the hitbox area
+	 * @return The future completed with the hitbox area, or with null if not found
+	 * @since 0.1.0
+	 */
+	public static @NotNull CompletableFuture<ImageHitbox> getHitboxAsync(@NotNull Identifier id) {
+		ImageHitbox hitbox = HITBOXES.getIfPresent(id);
+		Identifier resource = HITBOX_RESOURCES.get(id);
+		CompletableFuture<Void> task = hitbox != null || resource == null ? null : preprocess(resource);
+		if(task == null) {
+			return CompletableFuture.completedFuture(hitbox);
+		}
+		return task.thenApply(done -> HITBOXES.getFromCache(id));//no thread waits for the preprocessing
 	}
 	
 	/**
@@ -279,6 +357,18 @@ public class ResourceManager {
 		return IMAGES.get(id);
 	}
 	
+	/**
+	 * Gets the image with the specified id without blocking the calling thread.
+	 *
+	 * @param id The id of the image
+	 * @return The future completed with the image, or with null if not found
+	 * @see Cache#getAsync(Identifier)
+	 * @since 0.1.0
+	 */
+	public static @NotNull CompletableFuture<Image> getImageAsync(@NotNull Identifier id) {
+		return IMAGES.getAsync(id);
+	}
+	
 	/**
 	 * Gets the active game options. Loads them from the settings file if they are not yet loaded.
 	 *
@@ -418,13 +508,26 @@ public class ResourceManager {
 	}
 	
 	/**
-	 * Runs whenever the game's state changes. This method handles resource loading/unloading for the state. Calling this method may block the current thread for a significant time.
+	 * Checks if an image is registered with the specified id, without loading it.
+	 *
+	 * @param id The id of the image
+	 * @return True if the image is registered
+	 * @since 0.1.0
+	 */
+	public static boolean hasImage(@NotNull Identifier id) {
+		return IMAGES.getRegisteredResources().contains(id);
+	}
+	
+	/**
+	 * Runs whenever the game's state changes. This method handles resource loading/unloading for the state, and starts {@link #preprocess(Identifier) preprocessing} the required image resources. Calling this method may block the current thread for a significant time.
 	 *
 	 * @param newState     The new game state
 	 * @param newNextState The new next game state
 	 * @since 0.1.0
 	 */
 	public static void onStateChange(@NotNull GameState newState, @Nullable GameState newNextState) {
+		StateChangeEvent event = new StateChangeEvent();
+		event.begin();
 		waitForLoading();
 		double memoryUsage = getMemoryUsage();
 		synchronized(AVAILABLE_UNLOADS) {
@@ -438,11 +541,14 @@ public class ResourceManager {
 						if(!loaded) {
 							//LOGGER.debug("Loaded " + resourceId);
 							cache.load(resourceId);
+							event.loaded++;
 						}
+						preprocess(resourceId);
 					} else if(loaded) {
 						if(tags.stream().map(TAGS::get).parallel().anyMatch(tag -> tag.getUnloadingThreshold(newState, newNextState) < memoryUsage)) {
 							//LOGGER.debug("Unloaded " + resourceId);
 							cache.unload(resourceId);
+							event.unloaded++;
 						} else {
 							//LOGGER.debug("Scheduled " + resourceId);
 							AVAILABLE_UNLOADS.add(resourceId);
@@ -452,6 +558,11 @@ public class ResourceManager {
 			}
 		}
 		//Main.getExecutors().execute(new LoadingOperation(() -> unloadAll(0)));
+		if(event.shouldCommit()) {
+			event.state = newState.toString();
+			event.nextState = String.valueOf(newNextState);
+			event.commit();
+		}
 	}
 	
 	/**
@@ -473,6 +584,21 @@ public class ResourceManager {
 		}
 	}
 	
+	/**
+	 * Starts preprocessing an image resource on the preprocessing pool, if it hasn't been started yet. Preprocessing decodes the frames of the image once, and creates the hitboxes of all frames in parallel. Only image resources with the {@link Tag#HITBOX_SOURCE} tag are preprocessed.
+	 *
+	 * @param resource The id of the resource
+	 * @return The future completed when the preprocessing is done, or null if the resource is not preprocessed
+	 * @since 0.1.0
+	 */
+	public static @Nullable CompletableFuture<Void> preprocess(@NotNull Identifier resource) {
+		Runnable job = PREPROCESSING_JOBS.get(resource);
+		if(job == null) {
+			return null;
+		}
+		return PREPROCESSING.computeIfAbsent(resource, id -> CompletableFuture.runAsync(job, PREPROCESSOR));
+	}
+	
 	/**
 	 * Reads the contents of a text file.
 	 *
@@ -486,6 +612,8 @@ public class ResourceManager {
 	/**
 	 * Registers all assets from the specified plugin. The assets' identifiers are registered in the appropriate caches, and their tags are attached to the resources. The name of the assets (the 'name' parameter of their ID's) is the name of the files containing them without the file extension.
 	 * <p>
+	 * The assets are read from the plugin's {@link AssetArchive asset archive}, which is built first if it is missing or outdated. If the archive cannot be used, the .tags files and the asset files are read from the plugin's directory instead.
+	 * <p>
 	 * This method does not block the calling thread. To ensure the plugin is loaded one must call the {@link #waitForLoading()} method.
 	 *
 	 * @param plugin The plugin to load assets from
@@ -493,40 +621,30 @@ public class ResourceManager {
 	 */
 	public static void registerAssets(@NotNull final Plugin plugin) {
 		waitForLoading();
-		try {
-			getPaths(plugin.getBaseDirectory().getPath(), false).filter(path -> "tags".equalsIgnoreCase(getFileExtension(path.toFile()))).forEach(path -> {
+		AssetArchive archive = AssetArchive.open(plugin);
+		if(archive != null) {
+			for(AssetArchive.Entry entry : archive.getEntries()) {
 				new LoadingOperation(() -> {
-					Identifier resourceId = Identifier.fromString(plugin, getFileName(path.toFile()));
-					HashSet<Identifier> tags = new HashSet<>();
-					File resourceFile = getResourceFileFromTags(path);
-					try {
-						for(String line : Files.readAllLines(path)) {
-							line = line.strip().trim();
-							if(line.isEmpty()) {
-								continue;
-							}
-							if(Pattern.matches(".+::.+", line)) {//contains :: -> not just a tag entry
-								String[] parts = line.split("::");
-								switch(parts[0]) {//the operation or something
-									case "id" -> resourceId = Identifier.fromString(parts[1]);//changes the resource's id
-									case "location" -> resourceFile = new File(plugin.getBaseDirectory(), line.substring("location::".length()).trim().strip());//changes the resource's location
-									default -> LOGGER.warn("Illegal entry for asset: '" + line + "'");
-								}
-							} else {
-								tags.add(Identifier.fromString(line));
-							}
-						}
-					} catch(IOException | IllegalArgumentException e) {
-						LOGGER.warn("Could not read tags for file " + path + " in plugin " + plugin, e);
-					}
-					for(Identifier tag : tags) {
-						registerResourceTag(resourceId, tag);
+					for(Identifier tag : entry.getTags()) {
+						registerResourceTag(entry.getId(), tag);
 					}
-					registerResource(resourceId, resourceFile);
+					registerResource(entry.getId(), entry.getLocation(), entry);
 				});
-			});
-		} catch(IOException | URISyntaxException | NullPointerException e) {
-			LOGGER.warn("Could not register assets for plugin " + plugin, e);
+			}
+		} else {
+			try {
+				getPaths(plugin.getBaseDirectory().getPath(), false).filter(path -> "tags".equalsIgnoreCase(getFileExtension(path.toFile()))).forEach(path -> {
+					new LoadingOperation(() -> {
+						AssetArchive.Source source = AssetArchive.readTags(plugin, path, getResourceFileFromTags(path));
+						for(Identifier tag : source.tags) {
+							registerResourceTag(source.id, tag);
+						}
+						registerResource(source.id, source.location, null);
+					});
+				});
+			} catch(IOException | URISyntaxException | NullPointerException e) {
+				LOGGER.warn("Could not register assets for plugin " + plugin, e);
+			}
 		}
 		waitForLoading();
 	}
@@ -541,6 +659,30 @@ public class ResourceManager {
 		PLUGINS.register(plugin.getId(), () -> plugin);
 	}
 	
+	/**
+	 * Registers the {@link Cache#getStatistics() statistics} of the registered caches as MBeans in the platform MBean server, in the {@link FrameProfiler#DOMAIN domain} of the engine MBeans. Replaces the MBeans registered earlier under the same names. Fails silently (with a warning) if JMX is not available.
+	 *
+	 * @since 0.1.0
+	 */
+	public static void registerStatistics() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			for(Identifier id : CACHES.getRegisteredResources()) {
+				Cache<?> cache = CACHES.getFromCache(id);
+				if(cache != null) {
+					ObjectName name = new ObjectName(FrameProfiler.DOMAIN + ":type=Cache,name=" + ObjectName.quote(id.toString()));
+					if(server.isRegistered(name)) {
+						server.unregisterMBean(name);
+					}
+					server.registerMBean(cache.getStatistics(), name);
+				}
+			}
+			LOGGER.info("Registered cache MBeans in domain " + FrameProfiler.DOMAIN);
+		} catch(JMException | SecurityException e) {
+			LOGGER.warn("Could not register cache MBeans", e);
+		}
+	}
+	
 	/**
 	 * Registers a new tag.
 	 *
@@ -569,6 +711,17 @@ public class ResourceManager {
 		}
 	}
 	
+	/**
+	 * Waits until all started {@link #preprocess(Identifier) preprocessing} tasks are done. Blocks the calling thread, so it must not be called from the engine thread.
+	 *
+	 * @since 0.1.0
+	 */
+	public static void waitForPreprocessing() {
+		for(CompletableFuture<Void> task : PREPROCESSING.values()) {
+			task.exceptionally(e -> null).join();
+		}
+	}
+	
 	/**
 	 * Gets the map with the specified id.
 	 *
@@ -580,6 +733,19 @@ public class ResourceManager {
 		return MAPS.get(id);
 	}
 	
+	/**
+	 * Writes the hitboxes computed since the start of the game to the hitbox cache file, so they don't have to be computed again on the next start.
+	 *
+	 * @since 0.1.0
+	 */
+	public static void saveHitboxCache() {
+		try {
+			HITBOX_CACHE.save();
+		} catch(IOException e) {
+			LOGGER.warn("Could not save hitbox cache", e);
+		}
+	}
+	
 	/**
 	 * Saves the game options to a file.
 	 *
@@ -597,37 +763,15 @@ public class ResourceManager {
 	}
 	
 	/**
-	 * Gets the current memory usage of the application. The returned value represents the ratio of the used and available memory.
+	 * Gets the current memory usage of the application. The returned value represents the ratio of the used memory and the maximum heap size.
 	 *
 	 * @return The memory usage between 0 and 1
 	 * @since 0.1.0
 	 */
 	private static double getMemoryUsage() {
 		Runtime runtime = Runtime.getRuntime();
-		long max = runtime.totalMemory();
-		long free = runtime.freeMemory();
-		return ((double) (max - free)) / (double) max;
-	}
-	
-	/**
-	 * Creates a two-colored (binarised) version of the image. A pixel is black on the result if the image had a non-transparent pixel at that location, all other pixels are white. No changes are made to the original image.
-	 *
-	 * @param image The image to use
-	 * @return The binarised image
-	 * @since 0.1.0
-	 */
-	private static @NotNull BufferedImage binarisate(@NotNull BufferedImage image) {
-		BufferedImage newImage = new BufferedImage(image.getWidth(), image.getHeight(), image.getType());
-		for(int x = 0; x < image.getWidth(); x++) {
-			for(int y = 0; y < image.getHeight(); y++) {
-				if(new Color(image.getRGB(x, y), true).getAlpha() == 0) {
-					newImage.setRGB(x, y, Color.WHITE.getRGB());
-				} else {
-					newImage.setRGB(x, y, Color.BLACK.getRGB());
-				}
-			}
-		}
-		return newImage;
+		long used = runtime.totalMemory() - runtime.freeMemory();
+		return ((double) used) / (double) runtime.maxMemory();
 	}
 	
 	/**
@@ -652,31 +796,66 @@ public class ResourceManager {
 	}
 	
 	/**
-	 * Counts the amount of frames in a graphics resource. A still image has 1 frame, and an animated (GIF) image has {@code length/FRAME_LENGTH} frames (+- 1 frame).
+	 * Counts the amount of frames in a graphics resource. A still image has 1 frame, and an animated (GIF) image has as many frames as the engine runs during its length (+- 1 frame).
 	 *
 	 * @param file The file containing the image
 	 * @return The amount of frames
 	 * @throws FileNotFoundException If an I/O exception occurs
-	 * @see GameEngine#FRAME_LENGTH
+	 * @see FrameResampler
 	 * @since 0.1.0
 	 */
 	private static int countImageFrames(@NotNull File file) throws FileNotFoundException {
 		if(getFileExtension(file).equalsIgnoreCase("gif")) {
-			GifImage gif = new GifImage(file);
-			int sum = 0;
-			for(int i = 0; i < gif.getDecoder().getFrameCount(); i++) {
-				sum += gif.getDecoder().getDelay(i);
-			}
-			int count = sum / GameEngine.FRAME_LENGTH;
-			sum -= count * GameEngine.FRAME_LENGTH;
-			if(sum > GameEngine.FRAME_LENGTH / 2) {
-				count++;
-			}
-			return count;
+			return FrameResampler.count(getFrameDelays(new GifImage(file)), GameEngine.getFrameLengthNano());
 		}
 		return 1;
 	}
 	
+	/**
+	 * Creates the hitbox of an image frame. The hitbox is read from the cache if it has been computed before; otherwise it is computed with its outline and rectangles, and added to the cache. Non-transparent pixels of the image are part of the hitbox.
+	 *
+	 * @param cache       The cache of the hitboxes
+	 * @param hash        The hash of the image's source file
+	 * @param frameLength The frame length the frames of the file were resampled to, or 0 for still images
+	 * @param frame       The index of the frame
+	 * @param image       The frame's image
+	 * @return The hitbox
+	 * @since 0.1.0
+	 */
+	private static @NotNull ImageHitbox createHitbox(@NotNull HitboxCache cache, @NotNull byte[] hash, long frameLength, int frame, @NotNull BufferedImage image) {
+		ImageHitbox hitbox = cache.get(hash, frameLength, frame);
+		if(hitbox == null) {
+			hitbox = new ImageHitbox(BitmaskHitbox.fromImage(image, argb -> (argb >>> 24) != 0));
+			hitbox.getOutline();
+			hitbox.getRectangles();
+			cache.put(hash, frameLength, frame, hitbox);
+		}
+		return hitbox;
+	}
+	
+	/**
+	 * Creates the hitboxes of every frame of an image. If all of them are in the cache, the frames are not decoded at all; otherwise the frames are decoded, and the hitboxes are {@link #createHitbox(HitboxCache, byte[], long, int, BufferedImage) created} in parallel.
+	 *
+	 * @param cache       The cache of the hitboxes
+	 * @param hash        The hash of the image's source file
+	 * @param frameLength The frame length the frames of the file were resampled to, or 0 for still images
+	 * @param frameCount  The amount of frames of the image
+	 * @param frames      The decoder of the frames
+	 * @return The hitboxes of the frames
+	 * @throws Exception If the frames cannot be decoded
+	 * @since 0.1.0
+	 */
+	static @NotNull ImageHitbox[] createHitboxes(@NotNull HitboxCache cache, @NotNull byte[] hash, long frameLength, int frameCount, @NotNull Callable<BufferedImage[]> frames) throws Exception {
+		ImageHitbox[] hitboxes = cache.getAll(hash, frameLength, frameCount);
+		if(hitboxes != null) {
+			return hitboxes;
+		}
+		final BufferedImage[] images = frames.call();
+		final ImageHitbox[] created = new ImageHitbox[images.length];
+		IntStream.range(0, images.length).parallel().forEach(i -> created[i] = createHitbox(cache, hash, frameLength, i, images[i]));
+		return created;
+	}
+	
 	/**
 	 * Deletes the specified file with all of its contents. If this file is a directory, all of its sub-directories and files are deleted first.
 	 *
@@ -703,7 +882,7 @@ public class ResourceManager {
 	 * @return The extension of the file
 	 * @since 0.1.0
 	 */
-	private static @NotNull String getFileExtension(@NotNull File file) {
+	static @NotNull String getFileExtension(@NotNull File file) {
 		String name = file.getName();
 		if(name.contains(".")) {
 			return name.substring(name.lastIndexOf(".") + 1);
@@ -718,7 +897,7 @@ public class ResourceManager {
 	 * @return The name of the file
 	 * @since 0.1.0
 	 */
-	private static @NotNull String getFileName(@NotNull File file) {
+	static @NotNull String getFileName(@NotNull File file) {
 		String name = file.getName();
 		if(name.contains(".")) {
 			name = name.substring(0, name.lastIndexOf("."));
@@ -727,7 +906,22 @@ public class ResourceManager {
 	}
 	
 	/**
-	 * Gets all of the separate frames from an image. If the images is not animated, the returned array only contains the original image.
+	 * Gets the delays of the frames in an animated image.
+	 *
+	 * @param gif The image
+	 * @return The delay of each frame (in milliseconds)
+	 * @since 0.1.0
+	 */
+	static @NotNull int[] getFrameDelays(@NotNull GifImage gif) {
+		int[] delays = new int[gif.getDecoder().getFrameCount()];
+		for(int i = 0; i < delays.length; i++) {
+			delays[i] = gif.getDecoder().getDelay(i);
+		}
+		return delays;
+	}
+	
+	/**
+	 * Gets all of the separate frames from an image. If the images is not animated, the returned array only contains the original image. Animated images are {@link FrameResampler resampled} to the engine's current tick rate, so they have one image per engine frame.
 	 *
 	 * @param image the image
 	 * @param file  The file the image was loaded from
@@ -741,19 +935,12 @@ public class ResourceManager {
 		}
 		if(getFileExtension(file).equalsIgnoreCase("gif")) {
 			GifImage gif = new GifImage(file);
-			int sum = 0;
-			ArrayList<BufferedImage> images = new ArrayList<>();
-			for(int i = 0; i < gif.getDecoder().getFrameCount(); i++) {
-				sum += gif.getDecoder().getDelay(i);
-				while(sum >= GameEngine.FRAME_LENGTH) {
-					images.add(gif.getFrame(i));
-					sum -= GameEngine.FRAME_LENGTH;
-				}
-			}
-			if(sum > GameEngine.FRAME_LENGTH / 2) {
-				images.add(gif.getFrame(gif.getDecoder().getFrameCount() - 1));
+			int[] frames = FrameResampler.resample(getFrameDelays(gif), GameEngine.getFrameLengthNano());
+			BufferedImage[] images = new BufferedImage[frames.length];
+			for(int i = 0; i < frames.length; i++) {
+				images[i] = gif.getFrame(frames[i]);
 			}
-			return images.toArray(new BufferedImage[0]);
+			return images;
 		} else {
 			BufferedImage bimage = new BufferedImage(image.getWidth(null), image.getHeight(null), BufferedImage.TYPE_INT_ARGB);
 			Graphics2D g = bimage.createGraphics();
@@ -836,43 +1023,99 @@ public class ResourceManager {
 	}
 	
 	/**
-	 * Registers the specified graphics or audio resource. If the resource is an image and it has the {@link Tag#HITBOX_SOURCE} tag, its hitboxes are also registered. If the image is animated, all of its frames are registered as well.
+	 * Preprocesses an image resource: {@link #createHitboxes(HitboxCache, byte[], long, int, Callable) creates} the hitboxes of its frames, and registers the hitboxes. The frames are only decoded if some of their hitboxes are not in the {@link #HITBOX_CACHE}. The hitboxes also have their {@link ImageHitbox#getArea() area} created in parallel, so none of the hitbox's views are built on the engine thread. Must be called on the {@link #PREPROCESSOR}, so the parallel streams run on its threads.
+	 *
+	 * @param resource    The id of the resource
+	 * @param source      The frames of the resource
+	 * @param hash        The hash of the resource's file
+	 * @param frameLength The frame length the frames of the file were resampled to, or 0 for still images
+	 * @param frameCount  The amount of frames of the resource
+	 * @throws Exception If the frames cannot be decoded
+	 * @since 0.1.0
+	 */
+	private static void preprocessImage(@NotNull Identifier resource, @NotNull FrameSource source, @NotNull byte[] hash, long frameLength, int frameCount) throws Exception {
+		final ImageHitbox[] hitboxes = createHitboxes(HITBOX_CACHE, hash, frameLength, frameCount, source::getFrames);
+		Arrays.stream(hitboxes).parallel().forEach(ImageHitbox::getArea);
+		HITBOXES.register(Identifier.fromString(resource.getGroup(), resource.getName() + "/hitbox"), () -> hitboxes[0]);
+		for(int i = 0; i < hitboxes.length; i++) {
+			final int index = i;
+			final Identifier id = Identifier.fromString(resource.getGroup(), resource.getName() + "#" + index);
+			HITBOXES.register(Identifier.fromString(id.getGroup(), id.getName() + "/hitbox"), () -> hitboxes[index]);
+			IMAGES.load(id);
+		}
+		LOGGER.debug("Preprocessed resource " + resource);
+	}
+	
+	/**
+	 * Registers the specified graphics or audio resource. If the resource is an image and it has the {@link Tag#HITBOX_SOURCE} tag, its hitboxes are registered for {@link #preprocess(Identifier) preprocessing}. If the image is animated, all of its frames are registered as well.
+	 * <p>
+	 * If the resource is read from an {@link AssetArchive asset archive}, its data is loaded from the archive instead of its file, and the frame count and the hash of images come from the archive's index, so images are not decoded until they are first used. Animated images are still decoded from their files.
 	 *
 	 * @param resource The id of the resource
-	 * @param location The location of the resource
+	 * @param location The location of the resource, or null if not found
+	 * @param entry    The resource's entry in the asset archive of its plugin, or null if it is not read from an archive
 	 * @see #loadResource(Identifier, File)
 	 * @since 0.1.0
 	 */
-	private static void registerResource(@NotNull final Identifier resource, @NotNull final File location) {
+	private static void registerResource(@NotNull final Identifier resource, @Nullable final File location, @Nullable final AssetArchive.Entry entry) {
+		ResourceRegistrationEvent event = new ResourceRegistrationEvent();
+		event.begin();
 		try {
+			if(location == null) {
+				throw new FileNotFoundException("Resource file not found");
+			}
 			if(hasTag(resource, Tag.GRAPHICS.getId())) {//graphics resource
+				event.type = "graphics";
 				final boolean isHitboxImage = hasTag(resource, Tag.HITBOX_SOURCE.getId());
 				//
-				final Image image = loadImage(location);
-				final BufferedImage[] images = getImageFrames(image, location);
-				IMAGES.register(resource, () -> images[0]);//registering basic image
-				IMAGES.register(Identifier.fromString(resource.getGroup(), resource.getName() + "/raw"), () -> image);
+				final Identifier raw = Identifier.fromString(resource.getGroup(), resource.getName() + "/raw");
+				final FrameSource frames = new FrameSource(raw, location);
+				final int frameCount;
+				if(entry == null) {
+					final Image image = loadImage(location);
+					IMAGES.register(raw, () -> image);
+					frameCount = frames.getFrames().length;
+				} else {
+					final boolean animated = entry.getFrameDelays().length > 0;
+					IMAGES.register(raw, () -> animated ? loadImage(location) : entry.readImage());
+					frameCount = entry.countFrames(GameEngine.getFrameLengthNano());
+				}
+				IMAGES.register(resource, () -> frames.getFrame(0));//registering basic image
+				event.frames = frameCount;
 				if(isHitboxImage) {
-					if(getImage(resource) instanceof BufferedImage) {
-						HITBOXES.register(Identifier.fromString(resource.getGroup(), resource.getName() + "/hitbox"), () -> new ImageHitbox(binarisate(getBufferedImage(resource))));
-					}
+					final byte[] hash = entry == null ? HitboxCache.hash(Files.readAllBytes(location.toPath())) : entry.getHash();
+					final long frameLength = getFileExtension(location).equalsIgnoreCase("gif") ? GameEngine.getFrameLengthNano() : 0;
+					HITBOX_CACHE.retain(hash);
+					HITBOX_RESOURCES.put(Identifier.fromString(resource.getGroup(), resource.getName() + "/hitbox"), resource);
+					PREPROCESSING_JOBS.put(resource, () -> {
+						try {
+							preprocessImage(resource, frames, hash, frameLength, frameCount);
+						} catch(Exception e) {
+							LOGGER.warn("Could not preprocess resource " + resource, e);
+						}
+					});
 				}
 				//
-				for(int i = 0; i < images.length; i++) {//register all frames
+				for(int i = 0; i < frameCount; i++) {//register all frames
 					final int index = i;
 					final Identifier id = Identifier.fromString(resource.getGroup(), resource.getName() + "#" + index);
-					IMAGES.register(id, () -> getImageFrames(getImage(Identifier.fromString(resource.getGroup(), resource.getName() + "/raw")), location)[index]);
+					IMAGES.register(id, () -> frames.getFrame(index));
 					if(isHitboxImage) {
-						HITBOXES.register(Identifier.fromString(id.getGroup(), id.getName() + "/hitbox"), () -> new ImageHitbox(binarisate(getBufferedImage(id))));
+						HITBOX_RESOURCES.put(Identifier.fromString(id.getGroup(), id.getName() + "/hitbox"), resource);
 					}
 				}
 				LOGGER.debug("Registered resource " + resource);
 			} else if(hasTag(resource, Tag.AUDIO.getId())) {//audio resource
-				AUDIO.register(resource, () -> Files.readAllBytes(location.toPath()));
+				event.type = "audio";
+				AUDIO.register(resource, entry == null ? () -> Files.readAllBytes(location.toPath()) : entry::getBytes);
 				LOGGER.debug("Registered resource " + resource);
 			} else if(hasTag(resource, Tag.TAG.getId())) {//tag
+				event.type = "tag";
 				Gson gson = new Gson();
-				JsonObject root = JsonParser.parseReader(gson.newJsonReader(new FileReader(location))).getAsJsonObject();
+				JsonObject root;
+				try(Reader reader = entry == null ? new FileReader(location) : new InputStreamReader(entry.openStream(), StandardCharsets.UTF_8)) {
+					root = JsonParser.parseReader(gson.newJsonReader(reader)).getAsJsonObject();
+				}
 				String type = root.get("type").getAsString();
 				switch(type.toLowerCase()) {
 					case "greedy" -> new GreedyTag(resource);
@@ -896,6 +1139,7 @@ public class ResourceManager {
 					default -> throw new IllegalConfigurationException("Illegal tag type in tag resource " + resource + " (" + type + ")");
 				}
 			} else if(hasTag(resource, Tag.MAP.getId())) {
+				event.type = "map";
 				Map map = new Map(location, resource);
 				MAPS.register(map);
 			} else {
@@ -903,6 +1147,12 @@ public class ResourceManager {
 			}
 		} catch(Exception e) {
 			LOGGER.warn("Could not register resource " + resource, e);
+		} finally {
+			if(event.shouldCommit()) {
+				event.resource = resource.toString();
+				event.location = location == null ? null : location.getPath();
+				event.commit();
+			}
 		}
 	}
 	
@@ -924,6 +1174,73 @@ public class ResourceManager {
 		TAG_RESOURCES.get(tag).add(resource);
 	}
 	
+	/**
+	 * The decoded frames of an image resource, shared by the loaders of the frames, so an animated image is only decoded once instead of once for every frame. The frames are only softly referenced: they are decoded again if they were reclaimed.
+	 *
+	 * @see #getImageFrames(Image, File)
+	 * @since 0.1.0
+	 */
+	private static final class FrameSource {
+		/**
+		 * The id of the raw image
+		 *
+		 * @since 0.1.0
+		 */
+		private final @NotNull Identifier raw;
+		/**
+		 * The file the image was loaded from
+		 *
+		 * @since 0.1.0
+		 */
+		private final @NotNull File location;
+		/**
+		 * The decoded frames
+		 *
+		 * @since 0.1.0
+		 */
+		private @NotNull SoftReference<BufferedImage[]> frames = new SoftReference<>(null);
+		
+		/**
+		 * Creates a new frame source.
+		 *
+		 * @param raw      The id of the raw image
+		 * @param location The file the image was loaded from
+		 * @since 0.1.0
+		 */
+		public FrameSource(@NotNull Identifier raw, @NotNull File location) {
+			this.raw = raw;
+			this.location = location;
+		}
+		
+		/**
+		 * Gets a frame of the image.
+		 *
+		 * @param index The index of the frame
+		 * @return The frame
+		 * @throws FileNotFoundException If the file is not found
+		 * @since 0.1.0
+		 */
+		public @NotNull BufferedImage getFrame(int index) throws FileNotFoundException {
+			return getFrames()[index];
+		}
+		
+		/**
+		 * Gets all frames of the image, decoding them if necessary.
+		 *
+		 * @return The frames
+		 * @throws FileNotFoundException If the file is not found
+		 * @since 0.1.0
+		 */
+		public synchronized @NotNull BufferedImage[] getFrames() throws FileNotFoundException {
+			BufferedImage[] result = frames.get();
+			if(result == null) {
+				result = getImageFrames(getImage(raw), location);
+				frames = new SoftReference<>(result);
+			}
+			return result;
+		}
+	}
+	
 	/**
 	 * Wrapper for async loading operations. Instances of this class are executed on the {@link Main#getExecutors()} automatically, and they respect the use of {@link #LOADING_OPERATIONS}.
 	 *
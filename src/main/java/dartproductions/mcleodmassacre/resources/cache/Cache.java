@@ -17,8 +17,12 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.function.BiPredicate;
 
 /**
@@ -29,6 +33,17 @@ import java.util.function.BiPredicate;
  */
 public interface Cache<T> extends Identified {
 	@NotNull Logger LOGGER = LogManager.getLogger(Cache.class);
+	/**
+	 * The pool running the {@link #getAsync(Identifier) asynchronous loads} of the caches
+	 *
+	 * @since 0.1.0
+	 */
+	@NotNull ForkJoinPool LOADER_POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool -> {
+		ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		thread.setName("Cache loader " + thread.getPoolIndex());
+		thread.setDaemon(true);
+		return thread;
+	}, (t, e) -> LOGGER.error("Uncaught exception in cache loader thread (" + t.getName() + ")", e), true);
 	
 	/**
 	 * Gets the resource with the specified ID. The resource is loaded if it is not loaded in the cache.
@@ -44,6 +59,21 @@ public interface Cache<T> extends Identified {
 		return getFromCache(id);
 	}
 	
+	/**
+	 * Gets the resource with the specified ID without blocking the calling thread. If the resource is not loaded, it is loaded on the {@link #LOADER_POOL}; concurrent calls for the same resource may share the same load.
+	 *
+	 * @param id The identifier of the resource
+	 * @return The future completed with the resource, or with null if it isn't registered or couldn't be loaded
+	 * @since 0.1.0
+	 */
+	default @NotNull CompletableFuture<T> getAsync(@NotNull Identifier id) {
+		T value = getFromCache(id);
+		if(value != null) {
+			return CompletableFuture.completedFuture(value);
+		}
+		return CompletableFuture.supplyAsync(() -> get(id), LOADER_POOL);
+	}
+	
 	/**
 	 * Gets the specified resource from the cache. Returns null if the identifier is not registered of it is not loaded
 	 *
@@ -53,6 +83,14 @@ public interface Cache<T> extends Identified {
 	 */
 	@Nullable T getFromCache(@NotNull Identifier id);
 	
+	/**
+	 * Gets the statistics of this cache. The statistics are updated by the cache as it is used.
+	 *
+	 * @return The statistics
+	 * @since 0.1.0
+	 */
+	@NotNull CacheStatistics getStatistics();
+	
 	/**
 	 * Gets the parallelization strategy used for loading resources, or for any other long tasks. Although this data is visible to potential callers, implementations are not required to (and generally don't) support changing this strategy. The return value of this method can be used to optimize the calls made to this cache, however, enforcing the specified behaviour is up to the cache.
 	 *
@@ -61,6 +99,17 @@ public interface Cache<T> extends Identified {
 	 */
 	@NotNull ParallelizationStrategy getParallelizationStrategy();
 	
+	/**
+	 * Gets the specified resource if it is loaded, without loading it or blocking the calling thread. Unlike {@link #getFromCache(Identifier)}, this counts as a use of the resource for caches that evict resources on their own.
+	 *
+	 * @param id The identifier of the resource
+	 * @return The resource or null if it is not loaded
+	 * @since 0.1.0
+	 */
+	default @Nullable T getIfPresent(@NotNull Identifier id) {
+		return getFromCache(id);
+	}
+	
 	/**
 	 * Gets the access strategy used for reading cached values. Although this data is visible to potential callers, implementations are not required to (and generally don't) support changing this strategy. The return value of this method can be used to optimize the calls made to this cache, however, enforcing the specified behaviour is up to the cache.
 	 *
@@ -145,6 +194,21 @@ public interface Cache<T> extends Identified {
 		}
 	}
 	
+	/**
+	 * Starts loading the specified resources in the background, if they are not loaded yet. Unregistered resources are ignored.
+	 *
+	 * @param ids The identifiers of the resources
+	 * @see #getAsync(Identifier)
+	 * @since 0.1.0
+	 */
+	default void prefetch(@NotNull Collection<Identifier> ids) {
+		for(Identifier id : ids) {
+			if(!isLoaded(id)) {
+				getAsync(id);
+			}
+		}
+	}
+	
 	/**
 	 * Registers a new resource without providing a specific loader. This can not be used to clear the loader of an existing resource.
 	 *
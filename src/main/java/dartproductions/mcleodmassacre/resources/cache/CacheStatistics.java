@@ -0,0 +1,202 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources.cache;
+
+import dartproductions.mcleodmassacre.engine.profiling.LatencyHistogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The hit, miss, load and eviction counters, load times and memory usage of a {@link Cache}. The counters can be updated from any thread without locking.
+ *
+ * @since 0.1.0
+ */
+public class CacheStatistics implements CacheStatisticsMXBean {
+	/**
+	 * The amount of evictions
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull LongAdder evictions = new LongAdder();
+	/**
+	 * The amount of hits
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull LongAdder hits = new LongAdder();
+	/**
+	 * The amount of failed loads
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull LongAdder loadFailures = new LongAdder();
+	/**
+	 * The durations of all loads, in nanoseconds
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull LatencyHistogram loadTimes = new LatencyHistogram();
+	/**
+	 * The amount of successful loads
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull LongAdder loads = new LongAdder();
+	/**
+	 * The amount of misses
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull LongAdder misses = new LongAdder();
+	/**
+	 * The estimated memory used by the cached resources
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull AtomicLong residentBytes = new AtomicLong();
+	
+	/**
+	 * Changes the estimated memory used by the cached resources.
+	 *
+	 * @param delta The change in bytes
+	 * @since 0.1.0
+	 */
+	public void addResidentBytes(long delta) {
+		if(delta != 0) {
+			residentBytes.addAndGet(delta);
+		}
+	}
+	
+	@Override
+	public long getEvictions() {
+		return evictions.sum();
+	}
+	
+	@Override
+	public double getHitRatio() {
+		long hits = getHits(), requests = hits + getMisses();
+		return requests == 0 ? 1 : (double) hits / requests;
+	}
+	
+	@Override
+	public long getHits() {
+		return hits.sum();
+	}
+	
+	@Override
+	public long getLoadFailures() {
+		return loadFailures.sum();
+	}
+	
+	@Override
+	public double getLoadTimeMax() {
+		return loadTimes.getMax() / 1e6;
+	}
+	
+	@Override
+	public double getLoadTimeMean() {
+		return loadTimes.getMean() / 1e6;
+	}
+	
+	@Override
+	public double getLoadTimeP50() {
+		return loadTimes.getPercentile(50) / 1e6;
+	}
+	
+	@Override
+	public double getLoadTimeP99() {
+		return loadTimes.getPercentile(99) / 1e6;
+	}
+	
+	/**
+	 * Gets the histogram of the load times.
+	 *
+	 * @return The histogram of the load durations in nanoseconds
+	 * @since 0.1.0
+	 */
+	public @NotNull LatencyHistogram getLoadTimes() {
+		return loadTimes;
+	}
+	
+	@Override
+	public long getLoads() {
+		return loads.sum();
+	}
+	
+	@Override
+	public long getMisses() {
+		return misses.sum();
+	}
+	
+	@Override
+	public long getResidentBytes() {
+		return residentBytes.get();
+	}
+	
+	/**
+	 * Counts an eviction.
+	 *
+	 * @since 0.1.0
+	 */
+	public void recordEviction() {
+		evictions.increment();
+	}
+	
+	/**
+	 * Counts a request that found the resource in the cache.
+	 *
+	 * @since 0.1.0
+	 */
+	public void recordHit() {
+		hits.increment();
+	}
+	
+	/**
+	 * Records a finished load.
+	 *
+	 * @param nanos   The duration of the load in nanoseconds
+	 * @param success True if the load created a resource
+	 * @since 0.1.0
+	 */
+	public void recordLoad(long nanos, boolean success) {
+		loadTimes.record(nanos);
+		if(success) {
+			loads.increment();
+		} else {
+			loadFailures.increment();
+		}
+	}
+	
+	/**
+	 * Counts a request that didn't find the resource in the cache.
+	 *
+	 * @since 0.1.0
+	 */
+	public void recordMiss() {
+		misses.increment();
+	}
+	
+	@Override
+	public void reset() {
+		evictions.reset();
+		hits.reset();
+		loadFailures.reset();
+		loadTimes.reset();
+		loads.reset();
+		misses.reset();
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("%d hits, %d misses (%.1f%% hit ratio), %d loads, %d failed, %d evicted, load p50 %.3f ms, p99 %.3f ms, %.1f MB", getHits(), getMisses(), getHitRatio() * 100, getLoads(), getLoadFailures(), getEvictions(), getLoadTimeP50(), getLoadTimeP99(), getResidentBytes() / 1048576.0);
+	}
+}
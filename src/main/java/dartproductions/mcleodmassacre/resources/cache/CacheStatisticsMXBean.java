@@ -0,0 +1,112 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources.cache;
+
+/**
+ * Management interface of the statistics of a cache, exposed over JMX. All durations are in milliseconds.
+ *
+ * @since 0.1.0
+ */
+public interface CacheStatisticsMXBean {
+	/**
+	 * Gets the amount of resources removed by the cache to stay within its budget. Explicitly unloaded resources are not counted.
+	 *
+	 * @return The amount of evictions
+	 * @since 0.1.0
+	 */
+	long getEvictions();
+	
+	/**
+	 * Gets the ratio of requests that found the resource in the cache.
+	 *
+	 * @return The hit ratio between 0 and 1, or 1 if there were no requests
+	 * @since 0.1.0
+	 */
+	double getHitRatio();
+	
+	/**
+	 * Gets the amount of requests that found the resource in the cache.
+	 *
+	 * @return The amount of hits
+	 * @since 0.1.0
+	 */
+	long getHits();
+	
+	/**
+	 * Gets the amount of loads that threw an exception or didn't create a resource.
+	 *
+	 * @return The amount of failed loads
+	 * @since 0.1.0
+	 */
+	long getLoadFailures();
+	
+	/**
+	 * Gets the longest load.
+	 *
+	 * @return The maximum load time
+	 * @since 0.1.0
+	 */
+	double getLoadTimeMax();
+	
+	/**
+	 * Gets the average load time.
+	 *
+	 * @return The mean load time
+	 * @since 0.1.0
+	 */
+	double getLoadTimeMean();
+	
+	/**
+	 * Gets the median load time.
+	 *
+	 * @return The 50th percentile of the load times
+	 * @since 0.1.0
+	 */
+	double getLoadTimeP50();
+	
+	/**
+	 * Gets the 99th percentile of the load times.
+	 *
+	 * @return The 99th percentile of the load times
+	 * @since 0.1.0
+	 */
+	double getLoadTimeP99();
+	
+	/**
+	 * Gets the amount of successful loads.
+	 *
+	 * @return The amount of loads
+	 * @since 0.1.0
+	 */
+	long getLoads();
+	
+	/**
+	 * Gets the amount of requests that didn't find the resource in the cache.
+	 *
+	 * @return The amount of misses
+	 * @since 0.1.0
+	 */
+	long getMisses();
+	
+	/**
+	 * Gets the estimated memory used by the cached resources.
+	 *
+	 * @return The weight of the resources in bytes, or 0 if the cache doesn't {@link Weigher weigh} its resources
+	 * @since 0.1.0
+	 */
+	long getResidentBytes();
+	
+	/**
+	 * Resets the counters and the load times. The resident bytes are not reset.
+	 *
+	 * @since 0.1.0
+	 */
+	void reset();
+}
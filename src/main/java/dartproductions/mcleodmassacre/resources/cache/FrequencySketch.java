@@ -0,0 +1,184 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources.cache;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Estimates how often keys were accessed recently, using a count-min sketch of 4-bit counters. Every key has 4 counters picked by different hash functions; its frequency is the smallest of them, so hash collisions can only overestimate it.
+ * <p>
+ * To keep the estimates recent, all counters are halved after a sample of accesses (10 times the capacity of the sketch). Frequencies are capped at 15. This class is not thread-safe.
+ *
+ * @since 0.1.0
+ */
+public class FrequencySketch {
+	/**
+	 * The largest value of a counter
+	 *
+	 * @since 0.1.0
+	 */
+	public static final int MAX_FREQUENCY = 15;
+	/**
+	 * The seeds of the hash functions of the 4 counters of a key
+	 *
+	 * @since 0.1.0
+	 */
+	private static final long[] SEEDS = {0x97cb3127_2f6b4f3bL, 0xb492b66f_be98f273L, 0x9ae16a3b_2f90404fL, 0xcbf29ce4_84222325L};
+	/**
+	 * Mask for halving 16 counters packed in a long
+	 *
+	 * @since 0.1.0
+	 */
+	private static final long RESET_MASK = 0x7777777777777777L;
+	/**
+	 * The counters; every long holds 16 counters
+	 *
+	 * @since 0.1.0
+	 */
+	protected @NotNull long[] table;
+	/**
+	 * The amount of counted accesses after which the counters are halved
+	 *
+	 * @since 0.1.0
+	 */
+	protected int sampleSize;
+	/**
+	 * The amount of accesses counted since the last halving
+	 *
+	 * @since 0.1.0
+	 */
+	protected int size;
+	
+	/**
+	 * Creates a new sketch.
+	 *
+	 * @param capacity The expected amount of distinct keys
+	 * @since 0.1.0
+	 */
+	public FrequencySketch(int capacity) {
+		table = new long[0];
+		ensureCapacity(capacity);
+	}
+	
+	/**
+	 * Grows the sketch if it is smaller than the specified capacity. Growing clears the counters.
+	 *
+	 * @param capacity The expected amount of distinct keys
+	 * @since 0.1.0
+	 */
+	public void ensureCapacity(int capacity) {
+		int length = Integer.highestOneBit(Math.max(8, Math.min(capacity, 1 << 24)) - 1) << 1;
+		if(length <= table.length) {
+			return;
+		}
+		table = new long[length];
+		sampleSize = 10 * length;
+		size = 0;
+	}
+	
+	/**
+	 * Gets the estimated frequency of a key.
+	 *
+	 * @param key The key
+	 * @return The frequency, between 0 and {@link #MAX_FREQUENCY}
+	 * @since 0.1.0
+	 */
+	public int frequency(@NotNull Object key) {
+		long hash = spread(key.hashCode());
+		int frequency = MAX_FREQUENCY;
+		for(int i = 0; i < SEEDS.length; i++) {
+			long counterHash = hash(hash, i);
+			int shift = getShift(counterHash);
+			frequency = Math.min(frequency, (int) ((table[getIndex(counterHash)] >>> shift) & 15));
+		}
+		return frequency;
+	}
+	
+	/**
+	 * Records an access of a key. The counters are halved if the sample is full.
+	 *
+	 * @param key The key
+	 * @since 0.1.0
+	 */
+	public void increment(@NotNull Object key) {
+		long hash = spread(key.hashCode());
+		boolean added = false;
+		for(int i = 0; i < SEEDS.length; i++) {
+			long counterHash = hash(hash, i);
+			int index = getIndex(counterHash), shift = getShift(counterHash);
+			if(((table[index] >>> shift) & 15) != 15) {
+				table[index] += 1L << shift;
+				added = true;
+			}
+		}
+		if(added && ++size >= sampleSize) {
+			reset();
+		}
+	}
+	
+	/**
+	 * Halves all counters.
+	 *
+	 * @since 0.1.0
+	 */
+	protected void reset() {
+		for(int i = 0; i < table.length; i++) {
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		size /= 2;
+	}
+	
+	/**
+	 * Gets the index of the long holding a counter.
+	 *
+	 * @param counterHash The hash of the counter
+	 * @return The index in the {@link #table}
+	 * @since 0.1.0
+	 */
+	private int getIndex(long counterHash) {
+		return (int) (counterHash >>> 32) & (table.length - 1);
+	}
+	
+	/**
+	 * Gets the position of a counter in its long.
+	 *
+	 * @param counterHash The hash of the counter
+	 * @return The amount of bits to shift the long by
+	 * @since 0.1.0
+	 */
+	private static int getShift(long counterHash) {
+		return ((int) counterHash & 15) << 2;
+	}
+	
+	/**
+	 * Gets the hash of one of the counters of a key.
+	 *
+	 * @param hash    The spread hash of the key
+	 * @param counter The index of the counter
+	 * @return The hash of the counter
+	 * @since 0.1.0
+	 */
+	private static long hash(long hash, int counter) {
+		hash = (hash + SEEDS[counter]) * SEEDS[counter];
+		return hash ^ (hash >>> 29);
+	}
+	
+	/**
+	 * Spreads the bits of a hash code, so similar hash codes get different counters.
+	 *
+	 * @param hashCode The hash code
+	 * @return The spread hash
+	 * @since 0.1.0
+	 */
+	private static long spread(int hashCode) {
+		long hash = hashCode * 0x9e3779b97f4a7c15L;
+		return hash ^ (hash >>> 32);
+	}
+}
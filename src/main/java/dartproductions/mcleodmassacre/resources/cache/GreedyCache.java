@@ -13,13 +13,16 @@ import dartproductions.mcleodmassacre.resources.id.Identifier;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * {@link Cache} implementation that doesn't support unloading, but unlike {@link Registry}, doesn't load the resources when they are registered. Every resource is loaded when it is first accessed, and stay in the cache after that. The loader function for the resource is removed after it is loaded.
+ * {@link Cache} implementation that doesn't support unloading, but unlike {@link Registry}, doesn't load the resources when they are registered. Every resource is loaded when it is first accessed, and stay in the cache after that. The loader function for the resource is removed after it is loaded. If the cache has a {@link Weigher}, the memory used by the cached resources is tracked in its {@link #getStatistics() statistics}.
+ * <p>
+ * The cache is thread-safe. Reading cached resources doesn't lock, and concurrent loads of the same resource are {@link SingleFlight merged} into one call of its loader.
  *
  * @param <T> The type of the stored resource
  * @since 0.1.0
@@ -30,14 +33,14 @@ public class GreedyCache<T> implements Cache<T> {
 	 *
 	 * @since 0.1.0
 	 */
-	protected final @NotNull HashMap<Identifier, T> cache = new HashMap<>();
+	protected final @NotNull ConcurrentHashMap<Identifier, T> cache = new ConcurrentHashMap<>();
 	
 	/**
 	 * The resource loaders
 	 *
 	 * @since 0.1.0
 	 */
-	protected final @NotNull HashMap<Identifier, Callable<T>> loaders = new HashMap<>();
+	protected final @NotNull ConcurrentHashMap<Identifier, Callable<T>> loaders = new ConcurrentHashMap<>();
 	
 	/**
 	 * The identifier of the cache
@@ -47,14 +50,79 @@ public class GreedyCache<T> implements Cache<T> {
 	protected final @NotNull Identifier id;
 	
 	/**
-	 * Creates a new greedy cache.
+	 * The loads in progress
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull SingleFlight<T> flights;
+	
+	/**
+	 * The statistics of the cache
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull CacheStatistics statistics = new CacheStatistics();
+	
+	/**
+	 * The storage used by the {@link #flights}
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull SingleFlight.Storage<T> storage;
+	
+	/**
+	 * Creates a new greedy cache that doesn't weigh its resources.
 	 *
 	 * @param id The identifier of the cache
 	 * @see GreedyCache
 	 * @since 0.1.0
 	 */
 	public GreedyCache(@NotNull Identifier id) {
+		this(id, null);
+	}
+	
+	/**
+	 * Creates a new greedy cache.
+	 *
+	 * @param id      The identifier of the cache
+	 * @param weigher The weigher of the resources, or null if they aren't weighed
+	 * @see GreedyCache
+	 * @since 0.1.0
+	 */
+	public GreedyCache(@NotNull Identifier id, @Nullable Weigher<? super T> weigher) {
 		this.id = id;
+		this.flights = new SingleFlight<>(id, statistics);
+		this.storage = SingleFlight.Storage.of(cache, weigher, statistics);
+	}
+	
+	@Override
+	public @Nullable T get(@NotNull Identifier id) {
+		T value = cache.get(id);
+		if(value != null) {
+			statistics.recordHit();
+			return value;
+		}
+		statistics.recordMiss();
+		Callable<T> loader = loaders.get(id);
+		if(loader == null) {
+			return cache.get(id);//the loader is removed after the resource is stored
+		}
+		return loadValue(id, loader);
+	}
+	
+	@Override
+	public @NotNull CompletableFuture<T> getAsync(@NotNull Identifier id) {
+		T value = cache.get(id);
+		if(value != null) {
+			statistics.recordHit();
+			return CompletableFuture.completedFuture(value);
+		}
+		statistics.recordMiss();
+		Callable<T> loader = loaders.get(id);
+		if(loader == null) {
+			return CompletableFuture.completedFuture(cache.get(id));
+		}
+		return flights.loadAsync(id, () -> loadValue(id, loader));
 	}
 	
 	@Override
@@ -62,6 +130,17 @@ public class GreedyCache<T> implements Cache<T> {
 		return cache.get(id);
 	}
 	
+	@Override
+	public @Nullable T getIfPresent(@NotNull Identifier id) {
+		T value = cache.get(id);
+		if(value == null) {
+			statistics.recordMiss();
+		} else {
+			statistics.recordHit();
+		}
+		return value;
+	}
+	
 	@Override
 	public @NotNull ParallelizationStrategy getParallelizationStrategy() {
 		return ParallelizationStrategy.BALANCED_THREADING;
@@ -80,37 +159,30 @@ public class GreedyCache<T> implements Cache<T> {
 		return set;
 	}
 	
+	@Override
+	public @NotNull CacheStatistics getStatistics() {
+		return statistics;
+	}
+	
 	@Override
 	public @NotNull AccessStrategy getWriteAccessStrategy() {
-		return AccessStrategy.SEQUENTIAL;
+		return AccessStrategy.PARALLEL;
 	}
 	
 	@Override
 	public boolean isLoaded(@NotNull Identifier id) {
-		return cache.get(id) != null;
+		return cache.containsKey(id);
 	}
 	
 	@Override
 	public boolean load(@NotNull Identifier id) {
-		if(isLoaded(id)) {
-			return true;
-		}
-		if(loaders.containsKey(id) && loaders.get(id) != null) {
-			try {
-				cache.put(id, loaders.remove(id).call());
-				return true;
-			} catch(Exception e) {
-				LOGGER.error("Could not call resource loader in cache " + id, e);
-				return false;
-			}
-		}
-		return false;
+		return get(id) != null;
 	}
 	
 	@Override
 	public void register(@NotNull Identifier id, @Nullable Callable<T> loader) {
-		if(loader != null && !loaders.containsKey(id) && !cache.containsKey(id)) {
-			loaders.put(id, loader);
+		if(loader != null && !cache.containsKey(id)) {
+			loaders.putIfAbsent(id, loader);
 		}
 	}
 	
@@ -123,4 +195,20 @@ public class GreedyCache<T> implements Cache<T> {
 	public @NotNull Identifier getId() {
 		return id;
 	}
+	
+	/**
+	 * Loads a resource, and removes its loader if the load succeeded.
+	 *
+	 * @param id     The identifier of the resource
+	 * @param loader The loader of the resource
+	 * @return The loaded resource, or null if it couldn't be loaded
+	 * @since 0.1.0
+	 */
+	protected @Nullable T loadValue(@NotNull Identifier id, @NotNull Callable<T> loader) {
+		T value = flights.load(id, loader, storage);
+		if(value != null) {
+			loaders.remove(id, loader);
+		}
+		return value;
+	}
 }
@@ -13,12 +13,15 @@ import dartproductions.mcleodmassacre.resources.id.Identifier;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * {@link Cache} implementation that doesn't support unloading, and loads all resources as soon as they are registered. Useful for storing resources that can be used by the game at any time.
+ * <p>
+ * The registry is thread-safe, and reading registered resources doesn't lock. The loaders are called on the registering thread, so {@link #getAsync(Identifier)} never waits for a load. If the registry has a {@link Weigher}, the memory used by the resources is tracked in its {@link #getStatistics() statistics}.
  *
  * @param <T> The type of the stored resource
  * @since 0.1.0
@@ -29,7 +32,14 @@ public class Registry<T> implements Cache<T> {
 	 *
 	 * @since 0.1.0
 	 */
-	protected final @NotNull HashMap<Identifier, T> cache = new HashMap<>();
+	protected final @NotNull ConcurrentHashMap<Identifier, T> cache = new ConcurrentHashMap<>();
+	
+	/**
+	 * The registered resources, including the ones without a value
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Set<Identifier> registered = ConcurrentHashMap.newKeySet();
 	
 	/**
 	 * The identifier of the cache
@@ -39,14 +49,51 @@ public class Registry<T> implements Cache<T> {
 	protected final @NotNull Identifier id;
 	
 	/**
-	 * Creates a new registry.
+	 * The statistics of the registry
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull CacheStatistics statistics = new CacheStatistics();
+	
+	/**
+	 * The weigher of the resources, or null if they aren't weighed
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @Nullable Weigher<? super T> weigher;
+	
+	/**
+	 * Creates a new registry that doesn't weigh its resources.
 	 *
 	 * @param id The identifier of the cache
 	 * @see Registry
 	 * @since 0.1.0
 	 */
 	public Registry(@NotNull Identifier id) {
+		this(id, null);
+	}
+	
+	/**
+	 * Creates a new registry.
+	 *
+	 * @param id      The identifier of the cache
+	 * @param weigher The weigher of the resources, or null if they aren't weighed
+	 * @see Registry
+	 * @since 0.1.0
+	 */
+	public Registry(@NotNull Identifier id, @Nullable Weigher<? super T> weigher) {
 		this.id = id;
+		this.weigher = weigher;
+	}
+	
+	@Override
+	public @Nullable T get(@NotNull Identifier id) {
+		return getIfPresent(id);
+	}
+	
+	@Override
+	public @NotNull CompletableFuture<T> getAsync(@NotNull Identifier id) {
+		return CompletableFuture.completedFuture(getIfPresent(id));
 	}
 	
 	@Override
@@ -54,6 +101,17 @@ public class Registry<T> implements Cache<T> {
 		return cache.get(id);
 	}
 	
+	@Override
+	public @Nullable T getIfPresent(@NotNull Identifier id) {
+		T value = cache.get(id);
+		if(value == null) {
+			statistics.recordMiss();
+		} else {
+			statistics.recordHit();
+		}
+		return value;
+	}
+	
 	@Override
 	public @NotNull ParallelizationStrategy getParallelizationStrategy() {
 		return ParallelizationStrategy.BALANCED_THREADING;
@@ -66,17 +124,22 @@ public class Registry<T> implements Cache<T> {
 	
 	@Override
 	public @NotNull Set<Identifier> getRegisteredResources() {
-		return cache.keySet();
+		return registered;
+	}
+	
+	@Override
+	public @NotNull CacheStatistics getStatistics() {
+		return statistics;
 	}
 	
 	@Override
 	public @NotNull AccessStrategy getWriteAccessStrategy() {
-		return AccessStrategy.SEQUENTIAL;
+		return AccessStrategy.PARALLEL;
 	}
 	
 	@Override
 	public boolean isLoaded(@NotNull Identifier id) {
-		return cache.get(id) != null;
+		return cache.containsKey(id);
 	}
 	
 	@Override
@@ -87,8 +150,17 @@ public class Registry<T> implements Cache<T> {
 	@Override
 	public void register(@NotNull Identifier id, @Nullable Callable<T> loader) {
 		try {
-			if(!isLoaded(id) || loader != null) {
-				cache.put(id, loader == null ? null : loader.call());
+			registered.add(id);
+			if(loader != null) {
+				long start = System.nanoTime();
+				T value = null;
+				try {
+					value = loader.call();
+				} finally {
+					statistics.recordLoad(System.nanoTime() - start, value != null);
+				}
+				T previous = value == null ? cache.remove(id) : cache.put(id, value);
+				statistics.addResidentBytes(Weigher.weigh(weigher, value) - Weigher.weigh(weigher, previous));
 			}
 		} catch(Exception e) {
 			LOGGER.warn("Could not load resource to cache", e);
@@ -0,0 +1,239 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources.cache;
+
+import dartproductions.mcleodmassacre.profiling.ResourceLoadEvent;
+import dartproductions.mcleodmassacre.resources.id.Identifier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import static dartproductions.mcleodmassacre.resources.cache.Cache.LOGGER;
+
+/**
+ * Runs the resource loaders of a cache, so that there is at most one load of a resource at any time. Threads loading a resource that is already being loaded wait for that load, and get its result.
+ * <p>
+ * The loads are recorded in the {@link CacheStatistics statistics} of the cache.
+ * <p>
+ * A load can be {@link #cancel(Identifier) cancelled} when the resource is unloaded during the load; the loaded value is then removed from the cache right after it is stored, so the unload is not undone by the load. The waiting threads still get the loaded value.
+ *
+ * @param <T> The type of the loaded resources
+ * @since 0.1.0
+ */
+public class SingleFlight<T> {
+	/**
+	 * The identifier of the cache, used for logging and profiling
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Identifier cacheId;
+	/**
+	 * The loads in progress
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ConcurrentHashMap<Identifier, Flight<T>> flights = new ConcurrentHashMap<>();
+	/**
+	 * The statistics of the cache
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull CacheStatistics statistics;
+	
+	/**
+	 * Creates a new single-flight loader.
+	 *
+	 * @param cacheId    The identifier of the cache
+	 * @param statistics The statistics of the cache
+	 * @since 0.1.0
+	 */
+	public SingleFlight(@NotNull Identifier cacheId, @NotNull CacheStatistics statistics) {
+		this.cacheId = cacheId;
+		this.statistics = statistics;
+	}
+	
+	/**
+	 * Marks the load of a resource in progress as cancelled. Does nothing if the resource is not being loaded.
+	 *
+	 * @param id The identifier of the resource
+	 * @since 0.1.0
+	 */
+	public void cancel(@NotNull Identifier id) {
+		Flight<T> flight = flights.get(id);
+		if(flight != null) {
+			flight.cancelled = true;
+		}
+	}
+	
+	/**
+	 * Gets the future of the load of a resource in progress.
+	 *
+	 * @param id The identifier of the resource
+	 * @return The future completed with the loaded value (or null if the load failed), or null if the resource is not being loaded
+	 * @since 0.1.0
+	 */
+	public @Nullable CompletableFuture<T> getLoading(@NotNull Identifier id) {
+		Flight<T> flight = flights.get(id);
+		return flight == null ? null : flight.future;
+	}
+	
+	/**
+	 * Gets the future of the load of a resource in progress, or starts a load on the {@link Cache#LOADER_POOL}.
+	 *
+	 * @param id   The identifier of the resource
+	 * @param load The function loading the resource, which should call {@link #load(Identifier, Callable, Storage)}
+	 * @return The future completed with the loaded value, or with null if the load failed
+	 * @since 0.1.0
+	 */
+	public @NotNull CompletableFuture<T> loadAsync(@NotNull Identifier id, @NotNull Supplier<T> load) {
+		CompletableFuture<T> loading = getLoading(id);
+		return loading == null ? CompletableFuture.supplyAsync(load, Cache.LOADER_POOL) : loading;
+	}
+	
+	/**
+	 * Loads a resource with its loader and stores it, or waits for the load of the resource that is already in progress. If the resource is already stored when this thread gets to load it, the stored value is returned without calling the loader.
+	 *
+	 * @param id      The identifier of the resource
+	 * @param loader  The loader of the resource
+	 * @param storage The storage of the loaded resources
+	 * @return The loaded resource, or null if it could not be loaded
+	 * @since 0.1.0
+	 */
+	public @Nullable T load(@NotNull Identifier id, @NotNull Callable<T> loader, @NotNull Storage<T> storage) {
+		Flight<T> flight = new Flight<>();
+		Flight<T> existing = flights.putIfAbsent(id, flight);
+		if(existing != null) {
+			return existing.future.join();
+		}
+		T value = storage.get(id);//stored by a load that finished since the caller checked
+		if(value != null) {
+			flights.remove(id, flight);
+			flight.future.complete(value);
+			return value;
+		}
+		ResourceLoadEvent event = new ResourceLoadEvent();
+		event.begin();
+		long start = System.nanoTime();
+		try {
+			value = loader.call();
+			if(value != null) {
+				storage.put(id, value);
+				if(flight.cancelled) {
+					storage.remove(id, value);
+				}
+			}
+			event.success = true;
+		} catch(Exception e) {
+			LOGGER.error("Could not call resource loader in cache " + cacheId, e);
+		} finally {
+			statistics.recordLoad(System.nanoTime() - start, value != null);
+			flights.remove(id, flight);
+			flight.future.complete(value);
+			if(event.shouldCommit()) {
+				event.cache = cacheId.toString();
+				event.resource = id.toString();
+				event.commit();
+			}
+		}
+		return value;
+	}
+	
+	/**
+	 * The storage of the resources loaded by a {@link SingleFlight}.
+	 *
+	 * @param <T> The type of the resources
+	 * @since 0.1.0
+	 */
+	public interface Storage<T> {
+		/**
+		 * Creates a storage that puts the resources into a concurrent map, and keeps the resident bytes of the statistics up to date.
+		 *
+		 * @param map        The map
+		 * @param weigher    The weigher of the resources, or null if they aren't weighed
+		 * @param statistics The statistics of the cache
+		 * @param <T>        The type of the resources
+		 * @return The storage
+		 * @since 0.1.0
+		 */
+		static <T> @NotNull Storage<T> of(@NotNull ConcurrentMap<Identifier, T> map, @Nullable Weigher<? super T> weigher, @NotNull CacheStatistics statistics) {
+			return new Storage<>() {
+				@Override
+				public @Nullable T get(@NotNull Identifier id) {
+					return map.get(id);
+				}
+				
+				@Override
+				public void put(@NotNull Identifier id, @NotNull T value) {
+					statistics.addResidentBytes(Weigher.weigh(weigher, value) - Weigher.weigh(weigher, map.put(id, value)));
+				}
+				
+				@Override
+				public void remove(@NotNull Identifier id, @NotNull T value) {
+					if(map.remove(id, value)) {
+						statistics.addResidentBytes(-Weigher.weigh(weigher, value));
+					}
+				}
+			};
+		}
+		
+		/**
+		 * Gets a stored resource.
+		 *
+		 * @param id The identifier of the resource
+		 * @return The resource or null if not stored
+		 * @since 0.1.0
+		 */
+		@Nullable T get(@NotNull Identifier id);
+		
+		/**
+		 * Stores a loaded resource.
+		 *
+		 * @param id    The identifier of the resource
+		 * @param value The resource
+		 * @since 0.1.0
+		 */
+		void put(@NotNull Identifier id, @NotNull T value);
+		
+		/**
+		 * Removes a stored resource, if it is still the stored value.
+		 *
+		 * @param id    The identifier of the resource
+		 * @param value The resource
+		 * @since 0.1.0
+		 */
+		void remove(@NotNull Identifier id, @NotNull T value);
+	}
+	
+	/**
+	 * A load in progress.
+	 *
+	 * @param <T> The type of the loaded resource
+	 * @since 0.1.0
+	 */
+	protected static class Flight<T> {
+		/**
+		 * The future completed when the load is done
+		 *
+		 * @since 0.1.0
+		 */
+		protected final @NotNull CompletableFuture<T> future = new CompletableFuture<>();
+		/**
+		 * Whether the resource was unloaded during the load
+		 *
+		 * @since 0.1.0
+		 */
+		protected volatile boolean cancelled = false;
+	}
+}
@@ -13,12 +13,15 @@ import dartproductions.mcleodmassacre.resources.id.Identifier;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * A cache that support loading and unloading resources. Resources are not loaded by default.
+ * A cache that support loading and unloading resources. Resources are not loaded by default. If the cache has a {@link Weigher}, the memory used by the cached resources is tracked in its {@link #getStatistics() statistics}.
+ * <p>
+ * The cache is thread-safe. Reading cached resources doesn't lock; concurrent loads of the same resource are {@link SingleFlight merged} into one call of its loader, and unloading a resource during its load is not undone by the load.
  *
  * @since 0.1.0
  */
@@ -28,7 +31,7 @@ public class StandardCache<T> implements Cache<T> {
 	 *
 	 * @since 0.1.0
 	 */
-	protected final @NotNull HashMap<Identifier, T> cache = new HashMap<>();
+	protected final @NotNull ConcurrentHashMap<Identifier, T> cache = new ConcurrentHashMap<>();
 	/**
 	 * The identifier of the cache
 	 *
@@ -40,16 +43,84 @@ public class StandardCache<T> implements Cache<T> {
 	 *
 	 * @since 0.1.0
 	 */
-	protected final @NotNull HashMap<Identifier, Callable<T>> loaders = new HashMap<>();
+	protected final @NotNull ConcurrentHashMap<Identifier, Callable<T>> loaders = new ConcurrentHashMap<>();
+	/**
+	 * The registered resources, including the ones without a loader
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Set<Identifier> registered = ConcurrentHashMap.newKeySet();
+	/**
+	 * The loads in progress
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull SingleFlight<T> flights;
+	/**
+	 * The statistics of the cache
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull CacheStatistics statistics = new CacheStatistics();
+	/**
+	 * The storage used by the {@link #flights}
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull SingleFlight.Storage<T> storage;
+	/**
+	 * The weigher of the resources, or null if they aren't weighed
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @Nullable Weigher<? super T> weigher;
 	
 	/**
-	 * Creates a new standard cache.
+	 * Creates a new standard cache that doesn't weigh its resources.
 	 *
 	 * @param id The id of the cache
 	 * @since 0.1.0
 	 */
 	public StandardCache(@NotNull Identifier id) {
+		this(id, null);
+	}
+	
+	/**
+	 * Creates a new standard cache.
+	 *
+	 * @param id      The id of the cache
+	 * @param weigher The weigher of the resources, or null if they aren't weighed
+	 * @since 0.1.0
+	 */
+	public StandardCache(@NotNull Identifier id, @Nullable Weigher<? super T> weigher) {
 		this.id = id;
+		this.weigher = weigher;
+		this.flights = new SingleFlight<>(id, statistics);
+		this.storage = SingleFlight.Storage.of(cache, weigher, statistics);
+	}
+	
+	@Override
+	public @Nullable T get(@NotNull Identifier id) {
+		T value = cache.get(id);
+		if(value != null) {
+			statistics.recordHit();
+			return value;
+		}
+		statistics.recordMiss();
+		Callable<T> loader = loaders.get(id);
+		return loader == null ? null : flights.load(id, loader, storage);
+	}
+	
+	@Override
+	public @NotNull CompletableFuture<T> getAsync(@NotNull Identifier id) {
+		T value = cache.get(id);
+		if(value != null) {
+			statistics.recordHit();
+			return CompletableFuture.completedFuture(value);
+		}
+		statistics.recordMiss();
+		Callable<T> loader = loaders.get(id);
+		return loader == null ? CompletableFuture.completedFuture(null) : flights.loadAsync(id, () -> flights.load(id, loader, storage));
 	}
 	
 	@Override
@@ -57,6 +128,17 @@ public class StandardCache<T> implements Cache<T> {
 		return cache.get(id);
 	}
 	
+	@Override
+	public @Nullable T getIfPresent(@NotNull Identifier id) {
+		T value = cache.get(id);
+		if(value == null) {
+			statistics.recordMiss();
+		} else {
+			statistics.recordHit();
+		}
+		return value;
+	}
+	
 	@Override
 	public @NotNull ParallelizationStrategy getParallelizationStrategy() {
 		return ParallelizationStrategy.BALANCED_THREADING;
@@ -69,51 +151,44 @@ public class StandardCache<T> implements Cache<T> {
 	
 	@Override
 	public @NotNull Set<Identifier> getRegisteredResources() {
-		return loaders.keySet();
+		return registered;
+	}
+	
+	@Override
+	public @NotNull CacheStatistics getStatistics() {
+		return statistics;
 	}
 	
 	@Override
 	public @NotNull AccessStrategy getWriteAccessStrategy() {
-		return AccessStrategy.SEQUENTIAL;
+		return AccessStrategy.PARALLEL;
 	}
 	
 	@Override
 	public boolean isLoaded(@NotNull Identifier id) {
-		return cache.get(id) != null;
+		return cache.containsKey(id);
 	}
 	
 	@Override
 	public boolean load(@NotNull Identifier id) {
-		if(isLoaded(id)) {
-			return true;
-		}
-		if(loaders.containsKey(id) && loaders.get(id) != null) {
-			try {
-				cache.put(id, loaders.get(id).call());
-				return true;
-			} catch(Exception e) {
-				LOGGER.error("Could not call resource loader in cache " + id, e);
-				return false;
-			}
-		}
-		return false;
+		return get(id) != null;
 	}
 	
 	@Override
 	public void register(@NotNull Identifier id, @Nullable Callable<T> loader) {
-		if(loader != null || !loaders.containsKey(id)) {
+		if(loader != null) {
 			loaders.put(id, loader);
 		}
+		registered.add(id);
 	}
 	
 	@Override
 	public boolean unload(@NotNull Identifier id) {
-		if(!loaders.containsKey(id)) {
+		if(!registered.contains(id)) {
 			return false;
 		}
-		if(isLoaded(id)) {
-			cache.remove(id);
-		}
+		flights.cancel(id);
+		statistics.addResidentBytes(-Weigher.weigh(weigher, cache.remove(id)));
 		return true;
 	}
 	
@@ -0,0 +1,463 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources.cache;
+
+import dartproductions.mcleodmassacre.resources.id.Identifier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A cache that supports loading and unloading resources, and evicts resources on its own to stay within a byte budget. Resources are weighed with a {@link Weigher} when they are loaded.
+ * <p>
+ * Eviction follows the W-TinyLFU policy. Newly loaded resources enter a small LRU window (1% of the budget). Resources leaving the window are candidates for the main space, which is split into a probation and a protected (80%) LRU segment; resources accessed while on probation are promoted to the protected segment. A candidate is only admitted to a full main space if its estimated access {@link FrequencySketch frequency} is higher than that of the resource it would replace, so a single pass over many resources can't flush the frequently used ones.
+ * <p>
+ * Resources are not loaded by default. A resource heavier than the whole budget is still returned by {@link #get(Identifier)}, but it isn't kept in the cache.
+ * <p>
+ * The cache is thread-safe. Reading cached resources doesn't wait for a lock: the resources are in a concurrent map, and the segments and the sketch are guarded by a {@link #lock} that is only tried on reads, so an access is not recorded while another thread holds it. Concurrent loads of the same resource are {@link SingleFlight merged} into one call of its loader, which runs without holding the lock.
+ *
+ * @param <T> The type of the stored resource
+ * @since 0.1.0
+ */
+public class TinyLfuCache<T> implements Cache<T> {
+	/**
+	 * The ratio of the budget used by the window
+	 *
+	 * @since 0.1.0
+	 */
+	public static final double WINDOW_RATIO = 0.01;
+	/**
+	 * The ratio of the main space used by the protected segment
+	 *
+	 * @since 0.1.0
+	 */
+	public static final double PROTECTED_RATIO = 0.8;
+	/**
+	 * The cached resources
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ConcurrentHashMap<Identifier, T> cache = new ConcurrentHashMap<>();
+	/**
+	 * The identifier of the cache
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Identifier id;
+	/**
+	 * The resource loaders
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ConcurrentHashMap<Identifier, Callable<T>> loaders = new ConcurrentHashMap<>();
+	/**
+	 * The registered resources, including the ones without a loader
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Set<Identifier> registered = ConcurrentHashMap.newKeySet();
+	/**
+	 * The lock guarding the segments, the weights and the sketch
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull ReentrantLock lock = new ReentrantLock();
+	/**
+	 * The storage used by the {@link #flights}, which adds loaded resources to the window
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull SingleFlight.Storage<T> storage = new SingleFlight.Storage<>() {
+		@Override
+		public @Nullable T get(@NotNull Identifier id) {
+			return cache.get(id);
+		}
+		
+		@Override
+		public void put(@NotNull Identifier id, @NotNull T value) {
+			lock.lock();
+			try {
+				add(id, value);
+			} finally {
+				lock.unlock();
+			}
+		}
+		
+		@Override
+		public void remove(@NotNull Identifier id, @NotNull T value) {
+			lock.lock();
+			try {
+				if(cache.get(id) == value) {
+					TinyLfuCache.this.remove(id);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	};
+	/**
+	 * The window segment, from the least to the most recently used resource; the values are the weights
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull LinkedHashMap<Identifier, Long> window = new LinkedHashMap<>();
+	/**
+	 * The probation segment, from the least to the most recently used resource; the values are the weights
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull LinkedHashMap<Identifier, Long> probation = new LinkedHashMap<>();
+	/**
+	 * The protected segment, from the least to the most recently used resource; the values are the weights
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull LinkedHashMap<Identifier, Long> protectedSegment = new LinkedHashMap<>();
+	/**
+	 * The access frequencies of the resources
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull FrequencySketch sketch = new FrequencySketch(64);
+	/**
+	 * The weigher of the resources
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull Weigher<? super T> weigher;
+	/**
+	 * The byte budget of the cache
+	 *
+	 * @since 0.1.0
+	 */
+	protected final long maximumWeight;
+	/**
+	 * The statistics of the cache
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull CacheStatistics statistics = new CacheStatistics();
+	/**
+	 * The loads in progress
+	 *
+	 * @since 0.1.0
+	 */
+	protected final @NotNull SingleFlight<T> flights;
+	/**
+	 * The total weight of the cached resources
+	 *
+	 * @since 0.1.0
+	 */
+	protected long weight;
+	/**
+	 * The total weight of the resources in the window
+	 *
+	 * @since 0.1.0
+	 */
+	protected long windowWeight;
+	/**
+	 * The total weight of the resources in the protected segment
+	 *
+	 * @since 0.1.0
+	 */
+	protected long protectedWeight;
+	
+	/**
+	 * Creates a new cache.
+	 *
+	 * @param id            The identifier of the cache
+	 * @param maximumWeight The byte budget of the cache
+	 * @param weigher       The weigher of the resources
+	 * @throws IllegalArgumentException If the budget is negative
+	 * @since 0.1.0
+	 */
+	public TinyLfuCache(@NotNull Identifier id, long maximumWeight, @NotNull Weigher<? super T> weigher) throws IllegalArgumentException {
+		if(maximumWeight < 0) {
+			throw new IllegalArgumentException("Negative cache budget: " + maximumWeight);
+		}
+		this.id = id;
+		this.maximumWeight = maximumWeight;
+		this.weigher = weigher;
+		this.flights = new SingleFlight<>(id, statistics);
+	}
+	
+	@Override
+	public @Nullable T get(@NotNull Identifier id) {
+		T value = getIfPresent(id);
+		if(value != null) {
+			return value;
+		}
+		Callable<T> loader = loaders.get(id);
+		return loader == null ? null : flights.load(id, loader, storage);
+	}
+	
+	@Override
+	public @NotNull CompletableFuture<T> getAsync(@NotNull Identifier id) {
+		T value = getIfPresent(id);
+		if(value != null) {
+			return CompletableFuture.completedFuture(value);
+		}
+		Callable<T> loader = loaders.get(id);
+		return loader == null ? CompletableFuture.completedFuture(null) : flights.loadAsync(id, () -> flights.load(id, loader, storage));
+	}
+	
+	@Override
+	public @Nullable T getFromCache(@NotNull Identifier id) {
+		return cache.get(id);
+	}
+	
+	@Override
+	public @Nullable T getIfPresent(@NotNull Identifier id) {
+		T value = cache.get(id);
+		if(value == null) {
+			statistics.recordMiss();
+		} else {
+			statistics.recordHit();
+			tryAccess(id);
+		}
+		return value;
+	}
+	
+	/**
+	 * Gets the byte budget of this cache.
+	 *
+	 * @return The budget in bytes
+	 * @since 0.1.0
+	 */
+	public long getMaximumWeight() {
+		return maximumWeight;
+	}
+	
+	@Override
+	public @NotNull ParallelizationStrategy getParallelizationStrategy() {
+		return ParallelizationStrategy.BALANCED_THREADING;
+	}
+	
+	@Override
+	public @NotNull AccessStrategy getReadAccessStrategy() {
+		return AccessStrategy.PARALLEL;
+	}
+	
+	@Override
+	public @NotNull Set<Identifier> getRegisteredResources() {
+		return registered;
+	}
+	
+	/**
+	 * Gets the total weight of the cached resources.
+	 *
+	 * @return The weight in bytes
+	 * @since 0.1.0
+	 */
+	public long getWeight() {
+		lock.lock();
+		try {
+			return weight;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public @NotNull CacheStatistics getStatistics() {
+		return statistics;
+	}
+	
+	@Override
+	public @NotNull AccessStrategy getWriteAccessStrategy() {
+		return AccessStrategy.PARALLEL;
+	}
+	
+	@Override
+	public boolean isLoaded(@NotNull Identifier id) {
+		return cache.containsKey(id);
+	}
+	
+	@Override
+	public boolean load(@NotNull Identifier id) {
+		return get(id) != null && isLoaded(id);
+	}
+	
+	@Override
+	public void register(@NotNull Identifier id, @Nullable Callable<T> loader) {
+		if(loader != null) {
+			loaders.put(id, loader);
+		}
+		if(registered.add(id)) {
+			lock.lock();
+			try {
+				sketch.ensureCapacity(registered.size());
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+	
+	@Override
+	public boolean unload(@NotNull Identifier id) {
+		if(!registered.contains(id)) {
+			return false;
+		}
+		flights.cancel(id);
+		lock.lock();
+		try {
+			remove(id);
+		} finally {
+			lock.unlock();
+		}
+		return true;
+	}
+	
+	@Override
+	public @NotNull Identifier getId() {
+		return id;
+	}
+	
+	/**
+	 * Adds a candidate leaving the window to the main space. If the main space is full, the candidate and the least recently used resources of the main space are compared by their frequency, and the less frequently used one is evicted until there is enough space or the candidate is evicted.
+	 *
+	 * @param candidate The candidate
+	 * @param weight    The weight of the candidate
+	 * @since 0.1.0
+	 */
+	protected void admit(@NotNull Identifier candidate, long weight) {
+		while(this.weight > maximumWeight) {
+			Identifier victim = getEldest(probation.isEmpty() ? protectedSegment : probation);
+			if(victim == null || weight > maximumWeight || sketch.frequency(candidate) <= sketch.frequency(victim)) {
+				cache.remove(candidate);
+				this.weight -= weight;
+				statistics.addResidentBytes(-weight);
+				statistics.recordEviction();
+				return;
+			}
+			remove(victim);
+			statistics.recordEviction();
+		}
+		probation.put(candidate, weight);
+	}
+	
+	/**
+	 * Evicts resources until the cache is within its budget. Resources leaving the window are {@link #admit(Identifier, long) admitted} to the main space one by one.
+	 *
+	 * @since 0.1.0
+	 */
+	protected void evict() {
+		long windowMaximum = (long) (maximumWeight * WINDOW_RATIO);
+		while(windowWeight > windowMaximum || (weight > maximumWeight && !window.isEmpty())) {
+			Identifier candidate = getEldest(window);
+			long candidateWeight = window.remove(candidate);
+			windowWeight -= candidateWeight;
+			admit(candidate, candidateWeight);
+		}
+	}
+	
+	/**
+	 * Adds a loaded resource to the window, and evicts resources to stay within the budget. Must be called while holding the {@link #lock}.
+	 *
+	 * @param id    The identifier of the resource
+	 * @param value The resource
+	 * @since 0.1.0
+	 */
+	protected void add(@NotNull Identifier id, @NotNull T value) {
+		remove(id);
+		long valueWeight = Math.max(0, weigher.weigh(value));
+		sketch.increment(id);
+		cache.put(id, value);
+		window.put(id, valueWeight);
+		windowWeight += valueWeight;
+		weight += valueWeight;
+		statistics.addResidentBytes(valueWeight);
+		evict();
+	}
+	
+	/**
+	 * Records an access of a cached resource. Resources in the window and the protected segment become the most recently used, and resources on probation are promoted to the protected segment.
+	 *
+	 * @param id The identifier of the resource
+	 * @since 0.1.0
+	 */
+	protected void onAccess(@NotNull Identifier id) {
+		sketch.increment(id);
+		if(window.containsKey(id)) {
+			window.put(id, window.remove(id));
+		} else if(protectedSegment.containsKey(id)) {
+			protectedSegment.put(id, protectedSegment.remove(id));
+		} else if(probation.containsKey(id)) {
+			long valueWeight = probation.remove(id);
+			protectedSegment.put(id, valueWeight);
+			protectedWeight += valueWeight;
+			long protectedMaximum = (long) ((maximumWeight - (long) (maximumWeight * WINDOW_RATIO)) * PROTECTED_RATIO);
+			while(protectedWeight > protectedMaximum && protectedSegment.size() > 1) {
+				Identifier demoted = getEldest(protectedSegment);
+				long demotedWeight = protectedSegment.remove(demoted);
+				protectedWeight -= demotedWeight;
+				probation.put(demoted, demotedWeight);
+			}
+		}
+	}
+	
+	/**
+	 * Removes a resource from the cache and its segment.
+	 *
+	 * @param id The identifier of the resource
+	 * @since 0.1.0
+	 */
+	protected void remove(@NotNull Identifier id) {
+		if(cache.remove(id) == null) {
+			return;
+		}
+		long valueWeight;
+		if(window.containsKey(id)) {
+			valueWeight = window.remove(id);
+			windowWeight -= valueWeight;
+		} else if(protectedSegment.containsKey(id)) {
+			valueWeight = protectedSegment.remove(id);
+			protectedWeight -= valueWeight;
+		} else {
+			valueWeight = probation.getOrDefault(id, 0L);
+			probation.remove(id);
+		}
+		weight -= valueWeight;
+		statistics.addResidentBytes(-valueWeight);
+	}
+	
+	/**
+	 * {@link #onAccess(Identifier) Records an access} of a cached resource if the {@link #lock} is free. The access is not recorded if another thread holds the lock, so reading a resource never waits.
+	 *
+	 * @param id The identifier of the resource
+	 * @since 0.1.0
+	 */
+	protected void tryAccess(@NotNull Identifier id) {
+		if(lock.tryLock()) {
+			try {
+				onAccess(id);
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the least recently used resource of a segment.
+	 *
+	 * @param segment The segment
+	 * @return The resource or null if the segment is empty
+	 * @since 0.1.0
+	 */
+	private static @Nullable Identifier getEldest(@NotNull LinkedHashMap<Identifier, Long> segment) {
+		return segment.isEmpty() ? null : segment.keySet().iterator().next();
+	}
+}
@@ -0,0 +1,71 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources.cache;
+
+import dartproductions.mcleodmassacre.hitbox.BitmaskHitbox;
+import dartproductions.mcleodmassacre.hitbox.ImageHitbox;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Image;
+
+/**
+ * Calculates the approximate memory used by cached resources.
+ *
+ * @param <T> The type of the resources
+ * @see TinyLfuCache
+ * @since 0.1.0
+ */
+@FunctionalInterface
+public interface Weigher<T> {
+	/**
+	 * Weighs images as 4 bytes per pixel, which is the size of a decoded ARGB image. Images with unknown dimensions weigh nothing.
+	 *
+	 * @since 0.1.0
+	 */
+	@NotNull Weigher<Image> IMAGE = image -> Math.max(0L, image.getWidth(null)) * Math.max(0L, image.getHeight(null)) * 4L;
+	/**
+	 * Weighs byte arrays by their length.
+	 *
+	 * @since 0.1.0
+	 */
+	@NotNull Weigher<byte[]> BYTES = bytes -> bytes.length;
+	/**
+	 * Weighs hitboxes by the size of their bitmask. The lazily created areas and rectangles are not counted.
+	 *
+	 * @since 0.1.0
+	 */
+	@NotNull Weigher<ImageHitbox> HITBOX = hitbox -> {
+		BitmaskHitbox mask = hitbox.getMask();
+		return (mask.getWidth() + 63L) / 64 * mask.getHeight() * 8;
+	};
+	
+	/**
+	 * Gets the weight of a resource with an optional weigher.
+	 *
+	 * @param weigher The weigher, or null if the resources aren't weighed
+	 * @param value   The resource, or null
+	 * @param <T>     The type of the resource
+	 * @return The weight in bytes, or 0 if there is no weigher or resource
+	 * @since 0.1.0
+	 */
+	static <T> long weigh(@Nullable Weigher<? super T> weigher, @Nullable T value) {
+		return weigher == null || value == null ? 0 : Math.max(0, weigher.weigh(value));
+	}
+	
+	/**
+	 * Gets the weight of a resource.
+	 *
+	 * @param value The resource
+	 * @return The weight in bytes; must not be negative
+	 * @since 0.1.0
+	 */
+	long weigh(@NotNull T value);
+}
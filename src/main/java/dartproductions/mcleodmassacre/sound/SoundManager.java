@@ -13,6 +13,7 @@ import dartproductions.mcleodmassacre.GameState;
 import dartproductions.mcleodmassacre.Main;
 import dartproductions.mcleodmassacre.entity.Entity;
 import dartproductions.mcleodmassacre.graphics.ResolutionManager;
+import dartproductions.mcleodmassacre.profiling.ClipCreationEvent;
 import dartproductions.mcleodmassacre.resources.ResourceManager;
 import dartproductions.mcleodmassacre.resources.id.Identifier;
 import dartproductions.mcleodmassacre.util.Pair;
@@ -58,6 +59,12 @@ public class SoundManager {
 	 * @since 0.1.0
 	 */
 	private static final @NotNull ConcurrentHashMap<Identifier, ArrayList<Pair<Entity, ResumableClip>>> ACTIVE_SFX = new ConcurrentHashMap<>();
+	/**
+	 * True if audio output is enabled. Audio is disabled in {@link Main#isHeadless() headless mode}, where every method of this class is a no-op.
+	 *
+	 * @since 0.1.0
+	 */
+	private static final boolean ENABLED = !Main.isHeadless();
 	/**
 	 * Clip used to avoid the 'pop' when playing music/sfx
 	 *
@@ -98,7 +105,9 @@ public class SoundManager {
 	static {
 		Clip clip = null;
 		try {
-			clip = AudioSystem.getClip(null);
+			if(ENABLED) {
+				clip = AudioSystem.getClip(null);
+			}
 		} catch(Exception e) {
 			LOGGER.error("Could not create clip for sound engine", e);
 			Main.panic("Could not initialize sound engine");
@@ -207,6 +216,9 @@ public class SoundManager {
 	 * @since 0.1.0
 	 */
 	public static void playEffect(final @NotNull Identifier id, final @Nullable Entity entity) {
+		if(!ENABLED) {
+			return;
+		}
 		Main.getExecutors().execute(() -> {
 			try {
 				ResumableClip clip = null;
@@ -220,8 +232,16 @@ public class SoundManager {
 					}
 				}
 				if(clip == null) {//not found in buffer -> create new clip
+					ClipCreationEvent creation = new ClipCreationEvent();
+					creation.begin();
+					byte[] audio = ResourceManager.getAudio(id);
 					clip = ResumableClip.createFromClip(AudioSystem.getClip(null));
-					clip.open(AudioSystem.getAudioInputStream(new ByteArrayInputStream(ResourceManager.getAudio(id))));
+					clip.open(AudioSystem.getAudioInputStream(new ByteArrayInputStream(audio)));
+					if(creation.shouldCommit()) {
+						creation.resource = id.toString();
+						creation.size = audio.length;
+						creation.commit();
+					}
 					clip.start();
 					final ResumableClip clip_ = clip;
 					clip.addLineListener(event -> {//deactivating clip when done
@@ -269,6 +289,9 @@ public class SoundManager {
 	 * @since 0.1.0
 	 */
 	public static void playMusic(@Nullable Identifier category) {
+		if(!ENABLED) {
+			return;
+		}
 		try {
 			stopAllMusic();
 			ImmutableNullsafePair<Identifier, byte[]> pair = ResourceManager.getRandomAudio(category);
@@ -347,7 +370,7 @@ public class SoundManager {
 	 * @since 0.1.0
 	 */
 	public static synchronized void updateBackgroundMusic() {
-		if(Main.getGameState() != GameState.IN_GAME_PAUSED) {
+		if(ENABLED && Main.getGameState() != GameState.IN_GAME_PAUSED) {
 			if(BACKGROUND_MUSIC == null || !BACKGROUND_MUSIC.isOpen() || !ResourceManager.hasTag(BACKGROUND_MUSIC_NAME, Main.getGameState().getBackgroundMusicTag(Main.getNextState()))) {
 				if(!(FUCK_THIS.isRunning() || FUCK_THIS.isOpen())) {
 					try {
@@ -0,0 +1,80 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.engine;
+
+import dartproductions.mcleodmassacre.entity.TestEntity;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityRegistryTest {
+	private static @NotNull TestEntity createEntity(boolean collision, boolean movable) {
+		return new TestEntity(new Point()).setCollision(collision, collision).setMovable(movable);
+	}
+	
+	@Test
+	void detectsStaleHandles() {
+		EntityRegistry registry = new EntityRegistry(1);
+		TestEntity first = createEntity(true, true), second = createEntity(false, false);
+		EntityHandle handle = registry.add(first);
+		assertNotNull(handle);
+		assertNull(registry.add(first));//already registered
+		assertSame(first, registry.get(handle));
+		assertTrue(registry.remove(handle));
+		assertFalse(registry.isValid(handle));
+		assertFalse(registry.remove(handle));
+		assertFalse(registry.remove(first));
+		EntityHandle reused = registry.add(second);
+		assertNotNull(reused);
+		assertEquals(handle.getIndex(), reused.getIndex());//the slot is reused...
+		assertNotEquals(handle, reused);
+		assertNull(registry.get(handle));//...but the old handle stays stale
+		assertSame(second, registry.get(reused));
+	}
+	
+	@Test
+	void keepsCategoriesDense() {
+		EntityRegistry registry = new EntityRegistry(4);
+		List<TestEntity> entities = new ArrayList<>();
+		for(int i = 0; i < 100; i++) {
+			TestEntity entity = createEntity(i % 2 == 0, i % 3 == 0);
+			entities.add(entity);
+			registry.add(entity);
+		}
+		for(int i = 0; i < 100; i += 5) {
+			assertTrue(registry.remove(entities.get(i)));
+		}
+		assertEquals(80, registry.size());
+		for(int i = 0; i < 100; i++) {
+			TestEntity entity = entities.get(i);
+			boolean present = i % 5 != 0;
+			assertEquals(present, registry.contains(entity));
+			assertEquals(present && entity.hasCollision(), registry.getCollidable().contains(entity));
+			assertEquals(present && entity.isMovable(), registry.getMovable().contains(entity));
+		}
+		assertEquals(80, new HashSet<>(registry.getAll()).size());
+		assertEquals(40, registry.getCollidable().size());
+		assertEquals(27, registry.getMovable().size());
+		assertTrue(registry.getPlayers().isEmpty());
+	}
+}
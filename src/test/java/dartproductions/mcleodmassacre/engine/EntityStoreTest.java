@@ -0,0 +1,101 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine;
+
+import dartproductions.mcleodmassacre.entity.TestEntity;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class EntityStoreTest {
+	private static List<TestEntity> createEntities(long seed) {
+		Random random = new Random(seed);
+		List<TestEntity> entities = new ArrayList<>();
+		for(int i = 0; i < 100; i++) {
+			TestEntity entity = new TestEntity(new Point(random.nextInt(1000), random.nextInt(1000)));
+			entity.setGravity(random.nextInt(3));
+			entity.setDecelerationX(random.nextInt(3));
+			entity.setDecelerationY(random.nextInt(2));
+			entity.setMaxSpeedX(random.nextInt(20) - 5);
+			entity.setMaxSpeedY(random.nextInt(20) - 5);
+			entity.getVelocity().setSize(random.nextInt(41) - 20, random.nextInt(41) - 20);
+			entities.add(entity);
+		}
+		return entities;
+	}
+	
+	@Test
+	void movesLikeEntityMove() {
+		List<TestEntity> expected = createEntities(11), actual = createEntities(11);
+		EntityStore store = new EntityStore(4);
+		actual.forEach(store::add);
+		for(int frame = 0; frame < 50; frame++) {
+			expected.forEach(TestEntity::move);//not stored, moves like any other entity
+			store.integrate();
+			if(frame == 20) {//changes made through the setters are picked up
+				expected.get(3).move(5, 5);
+				actual.get(3).move(5, 5);
+				expected.get(4).setGravity(7);
+				actual.get(4).setGravity(7);
+			}
+		}
+		for(int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getLocation(), actual.get(i).getLocation());
+			assertEquals(expected.get(i).getVelocity(), actual.get(i).getVelocity());
+		}
+	}
+	
+	@Test
+	void keepsTheStateInTheSlots() {
+		List<TestEntity> entities = createEntities(7);
+		EntityStore store = new EntityStore();
+		entities.forEach(store::add);
+		TestEntity entity = entities.get(0);
+		entity.setLocation(40, 50);
+		entity.accelerate(1, 2);
+		entity.setGravity(9);
+		assertEquals(40, store.getX(0));
+		assertEquals(50, store.getY(0));
+		assertEquals(entity.getVelocity().width, store.getVelocityX(0));
+		assertEquals(9, store.getGravity(0));
+		entity.getLocation().translate(100, 100);//not a view of the slot
+		assertEquals(new Point(40, 50), entity.getLocation());
+		store.setVelocity(0, 3, 4);
+		store.remove(entity);//moves the last entity into the slot
+		assertEquals(new Point(40, 50), entity.getLocation());
+		assertEquals(3, entity.getVelocity().width);
+		assertEquals(9, entity.getGravity());
+		entity.setGravity(2);
+		assertEquals(2, entity.getGravity());
+		assertSame(entities.get(99), store.getEntity(0));
+		assertEquals(entities.get(99).getGravity(), store.getGravity(0));
+	}
+	
+	@Test
+	void keepsSlotsDense() {
+		List<TestEntity> entities = createEntities(5);
+		EntityStore store = new EntityStore();
+		entities.forEach(store::add);
+		store.remove(entities.get(10));
+		assertEquals(99, store.size());
+		assertNull(entities.get(10).getStore());
+		assertSame(entities.get(99), store.getEntity(10));
+		assertEquals(10, entities.get(99).getSlot());
+		store.remove(entities.get(10));//not stored anymore
+		assertEquals(99, store.size());
+	}
+}
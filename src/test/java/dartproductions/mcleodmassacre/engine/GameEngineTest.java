@@ -0,0 +1,89 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine;
+
+import dartproductions.mcleodmassacre.entity.TestEntity;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameEngineTest {
+	/**
+	 * Simulates a falling entity for 900 ms, and schedules a task for 10 default frames later.
+	 *
+	 * @return The location of the entity, and the delay of the task (in milliseconds)
+	 */
+	private static @NotNull long[] simulate() {
+		World world = new World("test");
+		TestEntity entity = new TestEntity(new Point());
+		entity.getVelocity().setSize(3, -10);
+		entity.setGravity(1);
+		entity.setDecelerationX(1);
+		world.registerEntity(entity);
+		AtomicLong taskDelay = new AtomicLong(-1);
+		world.scheduleTask(0, () -> {
+			long scheduled = world.getFrame();
+			GameEngine.scheduleTask(10, () -> taskDelay.set((world.getFrame() - scheduled) * GameEngine.getFrameLengthNano() / 1000000));
+		});
+		for(long time = 0; time < 900L * 1000000; time += GameEngine.getFrameLengthNano()) {
+			world.tick();
+		}
+		return new long[] {entity.getLocation().x, entity.getLocation().y, taskDelay.get()};
+	}
+	
+	@Test
+	void convertsDefaultFramesToTicks() {
+		assertEquals(5, GameEngine.toTicks(5));
+		try {
+			GameEngine.setTickRate(100);
+			assertEquals(15, GameEngine.toTicks(5));
+			GameEngine.setTickRate(20);
+			assertEquals(3, GameEngine.toTicks(5));
+		} finally {
+			GameEngine.frameLength = GameEngine.DEFAULT_FRAME_LENGTH_NANO;
+		}
+	}
+	
+	@Test
+	void runsPhysicsStepsOfTheDefaultLength() {
+		try {
+			for(int rate : new int[] {20, 60, 100, 120}) {
+				GameEngine.setTickRate(rate);
+				int steps = 0;
+				for(long frame = 1; frame <= rate * 30L; frame++) {
+					steps += GameEngine.getPhysicsSteps(frame);
+				}
+				assertEquals(1000, steps, 1, "Tick rate " + rate);//30 seconds
+			}
+		} finally {
+			GameEngine.frameLength = GameEngine.DEFAULT_FRAME_LENGTH_NANO;
+		}
+	}
+	
+	@Test
+	void keepsTheSpeedOfTheGame() {
+		long[] expected = simulate();
+		try {
+			for(int rate : new int[] {20, 100}) {
+				GameEngine.setTickRate(rate);
+				long[] actual = simulate();
+				assertEquals(expected[0], actual[0], "Tick rate " + rate);
+				assertEquals(expected[1], actual[1], "Tick rate " + rate);
+				assertEquals(expected[2], actual[2], "Tick rate " + rate);
+			}
+		} finally {
+			GameEngine.frameLength = GameEngine.DEFAULT_FRAME_LENGTH_NANO;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.engine;
+
+import dartproductions.mcleodmassacre.engine.task.TaskScheduler;
+import dartproductions.mcleodmassacre.entity.TestEntity;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelUpdaterTest {
+	private static Scene simulate(@NotNull ParallelUpdater updater) {
+		Scene scene = new Scene();
+		Random random = new Random(3);
+		for(int i = 0; i < 500; i++) {
+			int id = i;
+			TestEntity entity = new TestEntity(new Point(random.nextInt(1000), random.nextInt(1000))).setBehavior(e -> {
+				e.move();
+				if(e.getLocation().y > 1500) {//shared side effects, deferred in parallel runs
+					e.setLocation(e.getLocation().x, 0);
+					scene.tasks.schedule(id % 3, () -> scene.log.add("task " + id));
+					if(!ParallelUpdater.defer(() -> scene.log.add("reset " + id))) {
+						scene.log.add("reset " + id);
+					}
+				}
+			});
+			entity.setGravity(random.nextInt(3));
+			entity.setDecelerationX(random.nextInt(2));
+			entity.getVelocity().setSize(random.nextInt(21) - 10, random.nextInt(21) - 10);
+			scene.entities.add(entity);
+			if(i % 2 == 0) {//half of the entities use the store
+				scene.store.add(entity);
+			}
+		}
+		try {
+			for(int frame = 1; frame <= 100; frame++) {
+				scene.tasks.runDueTasks(frame);
+				updater.update(scene.store, scene.entities);
+			}
+		} finally {
+			updater.shutdown();
+		}
+		return scene;
+	}
+	
+	@Test
+	void defersOnlyDuringUpdate() {
+		assertFalse(ParallelUpdater.isDeferring());
+		assertFalse(ParallelUpdater.defer(() -> {
+		}));
+		assertTrue(new ParallelUpdater(4).isParallel());
+		assertFalse(new ParallelUpdater(1).isParallel());
+	}
+	
+	@Test
+	void matchesSequentialUpdate() {
+		Scene sequential = simulate(new ParallelUpdater(1));
+		Scene parallel = simulate(new ParallelUpdater(4, 8));
+		for(int i = 0; i < sequential.entities.size(); i++) {
+			assertEquals(sequential.entities.get(i).getLocation(), parallel.entities.get(i).getLocation());
+			assertEquals(sequential.entities.get(i).getVelocity(), parallel.entities.get(i).getVelocity());
+		}
+		assertFalse(sequential.log.isEmpty());
+		assertEquals(sequential.log, parallel.log);
+	}
+	
+	private static final class Scene {
+		private final List<TestEntity> entities = new ArrayList<>();
+		private final List<String> log = new ArrayList<>();
+		private final EntityStore store = new EntityStore();
+		private final TaskScheduler tasks = new TaskScheduler();
+	}
+}
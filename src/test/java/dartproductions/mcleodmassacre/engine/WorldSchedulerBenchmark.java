@@ -0,0 +1,85 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine;
+
+import dartproductions.mcleodmassacre.entity.TestEntity;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.util.Random;
+
+/**
+ * Measures how many headless matches the {@link WorldScheduler} can run in real time per core. Each match is a world with a floor, two platforms and a few dozen falling, colliding boxes. Not a unit test; run the main method with the amount of worlds and frames as optional arguments.
+ */
+class WorldSchedulerBenchmark {
+	public static void main(String[] args) {
+		int worlds = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+		int frames = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		int cores = Runtime.getRuntime().availableProcessors();
+		for(int threads = 1; ; threads = Math.min(cores, threads * 2)) {
+			run(worlds, frames, threads);
+			if(threads == cores) {
+				break;
+			}
+		}
+	}
+	
+	private static @NotNull TestEntity createBox(@NotNull Point location, int velocityX) {
+		TestEntity box = new TestEntity(location, new Area(new Rectangle(0, 0, 24, 24)), true).setBehavior(e -> {
+			e.move();
+			Point l = e.getLocation();
+			if(l.y > 1080 || l.x < -50 || l.x > 1970) {//fell off, respawn at the top
+				e.setLocation(Math.floorMod(l.x, 1900), 0);
+				e.setVelocity(e.getVelocity().width, 0);
+			}
+		});
+		box.setGravity(1);
+		box.setMaxSpeedY(20);
+		box.setVelocity(velocityX, 0);
+		return box;
+	}
+	
+	private static @NotNull World createMatch(int seed) {
+		World world = new World("benchmark " + seed);
+		world.registerEntity(createPlatform(new Rectangle(0, 900, 1920, 40)));
+		world.registerEntity(createPlatform(new Rectangle(300, 600, 400, 20)));
+		world.registerEntity(createPlatform(new Rectangle(1200, 600, 400, 20)));
+		Random random = new Random(seed);
+		for(int i = 0; i < 40; i++) {
+			world.registerEntity(createBox(new Point(random.nextInt(1900), random.nextInt(800)), random.nextInt(11) - 5));
+		}
+		return world;
+	}
+	
+	private static @NotNull TestEntity createPlatform(@NotNull Rectangle bounds) {
+		return new TestEntity(bounds.getLocation(), new Area(new Rectangle(0, 0, bounds.width, bounds.height)), false).setMovable(false);
+	}
+	
+	private static void run(int worldCount, int frames, int threads) {
+		WorldScheduler scheduler = new WorldScheduler(threads);
+		for(int i = 0; i < worldCount; i++) {
+			scheduler.add(createMatch(i));
+		}
+		for(int i = 0; i < frames / 10; i++) {//warmup
+			scheduler.tickAll();
+		}
+		long start = System.nanoTime();
+		for(int i = 0; i < frames; i++) {
+			scheduler.tickAll();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		scheduler.shutdown();
+		double worldFrames = worldCount * (double) frames / seconds;
+		double realtimeMatches = worldFrames / GameEngine.getTickRate();
+		System.out.printf("%d thread(s): %.0f world frames/s, %.1f real-time matches, %.1f matches per core%n", threads, worldFrames, realtimeMatches, realtimeMatches / threads);
+	}
+}
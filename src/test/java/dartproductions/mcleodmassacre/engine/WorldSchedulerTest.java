@@ -0,0 +1,85 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine;
+
+import dartproductions.mcleodmassacre.entity.TestEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorldSchedulerTest {
+	private static @NotNull TestEntity createSpawner(@NotNull World world, @Nullable AtomicInteger counter, int period) {
+		return new TestEntity(new Point()).setMovable(false).setBehavior(e -> {
+			if(counter == null) {
+				throw new IllegalStateException("Failing on purpose");
+			}
+			assertSame(world, GameEngine.getWorld());
+			if(world.getFrame() % period == 0) {
+				GameEngine.scheduleTask(0, counter::incrementAndGet);
+				GameEngine.registerEntity(createSpawner(world, new AtomicInteger(), Integer.MAX_VALUE));
+			}
+		});
+	}
+	
+	@Test
+	void ticksWorldsIndependently() {
+		WorldScheduler scheduler = new WorldScheduler(4);
+		List<World> worlds = new ArrayList<>();
+		List<AtomicInteger> counters = new ArrayList<>();
+		for(int i = 0; i < 20; i++) {
+			World world = new World("test " + i);
+			AtomicInteger counter = new AtomicInteger();
+			world.registerEntity(createSpawner(world, counter, i % 3 + 1));
+			worlds.add(world);
+			counters.add(counter);
+			scheduler.add(world);
+		}
+		for(int round = 0; round < 10; round++) {
+			scheduler.tickAll();
+		}
+		scheduler.shutdown();
+		for(int i = 0; i < worlds.size(); i++) {
+			World world = worlds.get(i);
+			assertEquals(10, world.getFrame());
+			//the spawner runs in frames 1-10 and spawns every 'period' frames; spawned entities are added at the end of the same frame
+			int period = i % 3 + 1;
+			assertEquals(1 + 10 / period, world.getEntityCount(), world.toString());
+			assertEquals(9 / period, counters.get(i).get(), world.toString());//tasks scheduled in frame f run in frame f + 1
+		}
+		assertEquals(0, GameEngine.getMainWorld().getEntityCount());
+		assertSame(GameEngine.getMainWorld(), GameEngine.getWorld());
+	}
+	
+	@Test
+	void removesFailingWorlds() {
+		WorldScheduler scheduler = new WorldScheduler(2);
+		World healthy = new World("healthy"), failing = new World("failing");
+		failing.registerEntity(createSpawner(failing, null, 1));
+		scheduler.add(healthy);
+		scheduler.add(failing);
+		scheduler.tickAll();
+		scheduler.tickAll();
+		scheduler.shutdown();
+		assertEquals(List.of(healthy), scheduler.getWorlds());
+		assertEquals(2, healthy.getFrame());
+		assertTrue(failing.getFrame() >= 1);
+		assertFalse(scheduler.getWorlds().contains(failing));
+	}
+}
@@ -0,0 +1,105 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+import dartproductions.mcleodmassacre.entity.PlayerEntity;
+import dartproductions.mcleodmassacre.entity.TestEntity;
+import dartproductions.mcleodmassacre.entity.TestPlayer;
+import dartproductions.mcleodmassacre.input.InputManager.ActionType;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorldTest {
+	private static final int FRAMES = 240;
+	private static final int ROLLBACK = 8;
+	private static final ActionType[] ACTIONS = {ActionType.MOVE_LEFT, ActionType.MOVE_RIGHT, ActionType.MOVE_UP, ActionType.MOVE_DOWN, ActionType.ATTACK, ActionType.SHIELD, ActionType.SPECIAL};
+	
+	private static long input(int player, long frame) {
+		long hash = (frame * 31 + player + 7) * 0x9E3779B97F4A7C15L;
+		return (hash >>> 60) < 6 ? 0 : 1L << ACTIONS[(int) ((hash >>> 32) % ACTIONS.length)].ordinal();
+	}
+	
+	private static @NotNull World createWorld() {
+		World world = new World("test");
+		world.registerEntity(new TestPlayer(new Point(0, 0)));
+		world.registerEntity(new TestPlayer(new Point(60, 0)));
+		return world;
+	}
+	
+	/**
+	 * Registers and unregisters an entity from outside the simulation, so the saved states contain pending registrations.
+	 */
+	private static void handleEvents(@NotNull World world, long frame, @NotNull TestEntity visitor) {
+		if(frame == 3 * ROLLBACK) {
+			world.registerEntity(visitor);
+		} else if(frame == 6 * ROLLBACK) {
+			world.unregisterEntity(visitor);
+		}
+	}
+	
+	private static long checksum(@NotNull World world) {
+		long hash = world.getFrame();
+		for(Entity e : world.getEntities()) {//in iteration order
+			hash = hash * 31 + e.getLocation().x;
+			hash = hash * 31 + e.getLocation().y;
+			hash = hash * 31 + e.getVelocity().width;
+			hash = hash * 31 + e.getVelocity().height;
+			if(e instanceof PlayerEntity player) {
+				hash = hash * 31 + player.getHealth();
+				hash = hash * 31 + player.getStates().size();
+			}
+		}
+		return hash;
+	}
+	
+	@Test
+	void reconvergesAfterRollback() {
+		World reference = createWorld();
+		TestEntity referenceVisitor = new TestEntity(new Point(30, -30));
+		long[] checksums = new long[FRAMES + 1];
+		int maxEntities = 0;
+		for(long frame = 0; frame < FRAMES; frame++) {
+			handleEvents(reference, frame, referenceVisitor);
+			reference.advance(frame, new long[]{input(0, frame), input(1, frame)});
+			checksums[(int) frame + 1] = checksum(reference);
+			maxEntities = Math.max(maxEntities, reference.getEntityCount());
+		}
+		assertTrue(maxEntities > 3, "Bullets were fired");
+		
+		World world = createWorld();
+		TestEntity visitor = new TestEntity(new Point(30, -30));
+		int diverged = 0;
+		for(long frame = 0; frame < FRAMES; frame++) {
+			handleEvents(world, frame, visitor);
+			world.saveState(frame);
+			long confirmed = frame - frame % ROLLBACK;
+			world.advance(frame, new long[]{input(0, frame), input(1, confirmed)});//the input of player 1 is predicted
+			if(frame % ROLLBACK == ROLLBACK - 1) {//the real inputs arrive
+				if(checksum(world) != checksums[(int) frame + 1]) {
+					diverged++;
+				}
+				world.loadState(confirmed);
+				for(long f = confirmed; f <= frame; f++) {
+					world.saveState(f);
+					world.advance(f, new long[]{input(0, f), input(1, f)});
+				}
+				assertEquals(checksums[(int) frame + 1], checksum(world), "Frame " + frame);
+			}
+		}
+		assertTrue(diverged > 0, "Predictions failed");
+		assertEquals(reference.getEntityCount(), world.getEntityCount());
+	}
+}
@@ -0,0 +1,54 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.collision;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+import dartproductions.mcleodmassacre.options.CollisionDetectionOption;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.util.List;
+
+/**
+ * Measures the collision detection of every {@link CollisionDetectionOption} on a map-like scene: the broad phase and the engine's narrow phase on the reported pairs. Not a unit test; run the main method with the amount of platforms and movable entities as optional arguments.
+ */
+class BroadPhaseBenchmark {
+	public static void main(String[] args) {
+		int platforms = args.length > 0 ? Integer.parseInt(args[0]) : 600;
+		int movers = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		List<Entity> entities = BroadPhaseTest.createScene(7, platforms, movers);
+		for(CollisionDetectionOption option : CollisionDetectionOption.values()) {
+			BroadPhase broadPhase = BroadPhase.create(option);
+			int[] collisions = new int[1];
+			long best = Long.MAX_VALUE;
+			for(int run = 0; run < 5; run++) {
+				collisions[0] = 0;
+				long start = System.nanoTime();
+				broadPhase.findPairs(entities, (first, second) -> {
+					if((first.isCollisionMovable() ^ second.isCollisionMovable()) && areIntersecting(first, second)) {
+						collisions[0]++;
+					}
+				});
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			System.out.printf("%-16s %8.3f ms/frame, %d collisions%n", option, best / 1e6, collisions[0]);
+		}
+	}
+	
+	/**
+	 * Same check as the engine's narrow phase
+	 */
+	private static boolean areIntersecting(@NotNull Entity first, @NotNull Entity second) {
+		Area a = first.getCurrentAnimation().getCurrentHitbox().createTransformedArea(AffineTransform.getTranslateInstance(first.getLocation().x + first.getCurrentAnimation().getOffset().width, first.getLocation().y + first.getCurrentAnimation().getOffset().height));
+		a.intersect(second.getCurrentAnimation().getCurrentHitbox().createTransformedArea(AffineTransform.getTranslateInstance(second.getLocation().x + second.getCurrentAnimation().getOffset().width, second.getLocation().y + second.getCurrentAnimation().getOffset().height)));
+		return !a.isEmpty();
+	}
+}
@@ -0,0 +1,84 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.collision;
+
+import dartproductions.mcleodmassacre.entity.Entity;
+import dartproductions.mcleodmassacre.entity.TestEntity;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BroadPhaseTest {
+	/**
+	 * Creates a map-like scene: wide platforms and small, round movable entities.
+	 */
+	static @NotNull List<Entity> createScene(long seed, int platforms, int movers) {
+		Random random = new Random(seed);
+		ArrayList<Entity> entities = new ArrayList<>();
+		for(int i = 0; i < platforms; i++) {
+			Area hitbox = new Area(new Rectangle(0, 0, 100 + random.nextInt(300), 20 + random.nextInt(20)));
+			entities.add(new TestEntity(new Point(random.nextInt(4000) - 500, random.nextInt(2000) - 500), hitbox, false));
+		}
+		for(int i = 0; i < movers; i++) {
+			Area hitbox = new Area(new Ellipse2D.Double(0, 0, 40 + random.nextInt(40), 60 + random.nextInt(40)));
+			entities.add(new TestEntity(new Point(random.nextInt(4000) - 500, random.nextInt(2000) - 500), hitbox, true));
+		}
+		return entities;
+	}
+	
+	/**
+	 * The pairs reported by a broad phase, as (smaller index, larger index) keys
+	 */
+	private static @NotNull HashSet<Long> findPairs(@NotNull BroadPhase broadPhase, @NotNull List<Entity> entities) {
+		IdentityHashMap<Entity, Integer> indices = new IdentityHashMap<>();
+		for(int i = 0; i < entities.size(); i++) {
+			indices.put(entities.get(i), i);
+		}
+		HashSet<Long> pairs = new HashSet<>();
+		broadPhase.findPairs(entities, (first, second) -> {
+			int a = indices.get(first), b = indices.get(second);
+			if(!pairs.add(((long) Math.min(a, b) << 32) | Math.max(a, b))) {
+				throw new AssertionError("Pair reported twice: " + a + ", " + b);
+			}
+		});
+		return pairs;
+	}
+	
+	@Test
+	void findsOverlappingBounds() {
+		List<Entity> entities = createScene(42, 300, 200);
+		HashSet<Long> expected = new HashSet<>();
+		Rectangle a = new Rectangle(), b = new Rectangle();
+		for(int i = 0; i < entities.size(); i++) {
+			for(int j = i + 1; j < entities.size(); j++) {
+				BroadPhase.getBounds(entities.get(i), a);
+				BroadPhase.getBounds(entities.get(j), b);
+				if(a.intersects(b)) {
+					expected.add(((long) i << 32) | j);
+				}
+			}
+		}
+		assertEquals(expected, findPairs(new SpatialHashBroadPhase(), entities));
+		assertEquals(expected, findPairs(new SpatialHashBroadPhase(16), entities));
+		assertEquals(expected, findPairs(new SweepAndPruneBroadPhase(), entities));
+		assertEquals(entities.size() * (entities.size() - 1) / 2, findPairs(new BruteForceBroadPhase(), entities).size());
+	}
+}
@@ -0,0 +1,150 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.collision;
+
+import dartproductions.mcleodmassacre.entity.TestEntity;
+import dartproductions.mcleodmassacre.graphics.animation.Animation;
+import dartproductions.mcleodmassacre.hitbox.BitmaskHitbox;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.awt.image.BufferedImage;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CollisionResolverTest {
+	private static final Area PLAYER = new Area(new Rectangle(0, 0, 20, 40));
+	private static final Area GROUND = new Area(new Rectangle(0, 0, 500, 20));
+	
+	@Test
+	void landsOnGround() {
+		TestEntity ground = new TestEntity(new Point(0, 100), GROUND, false);
+		TestEntity player = new TestEntity(new Point(50, 80), PLAYER, true);//moved from (44, 30) to (50, 80)
+		player.getVelocity().setSize(6, 50);
+		Contact contact = new Contact();
+		assertTrue(CollisionResolver.areIntersecting(player, ground));
+		assertTrue(CollisionResolver.findContact(player, ground, contact));
+		assertEquals(new Point(50, 80), player.getLocation());//not changed by the search
+		assertEquals(0, contact.getNormalX());
+		assertEquals(-1, contact.getNormalY());
+		assertEquals(60, contact.getY());
+		CollisionResolver.resolve(contact);
+		assertEquals(new Point(50, 60), player.getLocation());//slides along the ground
+		assertEquals(new Dimension(6, 0), player.getVelocity());
+		assertFalse(CollisionResolver.areIntersecting(player, ground));
+	}
+	
+	@Test
+	void hitsWall() {
+		TestEntity wall = new TestEntity(new Point(100, 0), new Area(new Rectangle(0, 0, 20, 500)), false);
+		TestEntity player = new TestEntity(new Point(95, 200), PLAYER, true);
+		player.getVelocity().setSize(30, 3);
+		Contact contact = new Contact();
+		assertTrue(CollisionResolver.findContact(player, wall, contact));
+		assertEquals(-1, contact.getNormalX());
+		assertEquals(0, contact.getNormalY());
+		CollisionResolver.resolve(contact);
+		assertEquals(new Point(80, 200), player.getLocation());
+		assertEquals(new Dimension(0, 3), player.getVelocity());
+	}
+	
+	@Test
+	void ignoresPreviousOverlap() {
+		TestEntity ground = new TestEntity(new Point(0, 100), GROUND, false);
+		TestEntity player = new TestEntity(new Point(50, 75), PLAYER, true);
+		player.getVelocity().setSize(0, -5);//jumping up through the platform
+		assertFalse(CollisionResolver.findContact(player, ground, new Contact()));
+		player.getVelocity().setSize(0, 0);//not moving and no bitmasks
+		assertFalse(CollisionResolver.findContact(player, ground, new Contact()));
+	}
+	
+	@Test
+	void pushesOutStaticOverlap() {
+		TestEntity ground = new TestEntity(new Point(0, 100), new MaskAnimation(500, 20), false);
+		TestEntity player = new TestEntity(new Point(50, 64), new MaskAnimation(20, 40), true);
+		Contact contact = new Contact();
+		assertTrue(CollisionResolver.findContact(player, ground, contact));
+		assertEquals(-1, contact.getNormalY());
+		CollisionResolver.resolve(contact);
+		assertEquals(new Point(50, 60), player.getLocation());
+	}
+	
+	/**
+	 * Rectangular animation with a bitmask hitbox
+	 */
+	private static final class MaskAnimation implements Animation {
+		private final BitmaskHitbox mask;
+		
+		MaskAnimation(int width, int height) {
+			mask = BitmaskHitbox.fromImage(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), rgb -> true);
+		}
+		
+		@Override
+		public @Nullable Animation clone() {
+			return this;
+		}
+		
+		@Override
+		public @NotNull String getAnimationName() {
+			return "mask";
+		}
+		
+		@Override
+		public void paint(@NotNull Graphics2D graphics, @NotNull Point entityLocation) {
+		}
+		
+		@Override
+		public @Nullable Area getCurrentHitbox() {
+			return mask.toArea();
+		}
+		
+		@Override
+		public @Nullable BitmaskHitbox getCurrentMask() {
+			return mask;
+		}
+		
+		@Override
+		public @NotNull UUID getId() {
+			return UUID.randomUUID();
+		}
+		
+		@Override
+		public int getLength() {
+			return 1;
+		}
+		
+		@Override
+		public @NotNull Dimension getOffset() {
+			return new Dimension();
+		}
+		
+		@Override
+		public boolean isOver() {
+			return false;
+		}
+		
+		@Override
+		public void next() {
+		}
+		
+		@Override
+		public void reset() {
+		}
+	}
+}
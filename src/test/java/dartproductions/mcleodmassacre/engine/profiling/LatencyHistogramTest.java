@@ -0,0 +1,101 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.engine.profiling;
+
+import dartproductions.mcleodmassacre.engine.profiling.FrameProfiler.Phase;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+	@Test
+	void bucketsCoverAllValues() {
+		long previous = -1;
+		for(int bucket = 0; bucket < LatencyHistogram.BUCKET_COUNT; bucket++) {
+			long upper = LatencyHistogram.getUpperBound(bucket);
+			assertEquals(bucket, LatencyHistogram.getBucket(previous + 1));
+			assertEquals(bucket, LatencyHistogram.getBucket(upper));
+			assertTrue(upper > previous);
+			previous = upper;
+		}
+		assertEquals(Long.MAX_VALUE, previous);
+	}
+	
+	@Test
+	void calculatesPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for(int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1_000_000, histogram.getMax());
+		assertEquals(500_500, histogram.getMean(), 1e-9);
+		assertEquals(500_000, histogram.getPercentile(50), 500_000.0 / LatencyHistogram.SUB_BUCKETS);
+		assertEquals(990_000, histogram.getPercentile(99), 990_000.0 / LatencyHistogram.SUB_BUCKETS);
+		assertEquals(1_000_000, histogram.getPercentile(100));
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getPercentile(50));
+	}
+	
+	@Test
+	void recordsConcurrently() throws InterruptedException {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Thread[] threads = new Thread[4];
+		for(int i = 0; i < threads.length; i++) {
+			long seed = i;
+			threads[i] = new Thread(() -> {
+				Random random = new Random(seed);
+				for(int j = 0; j < 100_000; j++) {
+					histogram.record(random.nextInt(10_000_000));
+				}
+			});
+			threads[i].start();
+		}
+		for(Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(400_000, histogram.getCount());
+		assertEquals(400_000, sumBuckets(histogram));
+	}
+	
+	@Test
+	void publishesMBeans() throws Exception {
+		FrameProfiler profiler = new FrameProfiler();
+		profiler.record(Phase.COLLISION, System.nanoTime() - 2_000_000);
+		profiler.countCollisionPair();
+		profiler.endFrame(10, 4);
+		profiler.register();
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(1L, server.getAttribute(new ObjectName(FrameProfiler.DOMAIN + ":type=Engine"), "CollisionPairsTested"));
+			assertEquals(10, server.getAttribute(new ObjectName(FrameProfiler.DOMAIN + ":type=Engine"), "EntityCount"));
+			assertEquals(1L, server.getAttribute(new ObjectName(FrameProfiler.DOMAIN + ":type=FrameTiming,name=Collision"), "Count"));
+			assertTrue((Double) server.getAttribute(new ObjectName(FrameProfiler.DOMAIN + ":type=FrameTiming,name=Collision"), "P99") >= 2);
+		} finally {
+			profiler.unregister();
+		}
+	}
+	
+	private static long sumBuckets(LatencyHistogram histogram) {
+		long sum = 0;
+		for(int i = 0; i < histogram.buckets.length(); i++) {
+			sum += histogram.buckets.get(i);
+		}
+		return sum;
+	}
+}
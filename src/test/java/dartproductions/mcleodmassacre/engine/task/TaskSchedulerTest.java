@@ -0,0 +1,140 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.task;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskSchedulerTest {
+	@Test
+	void runsTasksInTheirFrame() {
+		TaskScheduler scheduler = new TaskScheduler();
+		List<Long> runs = new ArrayList<>();
+		scheduler.schedule(5, () -> runs.add(scheduler.getCurrentFrame()));
+		scheduler.schedule(1000, () -> runs.add(scheduler.getCurrentFrame()));//more than a full turn of the wheel
+		scheduler.schedule(0, () -> runs.add(scheduler.getCurrentFrame()));
+		for(long frame = 1; frame <= 1100; frame++) {
+			scheduler.runDueTasks(frame);
+		}
+		assertEquals(List.of(1L, 5L, 1000L), runs);
+	}
+	
+	@Test
+	void cancelsAndRepeatsTasks() {
+		TaskScheduler scheduler = new TaskScheduler();
+		AtomicInteger repeats = new AtomicInteger(), cancelled = new AtomicInteger();
+		ScheduledTask repeating = scheduler.scheduleRepeating(2, 3, repeats::incrementAndGet);
+		ScheduledTask task = scheduler.schedule(4, cancelled::incrementAndGet);
+		task.cancel();
+		for(long frame = 1; frame <= 11; frame++) {
+			scheduler.runDueTasks(frame);
+		}
+		assertEquals(4, repeats.get());//frames 2, 5, 8 and 11
+		assertEquals(0, cancelled.get());
+		assertTrue(task.isDone());
+		repeating.cancel();
+		for(long frame = 12; frame <= 20; frame++) {
+			scheduler.runDueTasks(frame);
+		}
+		assertEquals(4, repeats.get());
+	}
+	
+	@Test
+	void acceptsTasksFromTasksAndOtherThreads() throws InterruptedException {
+		TaskScheduler scheduler = new TaskScheduler();
+		AtomicInteger count = new AtomicInteger();
+		scheduler.schedule(1, () -> scheduler.schedule(1, count::incrementAndGet));
+		Thread[] threads = new Thread[4];
+		for(int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				for(int j = 0; j < 1000; j++) {
+					scheduler.schedule(j % 300, count::incrementAndGet);
+				}
+			});
+			threads[i].start();
+		}
+		for(Thread thread : threads) {
+			thread.join();
+		}
+		for(long frame = 1; frame <= 400; frame++) {
+			scheduler.runDueTasks(frame);
+		}
+		assertEquals(4001, count.get());
+	}
+	
+	@Test
+	void catchesUpSkippedFrames() {
+		TaskScheduler scheduler = new TaskScheduler();
+		AtomicInteger count = new AtomicInteger();
+		for(int i = 0; i < 600; i += 7) {
+			scheduler.schedule(i, count::incrementAndGet);
+		}
+		scheduler.runDueTasks(1000);
+		assertEquals(86, count.get());
+	}
+	
+	@Test
+	void runsTasksOfAFrameInOrder() {
+		TaskScheduler scheduler = new TaskScheduler();
+		List<String> runs = new ArrayList<>();
+		scheduler.schedule(3, () -> runs.add("a"));
+		scheduler.schedule(3 + TaskScheduler.WHEEL_SIZE, () -> runs.add("next turn"));//same bucket, stays there
+		scheduler.schedule(3, () -> runs.add("b"));
+		scheduler.runDueTasks(1);
+		scheduler.schedule(2, () -> runs.add("c"));//scheduled later, due in the same frame
+		scheduler.runDueTasks(2);
+		TaskScheduler.State state = new TaskScheduler.State();
+		scheduler.save(state);
+		scheduler.runDueTasks(3);
+		assertEquals(List.of("a", "b", "c"), runs);
+		runs.clear();
+		scheduler.restore(state);
+		scheduler.runDueTasks(3);
+		assertEquals(List.of("a", "b", "c"), runs);
+		runs.clear();
+		scheduler.schedule(TaskScheduler.WHEEL_SIZE, () -> runs.add("d"));//appended after the task left in the bucket
+		for(long frame = 4; frame <= 3 + TaskScheduler.WHEEL_SIZE; frame++) {
+			scheduler.runDueTasks(frame);
+		}
+		assertEquals(List.of("next turn", "d"), runs);
+	}
+	
+	@Test
+	void restoresSavedTasks() {
+		TaskScheduler scheduler = new TaskScheduler();
+		List<String> runs = new ArrayList<>();
+		scheduler.scheduleRepeating(1, 2, () -> runs.add("repeat " + scheduler.getCurrentFrame()));
+		scheduler.schedule(3, () -> runs.add("once " + scheduler.getCurrentFrame()));
+		scheduler.runDueTasks(1);
+		ScheduledTask cancelled = scheduler.schedule(1, () -> runs.add("cancelled " + scheduler.getCurrentFrame()));
+		TaskScheduler.State state = new TaskScheduler.State();
+		scheduler.save(state);
+		assertEquals(3, state.size());
+		for(long frame = 2; frame <= 5; frame++) {
+			scheduler.runDueTasks(frame);
+		}
+		cancelled.cancel();
+		scheduler.schedule(1, () -> runs.add("dropped"));
+		List<String> expected = new ArrayList<>(runs.subList(1, runs.size()));
+		runs.clear();
+		scheduler.restore(state);
+		assertEquals(1, scheduler.getCurrentFrame());
+		for(long frame = 2; frame <= 5; frame++) {
+			scheduler.runDueTasks(frame);
+		}
+		assertEquals(expected, runs);
+	}
+}
@@ -0,0 +1,51 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.engine.timing;
+
+import dartproductions.mcleodmassacre.options.FrameSchedulerOption;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameSchedulerTest {
+	private static final long FRAME = 5_000_000;
+	
+	@Test
+	void neverWakesEarly() throws InterruptedException {
+		for(FrameSchedulerOption option : FrameSchedulerOption.values()) {
+			FrameScheduler scheduler = FrameScheduler.create(option);
+			FrameStatistics statistics = new FrameStatistics();
+			long deadline = System.nanoTime();
+			for(int i = 0; i < 100; i++) {
+				deadline += FRAME;
+				scheduler.waitUntil(deadline);
+				long jitter = System.nanoTime() - deadline;
+				statistics.record(jitter);
+				assertTrue(jitter >= 0, option + " woke up " + -jitter + " ns early (" + statistics + ")");
+			}
+		}
+	}
+	
+	@Test
+	void calculatesStatistics() {
+		FrameStatistics statistics = new FrameStatistics();
+		for(int i = 1; i <= 100; i++) {
+			statistics.record(i * 10_000L);
+		}
+		assertEquals(100, statistics.getCount());
+		assertEquals(1_000_000, statistics.getMax());
+		assertEquals(505_000, statistics.getMean(), 1e-6);
+		assertEquals(1_000_000, statistics.getPercentile(99));
+		assertEquals(550_000, statistics.getPercentile(50));//upper bound of the bucket
+		statistics.reset();
+		assertEquals(0, statistics.getCount());
+	}
+}
@@ -0,0 +1,133 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.entity;
+
+import dartproductions.mcleodmassacre.graphics.RenderingLayer;
+import dartproductions.mcleodmassacre.graphics.animation.Animation;
+import dartproductions.mcleodmassacre.graphics.animation.ColorAnimation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.geom.Area;
+import java.util.function.Consumer;
+
+/**
+ * Minimal entity shared by the tests; doesn't need any resources or graphics. The collision flags and the behaviour in each frame can be configured, and as a {@link StoredEntity}, it can be moved by an entity store as well.
+ */
+public class TestEntity extends StoredEntity {
+	private final @Nullable Animation animation;
+	private @Nullable Consumer<? super TestEntity> behavior;
+	private boolean collision;
+	private boolean collisionMovable;
+	private boolean movable = true;
+	
+	/**
+	 * Creates an entity without collision or animation.
+	 */
+	public TestEntity(@NotNull Point location) {
+		super(location);
+		animation = null;
+	}
+	
+	/**
+	 * Creates a colliding entity with a fixed hitbox.
+	 */
+	public TestEntity(@NotNull Point location, @NotNull Area hitbox, boolean collisionMovable) {
+		this(location, new ColorAnimation("test", true, frame -> hitbox, frame -> Color.BLACK, 1, new Dimension()), collisionMovable);
+	}
+	
+	/**
+	 * Creates a colliding entity with the hitboxes of an animation.
+	 */
+	public TestEntity(@NotNull Point location, @NotNull Animation animation, boolean collisionMovable) {
+		super(location);
+		this.animation = animation;
+		this.collision = true;
+		this.collisionMovable = collisionMovable;
+	}
+	
+	@Override
+	public @NotNull Animation getCurrentAnimation() {
+		if(animation == null) {
+			throw new UnsupportedOperationException();
+		}
+		return animation;
+	}
+	
+	@Override
+	public @NotNull RenderingLayer getDefaultLayer() {
+		throw new UnsupportedOperationException();
+	}
+	
+	@Override
+	public boolean hasCollision() {
+		return collision;
+	}
+	
+	@Override
+	public boolean isCollisionMovable() {
+		return collisionMovable;
+	}
+	
+	@Override
+	public boolean isHovered() {
+		return false;
+	}
+	
+	@Override
+	public boolean isMovable() {
+		return movable;
+	}
+	
+	@Override
+	public boolean isSelected() {
+		return false;
+	}
+	
+	/**
+	 * Runs the behaviour of the entity, or just moves it if it has none.
+	 */
+	@Override
+	public void process() {
+		if(behavior != null) {
+			behavior.accept(this);
+		} else {
+			move();
+		}
+	}
+	
+	/**
+	 * Sets the behaviour of the entity in each frame, which replaces the default movement.
+	 */
+	public @NotNull TestEntity setBehavior(@Nullable Consumer<? super TestEntity> behavior) {
+		this.behavior = behavior;
+		return this;
+	}
+	
+	/**
+	 * Sets if the entity collides with other entities, and if it is moved by those collisions.
+	 */
+	public @NotNull TestEntity setCollision(boolean collision, boolean collisionMovable) {
+		this.collision = collision;
+		this.collisionMovable = collisionMovable;
+		return this;
+	}
+	
+	/**
+	 * Sets if the entity moves.
+	 */
+	public @NotNull TestEntity setMovable(boolean movable) {
+		this.movable = movable;
+		return this;
+	}
+}
@@ -0,0 +1,196 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.entity;
+
+import dartproductions.mcleodmassacre.engine.GameEngine;
+import dartproductions.mcleodmassacre.graphics.animation.MirrorableAnimation;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Point;
+import java.util.ArrayList;
+
+/**
+ * Minimal player for the tests, without resources or graphics. It stands on the line y = 0 and falls back to it after jumping, and its attack fires a bullet that leaves the world when it gets far enough, so the inputs change both the players and the registered entities.
+ */
+public class TestPlayer extends TestEntity implements PlayerEntity {
+	private final @NotNull ArrayList<PlayerState> states = new ArrayList<>();
+	private int attackDelay, grabDelay, jumpDelay, movementDelay, specialDelay, tauntDelay;
+	private boolean facingLeft;
+	private int health = 100;
+	
+	public TestPlayer(@NotNull Point location) {
+		super(location);
+		states.add(PlayerState.STANDING);
+		setGravity(1);
+		setDecelerationX(1);
+	}
+	
+	@Override
+	public void attack() {
+		int startX = getLocation().x;
+		TestEntity bullet = new TestEntity(new Point(getLocation())).setBehavior(b -> {
+			if(Math.abs(b.getLocation().x - startX) > 40) {
+				GameEngine.unregisterEntity(b);
+			}
+		});
+		bullet.setVelocity(facingLeft ? -7 : 7, 0);
+		GameEngine.registerEntity(bullet);
+	}
+	
+	@Override
+	public int getAttackDelay() {
+		return attackDelay;
+	}
+	
+	@Override
+	public void setAttackDelay(int delay) {
+		attackDelay = delay;
+	}
+	
+	@Override
+	public @NotNull MirrorableAnimation getCurrentAnimation() {
+		throw new UnsupportedOperationException();
+	}
+	
+	@Override
+	public int getGrabDelay() {
+		return grabDelay;
+	}
+	
+	@Override
+	public void setGrabDelay(int delay) {
+		grabDelay = delay;
+	}
+	
+	@Override
+	public int getHealth() {
+		return health;
+	}
+	
+	@Override
+	public void setHealth(int i) {
+		health = i;
+	}
+	
+	@Override
+	public int getJumpDelay() {
+		return jumpDelay;
+	}
+	
+	@Override
+	public void setJumpDelay(int delay) {
+		jumpDelay = delay;
+	}
+	
+	@Override
+	public int getJumpSpeed() {
+		return 6;
+	}
+	
+	@Override
+	public int getMaxHealth() {
+		return 100;
+	}
+	
+	@Override
+	public int getMovementDelay() {
+		return movementDelay;
+	}
+	
+	@Override
+	public void setMovementDelay(int delay) {
+		movementDelay = delay;
+	}
+	
+	@Override
+	public int getMovementSpeed() {
+		return 2;
+	}
+	
+	@Override
+	public int getSpecialDelay() {
+		return specialDelay;
+	}
+	
+	@Override
+	public void setSpecialDelay(int delay) {
+		specialDelay = delay;
+	}
+	
+	@Override
+	public @NotNull ArrayList<PlayerState> getStates() {
+		return states;
+	}
+	
+	@Override
+	public int getTauntDelay() {
+		return tauntDelay;
+	}
+	
+	@Override
+	public void setTauntDelay(int delay) {
+		tauntDelay = delay;
+	}
+	
+	@Override
+	public void grab() {
+	}
+	
+	@Override
+	public boolean isFacingLeft() {
+		return facingLeft;
+	}
+	
+	@Override
+	public void setFacingLeft(boolean isLeft) {
+		facingLeft = isLeft;
+	}
+	
+	/**
+	 * Lands on the line y = 0 after falling below it.
+	 */
+	@Override
+	public void process() {
+		if(getLocation().y > 0) {
+			setLocation(getLocation().x, 0);
+			setVelocity(getVelocity().width, 0);
+			setState(PlayerState.STANDING, true);
+			setState(PlayerState.FALLING, false);
+			setState(PlayerState.VOID_JUMPED, false);
+		}
+	}
+	
+	@Override
+	public void setCollisionMovable(boolean value) {
+		setCollision(hasCollision(), value);
+	}
+	
+	@Override
+	public void setState(@NotNull PlayerState state, boolean value) {
+		states.remove(state);
+		if(value) {
+			states.add(state);
+		}
+	}
+	
+	@Override
+	public void shield() {
+		damage(1);
+	}
+	
+	@Override
+	public void special() {
+		setVelocity(0, getVelocity().height);
+	}
+	
+	@Override
+	public void taunt() {
+	}
+}
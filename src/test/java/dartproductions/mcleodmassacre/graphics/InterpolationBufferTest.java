@@ -0,0 +1,65 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.graphics;
+
+import dartproductions.mcleodmassacre.entity.TestEntity;
+import dartproductions.mcleodmassacre.graphics.InterpolationBuffer.Snapshot;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InterpolationBufferTest {
+	@Test
+	void interpolatesBetweenCaptures() {
+		InterpolationBuffer buffer = new InterpolationBuffer();
+		assertNull(buffer.getLatest());
+		RenderingLayer layer = new RenderingLayer();
+		TestEntity entity = new TestEntity(new Point(0, 0));
+		layer.add(entity);
+		RenderingLayer[] layers = {layer};
+		buffer.capture(layers, 0);
+		entity.getLocation().setLocation(30, -60);
+		buffer.capture(layers, 100);
+		Snapshot snapshot = buffer.getLatest();
+		//drawn one capture interval behind
+		assertEquals(0.0, snapshot.getAlpha(50));
+		assertEquals(0.0, snapshot.getAlpha(100));
+		assertEquals(0.5, snapshot.getAlpha(150));
+		assertEquals(1.0, snapshot.getAlpha(250));
+		assertEquals(new Point(0, 0), snapshot.getLocation(entity, 0, new Point()));
+		assertEquals(new Point(10, -20), snapshot.getLocation(entity, 1 / 3.0, new Point()));
+		assertEquals(new Point(30, -60), snapshot.getLocation(entity, 1, new Point()));
+		//moving the entity after the capture doesn't change the snapshot
+		entity.getLocation().setLocation(1000, 1000);
+		assertEquals(new Point(15, -30), snapshot.getLocation(entity, 0.5, new Point()));
+	}
+	
+	@Test
+	void drawsNewEntitiesAtTheirLocation() {
+		InterpolationBuffer buffer = new InterpolationBuffer();
+		RenderingLayer layer = new RenderingLayer();
+		TestEntity old = new TestEntity(new Point(0, 0)), added = new TestEntity(new Point(5, 5)), unknown = new TestEntity(new Point(7, 7));
+		layer.add(old);
+		RenderingLayer[] layers = {layer};
+		buffer.capture(layers, 0);
+		layer.add(added);
+		added.getLocation().translate(10, 0);
+		buffer.capture(layers, 30);
+		Snapshot snapshot = buffer.getLatest();
+		assertEquals(new Point(15, 5), snapshot.getLocation(added, 0, new Point()));
+		assertEquals(new Point(7, 7), snapshot.getLocation(unknown, 0.5, new Point()));
+		assertEquals(new Point(0, 0), snapshot.getLocation(old, 0.5, new Point()));
+		buffer.clear();
+		assertNull(buffer.getLatest());
+	}
+}
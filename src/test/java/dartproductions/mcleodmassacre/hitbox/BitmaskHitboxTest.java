@@ -0,0 +1,83 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.hitbox;
+
+import dartproductions.mcleodmassacre.hitbox.BitmaskHitbox.Overlap;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitmaskHitboxTest {
+	private static BitmaskHitbox createEllipse(int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(Color.BLACK);
+		graphics.fill(new Ellipse2D.Double(0, 0, width, height));
+		graphics.dispose();
+		return BitmaskHitbox.fromImage(image, rgb -> (rgb >>> 24) != 0);
+	}
+	
+	@Test
+	void matchesAreaIntersection() {
+		Random random = new Random(3);
+		for(int i = 0; i < 200; i++) {
+			BitmaskHitbox first = createEllipse(10 + random.nextInt(150), 10 + random.nextInt(150));
+			BitmaskHitbox second = createEllipse(10 + random.nextInt(150), 10 + random.nextInt(150));
+			int x = random.nextInt(200) - 100, y = random.nextInt(200) - 100;
+			Area area = first.toArea();
+			area.intersect(second.toArea().createTransformedArea(AffineTransform.getTranslateInstance(x, y)));
+			assertEquals(!area.isEmpty(), first.intersects(0, 0, second, x, y, null));
+			assertEquals(!area.isEmpty(), second.intersects(x, y, first, 0, 0, new Overlap()));
+		}
+	}
+	
+	@Test
+	void reportsOverlapDirection() {
+		BitmaskHitbox player = createEllipse(40, 60);
+		BitmaskHitbox ground = BitmaskHitbox.fromImage(new BufferedImage(300, 20, BufferedImage.TYPE_INT_ARGB), rgb -> true);
+		Overlap overlap = new Overlap();
+		assertTrue(player.intersects(100, -57, ground, 0, 0, overlap));
+		assertEquals(0, overlap.getNormalX());
+		assertEquals(-1, overlap.getNormalY());
+		assertEquals(3, overlap.getDepth());
+		assertFalse(player.intersects(100, -60, ground, 0, 0, overlap));
+		assertTrue(player.intersects(296, -30, ground, 0, 0, overlap));
+		assertEquals(1, overlap.getNormalX());
+		assertEquals(0, overlap.getNormalY());
+	}
+	
+	@Test
+	void mirrorsAndConvertsToArea() {
+		BufferedImage image = new BufferedImage(70, 3, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(0, 0, Color.BLACK.getRGB());
+		image.setRGB(65, 2, Color.BLACK.getRGB());
+		BitmaskHitbox mask = BitmaskHitbox.fromImage(image, rgb -> rgb == Color.BLACK.getRGB());
+		BitmaskHitbox mirrored = mask.mirror();
+		assertTrue(mirrored.contains(69, 0));
+		assertTrue(mirrored.contains(4, 2));
+		assertFalse(mirrored.contains(0, 0));
+		assertEquals(4, mirrored.getMinX());
+		assertEquals(69, mirrored.getMaxX());
+		Area area = mask.toArea();
+		assertTrue(area.contains(0.5, 0.5));
+		assertTrue(area.contains(65.5, 2.5));
+		assertFalse(area.contains(1.5, 0.5));
+	}
+}
@@ -0,0 +1,160 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.hitbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HitboxCacheTest {
+	private static BitmaskHitbox createRandom(Random random, int width, int height) {
+		long[] bits = new long[((width + 63) >> 6) * height];
+		for(int y = 0; y < height; y++) {
+			for(int x = 0; x < width; x++) {
+				if(random.nextBoolean()) {
+					bits[y * ((width + 63) >> 6) + (x >> 6)] |= 1L << x;
+				}
+			}
+		}
+		return new BitmaskHitbox(width, height, bits);
+	}
+	
+	private static void assertSameMask(BitmaskHitbox expected, BitmaskHitbox actual) {
+		assertEquals(expected.getWidth(), actual.getWidth());
+		assertEquals(expected.getHeight(), actual.getHeight());
+		for(int y = 0; y < expected.getHeight(); y++) {
+			for(int x = 0; x < expected.getWidth(); x++) {
+				assertEquals(expected.contains(x, y), actual.contains(x, y), "Pixel " + x + "," + y);
+			}
+		}
+	}
+	
+	@Test
+	void reopensSavedHitboxes() throws IOException {
+		Path file = Files.createTempDirectory("hitboxes").resolve("hitboxes.bin");
+		Random random = new Random(5);
+		byte[] still = HitboxCache.hash(new byte[]{1, 2, 3}), animated = HitboxCache.hash(new byte[]{4, 5, 6});
+		BitmaskHitbox first = createRandom(random, 70, 13), second = createRandom(random, 3, 200), third = createRandom(random, 128, 1);
+		HitboxCache cache = new HitboxCache(file);
+		assertNull(cache.get(still, 0, 0));
+		cache.put(still, 0, 0, new ImageHitbox(first));
+		cache.put(animated, 30000000, 0, new ImageHitbox(second));
+		cache.put(animated, 30000000, 1, new ImageHitbox(third));
+		cache.save();
+		
+		HitboxCache reopened = new HitboxCache(file);
+		assertSameMask(first, reopened.get(still, 0, 0).getMask());
+		assertSameMask(second, reopened.get(animated, 30000000, 0).getMask());
+		assertSameMask(third, reopened.get(animated, 30000000, 1).getMask());
+		assertNull(reopened.get(animated, 16666667, 1));//different tick rate
+		assertEquals(3, reopened.getHits());
+		assertEquals(1, reopened.getMisses());
+	}
+	
+	@Test
+	void keepsTheOutlineAndRectangles() throws IOException {
+		Path file = Files.createTempDirectory("hitboxes").resolve("hitboxes.bin");
+		BitmaskHitbox mask = createRandom(new Random(3), 40, 30);
+		List<int[]> outline = List.of(new int[]{0, 0, 40, 0, 40, 30}, new int[]{1, 1, 2, 1, 2, 2, 1, 2});//not what tracing would give
+		RectangleHitbox rectangles = new RectangleHitbox(new int[]{0, 0, 40, 30, 5, 5, 6, 6});
+		byte[] hash = HitboxCache.hash(new byte[]{8});
+		HitboxCache cache = new HitboxCache(file);
+		cache.put(hash, 0, 0, new ImageHitbox(mask, 0.5, outline, rectangles));
+		cache.put(hash, 0, 1, new ImageHitbox(createRandom(new Random(4), 9, 9)));//traced when saved
+		cache.save();
+		
+		HitboxCache reopened = new HitboxCache(file);
+		ImageHitbox cached = reopened.get(hash, 0, 0);
+		assertNotNull(cached.outline);
+		assertNotNull(cached.rectangles);
+		assertEquals(0.5, cached.getTolerance());
+		assertEquals(outline.size(), cached.getOutline().size());
+		for(int i = 0; i < outline.size(); i++) {
+			assertArrayEquals(outline.get(i), cached.getOutline().get(i));
+		}
+		assertArrayEquals(rectangles.rectangles, cached.getRectangles().rectangles);
+		assertEquals(new Rectangle(0, 0, 40, 30), cached.getArea().getBounds());
+		ImageHitbox traced = reopened.get(hash, 0, 1);
+		assertNotNull(traced.outline);
+		assertEquals(OutlineTracer.createPolygons(traced.getMask(), ImageHitbox.DEFAULT_TOLERANCE).size(), traced.getOutline().size());
+		assertNull(reopened.getAll(hash, 0, 3));
+		assertEquals(2, reopened.getAll(hash, 0, 2).length);
+	}
+	
+	@Test
+	void replacesTheMappedFile() throws IOException {
+		Path file = Files.createTempDirectory("hitboxes").resolve("hitboxes.bin");
+		Random random = new Random(9);
+		byte[] first = HitboxCache.hash(new byte[]{1}), second = HitboxCache.hash(new byte[]{2});
+		BitmaskHitbox firstMask = createRandom(random, 20, 20), secondMask = createRandom(random, 30, 5);
+		HitboxCache cache = new HitboxCache(file);
+		cache.put(first, 0, 0, new ImageHitbox(firstMask));
+		cache.save();
+		
+		HitboxCache next = new HitboxCache(file);
+		next.retain(first);
+		assertSameMask(firstMask, next.get(first, 0, 0).getMask());//maps the file
+		next.put(second, 0, 0, new ImageHitbox(secondMask));
+		next.save();//replaces the mapped file
+		assertNull(next.mapped);
+		assertSameMask(firstMask, next.get(first, 0, 0).getMask());//read from the new file
+		assertSameMask(secondMask, next.get(second, 0, 0).getMask());
+		assertNotNull(next.mapped);
+		assertTrue(next.computed.isEmpty());
+		
+		HitboxCache last = new HitboxCache(file);
+		assertSameMask(firstMask, last.get(first, 0, 0).getMask());
+		assertSameMask(secondMask, last.get(second, 0, 0).getMask());
+	}
+	
+	@Test
+	void dropsHitboxesOfChangedFiles() throws IOException {
+		Path file = Files.createTempDirectory("hitboxes").resolve("hitboxes.bin");
+		Random random = new Random(7);
+		byte[] kept = HitboxCache.hash(new byte[]{1}), changed = HitboxCache.hash(new byte[]{2}), added = HitboxCache.hash(new byte[]{3});
+		HitboxCache cache = new HitboxCache(file);
+		cache.put(kept, 0, 0, new ImageHitbox(createRandom(random, 10, 10)));
+		cache.put(changed, 0, 0, new ImageHitbox(createRandom(random, 10, 10)));
+		cache.save();
+		
+		HitboxCache next = new HitboxCache(file);
+		next.retain(kept);
+		next.put(added, 0, 0, new ImageHitbox(createRandom(random, 5, 5)));
+		next.save();
+		
+		HitboxCache last = new HitboxCache(file);
+		assertNotNull(last.get(kept, 0, 0));
+		assertNotNull(last.get(added, 0, 0));
+		assertNull(last.get(changed, 0, 0));
+	}
+	
+	@Test
+	void ignoresInvalidFiles() throws IOException {
+		Path file = Files.createTempDirectory("hitboxes").resolve("hitboxes.bin");
+		Files.write(file, new byte[]{0x4D, 0x43, 0x4D, 0x48, 0, 2, 0, 0, 0, 9});//claims 9 entries, has none
+		HitboxCache cache = new HitboxCache(file);
+		assertNull(cache.get(HitboxCache.hash(new byte[0]), 0, 0));
+		cache.put(HitboxCache.hash(new byte[0]), 0, 0, new ImageHitbox(createRandom(new Random(1), 4, 4)));
+		cache.save();
+		assertTrue(Files.size(file) > 10);
+		assertNotNull(new HitboxCache(file).get(HitboxCache.hash(new byte[0]), 0, 0));
+	}
+}
@@ -0,0 +1,110 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.hitbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.PathIterator;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutlineTracerTest {
+	private static BitmaskHitbox createSprite(int size) {
+		BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(Color.BLACK);
+		graphics.fill(new Ellipse2D.Double(size * 0.1, size * 0.05, size * 0.8, size * 0.9));
+		graphics.fillRect(0, size * 3 / 4, size, size / 8);
+		graphics.setComposite(AlphaComposite.Clear);
+		graphics.fill(new Ellipse2D.Double(size * 0.35, size * 0.3, size * 0.3, size * 0.2));//hole
+		graphics.dispose();
+		return BitmaskHitbox.fromImage(image, rgb -> (rgb >>> 24) != 0);
+	}
+	
+	private static int countMismatches(BitmaskHitbox mask, Area area) {
+		int mismatches = 0;
+		for(int y = -1; y <= mask.getHeight(); y++) {
+			for(int x = -1; x <= mask.getWidth(); x++) {
+				if(mask.contains(x, y) != area.contains(x + 0.5, y + 0.5)) {
+					mismatches++;
+				}
+			}
+		}
+		return mismatches;
+	}
+	
+	private static int countVertices(Area area) {
+		int vertices = 0;
+		for(PathIterator iterator = area.getPathIterator(null); !iterator.isDone(); iterator.next()) {
+			if(iterator.currentSegment(new double[6]) != PathIterator.SEG_CLOSE) {
+				vertices++;
+			}
+		}
+		return vertices;
+	}
+	
+	@Test
+	void tracesExactOutlines() {
+		Random random = new Random(11);
+		for(int i = 0; i < 50; i++) {
+			int width = 1 + random.nextInt(40), height = 1 + random.nextInt(40);
+			long[] bits = new long[((width + 63) >> 6) * height];
+			for(int y = 0; y < height; y++) {
+				for(int x = 0; x < width; x++) {
+					if(random.nextInt(3) > 0) {//holes and diagonally touching pixels are common
+						bits[y * ((width + 63) >> 6) + (x >> 6)] |= 1L << x;
+					}
+				}
+			}
+			BitmaskHitbox mask = new BitmaskHitbox(width, height, bits);
+			assertEquals(0, countMismatches(mask, OutlineTracer.createOutline(mask, 0)), "Mismatched pixels in " + width + "x" + height + " mask");
+		}
+	}
+	
+	@Test
+	void keepsThinShapes() {
+		BitmaskHitbox line = BitmaskHitbox.fromImage(new BufferedImage(100, 1, BufferedImage.TYPE_INT_ARGB), rgb -> true);
+		assertEquals(0, countMismatches(line, OutlineTracer.createOutline(line, 2)));
+		assertEquals(4, OutlineTracer.trace(line).get(0).length / 2);
+	}
+	
+	@Test
+	void simplifiesSprites() {
+		BitmaskHitbox mask = createSprite(256);
+		int exact = 0;
+		for(int[] contour : OutlineTracer.trace(mask)) {
+			exact += contour.length / 2;
+		}
+		Area area = OutlineTracer.createOutline(mask, ImageHitbox.DEFAULT_TOLERANCE);
+		int vertices = countVertices(area);
+		int mismatches = countMismatches(mask, area);
+		int solid = 0;
+		for(int y = 0; y < mask.getHeight(); y++) {
+			for(int x = 0; x < mask.getWidth(); x++) {
+				solid += mask.contains(x, y) ? 1 : 0;
+			}
+		}
+		double error = mismatches / (double) solid;
+		System.out.printf("256x256 sprite: %d exact vertices, %d simplified vertices, %d mismatched pixels (%.3f%%)%n", exact, vertices, mismatches, error * 100);
+		assertTrue(vertices < 150, "Too many vertices: " + vertices);
+		assertTrue(error < 0.01, "Too many mismatched pixels: " + mismatches);
+		assertTrue(OutlineTracer.createOutline(mask, 0).contains(128.5, 40.5));
+		assertFalse(area.contains(128.5, 100.5), "The hole is missing");
+	}
+}
@@ -0,0 +1,86 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.hitbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RectangleHitboxTest {
+	private static BitmaskHitbox createEllipse(int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(Color.BLACK);
+		graphics.fill(new Ellipse2D.Double(0, 0, width, height));
+		graphics.dispose();
+		return BitmaskHitbox.fromImage(image, rgb -> (rgb >>> 24) != 0);
+	}
+	
+	private static BitmaskHitbox createPlatform() {
+		//a platform with a raised step on the left and a gap in the middle
+		BufferedImage image = new BufferedImage(300, 40, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(Color.BLACK);
+		graphics.fillRect(0, 10, 140, 30);
+		graphics.fillRect(160, 10, 140, 30);
+		graphics.fillRect(0, 0, 50, 10);
+		graphics.dispose();
+		return BitmaskHitbox.fromImage(image, rgb -> (rgb >>> 24) != 0);
+	}
+	
+	@Test
+	void coversSamePixels() {
+		BitmaskHitbox[] masks = {createEllipse(97, 61), createPlatform(), new BitmaskHitbox(10, 10, new long[10])};
+		for(BitmaskHitbox mask : masks) {
+			RectangleHitbox rectangles = RectangleHitbox.fromMask(mask);
+			for(int y = -1; y <= mask.getHeight(); y++) {
+				for(int x = -1; x <= mask.getWidth(); x++) {
+					assertEquals(mask.contains(x, y), rectangles.contains(x, y), x + ", " + y);
+				}
+			}
+			assertEquals(mask.getBounds(), rectangles.getBounds());
+		}
+	}
+	
+	@Test
+	void mergesRows() {
+		RectangleHitbox platform = RectangleHitbox.fromMask(createPlatform());
+		assertEquals(3, platform.getRectangleCount());
+		assertTrue(platform.contains(49, 0));
+		assertFalse(platform.contains(50, 0));
+		assertFalse(platform.contains(150, 20));
+	}
+	
+	@Test
+	void matchesBitmaskIntersection() {
+		Random random = new Random(5);
+		BitmaskHitbox platform = createPlatform();
+		RectangleHitbox platformRectangles = RectangleHitbox.fromMask(platform);
+		for(int i = 0; i < 500; i++) {
+			BitmaskHitbox other = createEllipse(5 + random.nextInt(120), 5 + random.nextInt(120));
+			RectangleHitbox otherRectangles = RectangleHitbox.fromMask(other);
+			int x = random.nextInt(400) - 100, y = random.nextInt(160) - 80;
+			boolean expected = platform.intersects(0, 0, other, x, y, null);
+			assertEquals(expected, platformRectangles.intersects(0, 0, other, x, y));
+			assertEquals(expected, platformRectangles.intersects(0, 0, otherRectangles, x, y));
+			assertEquals(expected, otherRectangles.intersects(x, y, platform, 0, 0));
+			int width = 1 + random.nextInt(30), height = 1 + random.nextInt(30);
+			assertEquals(platformRectangles.intersects(0, 0, x, y, x + width, y + height), platform.intersects(0, 0, x, y, x + width, y + height));
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.input;
+
+import dartproductions.mcleodmassacre.input.InputManager.ActionType;
+import dartproductions.mcleodmassacre.input.InputManager.InputAction;
+import net.java.games.input.Event;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputReplayTest {
+	private static InputAction<Event> action(ActionType type, float value, int playerId, int x, int y) {
+		return new InputAction<>(type, Instant.now(), new Point(x, y), value, playerId, new Event());
+	}
+	
+	@Test
+	void testRoundTrip() throws IOException {
+		Random random = new Random(12);
+		ArrayList<List<InputAction<Event>>> frames = new ArrayList<>();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(InputRecorder recorder = new InputRecorder(bytes)) {
+			for(int frame = 0; frame < 2000; frame++) {
+				ArrayList<InputAction<Event>> actions = new ArrayList<>();
+				if(random.nextInt(4) == 0) {
+					for(int i = random.nextInt(3) + 1; i > 0; i--) {
+						actions.add(action(ActionType.values[random.nextInt(ActionType.values.length)], random.nextFloat(), random.nextInt(4), random.nextInt(4000) - 2000, random.nextInt(4000) - 2000));
+					}
+				}
+				frames.add(actions);
+				recorder.record(frame, actions);
+			}
+		}
+		try(InputReplay replay = new InputReplay(new ByteArrayInputStream(bytes.toByteArray()))) {
+			for(int frame = 0; frame < frames.size(); frame++) {
+				List<InputAction<Event>> expected = frames.get(frame);
+				List<InputAction<Event>> actual = replay.getActions(frame);
+				assertEquals(expected.size(), actual.size(), "Action count of frame " + frame);
+				for(int i = 0; i < expected.size(); i++) {
+					assertEquals(expected.get(i).getActionType(), actual.get(i).getActionType());
+					assertEquals(expected.get(i).getValue(), actual.get(i).getValue());
+					assertEquals(expected.get(i).getPlayerId(), actual.get(i).getPlayerId());
+					assertEquals(expected.get(i).getLocation(), actual.get(i).getLocation());
+				}
+			}
+			assertTrue(replay.isFinished());
+		}
+	}
+	
+	@Test
+	void testSkippedFrames() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(InputRecorder recorder = new InputRecorder(bytes)) {
+			recorder.record(5, List.of(action(ActionType.JUMP_LEFT, 1, 0, 0, 0)));
+			recorder.record(300, List.of(action(ActionType.ATTACK, 1, 1, 0, 0)));
+			assertThrows(IllegalArgumentException.class, () -> recorder.record(299, List.of(action(ActionType.ATTACK, 1, 1, 0, 0))));
+		}
+		try(InputReplay replay = new InputReplay(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertTrue(replay.getActions(4).isEmpty());
+			assertEquals(ActionType.JUMP_LEFT, replay.getActions(100).get(0).getActionType());
+			assertFalse(replay.isFinished());
+			assertEquals(ActionType.ATTACK, replay.getActions(1000).get(0).getActionType());
+			assertTrue(replay.isFinished());
+		}
+	}
+	
+	@Test
+	void testUnclosedRecording() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		InputRecorder recorder = new InputRecorder(bytes);//never closed, like the recording of a crashed game
+		recorder.record(3, List.of(action(ActionType.SHIELD, 1, 0, 0, 0)));
+		recorder.record(7, List.of(action(ActionType.TAUNT, 1, 1, 0, 0)));
+		try(InputReplay replay = new InputReplay(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertEquals(ActionType.SHIELD, replay.getActions(3).get(0).getActionType());
+			assertEquals(ActionType.TAUNT, replay.getActions(7).get(0).getActionType());
+			assertTrue(replay.isFinished());
+		}
+	}
+	
+	@Test
+	void testInvalidHeader() {
+		assertThrows(IOException.class, () -> new InputReplay(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 0, 1})));
+		assertThrows(IOException.class, () -> new InputReplay(new ByteArrayInputStream(new byte[]{0x4D, 0x43})));
+	}
+}
@@ -0,0 +1,41 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputChannelTest {
+	@Test
+	void dropsInputsFromOtherAddresses() throws IOException {
+		InetSocketAddress loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+		try(InputChannel host = new InputChannel(loopback); InputChannel player = new InputChannel(loopback); InputChannel attacker = new InputChannel(loopback)) {
+			InetSocketAddress[] peers = {null, player.getLocalAddress()};
+			attacker.send(host.getLocalAddress(), 1, 0, 0, new long[]{66}, 1);//claims to be player 1
+			attacker.send(host.getLocalAddress(), 5, 0, 0, new long[]{66}, 1);//no such player
+			player.send(host.getLocalAddress(), 1, 0, 0, new long[]{7}, 1);
+			List<Long> received = new ArrayList<>();
+			long deadline = System.nanoTime() + 5_000_000_000L;
+			while(received.isEmpty()) {
+				host.receive(peers, (id, ack, firstFrame, inputs, count) -> received.add(inputs[0]));
+				assertTrue(System.nanoTime() < deadline, "Input did not arrive in time");
+			}
+			assertEquals(List.of(7L), received);
+		}
+	}
+}
@@ -0,0 +1,322 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.network;
+
+import dartproductions.mcleodmassacre.engine.World;
+import dartproductions.mcleodmassacre.engine.task.TaskScheduler;
+import dartproductions.mcleodmassacre.entity.Entity;
+import dartproductions.mcleodmassacre.entity.PlayerEntity;
+import dartproductions.mcleodmassacre.entity.TestEntity;
+import dartproductions.mcleodmassacre.entity.TestPlayer;
+import dartproductions.mcleodmassacre.input.InputManager.ActionType;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollbackSessionTest {
+	private static final int FRAMES = 300;
+	private static final int MAX_ROLLBACK = 8;
+	private static final int INPUT_DELAY = 2;
+	
+	private static final ActionType[] ACTIONS = {ActionType.MOVE_LEFT, ActionType.MOVE_RIGHT, ActionType.MOVE_UP, ActionType.MOVE_DOWN, ActionType.ATTACK, ActionType.SHIELD, ActionType.SPECIAL};
+	
+	private static long input(int player, long frame) {
+		return (frame / (5 + player * 3) + player) & 7;//changes often, so predictions fail
+	}
+	
+	private static long actions(int player, long frame) {
+		long hash = (frame / 3 * 31 + player + 7) * 0x9E3779B97F4A7C15L;//held for 3 frames, so some predictions succeed
+		return (hash >>> 60) < 5 ? 0 : 1L << ACTIONS[(int) ((hash >>> 32) % ACTIONS.length)].ordinal();
+	}
+	
+	private static long delayed(int player, long frame) {
+		return frame < INPUT_DELAY ? 0 : actions(player, frame - INPUT_DELAY);
+	}
+	
+	private static World createWorld() {
+		World world = new World("test");
+		world.registerEntity(new TestPlayer(new Point(0, 0)));
+		world.registerEntity(new TestPlayer(new Point(60, 0)));
+		return world;
+	}
+	
+	private static long checksum(World world) {
+		long hash = world.getFrame();
+		for(Entity e : world.getEntities()) {//in iteration order
+			hash = hash * 31 + e.getLocation().x;
+			hash = hash * 31 + e.getLocation().y;
+			hash = hash * 31 + e.getVelocity().width;
+			hash = hash * 31 + e.getVelocity().height;
+			if(e instanceof PlayerEntity player) {
+				hash = hash * 31 + player.getHealth();
+				hash = hash * 31 + player.getStates().size();
+			}
+		}
+		return hash;
+	}
+	
+	@Test
+	void peersConvergeOverLocalhost() throws IOException {
+		Game reference = new Game();
+		for(long frame = 0; frame < FRAMES; frame++) {
+			reference.advance(frame, new long[]{frame < 2 ? 0 : input(0, frame - 2), frame < 2 ? 0 : input(1, frame - 2)});
+		}
+		
+		Game gameA = new Game(), gameB = new Game();
+		InetSocketAddress loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+		try(InputChannel channelA = new InputChannel(loopback); InputChannel channelB = new InputChannel(loopback)) {
+			RollbackSession a = new RollbackSession(gameA, channelA, 0, new InetSocketAddress[]{null, channelB.getLocalAddress()}, 2, MAX_ROLLBACK);
+			RollbackSession b = new RollbackSession(gameB, channelB, 1, new InetSocketAddress[]{channelA.getLocalAddress(), null}, 2, MAX_ROLLBACK);
+			long deadline = System.nanoTime() + 10_000_000_000L;
+			while(a.getFrame() < FRAMES || b.getFrame() < FRAMES) {
+				if(a.getFrame() < FRAMES) {
+					a.tick(input(0, a.getFrame()));
+				}
+				for(int i = 0; i < 3 && b.getFrame() < FRAMES; i++) {//b runs ahead, predicting a's inputs
+					b.tick(input(1, b.getFrame()));
+				}
+				assertTrue(System.nanoTime() < deadline, "Sessions did not finish in time");
+			}
+			while(a.getConfirmedFrame() < FRAMES - 1 || b.getConfirmedFrame() < FRAMES - 1) {
+				a.synchronize();
+				b.synchronize();
+				assertTrue(System.nanoTime() < deadline, "Sessions did not synchronize in time");
+			}
+			assertTrue(b.getRollbacks() > 0);
+			assertTrue(b.getStalls() > 0);
+			assertTrue(b.getResimulatedFrames() <= b.getRollbacks() * MAX_ROLLBACK);
+		}
+		assertEquals(reference.checksum(), gameA.checksum());
+		assertEquals(reference.checksum(), gameB.checksum());
+	}
+	
+	@Test
+	void worldsConvergeOverLocalhost() throws IOException {
+		long[] reference = new long[FRAMES];
+		World referenceWorld = createWorld();
+		for(long frame = 0; frame < FRAMES; frame++) {
+			referenceWorld.advance(frame, new long[]{delayed(0, frame), delayed(1, frame)});
+			reference[(int) frame] = checksum(referenceWorld);
+		}
+		
+		ChecksummedWorld worldA = new ChecksummedWorld(createWorld()), worldB = new ChecksummedWorld(createWorld());
+		InetSocketAddress loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+		try(InputChannel channelA = new InputChannel(loopback); InputChannel channelB = new InputChannel(loopback); LossyLink link = new LossyLink(channelA.getLocalAddress(), channelB.getLocalAddress())) {
+			RollbackSession a = new RollbackSession(worldA, channelA, 0, new InetSocketAddress[]{null, link.getAddressOfB()}, INPUT_DELAY, MAX_ROLLBACK);
+			RollbackSession b = new RollbackSession(worldB, channelB, 1, new InetSocketAddress[]{link.getAddressOfA(), null}, INPUT_DELAY, MAX_ROLLBACK);
+			Random speeds = new Random(3);
+			long deadline = System.nanoTime() + 10_000_000_000L;
+			while(a.getFrame() < FRAMES || b.getFrame() < FRAMES) {
+				for(int i = speeds.nextInt(3); i > 0 && a.getFrame() < FRAMES; i--) {//both sides run ahead at times, predicting the other's inputs
+					a.tick(actions(0, a.getFrame()));
+				}
+				for(int i = speeds.nextInt(3); i > 0 && b.getFrame() < FRAMES; i--) {
+					b.tick(actions(1, b.getFrame()));
+				}
+				link.relay();
+				assertTrue(System.nanoTime() < deadline, "Sessions did not finish in time");
+			}
+			while(a.getConfirmedFrame() < FRAMES - 1 || b.getConfirmedFrame() < FRAMES - 1) {
+				a.synchronize();
+				b.synchronize();
+				link.relay();
+				assertTrue(System.nanoTime() < deadline, "Sessions did not synchronize in time");
+			}
+			assertTrue(a.getRollbacks() > 0);
+			assertTrue(b.getRollbacks() > 0);
+			assertTrue(link.getReordered() > 0);
+		}
+		for(int frame = 0; frame < FRAMES; frame++) {//every frame is confirmed by both sides now
+			assertEquals(reference[frame], worldA.checksums[frame], "Frame " + frame + " of a");
+			assertEquals(reference[frame], worldB.checksums[frame], "Frame " + frame + " of b");
+		}
+		assertEquals(referenceWorld.getEntityCount(), worldA.world.getEntityCount());
+		assertEquals(referenceWorld.getEntityCount(), worldB.world.getEntityCount());
+	}
+	
+	@Test
+	void restoresSnapshots() {
+		Game game = new Game();
+		game.saveState(0);
+		long initial = game.checksum();
+		for(long frame = 0; frame < 20; frame++) {
+			game.advance(frame, new long[]{7, 5});
+		}
+		game.loadState(0);
+		assertEquals(initial, game.checksum());
+		assertTrue(game.snapshots.contains(0));
+		assertFalse(game.snapshots.contains(1));
+	}
+	
+	/**
+	 * A world that records its checksum after every simulated frame. The checksum of a frame is final once the frame is confirmed.
+	 */
+	private static final class ChecksummedWorld implements Simulation {
+		private final long[] checksums = new long[FRAMES];
+		private final World world;
+		
+		private ChecksummedWorld(World world) {
+			this.world = world;
+		}
+		
+		@Override
+		public void advance(long frame, @NotNull long[] inputs) {
+			world.advance(frame, inputs);
+			checksums[(int) frame] = checksum(world);
+		}
+		
+		@Override
+		public void loadState(long frame) {
+			world.loadState(frame);
+		}
+		
+		@Override
+		public void saveState(long frame) {
+			world.saveState(frame);
+		}
+	}
+	
+	/**
+	 * Relays the packets of two peers through two sockets, delaying, reordering and dropping some of them. Each peer sees the other one at the address of a relay socket.
+	 */
+	private static final class LossyLink implements Closeable {
+		private final InetSocketAddress a, b;
+		private final DatagramChannel forA, forB;
+		private final ArrayList<ByteBuffer> toA = new ArrayList<>(), toB = new ArrayList<>();
+		private final Random random = new Random(11);
+		private int reordered = 0;
+		
+		private LossyLink(InetSocketAddress a, InetSocketAddress b) throws IOException {
+			this.a = a;
+			this.b = b;
+			forA = DatagramChannel.open();
+			forB = DatagramChannel.open();
+			for(DatagramChannel channel : new DatagramChannel[]{forA, forB}) {
+				channel.configureBlocking(false);
+				channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+			}
+		}
+		
+		@Override
+		public void close() throws IOException {
+			forA.close();
+			forB.close();
+		}
+		
+		/**
+		 * Gets the address a sees b at.
+		 */
+		InetSocketAddress getAddressOfB() throws IOException {
+			return (InetSocketAddress) forA.getLocalAddress();
+		}
+		
+		/**
+		 * Gets the address b sees a at.
+		 */
+		InetSocketAddress getAddressOfA() throws IOException {
+			return (InetSocketAddress) forB.getLocalAddress();
+		}
+		
+		int getReordered() {
+			return reordered;
+		}
+		
+		void relay() throws IOException {
+			receive(forA, toB);
+			receive(forB, toA);
+			deliver(toB, forB, b);
+			deliver(toA, forA, a);
+		}
+		
+		private void receive(DatagramChannel channel, List<ByteBuffer> queue) throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate(InputChannel.HEADER_SIZE + InputChannel.MAX_INPUTS * 8);
+			while(channel.receive(buffer) != null) {
+				buffer.flip();
+				if(random.nextInt(10) != 0) {//drops every 10th packet
+					queue.add(ByteBuffer.allocate(buffer.remaining()).put(buffer).flip());
+				}
+				buffer.clear();
+			}
+		}
+		
+		private void deliver(List<ByteBuffer> queue, DatagramChannel channel, InetSocketAddress target) throws IOException {
+			for(int i = 0; i < queue.size(); ) {
+				if(random.nextInt(3) == 0) {//the rest is delayed, so packets overtake each other
+					reordered += i;
+					channel.send(queue.remove(i), target);
+				} else {
+					i++;
+				}
+			}
+		}
+	}
+	
+	private static final class Game implements Simulation {
+		private final List<TestEntity> bodies = new ArrayList<>(List.of(new TestEntity(new Point(0, 0)), new TestEntity(new Point(100, 0)), new TestEntity(new Point(200, 0))));
+		private final SnapshotBuffer snapshots = new SnapshotBuffer(MAX_ROLLBACK + 1);
+		private final TaskScheduler tasks = new TaskScheduler(-1);
+		
+		@Override
+		public void advance(long frame, @NotNull long[] inputs) {
+			tasks.runDueTasks(frame);
+			for(int player = 0; player < inputs.length; player++) {
+				TestEntity body = bodies.get(player);
+				if((inputs[player] & 1) != 0) {
+					body.getVelocity().width++;
+				}
+				if((inputs[player] & 2) != 0) {
+					body.getVelocity().width--;
+				}
+				if((inputs[player] & 4) != 0) {
+					TestEntity other = bodies.get(2);
+					tasks.schedule(3, () -> other.getVelocity().height += body.getLocation().x % 3 - 1);
+				}
+			}
+			for(TestEntity body : bodies) {
+				body.getLocation().translate(body.getVelocity().width, body.getVelocity().height);
+			}
+		}
+		
+		long checksum() {
+			long hash = 17;
+			for(TestEntity body : bodies) {
+				hash = hash * 31 + body.getLocation().x;
+				hash = hash * 31 + body.getLocation().y;
+				hash = hash * 31 + body.getVelocity().width;
+				hash = hash * 31 + body.getVelocity().height;
+			}
+			return hash;
+		}
+		
+		@Override
+		public void loadState(long frame) {
+			snapshots.restore(frame);
+		}
+		
+		@Override
+		public void saveState(long frame) {
+			snapshots.save(frame, bodies, tasks);
+		}
+	}
+}
@@ -0,0 +1,48 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+
+package dartproductions.mcleodmassacre.profiling;
+
+import dartproductions.mcleodmassacre.resources.cache.StandardCache;
+import dartproductions.mcleodmassacre.resources.id.Identifier;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProfilingManagerTest {
+	@Test
+	void recordsResourceLoads() throws Exception {
+		Path destination = Files.createTempFile("mcm", ".jfr");
+		try {
+			ProfilingManager.start(destination);
+			assertTrue(ProfilingManager.isRecording());
+			StandardCache<String> cache = new StandardCache<>(Identifier.fromString("test", "cache"));
+			cache.register(Identifier.fromString("test", "resource"), () -> "value");
+			cache.load(Identifier.fromString("test", "resource"));
+			ProfilingManager.stop();
+			assertFalse(ProfilingManager.isRecording());
+			List<RecordedEvent> events = RecordingFile.readAllEvents(destination).stream().filter(e -> e.getEventType().getName().equals("dartproductions.mcleodmassacre.ResourceLoad")).toList();
+			assertEquals(1, events.size());
+			assertEquals(Identifier.fromString("test", "resource").toString(), events.get(0).getString("resource"));
+			assertTrue(events.get(0).getBoolean("success"));
+		} finally {
+			ProfilingManager.stop();
+			Files.deleteIfExists(destination);
+		}
+	}
+}
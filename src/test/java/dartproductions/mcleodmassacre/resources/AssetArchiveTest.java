@@ -0,0 +1,123 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources;
+
+import dartproductions.mcleodmassacre.hitbox.HitboxCache;
+import dartproductions.mcleodmassacre.resources.id.Identifier;
+import dartproductions.mcleodmassacre.resources.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AssetArchiveTest {
+	private static Plugin createPlugin() throws IOException {
+		Path directory = Files.createTempDirectory("plugin");
+		Files.writeString(directory.resolve("PLUGIN"), "{\"name\": \"test\", \"version\": \"1\"}");
+		BufferedImage image = new BufferedImage(3, 2, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(1, 1, 0xFF112233);
+		Files.createDirectories(directory.resolve("graphics"));
+		ImageIO.write(image, "png", directory.resolve("graphics/sprite.png").toFile());
+		Files.writeString(directory.resolve("graphics/sprite.tags"), "tags/graphics\n\ntags/hitboxed\n");
+		Files.write(directory.resolve("sound.wav"), new byte[]{1, 2, 3, 4, 5});
+		Files.writeString(directory.resolve("sound.tags"), "tags/audio\nid::sfx:renamed\n");
+		Files.writeString(directory.resolve("moved.tags"), "location::graphics/sprite.png\n");
+		Files.writeString(directory.resolve("missing.tags"), "tags/audio\n");
+		return new Plugin(directory.toFile());
+	}
+	
+	private static HashMap<Identifier, AssetArchive.Entry> getEntries(AssetArchive archive) {
+		HashMap<Identifier, AssetArchive.Entry> entries = new HashMap<>();
+		for(AssetArchive.Entry entry : archive.getEntries()) {
+			entries.put(entry.getId(), entry);
+		}
+		return entries;
+	}
+	
+	@Test
+	void buildsArchiveFromDirectory() throws IOException {
+		Plugin plugin = createPlugin();
+		File directory = plugin.getBaseDirectory();
+		AssetArchive archive = AssetArchive.open(plugin);
+		assertNotNull(archive);
+		assertEquals(directory.toPath().resolve(AssetArchive.FILE_NAME), archive.getFile());
+		HashMap<Identifier, AssetArchive.Entry> entries = getEntries(archive);
+		assertEquals(4, entries.size());
+		
+		AssetArchive.Entry sprite = entries.get(Identifier.fromString("test", "sprite"));
+		byte[] png = Files.readAllBytes(new File(directory, "graphics/sprite.png").toPath());
+		assertEquals(Set.of(Identifier.fromString("tags/graphics"), Identifier.fromString("tags/hitboxed")), sprite.getTags());
+		assertEquals(new File(directory, "graphics/sprite.png"), sprite.getLocation());
+		assertArrayEquals(png, sprite.getBytes());
+		assertArrayEquals(HitboxCache.hash(png), sprite.getHash());
+		assertEquals(1, sprite.countFrames(16666667));
+		BufferedImage image = sprite.readImage();
+		assertEquals(3, image.getWidth());
+		assertEquals(0xFF112233, image.getRGB(1, 1));
+		assertEquals(0, image.getRGB(0, 0));
+		
+		AssetArchive.Entry sound = entries.get(Identifier.fromString("sfx", "renamed"));
+		assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, sound.getBytes());
+		assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, sound.openStream().readAllBytes());
+		assertArrayEquals(png, entries.get(Identifier.fromString("test", "moved")).getBytes());
+		
+		AssetArchive.Entry missing = entries.get(Identifier.fromString("test", "missing"));
+		assertNull(missing.getLocation());
+		assertEquals(0, missing.getSize());
+	}
+	
+	@Test
+	void rebuildsOutdatedArchive() throws IOException, InterruptedException {
+		Plugin plugin = createPlugin();
+		Path directory = plugin.getBaseDirectory().toPath();
+		Path file = directory.resolve(AssetArchive.FILE_NAME);
+		assertNotNull(AssetArchive.open(plugin));
+		FileTime built = FileTime.fromMillis(1000);
+		Files.setLastModifiedTime(file, built);
+		assertNotNull(AssetArchive.open(plugin));
+		assertEquals(built, Files.getLastModifiedTime(file));//unchanged files: the archive is reused
+		
+		Thread.sleep(50);//file system timestamps can be coarser than a millisecond
+		Files.write(directory.resolve("sound.wav"), new byte[]{9, 8, 7});
+		AssetArchive archive = AssetArchive.open(plugin);
+		assertNotNull(archive);
+		assertArrayEquals(new byte[]{9, 8, 7}, getEntries(archive).get(Identifier.fromString("sfx", "renamed")).getBytes());
+		assertNotNull(AssetArchive.open(file, directory.toFile()));//rebuilding doesn't make the archive outdated
+		
+		Thread.sleep(50);
+		Files.writeString(directory.resolve("graphics/extra.tags"), "location::sound.wav\n");//new file in a subdirectory
+		archive = AssetArchive.open(plugin);
+		assertNotNull(archive);
+		assertEquals(5, archive.getEntries().size());
+		
+		Thread.sleep(50);
+		Files.delete(directory.resolve("missing.tags"));
+		archive = AssetArchive.open(plugin);
+		assertNotNull(archive);
+		assertEquals(4, archive.getEntries().size());
+		
+		Files.write(file, new byte[]{1, 2, 3});//corrupted archive
+		archive = AssetArchive.open(plugin);
+		assertNotNull(archive);
+		assertEquals(4, archive.getEntries().size());
+	}
+}
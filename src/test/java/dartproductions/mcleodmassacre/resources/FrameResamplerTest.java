@@ -0,0 +1,51 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameResamplerTest {
+	private static final long MS = 1000000L;
+	
+	@Test
+	void keepsTheLegacyFramesAt30Milliseconds() {
+		int[] delays = {60, 100, 40};//2 frames, then 3 (10 ms left), then 1 (20 ms left, more than half a frame)
+		assertEquals("[0, 0, 1, 1, 1, 2, 2]", Arrays.toString(FrameResampler.resample(delays, 30 * MS)));
+		assertEquals(7, FrameResampler.count(delays, 30 * MS));
+	}
+	
+	@Test
+	void scalesWithTheTickRate() {
+		int[] delays = {100, 100, 100, 100};
+		for(int rate : new int[]{20, 30, 60, 120}) {
+			long frameLength = Math.round(1e9 / rate);
+			int[] frames = FrameResampler.resample(delays, frameLength);
+			assertEquals(Math.round(0.4 * rate), frames.length, "Frame count at " + rate + " Hz");
+			for(int i = 0; i < frames.length; i++) {
+				long end = (i + 1) * frameLength;
+				int expected = (int) Math.min(3, end / (100 * MS));
+				assertTrue(Math.abs(frames[i] - expected) <= 1, "Frame " + i + " at " + rate + " Hz shows " + frames[i]);
+				assertTrue(i == 0 || frames[i] >= frames[i - 1], "Frames go backwards at " + rate + " Hz");
+			}
+		}
+	}
+	
+	@Test
+	void alwaysHasAFrame() {
+		assertEquals("[1]", Arrays.toString(FrameResampler.resample(new int[]{0, 0}, 30 * MS)));//the last frame, like a trailing partial frame
+		assertEquals("[0]", Arrays.toString(FrameResampler.resample(new int[]{10}, 30 * MS)));
+		assertEquals(1, FrameResampler.count(new int[]{10}, 30 * MS));
+	}
+}
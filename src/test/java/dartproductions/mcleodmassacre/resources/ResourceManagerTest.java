@@ -0,0 +1,92 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources;
+
+import dartproductions.mcleodmassacre.hitbox.BitmaskHitbox;
+import dartproductions.mcleodmassacre.hitbox.HitboxCache;
+import dartproductions.mcleodmassacre.hitbox.ImageHitbox;
+import dartproductions.mcleodmassacre.hitbox.RectangleHitbox;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResourceManagerTest {
+	private static BufferedImage[] createFrames(int count) {
+		Random random = new Random(count);
+		BufferedImage[] frames = new BufferedImage[count];
+		for(int i = 0; i < count; i++) {
+			frames[i] = new BufferedImage(24, 16, BufferedImage.TYPE_INT_ARGB);
+			for(int y = 0; y < 16; y++) {
+				for(int x = 0; x < 24; x++) {
+					frames[i].setRGB(x, y, random.nextInt(3) == 0 ? 0 : 0xFF000000);
+				}
+			}
+		}
+		return frames;
+	}
+	
+	private static Callable<BufferedImage[]> countDecodes(BufferedImage[] frames, AtomicInteger decodes) {
+		return () -> {
+			decodes.incrementAndGet();
+			return frames;
+		};
+	}
+	
+	@Test
+	void decodesOnlyChangedImages() throws Exception {
+		Path file = Files.createTempDirectory("hitboxes").resolve("hitboxes.bin");
+		BufferedImage[] frames = createFrames(3);
+		byte[] hash = HitboxCache.hash(new byte[]{1}), changed = HitboxCache.hash(new byte[]{2});
+		AtomicInteger decodes = new AtomicInteger();
+		HitboxCache cache = new HitboxCache(file);
+		ImageHitbox[] created = ResourceManager.createHitboxes(cache, hash, 30000000, 3, countDecodes(frames, decodes));
+		assertEquals(1, decodes.get());
+		cache.save();
+		
+		HitboxCache reopened = new HitboxCache(file);
+		ImageHitbox[] cached = ResourceManager.createHitboxes(reopened, hash, 30000000, 3, countDecodes(frames, decodes));
+		assertEquals(1, decodes.get(), "Unchanged image was decoded");
+		assertEquals(3, cached.length);
+		for(int i = 0; i < 3; i++) {
+			assertEquals(created[i].getOutline().size(), cached[i].getOutline().size());
+			assertEquals(created[i].getRectangles().getRectangleCount(), cached[i].getRectangles().getRectangleCount());
+		}
+		ResourceManager.createHitboxes(reopened, changed, 30000000, 3, countDecodes(frames, decodes));
+		assertEquals(2, decodes.get());
+		ResourceManager.createHitboxes(reopened, hash, 16666667, 3, countDecodes(frames, decodes));//resampled to a different tick rate
+		assertEquals(3, decodes.get());
+	}
+	
+	@Test
+	void doesNotTraceCachedHitboxes() throws Exception {
+		Path file = Files.createTempDirectory("hitboxes").resolve("hitboxes.bin");
+		byte[] hash = HitboxCache.hash(new byte[]{3});
+		BitmaskHitbox mask = BitmaskHitbox.fromImage(createFrames(1)[0], argb -> (argb >>> 24) != 0);
+		List<int[]> outline = List.<int[]>of(new int[]{2, 2, 10, 2, 10, 7, 2, 7});//differs from the traced outline
+		HitboxCache cache = new HitboxCache(file);
+		cache.put(hash, 0, 0, new ImageHitbox(mask, ImageHitbox.DEFAULT_TOLERANCE, outline, RectangleHitbox.fromMask(mask)));
+		cache.save();
+		
+		ImageHitbox[] hitboxes = ResourceManager.createHitboxes(new HitboxCache(file), hash, 0, 1, () -> {
+			throw new AssertionError("Cached image was decoded");
+		});
+		assertEquals(new Rectangle(2, 2, 8, 5), hitboxes[0].getArea().getBounds());//traced again otherwise
+	}
+}
@@ -0,0 +1,67 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources.cache;
+
+import dartproductions.mcleodmassacre.resources.id.Identifier;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheAsyncTest {
+	private static final Identifier RESOURCE = Identifier.fromString("test", "resource");
+	
+	@Test
+	void getAsyncDoesNotBlock() throws Exception {
+		StandardCache<String> cache = new StandardCache<>(Identifier.fromString("test", "cache"));
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		cache.register(RESOURCE, () -> {
+			calls.incrementAndGet();
+			release.await();
+			return "value";
+		});
+		CompletableFuture<String> first = cache.getAsync(RESOURCE);
+		CompletableFuture<String> second = cache.getAsync(RESOURCE);
+		assertFalse(first.isDone());
+		assertNull(cache.getIfPresent(RESOURCE));
+		release.countDown();
+		assertEquals("value", first.get(10, TimeUnit.SECONDS));
+		assertEquals("value", second.get(10, TimeUnit.SECONDS));
+		assertEquals(1, calls.get());
+		assertTrue(cache.getAsync(RESOURCE).isDone());
+		assertEquals("value", cache.getIfPresent(RESOURCE));
+	}
+	
+	@Test
+	void getAsyncCompletesWithNullForUnknownResources() throws Exception {
+		StandardCache<String> cache = new StandardCache<>(Identifier.fromString("test", "cache"));
+		assertNull(cache.getAsync(RESOURCE).get(10, TimeUnit.SECONDS));
+	}
+	
+	@Test
+	void prefetchLoadsInBackground() throws Exception {
+		TinyLfuCache<byte[]> cache = new TinyLfuCache<>(Identifier.fromString("test", "cache"), 1000, Weigher.BYTES);
+		byte[] value = new byte[10];
+		cache.register(RESOURCE, () -> value);
+		cache.prefetch(List.of(RESOURCE, Identifier.fromString("test", "unknown")));
+		assertSame(value, cache.getAsync(RESOURCE).get(10, TimeUnit.SECONDS));
+		assertTrue(cache.isLoaded(RESOURCE));
+	}
+}
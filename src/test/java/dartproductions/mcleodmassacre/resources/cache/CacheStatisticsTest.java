@@ -0,0 +1,73 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources.cache;
+
+import dartproductions.mcleodmassacre.resources.id.Identifier;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheStatisticsTest {
+	private static Identifier id(String name) {
+		return Identifier.fromString("test", name);
+	}
+	
+	@Test
+	void countsHitsMissesAndLoads() {
+		StandardCache<byte[]> cache = new StandardCache<>(id("cache"), Weigher.BYTES);
+		cache.register(id("a"), () -> new byte[100]);
+		cache.register(id("b"), () -> {
+			throw new IllegalStateException("Expected by the test");
+		});
+		cache.get(id("a"));
+		cache.get(id("a"));
+		cache.get(id("b"));
+		CacheStatistics statistics = cache.getStatistics();
+		assertEquals(1, statistics.getHits());
+		assertEquals(2, statistics.getMisses());
+		assertEquals(1, statistics.getLoads());
+		assertEquals(1, statistics.getLoadFailures());
+		assertEquals(2, statistics.getLoadTimes().getCount());
+		assertEquals(100, statistics.getResidentBytes());
+		cache.unload(id("a"));
+		assertEquals(0, statistics.getResidentBytes());
+		statistics.reset();
+		assertEquals(0, statistics.getHits());
+		assertEquals(1, statistics.getHitRatio());
+	}
+	
+	@Test
+	void countsEvictions() {
+		TinyLfuCache<byte[]> cache = new TinyLfuCache<>(id("cache"), 100, Weigher.BYTES);
+		for(int i = 0; i < 10; i++) {
+			cache.register(id("resource" + i), () -> new byte[40]);
+			cache.get(id("resource" + i));
+		}
+		CacheStatistics statistics = cache.getStatistics();
+		assertEquals(10, statistics.getLoads());
+		assertTrue(statistics.getEvictions() >= 8);
+		assertEquals(cache.getWeight(), statistics.getResidentBytes());
+	}
+	
+	@Test
+	void registryCountsEagerLoads() {
+		Registry<byte[]> registry = new Registry<>(id("registry"), Weigher.BYTES);
+		registry.register(id("a"), () -> new byte[10]);
+		registry.register(id("b"), () -> new byte[20]);
+		registry.get(id("a"));
+		registry.get(id("c"));
+		CacheStatistics statistics = registry.getStatistics();
+		assertEquals(2, statistics.getLoads());
+		assertEquals(1, statistics.getHits());
+		assertEquals(1, statistics.getMisses());
+		assertEquals(30, statistics.getResidentBytes());
+	}
+}
@@ -0,0 +1,144 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources.cache;
+
+import dartproductions.mcleodmassacre.resources.id.Identifier;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheStressTest {
+	private static final int THREADS = 8;
+	private static final int RESOURCES = 32;
+	private static final int OPERATIONS = 20000;
+	
+	private static Identifier id(int index) {
+		return Identifier.fromString("test", "resource" + index);
+	}
+	
+	private static Identifier[] register(Cache<byte[]> cache, AtomicIntegerArray running, AtomicIntegerArray calls, AtomicInteger overlaps) {
+		Identifier[] ids = new Identifier[RESOURCES];
+		for(int i = 0; i < RESOURCES; i++) {
+			int index = i;
+			ids[i] = id(i);
+			cache.register(ids[i], () -> {
+				calls.incrementAndGet(index);
+				if(running.incrementAndGet(index) > 1) {//another thread is in the loader of the same resource
+					overlaps.incrementAndGet();
+				}
+				Thread.yield();
+				running.decrementAndGet(index);
+				return new byte[]{(byte) index};
+			});
+		}
+		return ids;
+	}
+	
+	private static void hammer(Cache<byte[]> cache, boolean unload, boolean keep) throws Exception {
+		AtomicIntegerArray running = new AtomicIntegerArray(RESOURCES), calls = new AtomicIntegerArray(RESOURCES);
+		AtomicInteger overlaps = new AtomicInteger();
+		Identifier[] ids = register(cache, running, calls, overlaps);
+		CyclicBarrier start = new CyclicBarrier(THREADS);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			ArrayList<Future<?>> futures = new ArrayList<>();
+			for(int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for(int i = 0; i < OPERATIONS; i++) {
+						int index = random.nextInt(RESOURCES);
+						switch(random.nextInt(unload ? 4 : 3)) {
+							case 0, 1 -> {
+								byte[] value = cache.get(ids[index]);
+								if(value != null) {
+									assertEquals(index, value[0]);
+								}
+								if(keep) {
+									assertNotNull(value);
+								}
+							}
+							case 2 -> {
+								boolean loaded = cache.load(ids[index]);
+								if(keep) {
+									assertTrue(loaded);
+								}
+							}
+							default -> cache.unload(ids[index]);
+						}
+					}
+					return null;
+				}));
+			}
+			for(Future<?> future : futures) {
+				future.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(0, overlaps.get(), "A loader was called concurrently for the same resource");
+		for(int i = 0; i < RESOURCES; i++) {
+			if(keep) {
+				assertEquals(1, calls.get(i), "The loader of resource " + i + " was called more than once");
+			}
+			byte[] value = cache.getFromCache(ids[i]);
+			if(value != null) {
+				assertSame(value, cache.get(ids[i]));
+			}
+		}
+	}
+	
+	@Test
+	void standardCache() throws Exception {
+		hammer(new StandardCache<>(Identifier.fromString("test", "standard")), true, false);
+	}
+	
+	@Test
+	void standardCacheWithoutUnloading() throws Exception {
+		hammer(new StandardCache<>(Identifier.fromString("test", "standard")), false, true);
+	}
+	
+	@Test
+	void greedyCache() throws Exception {
+		hammer(new GreedyCache<>(Identifier.fromString("test", "greedy")), true, true);
+	}
+	
+	@Test
+	void tinyLfuCache() throws Exception {
+		TinyLfuCache<byte[]> cache = new TinyLfuCache<>(Identifier.fromString("test", "tinylfu"), 16, Weigher.BYTES);
+		hammer(cache, true, false);
+		assertTrue(cache.getWeight() <= 16);
+		long weight = 0;
+		for(int i = 0; i < RESOURCES; i++) {
+			if(cache.isLoaded(id(i))) {
+				weight++;
+			}
+		}
+		assertEquals(weight, cache.getWeight());
+	}
+	
+	@Test
+	void registry() throws Exception {
+		hammer(new Registry<>(Identifier.fromString("test", "registry")), true, true);
+	}
+}
@@ -0,0 +1,76 @@
+/*++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+ Copyright (c) 2021 Dart Productions
+ Released under the GNU General Public License version 3
+ 
+ This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License version 3 as published by the Free Software Foundation.
+ 
+ McLeod Massacre is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ +++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++*/
+
+package dartproductions.mcleodmassacre.resources.cache;
+
+import dartproductions.mcleodmassacre.resources.id.Identifier;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TinyLfuCacheTest {
+	private static Identifier id(int index) {
+		return Identifier.fromString("test", "resource" + index);
+	}
+	
+	private static TinyLfuCache<byte[]> createCache(long budget, int resources, int size) {
+		TinyLfuCache<byte[]> cache = new TinyLfuCache<>(Identifier.fromString("test", "cache"), budget, Weigher.BYTES);
+		for(int i = 0; i < resources; i++) {
+			cache.register(id(i), () -> new byte[size]);
+		}
+		return cache;
+	}
+	
+	@Test
+	void staysWithinBudget() {
+		TinyLfuCache<byte[]> cache = createCache(1000, 50, 100);
+		for(int i = 0; i < 50; i++) {
+			assertNotNull(cache.get(id(i)));
+			assertTrue(cache.getWeight() <= 1000);
+		}
+		long weight = 0;
+		for(int i = 0; i < 50; i++) {
+			if(cache.isLoaded(id(i))) {
+				weight += 100;
+			}
+		}
+		assertEquals(cache.getWeight(), weight);
+		assertTrue(weight >= 900);
+		cache.unloadAll();
+		assertEquals(0, cache.getWeight());
+	}
+	
+	@Test
+	void keepsFrequentResources() {
+		TinyLfuCache<byte[]> cache = createCache(1000, 500, 100);
+		for(int round = 0; round < 10; round++) {
+			for(int i = 0; i < 5; i++) {
+				cache.get(id(i));
+			}
+		}
+		for(int i = 5; i < 500; i++) {//a scan over resources used only once
+			cache.get(id(i));
+		}
+		for(int i = 0; i < 5; i++) {
+			assertTrue(cache.isLoaded(id(i)), "Resource " + i + " was evicted");
+		}
+	}
+	
+	@Test
+	void doesNotKeepOversizedResources() {
+		TinyLfuCache<byte[]> cache = createCache(1000, 1, 2000);
+		assertNotNull(cache.get(id(0)));
+		assertFalse(cache.isLoaded(id(0)));
+		assertFalse(cache.load(id(0)));
+		assertEquals(0, cache.getWeight());
+	}
+}